@@ -1,27 +1,44 @@
 package org.ihtsdo.sct.drugmatch;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.axis2.AxisFault;
 import org.ihtsdo.sct.drugmatch.check.Check;
 import org.ihtsdo.sct.drugmatch.constant.ReturnCode;
 import org.ihtsdo.sct.drugmatch.create.Create;
+import org.ihtsdo.sct.drugmatch.create.CreateJournal;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
+import org.ihtsdo.sct.drugmatch.id.service.IdService;
+import org.ihtsdo.sct.drugmatch.id.service.cache.CachingIdService;
+import org.ihtsdo.sct.drugmatch.id.service.cache.IdentifierStore;
 import org.ihtsdo.sct.drugmatch.id.service.impl.IdServiceImpl;
 import org.ihtsdo.sct.drugmatch.match.Match;
+import org.ihtsdo.sct.drugmatch.metric.Metrics;
+import org.ihtsdo.sct.drugmatch.metric.StageProgress;
 import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
 import org.ihtsdo.sct.drugmatch.parser.impl.CSVParser;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.cache.CachingVerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.cache.ResponseCache;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.impl.VerificationServiceImpl;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.impl.SnapshotVerificationServiceImpl;
 import org.ihtsdo.sct.id.service.CreateConceptIdsFaultException;
-import org.ihtsdo.sct.id.service.CreateSCTIDFaultException;
+import org.ihtsdo.sct.id.service.CreateSCTIDListFaultException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import au.com.bytecode.opencsv.CSVWriter;
+
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
@@ -42,11 +59,19 @@ public class DrugMatch {
 	@Parameter(names = { "--matchAttributeReport" }, description = "Generate separate \"Match\" attribute report", hidden = true)
 	private boolean matchAttributeReport = false;
 
+	@Parameter(names = { "-r", "--resume" }, description = "Resume the latest interrupted \"Create\", skipping the pharmaceuticals already created")
+	private boolean resume = false;
+
 	/**
 	 * YYYY-MM-DD HH.MM.SS.
 	 */
 	private final String isoNow;
 
+	/**
+	 * Settings of this run, loaded & validated by {@link #execute()}.
+	 */
+	private DrugMatchSettings settings;
+
 	public DrugMatch() {
 		// store start time
 		this.isoNow = new SimpleDateFormat("yyyy-MM-dd HH.mm.ss").format(new Date());
@@ -55,39 +80,140 @@ public class DrugMatch {
 	/**
 	 * Execute DrugMatch flow.
 	 * @throws CreateConceptIdsFaultException
-	 * @throws CreateSCTIDFaultException
+	 * @throws CreateSCTIDListFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws DrugMatchStrictModeViolationException
 	 * @throws IOException
 	 * @throws KeyManagementException
 	 * @throws NoSuchAlgorithmException
 	 */
-	public final void execute() throws CreateConceptIdsFaultException, CreateSCTIDFaultException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException, KeyManagementException, NoSuchAlgorithmException {
+	public final void execute() throws CreateConceptIdsFaultException, CreateSCTIDListFaultException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException, KeyManagementException, NoSuchAlgorithmException {
 		log.info("Starting DrugMatch flow");
-		List<Pharmaceutical> pharmaceuticals = new CSVParser().parse();
+		// settings are parsed & validated once, before any work is done
+		this.settings = DrugMatchProperties.load();
 		if (this.check) {
-			// "Check"
-			Check c = new Check(pharmaceuticals,
-					this.isoNow,
-					new VerificationServiceImpl());
-			c.execute();
+			this.settings.validateCheck();
 		} else if (this.match) {
-			// "Match"
-			Match m = new Match(pharmaceuticals,
-					this.isoNow,
-					new VerificationServiceImpl());
-			m.execute(this.matchAttributeReport);
+			this.settings.validateMatch();
 		} else {
-			// "Create"
-			Create create = new Create(pharmaceuticals,
-					new IdServiceImpl(),
-					this.isoNow,
-					new VerificationServiceImpl());
-			create.execute(this.matchAttributeReport);
+			this.settings.validateCreate();
+		}
+		// "Check" streams the input
+		List<Pharmaceutical> pharmaceuticals = (this.check) ? null : new CSVParser(this.settings).parse();
+		try (VerificationService verificationService = getVerificationService()) {
+			if (this.check) {
+				// "Check"
+				Check c = new Check(new CSVParser(this.settings),
+						this.isoNow,
+						verificationService,
+						this.settings);
+				c.execute();
+			} else if (this.match) {
+				// "Match"
+				Match m = new Match(pharmaceuticals,
+						this.isoNow,
+						verificationService,
+						this.settings);
+				m.execute(this.matchAttributeReport);
+			} else {
+				// "Create"
+				CreateJournal journal = getCreateJournal();
+				try (IdService idService = getIdService()) {
+					Create create = new Create(pharmaceuticals,
+							idService,
+							journal.getIsoNow(),
+							verificationService,
+							journal,
+							this.settings);
+					create.execute(this.matchAttributeReport);
+				}
+			}
 		}
+		writeMetrics();
 		log.info("Completed DrugMatch flow");
 	}
 
+	/**
+	 * Write the remote operation {@link Metrics} & {@link StageProgress} timing of this run.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private void writeMetrics() throws DrugMatchConfigurationException, IOException {
+		String quoteCharacter = this.settings.getFileContentQuoteCharacter();
+		char separator = Check.getOutputFileContentSeparator(this.settings),
+			quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
+		String reportDirectory = this.settings.getReportDirectory().getPath() + File.separator;
+		Metrics.write(reportDirectory + "metrics_" + this.isoNow + ".csv",
+				separator,
+				quoteChar);
+		StageProgress.write(reportDirectory + "stage_timing_" + this.isoNow + ".csv",
+				separator,
+				quoteChar);
+	}
+
+	/**
+	 * @return {@link IdServiceImpl}, decorated by {@link CachingIdService} if an SCT ID store directory is set.
+	 * @throws AxisFault
+	 * @throws DrugMatchConfigurationException
+	 */
+	private IdService getIdService() throws AxisFault, DrugMatchConfigurationException {
+		IdService idService = new IdServiceImpl(this.settings);
+		File storeDirectory = this.settings.getSctIdCacheDirectory();
+		if (storeDirectory == null) {
+			return idService;
+		} // else
+		return new CachingIdService(idService,
+				new IdentifierStore(storeDirectory,
+						this.settings.getNationalNamespaceId()));
+	}
+
+	/**
+	 * @return journal of the latest interrupted "Create" if resuming, otherwise a new journal.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private CreateJournal getCreateJournal() throws DrugMatchConfigurationException, IOException {
+		File journalDirectory = this.settings.getJournalDirectory();
+		if (this.resume) {
+			return CreateJournal.resume(journalDirectory,
+					this.settings.getNationalNamespaceId());
+		} // else
+		return CreateJournal.start(journalDirectory,
+				this.isoNow,
+				this.settings.getNationalNamespaceId());
+	}
+
+	/**
+	 * @return offline {@link SnapshotVerificationServiceImpl} if a snapshot directory is set,
+	 *         otherwise {@link VerificationServiceImpl}, decorated by {@link CachingVerificationService} if a cache directory is set.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 * @throws KeyManagementException
+	 * @throws NoSuchAlgorithmException
+	 */
+	private VerificationService getVerificationService() throws DrugMatchConfigurationException, IOException, KeyManagementException, NoSuchAlgorithmException {
+		if (this.settings.getVerificationSnapshotDirectory() != null) {
+			return new SnapshotVerificationServiceImpl(this.settings);
+		} // else
+		VerificationServiceImpl verificationService = new VerificationServiceImpl(this.settings);
+		File cacheDirectory = this.settings.getVerificationCacheDirectory();
+		if (cacheDirectory == null) {
+			return verificationService;
+		} // else
+		String releaseId = this.settings.getSctReleaseId();
+		if (releaseId == null) {
+			log.info("Verification cache disabled, cause: '{}' isn't set!", DrugMatchProperties.SCT_RELEASE_ID);
+			return verificationService;
+		} // else
+		ResponseCache cache = new ResponseCache(cacheDirectory,
+				releaseId,
+				TimeUnit.DAYS.toMillis(this.settings.getVerificationCacheTtl()),
+				this.settings.getVerificationCacheMaxSize() * 1024L * 1024L);
+		return new CachingVerificationService(verificationService,
+				cache,
+				verificationService.getRequestScope());
+	}
+
 	/**
 	 * DrugMatch main.
 	 * @param args
@@ -1,12 +1,12 @@
 package org.ihtsdo.sct.drugmatch.check;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -14,17 +14,26 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.apache.commons.codec.CharEncoding;
 import org.ihtsdo.sct.drugmatch.check.extension.CheckValidationHelper;
 import org.ihtsdo.sct.drugmatch.comparator.StringArrayComparator;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
+import org.ihtsdo.sct.drugmatch.metric.StageProgress;
 import org.ihtsdo.sct.drugmatch.model.Component;
 import org.ihtsdo.sct.drugmatch.model.DoseForm;
 import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
 import org.ihtsdo.sct.drugmatch.model.Substance;
+import org.ihtsdo.sct.drugmatch.parser.Parser;
+import org.ihtsdo.sct.drugmatch.parser.PharmaceuticalHandler;
 import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
+import org.ihtsdo.sct.drugmatch.util.OutputFileWriters;
 import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
 import org.slf4j.Logger;
@@ -42,6 +51,16 @@ public class Check {
 
 	private static final StringArrayComparator STRING_ARRAY_COMPARATOR = new StringArrayComparator();
 
+	private static final String[] REPORT_HEADER = new String[] {
+			"Drug ID",
+			"Component name",
+			"SCT Concept ID",
+			"SCT Description ID",
+			"SCT Term",
+			"Rule match",
+			"Ambiguous matches"
+	};
+
 	private final CheckValidation checkValidation;
 
 	/**
@@ -60,14 +79,26 @@ public class Check {
 	private final SortedMap<String, Map<Locale, List<ConceptSearchResultDescriptor>>> units = new TreeMap<>();
 
 	/**
-	 * used to generate the report.
+	 * used to generate the report, null if streamed.
 	 */
 	private final List<Pharmaceutical> pharmaceuticals;
 
+	/**
+	 * used to stream the report, null if not streamed.
+	 */
+	private final Parser parser;
+
 	private final String isoNow;
 
+	/**
+	 * Maximum number of concurrent verification service lookups.
+	 */
+	private final int parallelism;
+
 	private final VerificationService service;
 
+	private final DrugMatchSettings settings;
+
 	/**
 	 * @param pharmaceuticals
 	 * @param isoNow
@@ -77,8 +108,106 @@ public class Check {
 	public Check(final List<Pharmaceutical> pharmaceuticals,
 			final String isoNow,
 			final VerificationService service) throws DrugMatchConfigurationException {
-		this.checkValidation = (DrugMatchProperties.createGenericReport()) ? new CheckValidationImpl() : CheckValidationHelper.getCheckValidation(DrugMatchProperties.getNationalNamespaceId());
+		this(pharmaceuticals,
+				isoNow,
+				service,
+				DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * @param pharmaceuticals
+	 * @param isoNow
+	 * @param service
+	 * @param settings
+	 * @throws DrugMatchConfigurationException
+	 */
+	public Check(final List<Pharmaceutical> pharmaceuticals,
+			final String isoNow,
+			final VerificationService service,
+			final DrugMatchSettings settings) throws DrugMatchConfigurationException {
+		this(pharmaceuticals,
+				null,
+				isoNow,
+				service,
+				settings);
 		// extract unique pharmaceutical attributes in preparation for execution
+		addComponents(pharmaceuticals);
+	}
+
+	/**
+	 * Streaming "Check", ie. only the unique pharmaceutical attributes & a single batch of {@link Pharmaceutical}s are held in memory.<br>
+	 * The input is parsed twice, once up front & once for all reports.
+	 * @param parser
+	 * @param isoNow
+	 * @param service
+	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
+	 * @throws IOException
+	 */
+	public Check(final Parser parser,
+			final String isoNow,
+			final VerificationService service) throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		this(parser,
+				isoNow,
+				service,
+				DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * Streaming "Check", see {@link #Check(Parser, String, VerificationService)}.
+	 * @param parser
+	 * @param isoNow
+	 * @param service
+	 * @param settings
+	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
+	 * @throws IOException
+	 */
+	public Check(final Parser parser,
+			final String isoNow,
+			final VerificationService service,
+			final DrugMatchSettings settings) throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		this(null,
+				parser,
+				isoNow,
+				service,
+				settings);
+		// extract unique pharmaceutical attributes in preparation for execution
+		parser.parse(this.settings.getInputBatchSize(),
+				new PharmaceuticalHandler() {
+
+					public void handle(final List<Pharmaceutical> batch) {
+						addComponents(batch);
+					}
+				});
+	}
+
+	/**
+	 * @param pharmaceuticals
+	 * @param parser
+	 * @param isoNow
+	 * @param service
+	 * @param settings
+	 * @throws DrugMatchConfigurationException
+	 */
+	private Check(final List<Pharmaceutical> pharmaceuticals,
+			final Parser parser,
+			final String isoNow,
+			final VerificationService service,
+			final DrugMatchSettings settings) throws DrugMatchConfigurationException {
+		this.settings = settings;
+		this.checkValidation = (this.settings.createGenericReport()) ? new CheckValidationImpl() : CheckValidationHelper.getCheckValidation(this.settings.getNationalNamespaceId());
+		this.pharmaceuticals = pharmaceuticals;
+		this.parser = parser;
+		this.isoNow = isoNow;
+		this.parallelism = this.settings.getCheckParallelism();
+		this.service = service;
+	}
+
+	/**
+	 * @param pharmaceuticals
+	 */
+	private void addComponents(final List<Pharmaceutical> pharmaceuticals) {
 		for (Pharmaceutical pharmaceutical : pharmaceuticals) {
 			this.doseForms.put(pharmaceutical.doseForm, new HashMap<Locale, List<ConceptSearchResultDescriptor>>());
 			for (Component component : pharmaceutical.components) {
@@ -86,17 +215,24 @@ public class Check {
 				this.units.put(component.unit, new HashMap<Locale, List<ConceptSearchResultDescriptor>>());
 			}
 		}
-		this.pharmaceuticals = pharmaceuticals;
-		this.isoNow = isoNow;
-		this.service = service;
 	}
 
 	/**
 	 * @return output file content separator
 	 * @throws DrugMatchConfigurationException
+	 * @deprecated use {@link #getOutputFileContentSeparator(DrugMatchSettings)}
 	 */
+	@Deprecated
 	public static char getOutputFileContentSeparator() throws DrugMatchConfigurationException {
-		String separatorSetting = DrugMatchProperties.getFileContentSeparatorCharacter();
+		return getOutputFileContentSeparator(DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * @param settings
+	 * @return output file content separator
+	 */
+	public static char getOutputFileContentSeparator(final DrugMatchSettings settings) {
+		String separatorSetting = settings.getFileContentSeparatorCharacter();
 		if (separatorSetting == null) {
 			separatorSetting = ";";
 		}
@@ -107,88 +243,165 @@ public class Check {
 	/**
 	 * "Check" dose forms.
 	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
 	 * @throws IOException
 	 */
-	private void checkDoseForms() throws IOException, DrugMatchConfigurationException {
+	private void checkDoseForms() throws IOException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException {
 		log.info("Starting Dose form \"Check\" ({} Dose forms)", String.valueOf(this.doseForms.size()));
-		List<ConceptSearchResultDescriptor> matches;
-		for (Map.Entry<DoseForm, Map<Locale, List<ConceptSearchResultDescriptor>>> entry : this.doseForms.entrySet()) {
-			// "check" national
-			matches = this.service.getDoseFormExactNationalTermMatch(entry.getKey().nameNational);
-			entry.getValue().put(Locale.NATIONAL, matches);
-			if (matches.isEmpty()) {
-				// "check" English, when unmatched national
-				entry.getValue().put(Locale.ENGLISH,
-						this.service.getDoseFormExactEnglishTermMatch(entry.getKey().nameEnglish));
-			}
-		}
+		lookupExactTermMatches(this.doseForms,
+				"Dose form \"Check\"",
+				new ExactTermLookup<DoseForm>() {
+
+					public List<ConceptSearchResultDescriptor> getNationalMatches(final DoseForm doseForm) throws DrugMatchConfigurationException, IOException {
+						return Check.this.service.getDoseFormExactNationalTermMatch(doseForm.nameNational);
+					}
+
+					public List<ConceptSearchResultDescriptor> getEnglishMatches(final DoseForm doseForm) throws DrugMatchConfigurationException, IOException {
+						return Check.this.service.getDoseFormExactEnglishTermMatch(doseForm.nameEnglish);
+					}
+				});
 		log.info("Completed Dose form \"Check\"");
-		log.info("Starting Dose form \"Check\" English report");
-		// dose form English report
-		report(Report.DOSE_FORM_ENGLISH,
-				"dose_form_english");
-		log.info("Completed Dose form \"Check\" English report");
-		log.info("Starting Dose form \"Check\" national report");
-		// dose form national report
-		report(Report.DOSE_FORM_NATIONAL,
-				"dose_form_national");
-		log.info("Completed Dose form \"Check\" national report");
 	}
 
 	/**
 	 * "Check" substances.
 	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
 	 * @throws IOException
 	 */
-	private void checkSubstances() throws IOException, DrugMatchConfigurationException {
+	private void checkSubstances() throws IOException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException {
 		log.info("Starting Substance \"Check\" ({} Substances)", String.valueOf(this.substances.size()));
-		List<ConceptSearchResultDescriptor> matches;
-		for (Map.Entry<Substance, Map<Locale, List<ConceptSearchResultDescriptor>>> entry : this.substances.entrySet()) {
-			// "check" national
-			matches = this.service.getSubstanceExactNationalTermMatch(entry.getKey().nameNational);
-			entry.getValue().put(Locale.NATIONAL, matches);
-			if (matches.isEmpty()) {
-				// "check" English, when unmatched national
-				entry.getValue().put(Locale.ENGLISH,
-						this.service.getSubstanceExactEnglishTermMatch(entry.getKey().nameEnglish));
-			}
-		}
+		lookupExactTermMatches(this.substances,
+				"Substance \"Check\"",
+				new ExactTermLookup<Substance>() {
+
+					public List<ConceptSearchResultDescriptor> getNationalMatches(final Substance substance) throws DrugMatchConfigurationException, IOException {
+						return Check.this.service.getSubstanceExactNationalTermMatch(substance.nameNational);
+					}
+
+					public List<ConceptSearchResultDescriptor> getEnglishMatches(final Substance substance) throws DrugMatchConfigurationException, IOException {
+						return Check.this.service.getSubstanceExactEnglishTermMatch(substance.nameEnglish);
+					}
+				});
 		log.info("Completed Substance \"Check\"");
-		log.info("Starting Substance \"Check\" English report");
-		// substance English report
-		report(Report.SUBSTANCE_ENGLISH,
-				"substance_english");
-		log.info("Completed Substance \"Check\" English report");
-		log.info("Starting Substance \"Check\" national report");
-		// substance national report
-		report(Report.SUBSTANCE_NATIONAL,
-				"substance_national");
-		log.info("Completed Substance \"Check\" national report");
 	}
 
 	/**
 	 * "Check" units.
 	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
 	 * @throws IOException
 	 */
-	private void checkUnits() throws IOException, DrugMatchConfigurationException {
+	private void checkUnits() throws IOException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException {
 		log.info("Starting Unit \"Check\" ({} Units)", String.valueOf(this.units.size()));
-		List<ConceptSearchResultDescriptor> matches;
-		for (Map.Entry<String, Map<Locale, List<ConceptSearchResultDescriptor>>> entry : this.units.entrySet()) {
-			// "check" national
-			matches = this.service.getUnitExactNationalTermMatch(entry.getKey());
-			entry.getValue().put(Locale.NATIONAL, matches);
-			if (matches.isEmpty()) {
-				// "check" English, when unmatched national
-				entry.getValue().put(Locale.ENGLISH,
-						this.service.getUnitExactEnglishTermMatch(entry.getKey()));
+		lookupExactTermMatches(this.units,
+				"Unit \"Check\"",
+				new ExactTermLookup<String>() {
+
+					public List<ConceptSearchResultDescriptor> getNationalMatches(final String unit) throws DrugMatchConfigurationException, IOException {
+						return Check.this.service.getUnitExactNationalTermMatch(unit);
+					}
+
+					public List<ConceptSearchResultDescriptor> getEnglishMatches(final String unit) throws DrugMatchConfigurationException, IOException {
+						return Check.this.service.getUnitExactEnglishTermMatch(unit);
+					}
+				});
+		log.info("Completed Unit \"Check\"");
+	}
+
+	/**
+	 * "Check" national term, falling back to English term when unmatched.
+	 * @param key
+	 * @param lookup
+	 * @return {@link Map}({@link Locale}, matches)
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private static <K> Map<Locale, List<ConceptSearchResultDescriptor>> getExactTermMatches(final K key,
+			final ExactTermLookup<K> lookup) throws DrugMatchConfigurationException, IOException {
+		Map<Locale, List<ConceptSearchResultDescriptor>> result = new HashMap<>();
+		// "check" national
+		List<ConceptSearchResultDescriptor> matches = lookup.getNationalMatches(key);
+		result.put(Locale.NATIONAL, matches);
+		if (matches.isEmpty()) {
+			// "check" English, when unmatched national
+			result.put(Locale.ENGLISH,
+					lookup.getEnglishMatches(key));
+		}
+		return result;
+	}
+
+	/**
+	 * "Check" all prospects, using up to {@link #parallelism} concurrent lookups.<br>
+	 * Results are stored per prospect, ie. the outcome is independent of lookup completion order.
+	 * @param prospects
+	 * @param stage name, for progress reporting
+	 * @param lookup
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private <K> void lookupExactTermMatches(final SortedMap<K, Map<Locale, List<ConceptSearchResultDescriptor>>> prospects,
+			final String stage,
+			final ExactTermLookup<K> lookup) throws DrugMatchConfigurationException, IOException {
+		final StageProgress progress = StageProgress.start(stage,
+				prospects.size(),
+				this.settings);
+		if (this.parallelism < 2
+				|| prospects.size() < 2) {
+			for (Map.Entry<K, Map<Locale, List<ConceptSearchResultDescriptor>>> entry : prospects.entrySet()) {
+				entry.getValue().putAll(getExactTermMatches(entry.getKey(), lookup));
+				progress.increment();
+			}
+			progress.complete();
+			return;
+		} // else
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.parallelism, prospects.size()));
+		try {
+			Map<K, Future<Map<Locale, List<ConceptSearchResultDescriptor>>>> futures = new LinkedHashMap<>(prospects.size());
+			for (final K key : prospects.keySet()) {
+				futures.put(key, executor.submit(new Callable<Map<Locale, List<ConceptSearchResultDescriptor>>>() {
+
+					public Map<Locale, List<ConceptSearchResultDescriptor>> call() throws DrugMatchConfigurationException, IOException {
+						Map<Locale, List<ConceptSearchResultDescriptor>> result = getExactTermMatches(key, lookup);
+						progress.increment();
+						return result;
+					}
+				}));
 			}
+			for (Map.Entry<K, Future<Map<Locale, List<ConceptSearchResultDescriptor>>>> entry : futures.entrySet()) {
+				prospects.get(entry.getKey()).putAll(getResult(entry.getValue()));
+			}
+			progress.complete();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @param future
+	 * @return result, unwrapping the original lookup exception on failure.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private static <V> V getResult(final Future<V> future) throws DrugMatchConfigurationException, IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while awaiting \"Check\" lookup", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof DrugMatchConfigurationException) {
+				throw (DrugMatchConfigurationException) cause;
+			} // else
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} // else
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} // else
+			throw new IOException(cause);
 		}
-		log.info("Completed Unit \"Check\"");
-		log.info("Starting Unit \"Check\" report");
-		report(Report.UNIT,
-				"unit");
-		log.info("Completed Unit \"Check\" report");
 	}
 
 	/**
@@ -231,8 +444,11 @@ public class Check {
 		checkDoseForms();
 		checkSubstances();
 		checkUnits();
+		log.info("Starting \"Check\" reports");
+		report();
+		log.info("Completed \"Check\" reports");
 		log.info("Completed \"Check\"");
-		if (DrugMatchProperties.isStrictMode()) {
+		if (this.settings.isStrictMode()) {
 			int missingDoseForms = this.doseForms.size() - getDoseForm2Id().size();
 			int missingSubstances = this.substances.size() - getSubstance2Id().size();
 			int missingUnits = this.units.size() - getUnit2Id().size();
@@ -315,108 +531,133 @@ public class Check {
 	}
 
 	/**
-	 * Export report.
-	 * @param report type
-	 * @param fileName destination
+	 * Export every report, in a single pass over the {@link Pharmaceutical}s, ie. a streamed input is parsed twice in total.
 	 * @throws IOException
 	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
 	 */
-	private void report(final Report report,
-			final String fileName) throws IOException, DrugMatchConfigurationException {
-		String fullFileName = DrugMatchProperties.getReportDirectory().getPath() + File.separator + "check_" + fileName + "_" + this.isoNow + ".csv";
-		String quoteCharacter = DrugMatchProperties.getFileContentQuoteCharacter();
+	private void report() throws IOException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException {
+		String reportDirectory = this.settings.getReportDirectory().getPath() + File.separator;
+		String quoteCharacter = this.settings.getFileContentQuoteCharacter();
 		char quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(fullFileName),
-						CharEncoding.UTF_8),
-				getOutputFileContentSeparator(),
-				quoteChar,
-				System.lineSeparator())) {
-			// header
-			String[] columns = new String[] {
-					"Drug ID",
-					"Component name",
-					"SCT Concept ID",
-					"SCT Description ID",
-					"SCT Term",
-					"Rule match",
-					"Ambiguous matches"
-			};
-			writer.writeNext(columns);
+		try (OutputFileWriters writers = new OutputFileWriters()) {
+			final Map<Report, CSVWriter> report2Writer = new EnumMap<>(Report.class);
+			for (Report report : Report.values()) {
+				report2Writer.put(report,
+						writers.getWriter(reportDirectory + "check_" + report.fileName + "_" + this.isoNow + ".csv",
+								REPORT_HEADER,
+								getOutputFileContentSeparator(this.settings),
+								quoteChar,
+								System.lineSeparator()));
+			}
 			// content
-			String componentName;
-			List<ConceptSearchResultDescriptor> englishDescriptors,
-				nationalDescriptors;
-			List<String[]> pharmaceuticalLines;
-			Set<String[]> uniquePharmaceuticalLines;
-			for (Pharmaceutical pharmaceutical : this.pharmaceuticals) {
-				if (Report.DOSE_FORM_ENGLISH.equals(report)
-						|| Report.DOSE_FORM_NATIONAL.equals(report)) {
-					switch (report) {
-					case DOSE_FORM_ENGLISH:
-						componentName = pharmaceutical.doseForm.nameEnglish;
-						englishDescriptors = this.doseForms.get(pharmaceutical.doseForm).get(Locale.ENGLISH);
-						nationalDescriptors = null;
-						break;
-					case DOSE_FORM_NATIONAL:
-						componentName = pharmaceutical.doseForm.nameNational;
-						englishDescriptors = null;
-						nationalDescriptors = this.doseForms.get(pharmaceutical.doseForm).get(Locale.NATIONAL);
-						break;
-					default:
-						componentName = null;
-						englishDescriptors = null;
-						nationalDescriptors = null;
-						log.debug("Unable to generate check report for dose form {} with Drug ID: {}", pharmaceutical.doseForm, pharmaceutical.drugId);
-						break;
-					}
-					pharmaceuticalLines = Collections.singletonList(getColumns(pharmaceutical.drugId,
-							componentName,
-							nationalDescriptors,
-							getMatchDescriptors(englishDescriptors, nationalDescriptors)));
-				} else if (Report.UNIT.equals(report)) {
-					// "compress" unit output, excluding duplicated rows
-					uniquePharmaceuticalLines = new TreeSet<>(STRING_ARRAY_COMPARATOR);
-					for (Component component : pharmaceutical.components) {
-						componentName = component.unit;
-						englishDescriptors = this.units.get(componentName).get(Locale.ENGLISH);
-						nationalDescriptors = this.units.get(componentName).get(Locale.NATIONAL);
-						uniquePharmaceuticalLines.add(getColumns(pharmaceutical.drugId,
-							componentName,
-							nationalDescriptors,
-							getMatchDescriptors(englishDescriptors, nationalDescriptors)));
-					}
-					pharmaceuticalLines = new ArrayList<>(uniquePharmaceuticalLines);
-				} else {
-					pharmaceuticalLines = new ArrayList<>(pharmaceutical.components.size());
-					for (Component component : pharmaceutical.components) {
-						switch (report) {
-						case SUBSTANCE_ENGLISH:
-							componentName = component.substance.nameEnglish;
-							englishDescriptors = this.substances.get(component.substance).get(Locale.ENGLISH);
-							nationalDescriptors = null;
-							break;
-						case SUBSTANCE_NATIONAL:
-							componentName = component.substance.nameNational;
-							englishDescriptors = null;
-							nationalDescriptors = this.substances.get(component.substance).get(Locale.NATIONAL);
-							break;
-						default:
-							componentName = null;
-							englishDescriptors = null;
-							nationalDescriptors = null;
-							log.debug("Unable to generate check report for component {} with Drug ID: {}", component, pharmaceutical.drugId);
-							break;
+			forEach(new PharmaceuticalHandler() {
+
+				public void handle(final List<Pharmaceutical> batch) throws DrugMatchConfigurationException {
+					for (Pharmaceutical pharmaceutical : batch) {
+						for (Map.Entry<Report, CSVWriter> entry : report2Writer.entrySet()) {
+							entry.getValue().writeAll(getReportLines(entry.getKey(),
+									pharmaceutical));
 						}
-						pharmaceuticalLines.add(getColumns(pharmaceutical.drugId,
-								componentName,
-								nationalDescriptors,
-								getMatchDescriptors(englishDescriptors, nationalDescriptors)));
 					}
 				}
-				writer.writeAll(pharmaceuticalLines);
+			});
+		}
+	}
+
+	/**
+	 * @param report type
+	 * @param pharmaceutical
+	 * @return report lines of the {@link Pharmaceutical}
+	 * @throws DrugMatchConfigurationException
+	 */
+	private List<String[]> getReportLines(final Report report,
+			final Pharmaceutical pharmaceutical) throws DrugMatchConfigurationException {
+		String componentName;
+		List<ConceptSearchResultDescriptor> englishDescriptors,
+			nationalDescriptors;
+		List<String[]> pharmaceuticalLines;
+		Set<String[]> uniquePharmaceuticalLines;
+		if (Report.DOSE_FORM_ENGLISH.equals(report)
+				|| Report.DOSE_FORM_NATIONAL.equals(report)) {
+			switch (report) {
+			case DOSE_FORM_ENGLISH:
+				componentName = pharmaceutical.doseForm.nameEnglish;
+				englishDescriptors = this.doseForms.get(pharmaceutical.doseForm).get(Locale.ENGLISH);
+				nationalDescriptors = null;
+				break;
+			case DOSE_FORM_NATIONAL:
+				componentName = pharmaceutical.doseForm.nameNational;
+				englishDescriptors = null;
+				nationalDescriptors = this.doseForms.get(pharmaceutical.doseForm).get(Locale.NATIONAL);
+				break;
+			default:
+				componentName = null;
+				englishDescriptors = null;
+				nationalDescriptors = null;
+				log.debug("Unable to generate check report for dose form {} with Drug ID: {}", pharmaceutical.doseForm, pharmaceutical.drugId);
+				break;
+			}
+			pharmaceuticalLines = Collections.singletonList(getColumns(pharmaceutical.drugId,
+					componentName,
+					nationalDescriptors,
+					getMatchDescriptors(englishDescriptors, nationalDescriptors)));
+		} else if (Report.UNIT.equals(report)) {
+			// "compress" unit output, excluding duplicated rows
+			uniquePharmaceuticalLines = new TreeSet<>(STRING_ARRAY_COMPARATOR);
+			for (Component component : pharmaceutical.components) {
+				componentName = component.unit;
+				englishDescriptors = this.units.get(componentName).get(Locale.ENGLISH);
+				nationalDescriptors = this.units.get(componentName).get(Locale.NATIONAL);
+				uniquePharmaceuticalLines.add(getColumns(pharmaceutical.drugId,
+					componentName,
+					nationalDescriptors,
+					getMatchDescriptors(englishDescriptors, nationalDescriptors)));
+			}
+			pharmaceuticalLines = new ArrayList<>(uniquePharmaceuticalLines);
+		} else {
+			pharmaceuticalLines = new ArrayList<>(pharmaceutical.components.size());
+			for (Component component : pharmaceutical.components) {
+				switch (report) {
+				case SUBSTANCE_ENGLISH:
+					componentName = component.substance.nameEnglish;
+					englishDescriptors = this.substances.get(component.substance).get(Locale.ENGLISH);
+					nationalDescriptors = null;
+					break;
+				case SUBSTANCE_NATIONAL:
+					componentName = component.substance.nameNational;
+					englishDescriptors = null;
+					nationalDescriptors = this.substances.get(component.substance).get(Locale.NATIONAL);
+					break;
+				default:
+					componentName = null;
+					englishDescriptors = null;
+					nationalDescriptors = null;
+					log.debug("Unable to generate check report for component {} with Drug ID: {}", component, pharmaceutical.drugId);
+					break;
+				}
+				pharmaceuticalLines.add(getColumns(pharmaceutical.drugId,
+						componentName,
+						nationalDescriptors,
+						getMatchDescriptors(englishDescriptors, nationalDescriptors)));
 			}
-			writer.flush();
-			log.info("Created {}", fullFileName);
+		}
+		return pharmaceuticalLines;
+	}
+
+	/**
+	 * Apply handler to every {@link Pharmaceutical}, streaming the input if no {@link Pharmaceutical}s are held in memory.
+	 * @param handler
+	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
+	 * @throws IOException
+	 */
+	private void forEach(final PharmaceuticalHandler handler) throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		if (this.pharmaceuticals == null) {
+			this.parser.parse(this.settings.getInputBatchSize(),
+					handler);
+		} else {
+			handler.handle(this.pharmaceuticals);
 		}
 	}
 
@@ -508,11 +749,31 @@ public class Check {
 	 * "Check" report types.
 	 */
 	private enum Report {
-		DOSE_FORM_ENGLISH,
-		DOSE_FORM_NATIONAL,
-		SUBSTANCE_ENGLISH,
-		SUBSTANCE_NATIONAL,
-		UNIT;
+		DOSE_FORM_ENGLISH("dose_form_english"),
+		DOSE_FORM_NATIONAL("dose_form_national"),
+		SUBSTANCE_ENGLISH("substance_english"),
+		SUBSTANCE_NATIONAL("substance_national"),
+		UNIT("unit");
+
+		/**
+		 * Report file name infix.
+		 */
+		private final String fileName;
+
+		private Report(final String fileName) {
+			this.fileName = fileName;
+		}
+	}
+
+	/**
+	 * Exact term lookup, per "Check" locale.
+	 * @param <K> prospect type
+	 */
+	private interface ExactTermLookup<K> {
+
+		List<ConceptSearchResultDescriptor> getNationalMatches(K key) throws DrugMatchConfigurationException, IOException;
+
+		List<ConceptSearchResultDescriptor> getEnglishMatches(K key) throws DrugMatchConfigurationException, IOException;
 	}
 
 	/**
@@ -5,11 +5,25 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.apache.commons.codec.CharEncoding;
 import org.apache.commons.lang3.tuple.Pair;
@@ -18,17 +32,21 @@ import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
 import org.ihtsdo.sct.drugmatch.id.service.IdService;
+import org.ihtsdo.sct.drugmatch.id.service.cache.CachingIdService;
 import org.ihtsdo.sct.drugmatch.match.Match;
 import org.ihtsdo.sct.drugmatch.match.MatchTermRule;
 import org.ihtsdo.sct.drugmatch.match.model.GenericMatch;
 import org.ihtsdo.sct.drugmatch.match.model.PharmaceuticalMatch;
+import org.ihtsdo.sct.drugmatch.metric.StageProgress;
 import org.ihtsdo.sct.drugmatch.model.Component;
 import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
 import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
 import org.ihtsdo.sct.drugmatch.util.ComponentIdHelper;
+import org.ihtsdo.sct.drugmatch.util.OutputFileWriters;
 import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
 import org.ihtsdo.sct.id.service.CreateConceptIdsFaultException;
-import org.ihtsdo.sct.id.service.CreateSCTIDFaultException;
+import org.ihtsdo.sct.id.service.CreateSCTIDListFaultException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +69,37 @@ public class Create {
 
 	private final IdService idService;
 
+	/**
+	 * Number of {@link Pharmaceutical}s per ID allocation window.
+	 */
+	private final int idBatchSize;
+
+	/**
+	 * Maximum number of {@link Pharmaceutical}s created concurrently.
+	 */
+	private final int parallelism;
+
+	/**
+	 * {@link Map}(RF2 file name, {@link List}({@link PendingRow})), exported once the IDs of the window are allocated.
+	 */
+	private final Map<String, List<PendingRow>> fileName2PendingRows = new LinkedHashMap<>();
+
+	/**
+	 * RF2 & report files, open for the whole run.
+	 */
+	private OutputFileWriters outputFileWriters;
+
+	/**
+	 * Write-ahead journal of the run, null if not journaled.
+	 */
+	private final CreateJournal journal;
+
+	/**
+	 * Component UUIDs awaiting an ID, in the current window.
+	 */
+	private final Set<String> pendingDescriptionUuids = new LinkedHashSet<>(),
+		pendingRelationshipUuids = new LinkedHashSet<>();
+
 	/**
 	 * YYYYMMDD.
 	 */
@@ -64,8 +113,17 @@ public class Create {
 		fileNameRelationship,
 		fileNameReportCoreConcept,
 		fileNameReportExtensionConcept,
-		fileNameStatedRelationship,
-		placeHolderConceptId;
+		fileNameStatedRelationship;
+
+	/**
+	 * DrugMatch placeholder concept, created on first use.
+	 */
+	private CreatedRows placeHolderConcept;
+
+	/**
+	 * {@link Map}(generic {@link Pharmaceutical} UUID, generic concept), ie. each generic concept is created once per run.
+	 */
+	private final ConcurrentMap<String, Future<CreatedRows>> genericUuid2Concept = new ConcurrentHashMap<>();
 
 	/**
 	 * YYYY-MM-DD HH.MM.SS.
@@ -77,7 +135,54 @@ public class Create {
 	 */
 	private final Match match;
 
-	private static final String[] REPORT_HEADER = new String[] {
+	private final DrugMatchSettings settings;
+
+	/**
+	 * {@link PendingRow#idColumn} of rows without a pending ID.
+	 */
+	private static final int NO_PENDING_ID = -1;
+
+	private static final String[] CONCEPT_HEADER = new String[] {
+				"id",
+				"effectiveTime",
+				"active",
+				"moduleId",
+				"definitionStatusId"
+		},
+		DESCRIPTION_HEADER = new String[] {
+				"id",
+				"effectiveTime",
+				"active",
+				"moduleId",
+				"conceptId",
+				"languageCode",
+				"typeId",
+				"term",
+				"caseSignificanceId"
+		},
+		QUANTITY_REFSET_HEADER = new String[] {
+				"id",
+				"effectiveTime",
+				"active",
+				"moduleId",
+				"refSetId",
+				"referencedComponentId",
+				"conceptId",
+				"number"
+		},
+		RELATIONSHIP_HEADER = new String[] {
+				"id",
+				"effectiveTime",
+				"active",
+				"moduleId",
+				"sourceId",
+				"destinationId",
+				"relationshipGroup",
+				"typeId",
+				"characteristicTypeId",
+				"modifierId"
+		},
+		REPORT_HEADER = new String[] {
 				"SCT Concept ID",
 				"SCT Fully Specified Name"
 		},
@@ -102,17 +207,65 @@ public class Create {
 			final IdService idService,
 			final String isoNow,
 			final VerificationService verificationService) throws DrugMatchConfigurationException {
-		if (DrugMatchProperties.getModuleId() == null) {
+		this(pharmaceuticals,
+				idService,
+				isoNow,
+				verificationService,
+				null);
+	}
+
+	/**
+	 * @param pharmaceuticals
+	 * @param idService
+	 * @param isoNow YYYY-MM-DD HH.MM.SS.
+	 * @param verificationService
+	 * @param journal write-ahead journal, {@link Pharmaceutical}s completed by an interrupted run are skipped. Or null
+	 * @throws DrugMatchConfigurationException
+	 */
+	public Create(final List<Pharmaceutical> pharmaceuticals,
+			final IdService idService,
+			final String isoNow,
+			final VerificationService verificationService,
+			final CreateJournal journal) throws DrugMatchConfigurationException {
+		this(pharmaceuticals,
+				idService,
+				isoNow,
+				verificationService,
+				journal,
+				DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * @param pharmaceuticals
+	 * @param idService
+	 * @param isoNow YYYY-MM-DD HH.MM.SS.
+	 * @param verificationService
+	 * @param journal write-ahead journal, {@link Pharmaceutical}s completed by an interrupted run are skipped. Or null
+	 * @param settings
+	 * @throws DrugMatchConfigurationException
+	 */
+	public Create(final List<Pharmaceutical> pharmaceuticals,
+			final IdService idService,
+			final String isoNow,
+			final VerificationService verificationService,
+			final CreateJournal journal,
+			final DrugMatchSettings settings) throws DrugMatchConfigurationException {
+		this.settings = settings;
+		if (this.settings.getModuleId() == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.MODULE_ID + "' isn't set!");
 		} // else
-		if (DrugMatchProperties.getNationalLanguageCode() == null) {
+		if (this.settings.getNationalLanguageCode() == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.EXTENSION_LANGUAGE_CODE + "' isn't set!");
 		} // else
 		// extract date from isoNow and convert to SCT compatible effectiveTime
 		this.effectiveTime = isoNow.substring(0, isoNow.indexOf(' ')).replace("-", "");
-		this.idService = idService;
+		// allocated IDs are journaled before use, ie. reused on resume
+		this.idService = (journal == null) ? idService : new CachingIdService(idService, journal.getIdentifierStore());
+		this.journal = journal;
+		this.idBatchSize = this.settings.getCreateIdBatchSize();
+		this.parallelism = this.settings.getCreateParallelism();
 		this.isoNow = isoNow;
-		this.match = new Match(pharmaceuticals, isoNow, verificationService);
+		this.match = new Match(pharmaceuticals, isoNow, verificationService, settings);
 	}
 
 	/**
@@ -126,44 +279,50 @@ public class Create {
 
 	/**
 	 * Create attribute relationships.
+	 * @param rows
 	 * @param sourceId
 	 * @param pharmaceutical
-	 * @throws CreateSCTIDFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private void createAttributeRelationships(final String sourceId,
-			final Pharmaceutical pharmaceutical) throws CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
+	private void createAttributeRelationships(final CreatedRows rows,
+			final String sourceId,
+			final Pharmaceutical pharmaceutical) throws DrugMatchConfigurationException, IOException {
 		// dose form
-		String typeId = String.valueOf(DrugMatchProperties.getAttributeIdHasDoseForm());
+		String typeId = String.valueOf(this.settings.getAttributeIdHasDoseForm());
 		Long destinationIdNumber = (pharmaceutical.doseForm.nameNational == null) ? null : this.doseForm2Id.get(pharmaceutical.doseForm.nameNational);
 		if (destinationIdNumber == null) {
 			destinationIdNumber = (pharmaceutical.doseForm.nameEnglish == null) ? null : this.doseForm2Id.get(pharmaceutical.doseForm.nameEnglish);
 		}
 		String destinationId = String.valueOf(destinationIdNumber);
-		exportRelationship(sourceId,
+		exportRelationship(rows,
+				sourceId,
 				destinationId,
 				typeId);
 		// http://ihtsdo.org/fileadmin/user_upload/doc/en_us/tig.html?t=trg2main_stated_relationships
-		String statedRelationshipId = exportStatedRelationship(sourceId,
+		String statedRelationshipUuid = exportStatedRelationship(rows,
+				sourceId,
 				destinationId,
 				typeId);
 		// active ingredient
-		typeId = String.valueOf(DrugMatchProperties.getAttributeIdHasActiveIngredient());
+		typeId = String.valueOf(this.settings.getAttributeIdHasActiveIngredient());
 		for (Component component : pharmaceutical.components) {
 			destinationIdNumber = (component.substance.nameNational == null) ? null : this.substance2Id.get(component.substance.nameNational);
 			if (destinationIdNumber == null) {
 				destinationIdNumber = (component.substance.nameEnglish == null) ? null : this.substance2Id.get(component.substance.nameEnglish);
 			}
 			destinationId = String.valueOf(destinationIdNumber);
-			exportRelationship(sourceId,
+			exportRelationship(rows,
+					sourceId,
 					destinationId,
 					typeId);
 			// http://ihtsdo.org/fileadmin/user_upload/doc/en_us/tig.html?t=trg2main_stated_relationships
-			statedRelationshipId = exportStatedRelationship(sourceId,
+			statedRelationshipUuid = exportStatedRelationship(rows,
+					sourceId,
 					destinationId,
 					typeId);
-			exportRelationshipToQuantityReferenceSet(statedRelationshipId,
+			exportRelationshipToQuantityReferenceSet(rows,
+					statedRelationshipUuid,
 					this.unit2Id.get(component.unit), // Concept ID
 					Component.getStrengthEnglish(component.strength)); // enforce English numeric notation (source: Rory Davidson (20140721, rda@ihtsdo.org))
 		}
@@ -171,6 +330,7 @@ public class Create {
 
 	/**
 	 * Create and export Concept.
+	 * @param rows
 	 * @param uuid
 	 * @param parentId
 	 * @return SCT Concept ID
@@ -178,169 +338,201 @@ public class Create {
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private String createConcept(final String uuid,
+	private String createConcept(final CreatedRows rows,
+			final String uuid,
 			final String parentId) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
 		String conceptId = this.idService.getExtensionConceptId(uuid,
 				parentId);
-		exportConcept(conceptId);
+		exportConcept(rows,
+				conceptId);
 		return conceptId;
 	}
 
 	/**
 	 * Create and export; English fully specified name, preferred term and national preferred term.
+	 * @param rows
 	 * @param conceptId
 	 * @param englishPreferredTerm
 	 * @param nationalPreferredTerm
 	 * @return English Fully Specified Name
-	 * @throws CreateSCTIDFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private String createEnglishAndNationalDescriptions(final String conceptId,
+	private String createEnglishAndNationalDescriptions(final CreatedRows rows,
+			final String conceptId,
 			final String englishPreferredTerm,
-			final String nationalPreferredTerm) throws CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
+			final String nationalPreferredTerm) throws DrugMatchConfigurationException, IOException {
 		// national preferred term
-		String descriptionId = getExtensionDescriptionId(ComponentIdHelper.getNamespaceId(conceptId),
+		String descriptionUuid = getExtensionDescriptionUuid(rows,
+				ComponentIdHelper.getNamespaceId(conceptId),
 				nationalPreferredTerm,
-				DrugMatchProperties.getNationalLanguageCode());
-		exportDescription(conceptId,
-				descriptionId,
+				this.settings.getNationalLanguageCode());
+		exportDescription(rows,
+				conceptId,
+				descriptionUuid,
 				nationalPreferredTerm,
-				DrugMatchProperties.getNationalLanguageCode(),
+				this.settings.getNationalLanguageCode(),
 				ReleaseFormat2.DESCRIPTION_TYPE_PREFERRED_TERM_ID);
-		exportPreferredNationalToLanguageReferenceSet(descriptionId);
+		exportPreferredNationalToLanguageReferenceSet(rows,
+				descriptionUuid);
 		// English terms
-		return 	createEnglishDescriptions(conceptId,
+		return 	createEnglishDescriptions(rows,
+						conceptId,
 						englishPreferredTerm);
 	}
 
 	/**
 	 * Create and export; English fully specified name and preferred term.
+	 * @param rows
 	 * @param conceptId
 	 * @param englishPreferredTerm
 	 * @return Fully Specified Name
-	 * @throws CreateSCTIDFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private String createEnglishDescriptions(final String conceptId,
-			final String englishPreferredTerm) throws CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
+	private String createEnglishDescriptions(final CreatedRows rows,
+			final String conceptId,
+			final String englishPreferredTerm) throws DrugMatchConfigurationException, IOException {
 		// English preferred term
 		// including namespace ID and language code to avoid undesired collision
 		String namespaceId = ComponentIdHelper.getNamespaceId(conceptId);
-		String descriptionId = getExtensionDescriptionId(namespaceId,
+		String descriptionUuid = getExtensionDescriptionUuid(rows,
+				namespaceId,
 				englishPreferredTerm,
 				ReleaseFormat2.LANGUAGE_EN_CODE);
-		exportDescription(conceptId,
-				descriptionId,
+		exportDescription(rows,
+				conceptId,
+				descriptionUuid,
 				englishPreferredTerm,
 				ReleaseFormat2.LANGUAGE_EN_CODE,
 				ReleaseFormat2.DESCRIPTION_TYPE_PREFERRED_TERM_ID);
-		exportPreferredEnglishToLanguageReferenceSet(descriptionId);
+		exportPreferredEnglishToLanguageReferenceSet(rows,
+				descriptionUuid);
 		// English fully specified name
 		String englishFullySpecifiedName = englishPreferredTerm + " (product)";
 		// A FSN is unambiguous and unique, source: Robert Turnbull (20140603, rtu@ihtsdo.org)
 		// For a given namespace ID & language code combination (dleh, 20140604)
-		descriptionId = getExtensionDescriptionId(namespaceId,
+		descriptionUuid = getExtensionDescriptionUuid(rows,
+				namespaceId,
 				englishFullySpecifiedName,
 				ReleaseFormat2.LANGUAGE_EN_CODE);
-		exportDescription(conceptId,
-				descriptionId,
+		exportDescription(rows,
+				conceptId,
+				descriptionUuid,
 				englishFullySpecifiedName,
 				ReleaseFormat2.LANGUAGE_EN_CODE,
 				ReleaseFormat2.DESCRIPTION_TYPE_FULLY_SPECIFIED_NAME_ID);
-		exportPreferredEnglishToLanguageReferenceSet(descriptionId);
+		exportPreferredEnglishToLanguageReferenceSet(rows,
+				descriptionUuid);
 		return englishFullySpecifiedName;
 	}
 
 	/**
 	 * Create and export; generic pharmaceutical concept, descriptions and relationships.
+	 * @param rows
 	 * @param pharmaceutical
 	 * @return SCT Concept ID
 	 * @throws CreateConceptIdsFaultException
-	 * @throws CreateSCTIDFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private String createGenericConcept(final Pharmaceutical pharmaceutical) throws CreateConceptIdsFaultException, CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
-		if (this.placeHolderConceptId == null) {
-			createPlaceHolderConcept();
-		}
-		String conceptId = createConcept(pharmaceutical.getGenericUUID().toString(),
-				this.placeHolderConceptId);
-		String fullySpecifiedName = createEnglishAndNationalDescriptions(conceptId,
+	private String createGenericConcept(final CreatedRows rows,
+			final Pharmaceutical pharmaceutical) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+		CreatedRows placeHolder = getPlaceHolderConcept();
+		rows.dependencies.add(placeHolder);
+		String conceptId = createConcept(rows,
+				pharmaceutical.getGenericUUID().toString(),
+				placeHolder.conceptId);
+		String fullySpecifiedName = createEnglishAndNationalDescriptions(rows,
+				conceptId,
 				pharmaceutical.getEnglishTerm(),
 				pharmaceutical.getNationalTerm());
-		createParentRelationship(conceptId,
-				this.placeHolderConceptId);
-		createAttributeRelationships(conceptId,
+		createParentRelationship(rows,
+				conceptId,
+				placeHolder.conceptId);
+		createAttributeRelationships(rows,
+				conceptId,
 				pharmaceutical);
-		reportCoreConcept(conceptId,
+		reportCoreConcept(rows,
+				conceptId,
 				fullySpecifiedName);
 		return conceptId;
 	}
 
 	/**
 	 * Create and export; national pharmaceutical concept, descriptions and relationships.
+	 * @param rows
 	 * @param pharmaceutical
 	 * @param parentId
 	 * @return SCT Concept ID
 	 * @throws CreateConceptIdsFaultException
-	 * @throws CreateSCTIDFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private String createNationalConcept(final Pharmaceutical pharmaceutical,
-			final String parentId) throws CreateConceptIdsFaultException, CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
-		String conceptId = createConcept(pharmaceutical.getPharmaceuticalUUID().toString(),
+	private String createNationalConcept(final CreatedRows rows,
+			final Pharmaceutical pharmaceutical,
+			final String parentId) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+		String conceptId = createConcept(rows,
+				pharmaceutical.getPharmaceuticalUUID().toString(),
 				parentId);
-		String fullySpecifiedName = createEnglishAndNationalDescriptions(conceptId,
+		String fullySpecifiedName = createEnglishAndNationalDescriptions(rows,
+				conceptId,
 				pharmaceutical.getEnglishPharmaceuticalTerm(),
 				pharmaceutical.getNationalPharmaceuticalTerm());
-		createParentRelationship(conceptId,
+		createParentRelationship(rows,
+				conceptId,
 				parentId);
-		createAttributeRelationships(conceptId,
+		createAttributeRelationships(rows,
+				conceptId,
 				pharmaceutical);
-		reportExtensionConcept(conceptId,
+		reportExtensionConcept(rows,
+				conceptId,
 				fullySpecifiedName);
 		return conceptId;
 	}
 
 	/**
 	 * Create parent (main hierarchy) relationship.
+	 * @param rows
 	 * @param sourceId
 	 * @param destinationId
-	 * @throws CreateSCTIDFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private void createParentRelationship(final String sourceId,
-			final String destinationId) throws CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
-		exportRelationship(sourceId,
+	private void createParentRelationship(final CreatedRows rows,
+			final String sourceId,
+			final String destinationId) throws DrugMatchConfigurationException, IOException {
+		exportRelationship(rows,
+				sourceId,
 				destinationId,
 				ReleaseFormat2.RELATIONSHIP_TYPE_IS_A_ID);
 		// http://ihtsdo.org/fileadmin/user_upload/doc/en_us/tig.html?t=trg2main_stated_relationships
-		exportStatedRelationship(sourceId,
+		exportStatedRelationship(rows,
+				sourceId,
 				destinationId,
 				ReleaseFormat2.RELATIONSHIP_TYPE_IS_A_ID);
 	}
 
 	/**
 	 * Create and export; DrugMatch placeholder concept, descriptions and relationships.
+	 * @param rows DrugMatch placeholder concept rows
 	 * @throws CreateConceptIdsFaultException
-	 * @throws CreateSCTIDFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private void createPlaceHolderConcept() throws CreateConceptIdsFaultException, CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
-		this.placeHolderConceptId = createConcept("9c261e4c-d25d-4dc2-84c2-a3227d5ffb1e", // UUID v4 (random, pulled from http://www.famkruithof.net/uuid/uuidgen )
+	private void createPlaceHolderConcept(final CreatedRows rows) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+		rows.conceptId = createConcept(rows,
+				"9c261e4c-d25d-4dc2-84c2-a3227d5ffb1e", // UUID v4 (random, pulled from http://www.famkruithof.net/uuid/uuidgen )
 				ReleaseFormat2.CONCEPT_PHARMACEUTICAL_OR_BIOLOGIC_PRODUCT_ID);
-		String fullySpecifiedName = createEnglishDescriptions(this.placeHolderConceptId,
+		String fullySpecifiedName = createEnglishDescriptions(rows,
+				rows.conceptId,
 				"DrugMatch placeholder");
 		// create parent relation
-		createParentRelationship(this.placeHolderConceptId,
+		createParentRelationship(rows,
+				rows.conceptId,
 				ReleaseFormat2.CONCEPT_PHARMACEUTICAL_OR_BIOLOGIC_PRODUCT_ID);
-		reportCoreConcept(this.placeHolderConceptId,
+		reportCoreConcept(rows,
+				rows.conceptId,
 				fullySpecifiedName);
 	}
 
@@ -396,12 +588,12 @@ public class Create {
 	 * Execute DrugMatch "Create" and implicit dependency "Check" & "Match".
 	 * @param matchAttributeReport
 	 * @throws CreateConceptIdsFaultException
-	 * @throws CreateSCTIDFaultException
+	 * @throws CreateSCTIDListFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws DrugMatchStrictModeViolationException
 	 * @throws IOException
 	 */
-	public final void execute(final boolean matchAttributeReport) throws CreateConceptIdsFaultException, CreateSCTIDFaultException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+	public final void execute(final boolean matchAttributeReport) throws CreateConceptIdsFaultException, CreateSCTIDListFaultException, DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
 		log.info("Starting \"Create\"");
 		// implicit "Match" dependency
 		this.match.execute(matchAttributeReport);
@@ -410,7 +602,13 @@ public class Create {
 		this.substance2Id = this.match.getSubstance2Id();
 		this.unit2Id = this.match.getUnit2Id();
 		// SCT RF2
-		Map<Pharmaceutical, String> pharmaceutical2ConceptId = generateReleaseFormat2();
+		Map<Pharmaceutical, String> pharmaceutical2ConceptId;
+		this.outputFileWriters = (this.journal == null) ? new OutputFileWriters() : new OutputFileWriters(this.journal.getFileLengths());
+		try {
+			pharmaceutical2ConceptId = generateReleaseFormat2();
+		} finally {
+			this.outputFileWriters.close();
+		}
 		// Drug ID <-> SCT ID mapping
 		exportMapping(pharmaceutical2ConceptId);
 		log.info("Completed \"Create\"");
@@ -418,100 +616,52 @@ public class Create {
 
 	/**
 	 * Export concept to SNOMED CT Release Format 2.
+	 * @param rows
 	 * @param conceptId
 	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
 	 */
-	private void exportConcept(final String conceptId) throws DrugMatchConfigurationException, IOException {
-		boolean addHeader = false;
-		if (this.fileNameConcept == null) {
-			this.fileNameConcept = DrugMatchProperties.getTerminologyDirectory().getPath() + File.separator + "sct2_Concept_DrugMatch_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameConcept,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
-				CSVWriter.NO_QUOTE_CHARACTER,
-				ReleaseFormat2.NEW_LINE)) {
-			// header
-			if (addHeader) {
-				writer.writeNext(new String[] {
-						"id",
-						"effectiveTime",
-						"active",
-						"moduleId",
-						"definitionStatusId"
-				});
-				log.info("Created {}", this.fileNameConcept);
-			}
-			// content
-			writer.writeNext(new String[] {
-					conceptId,
-					this.effectiveTime,
-					ReleaseFormat2.STATUS_ACTIVE_ID,
-					DrugMatchProperties.getModuleId(),
-					ReleaseFormat2.CONCEPT_DEFINITION_STATUS_PRIMITIVE_ID
-			});
-			writer.flush();
-		}
+	private void exportConcept(final CreatedRows rows,
+			final String conceptId) throws DrugMatchConfigurationException {
+		addRow(rows,
+				this.fileNameConcept,
+				CONCEPT_HEADER,
+				NO_PENDING_ID,
+				conceptId,
+				this.effectiveTime,
+				ReleaseFormat2.STATUS_ACTIVE_ID,
+				this.settings.getModuleId(),
+				ReleaseFormat2.CONCEPT_DEFINITION_STATUS_PRIMITIVE_ID);
 	}
 
 	/**
 	 * Export description to SNOMED CT Release Format 2.
+	 * @param rows
 	 * @param conceptId
-	 * @param descriptionId
+	 * @param descriptionUuid resolved to the description ID, once allocated
 	 * @param term
 	 * @param languageCode
 	 * @param typeId
 	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
 	 */
-	private void exportDescription(final String conceptId,
-			final String descriptionId,
+	private void exportDescription(final CreatedRows rows,
+			final String conceptId,
+			final String descriptionUuid,
 			final String term,
 			final String languageCode,
-			final String typeId) throws DrugMatchConfigurationException, IOException {
-		boolean addHeader = false;
-		if (this.fileNameDescription == null) {
-			this.fileNameDescription = DrugMatchProperties.getTerminologyDirectory().getPath() + File.separator + "sct2_Description_DrugMatch_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameDescription,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
-				CSVWriter.NO_QUOTE_CHARACTER,
-				ReleaseFormat2.NEW_LINE)) {
-			// header
-			if (addHeader) {
-				writer.writeNext(new String[] {
-						"id",
-						"effectiveTime",
-						"active",
-						"moduleId",
-						"conceptId",
-						"languageCode",
-						"typeId",
-						"term",
-						"caseSignificanceId"
-				});
-				log.info("Created {}", this.fileNameDescription);
-			}
-			// content
-			writer.writeNext(new String[] {
-					descriptionId,
-					this.effectiveTime,
-					ReleaseFormat2.STATUS_ACTIVE_ID,
-					DrugMatchProperties.getModuleId(),
-					conceptId,
-					languageCode, // languageCode
-					typeId,
-					term,
-					ReleaseFormat2.DESCRIPTION_CASE_SIGNIFICANCE_FALSE_ID
-			});
-			writer.flush();
-		}
+			final String typeId) throws DrugMatchConfigurationException {
+		addRow(rows,
+				this.fileNameDescription,
+				DESCRIPTION_HEADER,
+				0,
+				descriptionUuid,
+				this.effectiveTime,
+				ReleaseFormat2.STATUS_ACTIVE_ID,
+				this.settings.getModuleId(),
+				conceptId,
+				languageCode,
+				typeId,
+				term,
+				ReleaseFormat2.DESCRIPTION_CASE_SIGNIFICANCE_FALSE_ID);
 	}
 
 	/**
@@ -523,12 +673,12 @@ public class Create {
 	private void exportMapping(final Map<Pharmaceutical, String> pharmaceutical2ConceptId) throws DrugMatchConfigurationException, IOException {
 		if (pharmaceutical2ConceptId.size() > 0) {
 			log.info("Starting \"Create\" mapping export");
-			String fullFileName = DrugMatchProperties.getMappingDirectory().getPath() + File.separator + "mapping_" + this.isoNow + ".csv";
-			String quoteCharacter = DrugMatchProperties.getFileContentQuoteCharacter();
+			String fullFileName = this.settings.getMappingDirectory().getPath() + File.separator + "mapping_" + this.isoNow + ".csv";
+			String quoteCharacter = this.settings.getFileContentQuoteCharacter();
 			char quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
 			try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(fullFileName),
 					CharEncoding.UTF_8),
-					Check.getOutputFileContentSeparator(),
+					Check.getOutputFileContentSeparator(this.settings),
 					quoteChar,
 					System.lineSeparator())) {
 				// header
@@ -554,255 +704,209 @@ public class Create {
 
 	/**
 	 * Export English description to SNOMED CT Release Format 2 Language Reference Set.
-	 * @param descriptionId
+	 * @param rows
+	 * @param descriptionUuid resolved to the description ID, once allocated
 	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
 	 */
-	private void exportPreferredEnglishToLanguageReferenceSet(final String descriptionId) throws DrugMatchConfigurationException, IOException {
-		boolean addHeader = false;
-		if (this.fileNameReferenceSetLanguageEnglish == null) {
-			this.fileNameReferenceSetLanguageEnglish = DrugMatchProperties.getReferenceSetLanguageDirectory().getPath() + File.separator + "der2_cRefset_Language_DrugMatch_" + ReleaseFormat2.LANGUAGE_EN_CODE + "_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameReferenceSetLanguageEnglish,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
-				CSVWriter.NO_QUOTE_CHARACTER,
-				ReleaseFormat2.NEW_LINE)) {
-			// header
-			if (addHeader) {
-				writer.writeNext(LANGUAGE_REFSET_HEADER);
-				log.info("Created {}", this.fileNameReferenceSetLanguageEnglish);
-			}
-			// content
-			writer.writeNext(new String[] {
-					UUID.randomUUID().toString(), // UUID v4 as defined by Robert Turnbull (20140603, rtu@ihtsdo.org)
-					this.effectiveTime,
-					ReleaseFormat2.STATUS_ACTIVE_ID,
-					DrugMatchProperties.getModuleId(),
-					ReleaseFormat2.REFERENCE_SET_LANGUAGE_US_ENGLISH_ID,
-					descriptionId,
-					ReleaseFormat2.META_DATA_ACCEPTABILITY_PREFERRED_ID
-			});
-			writer.flush();
-		}
+	private void exportPreferredEnglishToLanguageReferenceSet(final CreatedRows rows,
+			final String descriptionUuid) throws DrugMatchConfigurationException {
+		addRow(rows,
+				this.fileNameReferenceSetLanguageEnglish,
+				LANGUAGE_REFSET_HEADER,
+				5,
+				UUID.randomUUID().toString(), // UUID v4 as defined by Robert Turnbull (20140603, rtu@ihtsdo.org)
+				this.effectiveTime,
+				ReleaseFormat2.STATUS_ACTIVE_ID,
+				this.settings.getModuleId(),
+				ReleaseFormat2.REFERENCE_SET_LANGUAGE_US_ENGLISH_ID,
+				descriptionUuid,
+				ReleaseFormat2.META_DATA_ACCEPTABILITY_PREFERRED_ID);
 	}
 
 	/**
 	 * Export national description to SNOMED CT Release Format 2 Language Reference Set.
-	 * @param descriptionId
+	 * @param rows
+	 * @param descriptionUuid resolved to the description ID, once allocated
 	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
 	 */
-	private void exportPreferredNationalToLanguageReferenceSet(final String descriptionId) throws DrugMatchConfigurationException, IOException {
-		boolean addHeader = false;
-		if (this.fileNameReferenceSetLanguageNational == null) {
-			this.fileNameReferenceSetLanguageNational = DrugMatchProperties.getReferenceSetLanguageDirectory().getPath() + File.separator + "der2_cRefset_Language_DrugMatch_" + DrugMatchProperties.getNationalLanguageCode() + "_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameReferenceSetLanguageNational,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
-				CSVWriter.NO_QUOTE_CHARACTER,
-				ReleaseFormat2.NEW_LINE)) {
-			// header
-			if (addHeader) {
-				writer.writeNext(LANGUAGE_REFSET_HEADER);
-				log.info("Created {}", this.fileNameReferenceSetLanguageNational);
-			}
-			// content
-			writer.writeNext(new String[] {
-					UUID.randomUUID().toString(), // UUID v4 as defined by Robert Turnbull (20140603, rtu@ihtsdo.org)
-					this.effectiveTime,
-					ReleaseFormat2.STATUS_ACTIVE_ID,
-					DrugMatchProperties.getModuleId(),
-					DrugMatchProperties.getLanguageReferenceSetId(),
-					descriptionId,
-					ReleaseFormat2.META_DATA_ACCEPTABILITY_PREFERRED_ID
-			});
-			writer.flush();
-		}
+	private void exportPreferredNationalToLanguageReferenceSet(final CreatedRows rows,
+			final String descriptionUuid) throws DrugMatchConfigurationException {
+		addRow(rows,
+				this.fileNameReferenceSetLanguageNational,
+				LANGUAGE_REFSET_HEADER,
+				5,
+				UUID.randomUUID().toString(), // UUID v4 as defined by Robert Turnbull (20140603, rtu@ihtsdo.org)
+				this.effectiveTime,
+				ReleaseFormat2.STATUS_ACTIVE_ID,
+				this.settings.getModuleId(),
+				this.settings.getLanguageReferenceSetId(),
+				descriptionUuid,
+				ReleaseFormat2.META_DATA_ACCEPTABILITY_PREFERRED_ID);
 	}
 
 	/**
 	 * Export relationship to SNOMED CT Release Format 2.
+	 * @param rows
 	 * @param sourceId
 	 * @param destinationId
 	 * @param typeId
-	 * @return Relationship ID
-	 * @throws CreateSCTIDFaultException
+	 * @return Relationship UUID, resolved to the relationship ID once allocated
 	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
+	 * @throws UnsupportedEncodingException
 	 */
-	private String exportRelationship(final String sourceId,
+	private String exportRelationship(final CreatedRows rows,
+			final String sourceId,
 			final String destinationId,
-			final String typeId) throws CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
-		String relationshipId = getExtensionRelationshipId(sourceId,
+			final String typeId) throws DrugMatchConfigurationException, UnsupportedEncodingException {
+		String relationshipUuid = getExtensionRelationshipUuid(rows,
+				sourceId,
 				destinationId,
 				ReleaseFormat2.RELATIONSHIP_GROUP_NONE,
 				typeId,
 				ReleaseFormat2.RELATIONSHIP_CHARACTERISTIC_TYPE_DEFINING_ID,
 				ReleaseFormat2.RELATIONSHIP_MODIFIER_ID);
-		boolean addHeader = false;
-		if (this.fileNameRelationship == null) {
-			this.fileNameRelationship = DrugMatchProperties.getTerminologyDirectory().getPath() + File.separator + "sct2_Relationship_DrugMatch_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameRelationship,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
-				CSVWriter.NO_QUOTE_CHARACTER,
-				ReleaseFormat2.NEW_LINE)) {
-			// header
-			if (addHeader) {
-				writer.writeNext(new String[] {
-						"id",
-						"effectiveTime",
-						"active",
-						"moduleId",
-						"sourceId",
-						"destinationId",
-						"relationshipGroup",
-						"typeId",
-						"characteristicTypeId",
-						"modifierId"
-				});
-				log.info("Created {}", this.fileNameRelationship);
-			}
-			// content
-			writer.writeNext(new String[] {
-					relationshipId,
-					this.effectiveTime,
-					ReleaseFormat2.STATUS_ACTIVE_ID,
-					DrugMatchProperties.getModuleId(),
-					sourceId,
-					destinationId,
-					ReleaseFormat2.RELATIONSHIP_GROUP_NONE,
-					typeId,
-					ReleaseFormat2.RELATIONSHIP_CHARACTERISTIC_TYPE_DEFINING_ID,
-					ReleaseFormat2.RELATIONSHIP_MODIFIER_ID
-			});
-			writer.flush();
-		}
-		return relationshipId;
+		addRow(rows,
+				this.fileNameRelationship,
+				RELATIONSHIP_HEADER,
+				0,
+				relationshipUuid,
+				this.effectiveTime,
+				ReleaseFormat2.STATUS_ACTIVE_ID,
+				this.settings.getModuleId(),
+				sourceId,
+				destinationId,
+				ReleaseFormat2.RELATIONSHIP_GROUP_NONE,
+				typeId,
+				ReleaseFormat2.RELATIONSHIP_CHARACTERISTIC_TYPE_DEFINING_ID,
+				ReleaseFormat2.RELATIONSHIP_MODIFIER_ID);
+		return relationshipUuid;
 	}
 
 	/**
 	 * Export relationship to SNOMED CT Release Format 2 Quantity Reference Set.
-	 * @param referencedComponentId
+	 * @param rows
+	 * @param referencedComponentUuid stated relationship UUID, resolved to the relationship ID once allocated
 	 * @param conceptId
 	 * @param number
 	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
 	 */
-	private void exportRelationshipToQuantityReferenceSet(String referencedComponentId,
-			Long conceptId,
-			String number) throws DrugMatchConfigurationException, IOException {
-		boolean addHeader = false;
-		if (this.fileNameQuantityReferenceSet == null) {
-			this.fileNameQuantityReferenceSet = DrugMatchProperties.getReferenceSetContentDirectory().getPath() + File.separator + "der2_ciRefset_QuantityReferenceSetConceptNumber_DrugMatch_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameQuantityReferenceSet,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
-				CSVWriter.NO_QUOTE_CHARACTER,
-				ReleaseFormat2.NEW_LINE)) {
-			// header
-			if (addHeader) {
-				writer.writeNext(new String[] {
-						"id",
-						"effectiveTime",
-						"active",
-						"moduleId",
-						"refSetId",
-						"referencedComponentId",
-						"conceptId",
-						"number"
-				});
-				log.info("Created {}", this.fileNameQuantityReferenceSet);
-			}
-			// content
-			writer.writeNext(new String[] {
-					UUID.randomUUID().toString(), // UUID v4 as defined by Robert Turnbull (20140603, rtu@ihtsdo.org)
-					this.effectiveTime,
-					ReleaseFormat2.STATUS_ACTIVE_ID,
-					DrugMatchProperties.getModuleId(),
-					DrugMatchProperties.getQuantityReferenceSetId(),
-					referencedComponentId,
-					String.valueOf(conceptId),
-					number
-			});
-			writer.flush();
-		}
+	private void exportRelationshipToQuantityReferenceSet(final CreatedRows rows,
+			final String referencedComponentUuid,
+			final Long conceptId,
+			final String number) throws DrugMatchConfigurationException {
+		addRow(rows,
+				this.fileNameQuantityReferenceSet,
+				QUANTITY_REFSET_HEADER,
+				5,
+				UUID.randomUUID().toString(), // UUID v4 as defined by Robert Turnbull (20140603, rtu@ihtsdo.org)
+				this.effectiveTime,
+				ReleaseFormat2.STATUS_ACTIVE_ID,
+				this.settings.getModuleId(),
+				this.settings.getQuantityReferenceSetId(),
+				referencedComponentUuid,
+				String.valueOf(conceptId),
+				number);
 	}
 
 	/**
-	 * Export relationship to SNOMED CT Release Format 2.
+	 * Export stated relationship to SNOMED CT Release Format 2.
+	 * @param rows
 	 * @param sourceId
 	 * @param destinationId
 	 * @param typeId
-	 * @return Relationship ID
-	 * @throws CreateSCTIDFaultException
+	 * @return Relationship UUID, resolved to the relationship ID once allocated
 	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
+	 * @throws UnsupportedEncodingException
 	 */
-	private String exportStatedRelationship(final String sourceId,
+	private String exportStatedRelationship(final CreatedRows rows,
+			final String sourceId,
 			final String destinationId,
-			final String typeId) throws CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
-		String relationshipId = getExtensionRelationshipId(sourceId,
+			final String typeId) throws DrugMatchConfigurationException, UnsupportedEncodingException {
+		String relationshipUuid = getExtensionRelationshipUuid(rows,
+				sourceId,
 				destinationId,
 				ReleaseFormat2.RELATIONSHIP_GROUP_NONE,
 				typeId,
 				ReleaseFormat2.RELATIONSHIP_CHARACTERISTIC_TYPE_STATED_ID,
 				ReleaseFormat2.RELATIONSHIP_MODIFIER_ID);
-		boolean addHeader = false;
-		if (this.fileNameStatedRelationship == null) {
-			this.fileNameStatedRelationship = DrugMatchProperties.getTerminologyDirectory().getPath() + File.separator + "sct2_StatedRelationship_DrugMatch_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameStatedRelationship,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
-				CSVWriter.NO_QUOTE_CHARACTER,
-				ReleaseFormat2.NEW_LINE)) {
-			// header
-			if (addHeader) {
-				writer.writeNext(new String[] {
-						"id",
-						"effectiveTime",
-						"active",
-						"moduleId",
-						"sourceId",
-						"destinationId",
-						"relationshipGroup",
-						"typeId",
-						"characteristicTypeId",
-						"modifierId"
-				});
-				log.info("Created {}", this.fileNameStatedRelationship);
+		addRow(rows,
+				this.fileNameStatedRelationship,
+				RELATIONSHIP_HEADER,
+				0,
+				relationshipUuid,
+				this.effectiveTime,
+				ReleaseFormat2.STATUS_ACTIVE_ID,
+				this.settings.getModuleId(),
+				sourceId,
+				destinationId,
+				ReleaseFormat2.RELATIONSHIP_GROUP_NONE,
+				typeId,
+				ReleaseFormat2.RELATIONSHIP_CHARACTERISTIC_TYPE_STATED_ID,
+				ReleaseFormat2.RELATIONSHIP_MODIFIER_ID);
+		return relationshipUuid;
+	}
+
+	/**
+	 * Add RF2 row.
+	 * @param rows
+	 * @param fileName
+	 * @param header written if the file is new
+	 * @param idColumn index of the column holding a component UUID awaiting its ID, or {@link #NO_PENDING_ID}
+	 * @param columns
+	 */
+	private void addRow(final CreatedRows rows,
+			final String fileName,
+			final String[] header,
+			final int idColumn,
+			final String... columns) {
+		rows.rows.add(new PendingRow(fileName, header, columns, idColumn));
+	}
+
+	/**
+	 * Allocate the pending description & relationship IDs, one request per partition, export the queued RF2 rows and checkpoint the output files.<br>
+	 * Then commit the window to the journal, if any.
+	 * @throws CreateSCTIDListFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private void flushReleaseFormat2() throws CreateSCTIDListFaultException, DrugMatchConfigurationException, IOException {
+		if (this.fileName2PendingRows.isEmpty()) {
+			if (this.journal != null) {
+				// window of "Match"-ed pharmaceuticals only
+				this.journal.commit(this.outputFileWriters.checkpoint());
 			}
-			// content
-			writer.writeNext(new String[] {
-					relationshipId,
-					this.effectiveTime,
-					ReleaseFormat2.STATUS_ACTIVE_ID,
-					DrugMatchProperties.getModuleId(),
-					sourceId,
-					destinationId,
-					ReleaseFormat2.RELATIONSHIP_GROUP_NONE,
-					typeId,
-					ReleaseFormat2.RELATIONSHIP_CHARACTERISTIC_TYPE_STATED_ID,
-					ReleaseFormat2.RELATIONSHIP_MODIFIER_ID
-			});
-			writer.flush();
+			return;
+		} // else
+		Map<String, String> uuid2Id = new HashMap<>(this.idService.getExtensionDescriptionIds(this.pendingDescriptionUuids));
+		uuid2Id.putAll(this.idService.getExtensionRelationshipIds(this.pendingRelationshipUuids));
+		log.debug("Allocated {} description & {} relationship IDs",
+				String.valueOf(this.pendingDescriptionUuids.size()),
+				String.valueOf(this.pendingRelationshipUuids.size()));
+		CSVWriter writer;
+		for (Map.Entry<String, List<PendingRow>> entry : this.fileName2PendingRows.entrySet()) {
+			writer = this.outputFileWriters.getWriter(entry.getKey(),
+					entry.getValue().get(0).header,
+					ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER,
+					CSVWriter.NO_QUOTE_CHARACTER,
+					ReleaseFormat2.NEW_LINE);
+			for (PendingRow row : entry.getValue()) {
+				if (row.idColumn != NO_PENDING_ID) {
+					String id = uuid2Id.get(row.columns[row.idColumn]);
+					if (id == null) {
+						throw new IOException("Unable to proceed, cause: no SCT ID allocated for UUID: " + row.columns[row.idColumn]);
+					} // else
+					row.columns[row.idColumn] = id;
+				}
+				writer.writeNext(row.columns);
+			}
+		}
+		Map<String, Long> fileName2Length = this.outputFileWriters.checkpoint();
+		this.fileName2PendingRows.clear();
+		this.pendingDescriptionUuids.clear();
+		this.pendingRelationshipUuids.clear();
+		if (this.journal != null) {
+			this.journal.commit(fileName2Length);
 		}
-		return relationshipId;
 	}
 
 	/**
@@ -810,190 +914,500 @@ public class Create {
 	 * Generates mapping as output, as the info is already available.
 	 * @return {@link Map}({@link Pharmaceutical}, SCT Concept ID)
 	 * @throws CreateConceptIdsFaultException
-	 * @throws CreateSCTIDFaultException
+	 * @throws CreateSCTIDListFaultException
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private Map<Pharmaceutical, String> generateReleaseFormat2() throws CreateConceptIdsFaultException, CreateSCTIDFaultException, DrugMatchConfigurationException, IOException {
-		log.info("Starting \"Create\" SNOMED CT Release Format 2 export & report");
+	private Map<Pharmaceutical, String> generateReleaseFormat2() throws CreateConceptIdsFaultException, CreateSCTIDListFaultException, DrugMatchConfigurationException, IOException {
 		Map<Pharmaceutical, Pair<PharmaceuticalMatch, GenericMatch>> pharmaceutical2TermMatches = this.match.getPharmaceutical2TermMatches();
 		Map<Pharmaceutical, String> result = new LinkedHashMap<>(pharmaceutical2TermMatches.size());
-		Pair<PharmaceuticalMatch, GenericMatch> termMatch;
-		String conceptId, parentId;
-		for (Map.Entry<Pharmaceutical, Pair<PharmaceuticalMatch, GenericMatch>> entry : pharmaceutical2TermMatches
-				.entrySet()) {
-			termMatch = entry.getValue();
-			if (termMatch != null) {
-				// determine pharmaceutical match
-				if (termMatch.getKey() == null) {
-					conceptId = null;
-				} else {
-					if (MatchTermRule.PHARMACEUTICAL_EXACT_NATIONAL_MATCH.equals(termMatch.getKey().rule)
-							|| MatchTermRule.PHARMACEUTICAL_CASE_INSENSITIVE_NATIONAL_MATCH.equals(termMatch.getKey().rule)
-							|| MatchTermRule.PHARMACEUTICAL_INCORRECT_COMPONENT_ORDER_NATIONAL.equals(termMatch.getKey().rule)
-							|| MatchTermRule.PHARMACEUTICAL_PARTIAL_TRADE_NAME_NATIONAL.equals(termMatch.getKey().rule)) {
-						conceptId = (termMatch.getKey().descriptor == null) ? null : String.valueOf(termMatch.getKey().descriptor.conceptId);
-					} else {
-						conceptId = null;
-						if (termMatch.getKey().descriptor != null) {
-							log.debug("Unable to use \"Match\" for national pharmaceutical [drugId={}], cause: uneglible rule [rule={}]",
-									entry.getKey().drugId,
-									termMatch.getKey().rule);
+		if (pharmaceutical2TermMatches.isEmpty()) {
+			log.debug("Skipping \"Create\" SNOMED CT Release Format 2 export & report, cause: no data available");
+			return result;
+		} // else
+		log.info("Starting \"Create\" SNOMED CT Release Format 2 export & report");
+		initFileNames();
+		StageProgress progress = StageProgress.start("\"Create\"",
+				pharmaceutical2TermMatches.size(),
+				this.settings);
+		if (this.parallelism < 2
+				|| pharmaceutical2TermMatches.size() < 2) {
+			for (Map.Entry<Pharmaceutical, Pair<PharmaceuticalMatch, GenericMatch>> entry : pharmaceutical2TermMatches.entrySet()) {
+				export(entry.getKey(),
+						createPharmaceutical(entry.getKey(), entry.getValue()),
+						result);
+				progress.increment();
+			}
+		} else {
+			createPharmaceuticals(pharmaceutical2TermMatches,
+					result,
+					progress);
+		}
+		flushReleaseFormat2();
+		progress.complete();
+		log.debug("Created {} generic concept(s)", String.valueOf(this.genericUuid2Concept.size()));
+		log.info("Completed \"Create\" SNOMED CT Release Format 2 export & report");
+		return result;
+	}
+
+	/**
+	 * Create {@link Pharmaceutical}s using up to {@link #parallelism} workers.<br>
+	 * Output is exported in input order, ie. identical to sequential "Create".
+	 * @param pharmaceutical2TermMatches
+	 * @param result
+	 * @param progress
+	 * @throws CreateConceptIdsFaultException
+	 * @throws CreateSCTIDListFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private void createPharmaceuticals(final Map<Pharmaceutical, Pair<PharmaceuticalMatch, GenericMatch>> pharmaceutical2TermMatches,
+			final Map<Pharmaceutical, String> result,
+			final StageProgress progress) throws CreateConceptIdsFaultException, CreateSCTIDListFaultException, DrugMatchConfigurationException, IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.parallelism, pharmaceutical2TermMatches.size()));
+		try {
+			// bound the output awaiting export
+			int maxQueued = this.parallelism * 4;
+			Deque<Pair<Pharmaceutical, Future<CreatedRows>>> queue = new ArrayDeque<>(maxQueued);
+			Iterator<Map.Entry<Pharmaceutical, Pair<PharmaceuticalMatch, GenericMatch>>> iterator = pharmaceutical2TermMatches.entrySet().iterator();
+			Pair<Pharmaceutical, Future<CreatedRows>> head;
+			while (iterator.hasNext()
+					|| !queue.isEmpty()) {
+				while (iterator.hasNext()
+						&& queue.size() < maxQueued) {
+					final Map.Entry<Pharmaceutical, Pair<PharmaceuticalMatch, GenericMatch>> entry = iterator.next();
+					queue.addLast(Pair.of(entry.getKey(), executor.submit(new Callable<CreatedRows>() {
+
+						public CreatedRows call() throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+							return createPharmaceutical(entry.getKey(), entry.getValue());
 						}
-					}
+					})));
 				}
-				if (conceptId == null
-						&& eglible(entry.getKey())) {
-					// determine if generic parent is matched
-					if (MatchTermRule.GENERIC_EXACT_ENGLISH_MATCH.equals(termMatch.getValue().rule)
-							|| MatchTermRule.GENERIC_EXACT_NATIONAL_MATCH.equals(termMatch.getValue().rule)
-							|| MatchTermRule.GENERIC_CASE_INSENSITIVE_ENGLISH_MATCH.equals(termMatch.getValue().rule)
-							|| MatchTermRule.GENERIC_CASE_INSENSITIVE_NATIONAL_MATCH.equals(termMatch.getValue().rule)
-							|| MatchTermRule.GENERIC_PARTIAL_NATIONAL_DOSE_FORM.equals(termMatch.getValue().rule)
-							|| MatchTermRule.GENERIC_INCORRECT_COMPONENT_ORDER_NATIONAL.equals(termMatch.getValue().rule)
-							|| MatchTermRule.GENERIC_INCORRECT_COMPONENT_ORDER_ENGLISH.equals(termMatch.getValue().rule)
-							|| MatchTermRule.GENERIC_PARTIAL_ENGLISH_DOSE_FORM.equals(termMatch.getValue().rule)) {
-						parentId = (termMatch.getValue().descriptor == null) ? null : String.valueOf(termMatch.getValue().descriptor.conceptId);
-					} else {
-						parentId = null;
-						if (termMatch.getValue().descriptor != null) {
-							log.debug("Unable to use \"Match\" for generic pharmaceutical [drugId={}], cause: uneglible rule [rule={}]",
-									entry.getKey().drugId,
-									termMatch.getValue().rule);
-						}
-					}
-					if (parentId == null) {
-						parentId = createGenericConcept(entry.getKey());
-					}
-					conceptId = createNationalConcept(entry.getKey(), parentId);
+				head = queue.removeFirst();
+				export(head.getKey(),
+						getResult(head.getValue()),
+						result);
+				progress.increment();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Create {@link Pharmaceutical}, unless "Match"-ed or completed by an interrupted run.
+	 * @param pharmaceutical
+	 * @param termMatch
+	 * @return output, null if neither "Match"-ed nor created
+	 * @throws CreateConceptIdsFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private CreatedRows createPharmaceutical(final Pharmaceutical pharmaceutical,
+			final Pair<PharmaceuticalMatch, GenericMatch> termMatch) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+		if (termMatch == null) {
+			return null;
+		} // else
+		if (this.journal != null) {
+			String conceptId = this.journal.getConceptId(pharmaceutical.drugId);
+			if (conceptId != null) {
+				return getCommittedRows(conceptId);
+			}
+		}
+		CreatedRows rows = new CreatedRows();
+		String conceptId, parentId;
+		// determine pharmaceutical match
+		if (termMatch.getKey() == null) {
+			conceptId = null;
+		} else {
+			if (MatchTermRule.PHARMACEUTICAL_EXACT_NATIONAL_MATCH.equals(termMatch.getKey().rule)
+					|| MatchTermRule.PHARMACEUTICAL_CASE_INSENSITIVE_NATIONAL_MATCH.equals(termMatch.getKey().rule)
+					|| MatchTermRule.PHARMACEUTICAL_INCORRECT_COMPONENT_ORDER_NATIONAL.equals(termMatch.getKey().rule)
+					|| MatchTermRule.PHARMACEUTICAL_PARTIAL_TRADE_NAME_NATIONAL.equals(termMatch.getKey().rule)) {
+				conceptId = (termMatch.getKey().descriptor == null) ? null : String.valueOf(termMatch.getKey().descriptor.conceptId);
+			} else {
+				conceptId = null;
+				if (termMatch.getKey().descriptor != null) {
+					log.debug("Unable to use \"Match\" for national pharmaceutical [drugId={}], cause: uneglible rule [rule={}]",
+							pharmaceutical.drugId,
+							termMatch.getKey().rule);
 				}
-				if (conceptId != null) {
-					result.put(entry.getKey(), conceptId);
+			}
+		}
+		if (conceptId == null
+				&& eglible(pharmaceutical)) {
+			// determine if generic parent is matched
+			if (MatchTermRule.GENERIC_EXACT_ENGLISH_MATCH.equals(termMatch.getValue().rule)
+					|| MatchTermRule.GENERIC_EXACT_NATIONAL_MATCH.equals(termMatch.getValue().rule)
+					|| MatchTermRule.GENERIC_CASE_INSENSITIVE_ENGLISH_MATCH.equals(termMatch.getValue().rule)
+					|| MatchTermRule.GENERIC_CASE_INSENSITIVE_NATIONAL_MATCH.equals(termMatch.getValue().rule)
+					|| MatchTermRule.GENERIC_PARTIAL_NATIONAL_DOSE_FORM.equals(termMatch.getValue().rule)
+					|| MatchTermRule.GENERIC_INCORRECT_COMPONENT_ORDER_NATIONAL.equals(termMatch.getValue().rule)
+					|| MatchTermRule.GENERIC_INCORRECT_COMPONENT_ORDER_ENGLISH.equals(termMatch.getValue().rule)
+					|| MatchTermRule.GENERIC_PARTIAL_ENGLISH_DOSE_FORM.equals(termMatch.getValue().rule)) {
+				parentId = (termMatch.getValue().descriptor == null) ? null : String.valueOf(termMatch.getValue().descriptor.conceptId);
+			} else {
+				parentId = null;
+				if (termMatch.getValue().descriptor != null) {
+					log.debug("Unable to use \"Match\" for generic pharmaceutical [drugId={}], cause: uneglible rule [rule={}]",
+							pharmaceutical.drugId,
+							termMatch.getValue().rule);
 				}
 			}
+			if (parentId == null) {
+				CreatedRows genericConcept = getGenericConcept(pharmaceutical);
+				rows.dependencies.add(genericConcept);
+				parentId = genericConcept.conceptId;
+			}
+			conceptId = createNationalConcept(rows,
+					pharmaceutical,
+					parentId);
 		}
-		log.info("Completed \"Create\" SNOMED CT Release Format 2 export & report");
+		rows.conceptId = conceptId;
+		return rows;
+	}
+
+	/**
+	 * Queue the output of a {@link Pharmaceutical} for export, allocating IDs per window.
+	 * @param pharmaceutical
+	 * @param rows
+	 * @param result
+	 * @throws CreateSCTIDListFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private void export(final Pharmaceutical pharmaceutical,
+			final CreatedRows rows,
+			final Map<Pharmaceutical, String> result) throws CreateSCTIDListFaultException, DrugMatchConfigurationException, IOException {
+		if (rows == null) {
+			return;
+		} // else
+		boolean committed = rows.exported;
+		export(rows);
+		if (rows.conceptId != null) {
+			result.put(pharmaceutical, rows.conceptId);
+			if (this.journal != null
+					&& !committed) {
+				this.journal.addPharmaceutical(pharmaceutical.drugId,
+						rows.conceptId,
+						rows.rows.size());
+			}
+			if (result.size() % this.idBatchSize == 0) {
+				flushReleaseFormat2();
+			}
+		}
+	}
+
+	/**
+	 * Queue RF2 rows, until the IDs of the current window are allocated, report rows are written right away.<br>
+	 * Dependencies not yet exported are exported first, rows are exported once.
+	 * @param rows
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private void export(final CreatedRows rows) throws DrugMatchConfigurationException, IOException {
+		if (rows.exported) {
+			return;
+		} // else
+		rows.exported = true;
+		for (CreatedRows dependency : rows.dependencies) {
+			export(dependency);
+		}
+		List<PendingRow> pendingRows;
+		for (PendingRow row : rows.rows) {
+			pendingRows = this.fileName2PendingRows.get(row.fileName);
+			if (pendingRows == null) {
+				pendingRows = new ArrayList<>();
+				this.fileName2PendingRows.put(row.fileName, pendingRows);
+			}
+			pendingRows.add(row);
+		}
+		this.pendingDescriptionUuids.addAll(rows.descriptionUuids);
+		this.pendingRelationshipUuids.addAll(rows.relationshipUuids);
+		if (this.journal != null) {
+			if (rows.genericUuid != null) {
+				this.journal.addGenericConcept(rows.genericUuid,
+						rows.conceptId);
+			} else if (rows == this.placeHolderConcept) {
+				this.journal.addPlaceHolderConcept(rows.conceptId);
+			}
+		}
+		if (!rows.reportRows.isEmpty()) {
+			String quoteCharacter = this.settings.getFileContentQuoteCharacter();
+			char quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
+			for (PendingRow row : rows.reportRows) {
+				this.outputFileWriters.getWriter(row.fileName,
+						row.header,
+						Check.getOutputFileContentSeparator(this.settings),
+						quoteChar,
+						System.lineSeparator())
+					.writeNext(row.columns);
+			}
+		}
+	}
+
+	/**
+	 * @param pharmaceutical
+	 * @return generic concept of the {@link Pharmaceutical}, created once per {@link Pharmaceutical#getGenericUUID()}.
+	 * @throws CreateConceptIdsFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private CreatedRows getGenericConcept(final Pharmaceutical pharmaceutical) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+		final String uuid = pharmaceutical.getGenericUUID().toString();
+		Future<CreatedRows> future = this.genericUuid2Concept.get(uuid);
+		if (future == null) {
+			FutureTask<CreatedRows> task = new FutureTask<>(new Callable<CreatedRows>() {
+
+				public CreatedRows call() throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+					String conceptId = (Create.this.journal == null) ? null : Create.this.journal.getGenericConceptId(uuid);
+					if (conceptId != null) {
+						return getCommittedRows(conceptId);
+					} // else
+					CreatedRows rows = new CreatedRows();
+					rows.conceptId = createGenericConcept(rows,
+							pharmaceutical);
+					rows.genericUuid = uuid;
+					return rows;
+				}
+			});
+			future = this.genericUuid2Concept.putIfAbsent(uuid, task);
+			if (future == null) {
+				future = task;
+				task.run();
+			}
+		} else {
+			log.debug("Reusing generic concept [drugId={}]", pharmaceutical.drugId);
+		}
+		return getResult(future);
+	}
+
+	/**
+	 * @return DrugMatch placeholder concept, created on first use.
+	 * @throws CreateConceptIdsFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private synchronized CreatedRows getPlaceHolderConcept() throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+		if (this.placeHolderConcept == null) {
+			String conceptId = (this.journal == null) ? null : this.journal.getPlaceHolderConceptId();
+			if (conceptId == null) {
+				CreatedRows rows = new CreatedRows();
+				createPlaceHolderConcept(rows);
+				this.placeHolderConcept = rows;
+			} else {
+				this.placeHolderConcept = getCommittedRows(conceptId);
+			}
+		}
+		return this.placeHolderConcept;
+	}
+
+	/**
+	 * @param conceptId
+	 * @return output committed by an interrupted run, ie. already exported.
+	 */
+	private static CreatedRows getCommittedRows(final String conceptId) {
+		CreatedRows result = new CreatedRows();
+		result.conceptId = conceptId;
+		result.exported = true;
 		return result;
 	}
 
 	/**
+	 * @param future
+	 * @return result, unwrapping the original exception on failure.
+	 * @throws CreateConceptIdsFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private static <V> V getResult(final Future<V> future) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while awaiting \"Create\"", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CreateConceptIdsFaultException) {
+				throw (CreateConceptIdsFaultException) cause;
+			} // else
+			if (cause instanceof DrugMatchConfigurationException) {
+				throw (DrugMatchConfigurationException) cause;
+			} // else
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} // else
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} // else
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Resolve output file names, creating the output directories.
+	 * @throws DrugMatchConfigurationException
+	 */
+	private void initFileNames() throws DrugMatchConfigurationException {
+		this.fileNameConcept = this.settings.getTerminologyDirectory().getPath() + File.separator + "sct2_Concept_DrugMatch_" + this.isoNow + ".txt";
+		this.fileNameDescription = this.settings.getTerminologyDirectory().getPath() + File.separator + "sct2_Description_DrugMatch_" + this.isoNow + ".txt";
+		this.fileNameReferenceSetLanguageEnglish = this.settings.getReferenceSetLanguageDirectory().getPath() + File.separator + "der2_cRefset_Language_DrugMatch_" + ReleaseFormat2.LANGUAGE_EN_CODE + "_" + this.isoNow + ".txt";
+		this.fileNameReferenceSetLanguageNational = this.settings.getReferenceSetLanguageDirectory().getPath() + File.separator + "der2_cRefset_Language_DrugMatch_" + this.settings.getNationalLanguageCode() + "_" + this.isoNow + ".txt";
+		this.fileNameRelationship = this.settings.getTerminologyDirectory().getPath() + File.separator + "sct2_Relationship_DrugMatch_" + this.isoNow + ".txt";
+		this.fileNameQuantityReferenceSet = this.settings.getReferenceSetContentDirectory().getPath() + File.separator + "der2_ciRefset_QuantityReferenceSetConceptNumber_DrugMatch_" + this.isoNow + ".txt";
+		this.fileNameStatedRelationship = this.settings.getTerminologyDirectory().getPath() + File.separator + "sct2_StatedRelationship_DrugMatch_" + this.isoNow + ".txt";
+		this.fileNameReportCoreConcept = this.settings.getReportDirectory().getPath() + File.separator + "create_generic_pharmaceutical_" + this.isoNow + ".txt";
+		this.fileNameReportExtensionConcept = this.settings.getReportDirectory().getPath() + File.separator + "create_national_pharmaceutical_" + this.isoNow + ".txt";
+	}
+
+	/**
+	 * @param rows
 	 * @param namespaceId
 	 * @param term
 	 * @param languageCode
-	 * @return Extension Description ID
-	 * @throws CreateSCTIDFaultException
-	 * @throws DrugMatchConfigurationException
-	 * @throws RemoteException
+	 * @return Extension Description UUID, pending ID allocation
 	 * @throws UnsupportedEncodingException
 	 */
-	private String getExtensionDescriptionId(String namespaceId,
-			String term,
-			String languageCode) throws CreateSCTIDFaultException, DrugMatchConfigurationException, RemoteException, UnsupportedEncodingException {
-		return this.idService.getExtensionDescriptionId(
-				getUUID(new StringBuilder(namespaceId)
-						.append(term)
-						.append(languageCode)
-						.toString()));
+	private String getExtensionDescriptionUuid(final CreatedRows rows,
+			final String namespaceId,
+			final String term,
+			final String languageCode) throws UnsupportedEncodingException {
+		String result = getUUID(new StringBuilder(namespaceId)
+				.append(term)
+				.append(languageCode)
+				.toString());
+		rows.descriptionUuids.add(result);
+		return result;
 	}
 
 	/**
+	 * @param rows
 	 * @param sourceId
 	 * @param destinationId
 	 * @param relationshipGroup
 	 * @param typeId
 	 * @param characteristicTypeId
 	 * @param modifierId
-	 * @return Extension Relationship ID
-	 * @throws CreateSCTIDFaultException
-	 * @throws DrugMatchConfigurationException
-	 * @throws RemoteException
+	 * @return Extension Relationship UUID, pending ID allocation
 	 * @throws UnsupportedEncodingException
 	 */
-	private String getExtensionRelationshipId(String sourceId,
-			String destinationId,
-			String relationshipGroup,
-			String typeId,
-			String characteristicTypeId,
-			String modifierId) throws CreateSCTIDFaultException, DrugMatchConfigurationException, RemoteException, UnsupportedEncodingException {
-		return this.idService.getExtensionRelationshipId(
-				getUUID(new StringBuilder(sourceId)
-						.append(destinationId)
-						.append(relationshipGroup)
-						.append(typeId)
-						.append(characteristicTypeId)
-						.append(modifierId)
-						.toString()));
+	private String getExtensionRelationshipUuid(final CreatedRows rows,
+			final String sourceId,
+			final String destinationId,
+			final String relationshipGroup,
+			final String typeId,
+			final String characteristicTypeId,
+			final String modifierId) throws UnsupportedEncodingException {
+		String result = getUUID(new StringBuilder(sourceId)
+				.append(destinationId)
+				.append(relationshipGroup)
+				.append(typeId)
+				.append(characteristicTypeId)
+				.append(modifierId)
+				.toString());
+		rows.relationshipUuids.add(result);
+		return result;
+	}
+
+	/**
+	 * Queued output row.
+	 */
+	private static final class PendingRow {
+
+		private final String fileName;
+
+		private final String[] header;
+
+		private final String[] columns;
+
+		private final int idColumn;
+
+		private PendingRow(final String fileName,
+				final String[] header,
+				final String[] columns,
+				final int idColumn) {
+			this.fileName = fileName;
+			this.header = header;
+			this.columns = columns;
+			this.idColumn = idColumn;
+		}
+	}
+
+	/**
+	 * Output of a single {@link Pharmaceutical} or shared concept, built independently of the other {@link Pharmaceutical}s and exported in input order.
+	 */
+	private static final class CreatedRows {
+
+		/**
+		 * RF2 rows, in creation order.
+		 */
+		private final List<PendingRow> rows = new ArrayList<>();
+
+		/**
+		 * Report rows, in creation order.
+		 */
+		private final List<PendingRow> reportRows = new ArrayList<>();
+
+		/**
+		 * Component UUIDs awaiting an ID.
+		 */
+		private final Set<String> descriptionUuids = new LinkedHashSet<>(),
+			relationshipUuids = new LinkedHashSet<>();
+
+		/**
+		 * Shared concepts referenced by the rows, ie. generic & DrugMatch placeholder concept.
+		 */
+		private final List<CreatedRows> dependencies = new ArrayList<>();
+
+		/**
+		 * SCT Concept ID, null if none.
+		 */
+		private String conceptId;
+
+		/**
+		 * {@link Pharmaceutical#getGenericUUID()} of a generic concept, null otherwise.
+		 */
+		private String genericUuid;
+
+		/**
+		 * true once exported, only accessed by the exporting thread.
+		 */
+		private boolean exported = false;
 	}
 
 	/**
 	 * Export concept to "Create" report.
+	 * @param rows
 	 * @param conceptId
 	 * @param fullySpecifiedName
-	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
 	 */
-	private void reportCoreConcept(final String conceptId,
-			String fullySpecifiedName) throws DrugMatchConfigurationException, IOException {
-		boolean addHeader = false;
-		if (this.fileNameReportCoreConcept == null) {
-			this.fileNameReportCoreConcept = DrugMatchProperties.getReportDirectory().getPath() + File.separator + "create_generic_pharmaceutical_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		String quoteCharacter = DrugMatchProperties.getFileContentQuoteCharacter();
-		char quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameReportCoreConcept,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				Check.getOutputFileContentSeparator(),
-				quoteChar,
-				System.lineSeparator())) {
-			// header
-			if (addHeader) {
-				writer.writeNext(REPORT_HEADER);
-				log.info("Created {}", this.fileNameReportCoreConcept);
-			}
-			// content
-			writer.writeNext(new String[] {
-					conceptId,
-					fullySpecifiedName
-			});
-			writer.flush();
-		}
+	private void reportCoreConcept(final CreatedRows rows,
+			final String conceptId,
+			final String fullySpecifiedName) {
+		rows.reportRows.add(new PendingRow(this.fileNameReportCoreConcept,
+				REPORT_HEADER,
+				new String[] {
+						conceptId,
+						fullySpecifiedName
+				},
+				NO_PENDING_ID));
 	}
 
 	/**
 	 * Export concept to "Create" report.
+	 * @param rows
 	 * @param conceptId
 	 * @param fullySpecifiedName
-	 * @throws DrugMatchConfigurationException
-	 * @throws IOException
 	 */
-	private void reportExtensionConcept(final String conceptId,
-			String fullySpecifiedName) throws DrugMatchConfigurationException, IOException {
-		boolean addHeader = false;
-		if (this.fileNameReportExtensionConcept == null) {
-			this.fileNameReportExtensionConcept = DrugMatchProperties.getReportDirectory().getPath() + File.separator + "create_national_pharmaceutical_" + this.isoNow + ".txt";
-			addHeader = true;
-		}
-		String quoteCharacter = DrugMatchProperties.getFileContentQuoteCharacter();
-		char quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
-		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(this.fileNameReportExtensionConcept,
-								!addHeader), // append
-						CharEncoding.UTF_8),
-				Check.getOutputFileContentSeparator(),
-				quoteChar,
-				System.lineSeparator())) {
-			// header
-			if (addHeader) {
-				writer.writeNext(REPORT_HEADER);
-				log.info("Created {}", this.fileNameReportExtensionConcept);
-			}
-			// content
-			writer.writeNext(new String[] {
-					conceptId,
-					fullySpecifiedName
-			});
-			writer.flush();
-		}
+	private void reportExtensionConcept(final CreatedRows rows,
+			final String conceptId,
+			final String fullySpecifiedName) {
+		rows.reportRows.add(new PendingRow(this.fileNameReportExtensionConcept,
+				REPORT_HEADER,
+				new String[] {
+						conceptId,
+						fullySpecifiedName
+				},
+				NO_PENDING_ID));
 	}
 }
@@ -0,0 +1,304 @@
+package org.ihtsdo.sct.drugmatch.create;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.codec.CharEncoding;
+import org.apache.commons.lang3.StringUtils;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.id.service.cache.IdentifierStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-ahead journal of a "Create" run, allowing an interrupted run to be resumed.
+ * <p>
+ * Allocated identifiers are stored (synced) in an {@link IdentifierStore} before use.
+ * Once the output of an ID allocation window is checkpointed, the window is committed as a single synced record:
+ * the completed {@link org.ihtsdo.sct.drugmatch.model.Pharmaceutical}s, the shared concepts created & the length of every output file.
+ * A record without its trailing "COMMIT" line (ex. after a crash) is ignored.
+ * @author dev-team@carecom.dk
+ */
+public class CreateJournal {
+
+	private static final Logger log = LoggerFactory.getLogger(CreateJournal.class);
+
+	public static final String FILE_NAME = "create.journal";
+
+	private static final char SEPARATOR = '\t';
+
+	private static final String COMMIT = "COMMIT",
+		DRUG = "DRUG",
+		FILE = "FILE",
+		GENERIC = "GENERIC",
+		PLACEHOLDER = "PLACEHOLDER",
+		RUN = "RUN";
+
+	private final File file;
+
+	/**
+	 * YYYY-MM-DD HH.MM.SS, of the journaled run.
+	 */
+	private final String isoNow;
+
+	private final IdentifierStore identifierStore;
+
+	/**
+	 * {@link Map}(output file name, committed length).
+	 */
+	private final Map<String, Long> fileName2Length = new LinkedHashMap<>();
+
+	/**
+	 * {@link Map}(Drug ID, SCT Concept ID), of committed {@link org.ihtsdo.sct.drugmatch.model.Pharmaceutical}s.
+	 */
+	private final Map<String, String> drugId2ConceptId = new HashMap<>();
+
+	/**
+	 * {@link Map}(generic UUID, SCT Concept ID), of committed generic concepts.
+	 */
+	private final Map<String, String> genericUuid2ConceptId = new HashMap<>();
+
+	private String placeHolderConceptId;
+
+	/**
+	 * Record of the current window, awaiting commit.
+	 */
+	private final StringBuilder pending = new StringBuilder();
+
+	private int commits = 0;
+
+	/**
+	 * @param directory
+	 * @param isoNow
+	 * @param namespaceId
+	 */
+	private CreateJournal(final File directory,
+			final String isoNow,
+			final String namespaceId) {
+		this.file = new File(directory, FILE_NAME);
+		this.isoNow = isoNow;
+		this.identifierStore = new IdentifierStore(new File(directory, "id"),
+				namespaceId);
+	}
+
+	/**
+	 * Start journaling a new run, discarding the journal of the previous run.
+	 * @param directory
+	 * @param isoNow YYYY-MM-DD HH.MM.SS.
+	 * @param namespaceId
+	 * @return {@link CreateJournal}
+	 * @throws IOException
+	 */
+	public static CreateJournal start(final File directory,
+			final String isoNow,
+			final String namespaceId) throws IOException {
+		CreateJournal result = new CreateJournal(directory,
+				isoNow,
+				namespaceId);
+		result.identifierStore.clear();
+		try (FileOutputStream fos = new FileOutputStream(result.file)) {
+			fos.write((RUN + SEPARATOR + isoNow + '\n').getBytes(CharEncoding.UTF_8));
+			fos.getFD().sync();
+		}
+		log.debug("Started \"Create\" journal: {}", result.file);
+		return result;
+	}
+
+	/**
+	 * Resume journaling the latest run, discarding any uncommitted record.
+	 * @param directory
+	 * @param namespaceId
+	 * @return {@link CreateJournal}
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	public static CreateJournal resume(final File directory,
+			final String namespaceId) throws DrugMatchConfigurationException, IOException {
+		File file = new File(directory, FILE_NAME);
+		if (!file.isFile()) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: no \"Create\" journal to resume: '" + file + "'");
+		} // else
+		String content = new String(Files.readAllBytes(file.toPath()), CharEncoding.UTF_8);
+		int end = content.indexOf('\n');
+		String[] columns = (end < 0) ? new String[0] : StringUtils.split(content.substring(0, end), SEPARATOR);
+		if (columns.length != 2
+				|| !RUN.equals(columns[0])) {
+			throw new IOException("Unable to proceed, cause: '" + file + "' isn't a \"Create\" journal");
+		} // else
+		CreateJournal result = new CreateJournal(directory,
+				columns[1],
+				namespaceId);
+		int committed = result.load(content.substring(end + 1));
+		int committedLength = content.substring(0, end + 1 + committed).getBytes(CharEncoding.UTF_8).length;
+		if (committedLength < file.length()) {
+			log.info("Discarding uncommitted \"Create\" journal record in: {}", file);
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.setLength(committedLength);
+			}
+		}
+		log.info("Resuming \"Create\" of {}, {} pharmaceutical(s) completed",
+				result.isoNow,
+				String.valueOf(result.drugId2ConceptId.size()));
+		return result;
+	}
+
+	/**
+	 * Apply the committed records.
+	 * @param records
+	 * @return length (in characters) of the committed records.
+	 */
+	private int load(final String records) {
+		int result = 0,
+			start = 0,
+			end;
+		String line;
+		while ((end = records.indexOf('\n', start)) >= 0) {
+			line = records.substring(start, end);
+			start = end + 1;
+			if (COMMIT.equals(line)) {
+				apply();
+				result = start;
+			} else {
+				this.pending.append(line);
+				this.pending.append('\n');
+			}
+		}
+		this.pending.setLength(0);
+		return result;
+	}
+
+	/**
+	 * Apply the pending record.
+	 */
+	private void apply() {
+		String[] columns;
+		for (String line : StringUtils.split(this.pending.toString(), '\n')) {
+			columns = StringUtils.splitPreserveAllTokens(line, SEPARATOR);
+			if (DRUG.equals(columns[0])) {
+				this.drugId2ConceptId.put(columns[1], columns[2]);
+			} else if (FILE.equals(columns[0])) {
+				this.fileName2Length.put(columns[1], Long.valueOf(columns[2]));
+			} else if (GENERIC.equals(columns[0])) {
+				this.genericUuid2ConceptId.put(columns[1], columns[2]);
+			} else if (PLACEHOLDER.equals(columns[0])) {
+				this.placeHolderConceptId = columns[1];
+			} else {
+				log.warn("Ignoring unknown \"Create\" journal entry: '{}'", line);
+			}
+		}
+		this.pending.setLength(0);
+		this.commits++;
+	}
+
+	private void append(final String... columns) {
+		this.pending.append(StringUtils.join(columns, SEPARATOR));
+		this.pending.append('\n');
+	}
+
+	/**
+	 * @param drugId
+	 * @param conceptId
+	 * @param rows number of RF2 rows exported
+	 */
+	public final synchronized void addPharmaceutical(final String drugId,
+			final String conceptId,
+			final int rows) {
+		append(DRUG,
+				drugId,
+				conceptId,
+				String.valueOf(rows));
+	}
+
+	/**
+	 * @param uuid
+	 * @param conceptId
+	 */
+	public final synchronized void addGenericConcept(final String uuid,
+			final String conceptId) {
+		append(GENERIC,
+				uuid,
+				conceptId);
+	}
+
+	/**
+	 * @param conceptId
+	 */
+	public final synchronized void addPlaceHolderConcept(final String conceptId) {
+		append(PLACEHOLDER,
+				conceptId);
+	}
+
+	/**
+	 * Commit the pending record, ie. everything added since the previous commit.
+	 * @param outputFileName2Length {@link Map}(output file name, checkpointed length)
+	 * @throws IOException
+	 */
+	public final synchronized void commit(final Map<String, Long> outputFileName2Length) throws IOException {
+		if (this.pending.length() == 0) {
+			return;
+		} // else
+		for (Map.Entry<String, Long> entry : outputFileName2Length.entrySet()) {
+			append(FILE,
+					entry.getKey(),
+					String.valueOf(entry.getValue()));
+		}
+		String record = this.pending.toString() + COMMIT + '\n';
+		try (FileOutputStream fos = new FileOutputStream(this.file, true)) {
+			fos.write(record.getBytes(CharEncoding.UTF_8));
+			fos.getFD().sync();
+		}
+		apply();
+		log.debug("Committed \"Create\" journal record #{}", String.valueOf(this.commits));
+	}
+
+	/**
+	 * @return YYYY-MM-DD HH.MM.SS, of the journaled run.
+	 */
+	public final String getIsoNow() {
+		return this.isoNow;
+	}
+
+	/**
+	 * @return store of the identifiers allocated by the journaled run.
+	 */
+	public final IdentifierStore getIdentifierStore() {
+		return this.identifierStore;
+	}
+
+	/**
+	 * @return unmodifiable {@link Map}(output file name, committed length).
+	 */
+	public final synchronized Map<String, Long> getFileLengths() {
+		return Collections.unmodifiableMap(new LinkedHashMap<>(this.fileName2Length));
+	}
+
+	/**
+	 * @param drugId
+	 * @return SCT Concept ID of the completed {@link org.ihtsdo.sct.drugmatch.model.Pharmaceutical}, or null if not completed.
+	 */
+	public final synchronized String getConceptId(final String drugId) {
+		return this.drugId2ConceptId.get(drugId);
+	}
+
+	/**
+	 * @param uuid
+	 * @return SCT Concept ID of the created generic concept, or null if not created.
+	 */
+	public final synchronized String getGenericConceptId(final String uuid) {
+		return this.genericUuid2ConceptId.get(uuid);
+	}
+
+	/**
+	 * @return SCT Concept ID of the created DrugMatch placeholder concept, or null if not created.
+	 */
+	public final synchronized String getPlaceHolderConceptId() {
+		return this.placeHolderConceptId;
+	}
+}
@@ -1,15 +1,20 @@
 package org.ihtsdo.sct.drugmatch.id.service;
 
+import java.io.Closeable;
 import java.rmi.RemoteException;
+import java.util.Collection;
+import java.util.Map;
 
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
 import org.ihtsdo.sct.id.service.CreateConceptIdsFaultException;
 import org.ihtsdo.sct.id.service.CreateSCTIDFaultException;
+import org.ihtsdo.sct.id.service.CreateSCTIDListFaultException;
 
 /**
+ * {@link #close()} releases underlying resources, when "Create" has completed.
  * @author dev-team@carecom.dk
  */
-public interface IdService {
+public interface IdService extends Closeable {
 
 	/**
 	 * Get SNOMED CT extension concept ID.
@@ -42,4 +47,24 @@ public interface IdService {
 	 * @throws RemoteException
 	 */
 	String getExtensionRelationshipId(String uuid) throws CreateSCTIDFaultException, DrugMatchConfigurationException, RemoteException;
+
+	/**
+	 * Get SNOMED CT extension description IDs, in one request.
+	 * @param uuids
+	 * @return {@link Map}(UUID, description ID)
+	 * @throws CreateSCTIDListFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws RemoteException
+	 */
+	Map<String, String> getExtensionDescriptionIds(Collection<String> uuids) throws CreateSCTIDListFaultException, DrugMatchConfigurationException, RemoteException;
+
+	/**
+	 * Get SNOMED CT extension relationship IDs, in one request.
+	 * @param uuids
+	 * @return {@link Map}(UUID, relationship ID)
+	 * @throws CreateSCTIDListFaultException
+	 * @throws DrugMatchConfigurationException
+	 * @throws RemoteException
+	 */
+	Map<String, String> getExtensionRelationshipIds(Collection<String> uuids) throws CreateSCTIDListFaultException, DrugMatchConfigurationException, RemoteException;
 }
@@ -0,0 +1,170 @@
+package org.ihtsdo.sct.drugmatch.id.service.cache;
+
+import java.io.IOException;
+import java.rmi.RemoteException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.id.service.IdService;
+import org.ihtsdo.sct.id.service.CreateConceptIdsFaultException;
+import org.ihtsdo.sct.id.service.CreateSCTIDFaultException;
+import org.ihtsdo.sct.id.service.CreateSCTIDListFaultException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link IdService} decorator, reusing identifiers from an {@link IdentifierStore}.
+ * <p>
+ * "Create" derives deterministic component UUIDs, so reruns & partially failed runs only request the identifiers that are genuinely new.
+ * @author dev-team@carecom.dk
+ */
+public class CachingIdService implements IdService {
+
+	private static final Logger log = LoggerFactory.getLogger(CachingIdService.class);
+
+	private final IdService delegate;
+
+	private final IdentifierStore store;
+
+	/**
+	 * @param delegate
+	 * @param store
+	 */
+	public CachingIdService(final IdService delegate,
+			final IdentifierStore store) {
+		this.delegate = delegate;
+		this.store = store;
+	}
+
+	/**
+	 * Closes the delegate.
+	 */
+	@Override
+	public final void close() throws IOException {
+		this.delegate.close();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final String getExtensionConceptId(final String uuid,
+			final String parentId) throws CreateConceptIdsFaultException, DrugMatchConfigurationException, RemoteException {
+		String result = get(ReleaseFormat2.PARTITION_EXTENSION_CONCEPT_ID, uuid);
+		if (result == null) {
+			result = this.delegate.getExtensionConceptId(uuid, parentId);
+			put(ReleaseFormat2.PARTITION_EXTENSION_CONCEPT_ID, uuid, result);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final String getExtensionDescriptionId(final String uuid) throws CreateSCTIDFaultException, DrugMatchConfigurationException, RemoteException {
+		String result = get(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, uuid);
+		if (result == null) {
+			result = this.delegate.getExtensionDescriptionId(uuid);
+			put(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, uuid, result);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final Map<String, String> getExtensionDescriptionIds(final Collection<String> uuids) throws CreateSCTIDListFaultException, DrugMatchConfigurationException, RemoteException {
+		Map<String, String> result = getAll(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, uuids);
+		Set<String> misses = getMisses(uuids, result);
+		if (!misses.isEmpty()) {
+			putAll(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID,
+					this.delegate.getExtensionDescriptionIds(misses),
+					result);
+		}
+		log.debug("Reused {} of {} description ID(s)", String.valueOf(uuids.size() - misses.size()), String.valueOf(uuids.size()));
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final String getExtensionRelationshipId(final String uuid) throws CreateSCTIDFaultException, DrugMatchConfigurationException, RemoteException {
+		String result = get(ReleaseFormat2.PARTITION_EXTENSION_RELATIONSHIP_ID, uuid);
+		if (result == null) {
+			result = this.delegate.getExtensionRelationshipId(uuid);
+			put(ReleaseFormat2.PARTITION_EXTENSION_RELATIONSHIP_ID, uuid, result);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final Map<String, String> getExtensionRelationshipIds(final Collection<String> uuids) throws CreateSCTIDListFaultException, DrugMatchConfigurationException, RemoteException {
+		Map<String, String> result = getAll(ReleaseFormat2.PARTITION_EXTENSION_RELATIONSHIP_ID, uuids);
+		Set<String> misses = getMisses(uuids, result);
+		if (!misses.isEmpty()) {
+			putAll(ReleaseFormat2.PARTITION_EXTENSION_RELATIONSHIP_ID,
+					this.delegate.getExtensionRelationshipIds(misses),
+					result);
+		}
+		log.debug("Reused {} of {} relationship ID(s)", String.valueOf(uuids.size() - misses.size()), String.valueOf(uuids.size()));
+		return result;
+	}
+
+	private static Set<String> getMisses(final Collection<String> uuids,
+			final Map<String, String> hits) {
+		Set<String> result = new LinkedHashSet<>(uuids);
+		result.removeAll(hits.keySet());
+		return result;
+	}
+
+	private String get(final String partitionId,
+			final String uuid) throws RemoteException {
+		try {
+			return this.store.get(partitionId, uuid);
+		} catch (IOException e) {
+			throw new RemoteException("Unable to read identifier store", e);
+		}
+	}
+
+	private Map<String, String> getAll(final String partitionId,
+			final Collection<String> uuids) throws RemoteException {
+		try {
+			return this.store.getAll(partitionId, uuids);
+		} catch (IOException e) {
+			throw new RemoteException("Unable to read identifier store", e);
+		}
+	}
+
+	private void put(final String partitionId,
+			final String uuid,
+			final String sctId) throws RemoteException {
+		if (sctId != null) {
+			putAll(partitionId, Collections.singletonMap(uuid, sctId), new HashMap<String, String>());
+		}
+	}
+
+	/**
+	 * Store the allocated identifiers, before handing them out.
+	 * @param partitionId
+	 * @param allocated {@link Map}(UUID, SCT ID)
+	 * @param result
+	 * @throws RemoteException
+	 */
+	private void putAll(final String partitionId,
+			final Map<String, String> allocated,
+			final Map<String, String> result) throws RemoteException {
+		try {
+			this.store.putAll(partitionId, allocated);
+		} catch (IOException e) {
+			throw new RemoteException("Unable to write identifier store", e);
+		}
+		result.putAll(allocated);
+	}
+}
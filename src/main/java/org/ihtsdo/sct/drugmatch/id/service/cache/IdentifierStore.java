@@ -0,0 +1,191 @@
+package org.ihtsdo.sct.drugmatch.id.service.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.codec.CharEncoding;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent UUID to SCT ID store, for a single namespace.
+ * <p>
+ * One append-only file per partition, <code>&lt;directory&gt;/&lt;namespace ID&gt;/&lt;partition ID&gt;.txt</code>, a "UUID TAB SCT ID" line per identifier.
+ * Writes are synced before returning, an incomplete last line (ex. after a crash) is ignored.
+ * @author dev-team@carecom.dk
+ */
+public class IdentifierStore {
+
+	private static final Logger log = LoggerFactory.getLogger(IdentifierStore.class);
+
+	private static final char SEPARATOR = '\t';
+
+	private static final String FILE_SUFFIX = ".txt";
+
+	private final File directory;
+
+	/**
+	 * {@link Map}(partition ID, {@link Map}(UUID, SCT ID)), loaded on demand.
+	 */
+	private final Map<String, Map<String, String>> partitionId2Identifiers = new HashMap<>();
+
+	/**
+	 * @param baseDirectory
+	 * @param namespaceId
+	 */
+	public IdentifierStore(final File baseDirectory,
+			final String namespaceId) {
+		this.directory = new File(baseDirectory, namespaceId);
+	}
+
+	/**
+	 * @param partitionId
+	 * @param uuid
+	 * @return SCT ID, or null if unknown.
+	 * @throws IOException
+	 */
+	public final synchronized String get(final String partitionId,
+			final String uuid) throws IOException {
+		return getIdentifiers(partitionId).get(uuid);
+	}
+
+	/**
+	 * @param partitionId
+	 * @param uuids
+	 * @return {@link Map}(UUID, SCT ID) of the known identifiers.
+	 * @throws IOException
+	 */
+	public final synchronized Map<String, String> getAll(final String partitionId,
+			final Collection<String> uuids) throws IOException {
+		Map<String, String> identifiers = getIdentifiers(partitionId);
+		Map<String, String> result = new HashMap<>();
+		String sctId;
+		for (String uuid : uuids) {
+			sctId = identifiers.get(uuid);
+			if (sctId != null) {
+				result.put(uuid, sctId);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param partitionId
+	 * @param uuid2SctId {@link Map}(UUID, SCT ID)
+	 * @throws IOException
+	 */
+	public final synchronized void putAll(final String partitionId,
+			final Map<String, String> uuid2SctId) throws IOException {
+		if (uuid2SctId.isEmpty()) {
+			return;
+		} // else
+		Map<String, String> identifiers = getIdentifiers(partitionId);
+		if (!this.directory.isDirectory()
+				&& !this.directory.mkdirs()) {
+			throw new IOException("Unable to create directory: " + this.directory);
+		} // else
+		File file = getFile(partitionId);
+		boolean terminated = isTerminated(file);
+		try (FileOutputStream fos = new FileOutputStream(file, true)) {
+			Writer writer = new OutputStreamWriter(fos, CharEncoding.UTF_8);
+			if (!terminated) {
+				// start after the incomplete line
+				writer.write('\n');
+			}
+			for (Map.Entry<String, String> entry : uuid2SctId.entrySet()) {
+				writer.write(entry.getKey());
+				writer.write(SEPARATOR);
+				writer.write(entry.getValue());
+				writer.write('\n');
+			}
+			writer.flush();
+			fos.getFD().sync();
+		}
+		identifiers.putAll(uuid2SctId);
+	}
+
+	/**
+	 * Remove every stored identifier, of every partition.
+	 * @throws IOException
+	 */
+	public final synchronized void clear() throws IOException {
+		File[] files = this.directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				if (file.isFile()
+						&& file.getName().endsWith(FILE_SUFFIX)
+						&& !file.delete()) {
+					throw new IOException("Unable to delete: " + file);
+				}
+			}
+		}
+		this.partitionId2Identifiers.clear();
+	}
+
+	/**
+	 * @param file
+	 * @return true if the file is missing, empty or ends with a line break.
+	 * @throws IOException
+	 */
+	private static boolean isTerminated(final File file) throws IOException {
+		if (!file.isFile()
+				|| file.length() == 0) {
+			return true;
+		} // else
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			raf.seek(raf.length() - 1);
+			return raf.read() == '\n';
+		}
+	}
+
+	private File getFile(final String partitionId) {
+		return new File(this.directory, partitionId + FILE_SUFFIX);
+	}
+
+	private Map<String, String> getIdentifiers(final String partitionId) throws IOException {
+		Map<String, String> result = this.partitionId2Identifiers.get(partitionId);
+		if (result == null) {
+			result = load(getFile(partitionId));
+			this.partitionId2Identifiers.put(partitionId, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @param file
+	 * @return {@link Map}(UUID, SCT ID), empty if the file doesn't exist.
+	 * @throws IOException
+	 */
+	private static Map<String, String> load(final File file) throws IOException {
+		Map<String, String> result = new HashMap<>();
+		if (!file.isFile()) {
+			return result;
+		} // else
+		String content = new String(Files.readAllBytes(file.toPath()), CharEncoding.UTF_8);
+		int end = content.lastIndexOf('\n') + 1;
+		if (end < content.length()) {
+			log.warn("Ignoring incomplete identifier: '{}' in: {}", content.substring(end), file);
+		}
+		String[] columns;
+		for (String line : StringUtils.split(content.substring(0, end), '\n')) {
+			columns = StringUtils.split(line, SEPARATOR);
+			if (columns.length == 2
+					&& StringUtils.isNumeric(columns[1])) {
+				result.put(columns[0], columns[1]);
+			} else {
+				log.warn("Ignoring malformed identifier: '{}' in: {}", line, file);
+			}
+		}
+		log.debug("Loaded {} identifier(s) from: {}", String.valueOf(result.size()), file);
+		return result;
+	}
+}
@@ -1,40 +1,124 @@
 package org.ihtsdo.sct.drugmatch.id.service.impl;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.rmi.RemoteException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.axis2.AxisFault;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.ConfigurationContextFactory;
 import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
 import org.ihtsdo.sct.drugmatch.id.service.IdService;
+import org.ihtsdo.sct.drugmatch.metric.Metrics;
+import org.ihtsdo.sct.drugmatch.metric.OperationMetrics;
 import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
 import org.ihtsdo.sct.id.service.CreateConceptIdsFaultException;
 import org.ihtsdo.sct.id.service.CreateSCTIDFaultException;
+import org.ihtsdo.sct.id.service.CreateSCTIDListFaultException;
 import org.ihtsdo.sct.id.service.Id_generatorStub;
+import org.ihtsdo.sct.id.service.Id_generatorStub.CodeSctIdType;
 import org.ihtsdo.sct.id.service.Id_generatorStub.CreateConceptIdsRequest;
 import org.ihtsdo.sct.id.service.Id_generatorStub.CreateConceptIdsResponse;
+import org.ihtsdo.sct.id.service.Id_generatorStub.CreateSCTIDListRequest;
+import org.ihtsdo.sct.id.service.Id_generatorStub.CreateSCTIDListResponse;
 import org.ihtsdo.sct.id.service.Id_generatorStub.CreateSCTIDRequest;
 import org.ihtsdo.sct.id.service.Id_generatorStub.CreateSCTIDResponse;
 import org.ihtsdo.sct.id.service.Id_generatorStub.IDString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author dev-team@carecom.dk
  */
 public class IdServiceImpl implements IdService {
 
-	private final Id_generatorStub service = new Id_generatorStub(DrugMatchProperties.getSctIdService());
+	private static final Logger log = LoggerFactory.getLogger(IdServiceImpl.class);
+
+	private final DrugMatchSettings settings;
+
+	private final String serviceUrl;
+
+	/**
+	 * Shared by all {@link #stubs}, ie. the Axis2 configuration is loaded once.
+	 */
+	private final ConfigurationContext configurationContext;
+
+	/**
+	 * {@link Id_generatorStub} per calling thread, as a stub isn't safe for concurrent use.
+	 */
+	private final ThreadLocal<Id_generatorStub> service = new ThreadLocal<>();
+
+	/**
+	 * Every {@link Id_generatorStub} created, released by {@link #close()}.
+	 */
+	private final Queue<Id_generatorStub> stubs = new ConcurrentLinkedQueue<>();
 
 	/**
 	 * Namespace constant.
 	 */
-	private final BigInteger namespaceExtensionId = new BigInteger(DrugMatchProperties.getNationalNamespaceId());
+	private final BigInteger namespaceExtensionId;
+
+	private final OperationMetrics createConceptIdsMetrics = Metrics.get(Metrics.SCT_ID_CREATE_CONCEPT_IDS),
+		createSctIdMetrics = Metrics.get(Metrics.SCT_ID_CREATE_SCT_ID),
+		createSctIdListMetrics = Metrics.get(Metrics.SCT_ID_CREATE_SCT_ID_LIST);
 
 	/**
 	 * @throws AxisFault
 	 * @throws DrugMatchConfigurationException
 	 */
 	public IdServiceImpl() throws AxisFault, DrugMatchConfigurationException {
-		// empty on purpose
+		this(DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * @param settings
+	 * @throws AxisFault
+	 * @throws DrugMatchConfigurationException
+	 */
+	public IdServiceImpl(final DrugMatchSettings settings) throws AxisFault, DrugMatchConfigurationException {
+		this.settings = settings;
+		this.serviceUrl = settings.getSctIdService();
+		this.namespaceExtensionId = new BigInteger(settings.getNationalNamespaceId());
+		this.configurationContext = ConfigurationContextFactory.createConfigurationContextFromFileSystem(null, null);
+		getService();
+	}
+
+	/**
+	 * Release the {@link Id_generatorStub} of every calling thread & the shared {@link ConfigurationContext}.
+	 * @throws IOException
+	 */
+	@Override
+	public final void close() throws IOException {
+		int released = 0;
+		Id_generatorStub stub;
+		while ((stub = this.stubs.poll()) != null) {
+			stub._getServiceClient().cleanup();
+			released++;
+		}
+		this.configurationContext.terminate();
+		log.debug("Released {} SCT ID service stub(s)", String.valueOf(released));
+	}
+
+	/**
+	 * @return {@link Id_generatorStub} of the calling thread.
+	 * @throws AxisFault
+	 */
+	private Id_generatorStub getService() throws AxisFault {
+		Id_generatorStub result = this.service.get();
+		if (result == null) {
+			result = new Id_generatorStub(this.configurationContext,
+					this.serviceUrl);
+			this.service.set(result);
+			this.stubs.add(result);
+		}
+		return result;
 	}
 
 	/**
@@ -46,18 +130,18 @@ public class IdServiceImpl implements IdService {
 	 * @return
 	 * @throws DrugMatchConfigurationException
 	 */
-	private static CreateConceptIdsRequest getCreateConceptIdsRequest(final String uuid,
+	private CreateConceptIdsRequest getCreateConceptIdsRequest(final String uuid,
 			final String parentId,
 			final BigInteger namespaceId,
 			final String partitionId) throws DrugMatchConfigurationException {
 		CreateConceptIdsRequest request = new CreateConceptIdsRequest();
 		request.setComponentUuid(uuid);
-		request.setExecutionId(DrugMatchProperties.getSctReleaseId());
-		request.setModuleId(DrugMatchProperties.getModuleId());
+		request.setExecutionId(this.settings.getSctReleaseId());
+		request.setModuleId(this.settings.getModuleId());
 		request.setNamespaceId(namespaceId);
 		request.setParentSnomedId(parentId);
 		request.setPartitionId(partitionId);
-		request.setReleaseId(DrugMatchProperties.getSctReleaseId());
+		request.setReleaseId(this.settings.getSctReleaseId());
 		return request;
 	}
 
@@ -69,16 +153,37 @@ public class IdServiceImpl implements IdService {
 	 * @return
 	 * @throws DrugMatchConfigurationException
 	 */
-	private static CreateSCTIDRequest getCreateSCTIDRequest(final String componentUuid,
+	private CreateSCTIDRequest getCreateSCTIDRequest(final String componentUuid,
 			final BigInteger namespaceId,
 			final String partitionId) throws DrugMatchConfigurationException {
 		CreateSCTIDRequest request = new CreateSCTIDRequest();
 		request.setComponentUuid(componentUuid);
-		request.setExecutionId(DrugMatchProperties.getSctReleaseId());
-		request.setModuleId(DrugMatchProperties.getModuleId());
+		request.setExecutionId(this.settings.getSctReleaseId());
+		request.setModuleId(this.settings.getModuleId());
 		request.setNamespaceId(namespaceId);
 		request.setPartitionId(partitionId);
-		request.setReleaseId(DrugMatchProperties.getSctReleaseId());
+		request.setReleaseId(this.settings.getSctReleaseId());
+		return request;
+	}
+
+	/**
+	 * Create SCT ID list request.
+	 * @param componentUuids
+	 * @param namespaceId
+	 * @param partitionId
+	 * @return
+	 * @throws DrugMatchConfigurationException
+	 */
+	private CreateSCTIDListRequest getCreateSCTIDListRequest(final Collection<String> componentUuids,
+			final BigInteger namespaceId,
+			final String partitionId) throws DrugMatchConfigurationException {
+		CreateSCTIDListRequest request = new CreateSCTIDListRequest();
+		request.setComponentUuidList(componentUuids.toArray(new String[componentUuids.size()]));
+		request.setExecutionId(this.settings.getSctReleaseId());
+		request.setModuleId(this.settings.getModuleId());
+		request.setNamespaceId(namespaceId);
+		request.setPartitionId(partitionId);
+		request.setReleaseId(this.settings.getSctReleaseId());
 		return request;
 	}
 
@@ -89,10 +194,45 @@ public class IdServiceImpl implements IdService {
 	 * @throws RemoteException
 	 */
 	private String getComponentId(final CreateSCTIDRequest request) throws CreateSCTIDFaultException, RemoteException {
-		CreateSCTIDResponse response = this.service.createSCTID(request);
+		long start = System.nanoTime();
+		boolean success = false;
+		CreateSCTIDResponse response;
+		try {
+			response = getService().createSCTID(request);
+			success = true;
+		} finally {
+			this.createSctIdMetrics.record(start, success);
+		}
 		return (response.getSctId() == null) ? null : response.getSctId().toString();
 	}
 
+	/**
+	 * @param request
+	 * @return {@link Map}(component UUID, SCT component ID)
+	 * @throws CreateSCTIDListFaultException
+	 * @throws RemoteException
+	 */
+	private Map<String, String> getComponentIds(final CreateSCTIDListRequest request) throws CreateSCTIDListFaultException, RemoteException {
+		long start = System.nanoTime();
+		boolean success = false;
+		CreateSCTIDListResponse response;
+		try {
+			response = getService().createSCTIDList(request);
+			success = true;
+		} finally {
+			this.createSctIdListMetrics.record(start, success);
+		}
+		Map<String, String> result = new HashMap<>();
+		if (response.getSctidList() != null) {
+			for (CodeSctIdType codeSctId : response.getSctidList()) {
+				if (codeSctId.getSctid() != null) {
+					result.put(codeSctId.getCode(), codeSctId.getSctid().toString());
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * @param request
 	 * @return SCT concept ID
@@ -100,7 +240,15 @@ public class IdServiceImpl implements IdService {
 	 * @throws RemoteException
 	 */
 	private String getConceptId(final CreateConceptIdsRequest request) throws CreateConceptIdsFaultException, RemoteException {
-		CreateConceptIdsResponse response = this.service.createConceptIds(request);
+		long start = System.nanoTime();
+		boolean success = false;
+		CreateConceptIdsResponse response;
+		try {
+			response = getService().createConceptIds(request);
+			success = true;
+		} finally {
+			this.createConceptIdsMetrics.record(start, success);
+		}
 		IDString componentId = null;
 		for (IDString idString : response.getConceptIds()) {
 			if (idString.getIdentifier().intValue() == 2) {
@@ -142,4 +290,30 @@ public class IdServiceImpl implements IdService {
 				ReleaseFormat2.PARTITION_EXTENSION_RELATIONSHIP_ID);
 		return getComponentId(request);
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final Map<String, String> getExtensionDescriptionIds(final Collection<String> uuids) throws CreateSCTIDListFaultException, DrugMatchConfigurationException, RemoteException {
+		if (uuids.isEmpty()) {
+			return new HashMap<>(0);
+		} // else
+		CreateSCTIDListRequest request = getCreateSCTIDListRequest(uuids,
+				this.namespaceExtensionId,
+				ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID);
+		return getComponentIds(request);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final Map<String, String> getExtensionRelationshipIds(final Collection<String> uuids) throws CreateSCTIDListFaultException, DrugMatchConfigurationException, RemoteException {
+		if (uuids.isEmpty()) {
+			return new HashMap<>(0);
+		} // else
+		CreateSCTIDListRequest request = getCreateSCTIDListRequest(uuids,
+				this.namespaceExtensionId,
+				ReleaseFormat2.PARTITION_EXTENSION_RELATIONSHIP_ID);
+		return getComponentIds(request);
+	}
 }
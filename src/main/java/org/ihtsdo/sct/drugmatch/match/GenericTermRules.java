@@ -0,0 +1,109 @@
+package org.ihtsdo.sct.drugmatch.match;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Triple;
+import org.ihtsdo.sct.drugmatch.model.Component;
+import org.ihtsdo.sct.drugmatch.model.DoseForm;
+import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+
+/**
+ * Memo of the trade name independent term "Match" rules of one generic group, ie. pharmaceuticals sharing {@link MatchAttributeRule}, {@link Component}s & {@link DoseForm}.
+ * <p>
+ * Every rule except {@link MatchTermHelper#getMatchPharmaceuticalRuleNational(MatchAttributeRule, String, Pharmaceutical)} is independent of trade name & drug ID,
+ * ie. each term is evaluated once per group, instead of once per trade name.<br>
+ * Not thread safe, "Match" is sequential.
+ * @author dev-team@carecom.dk
+ */
+class GenericTermRules {
+
+	private final MatchAttributeRule attributeRule;
+
+	/**
+	 * Any {@link Pharmaceutical} of the group.
+	 */
+	private final Pharmaceutical pharmaceutical;
+
+	/**
+	 * {@link Map}(term, {@link MatchTermRule}).
+	 */
+	private final Map<String, MatchTermRule> english2Rule = new HashMap<>(),
+		national2Rule = new HashMap<>();
+
+	/**
+	 * @param attributeRule
+	 * @param pharmaceutical
+	 */
+	GenericTermRules(final MatchAttributeRule attributeRule,
+			final Pharmaceutical pharmaceutical) {
+		this.attributeRule = attributeRule;
+		this.pharmaceutical = pharmaceutical;
+	}
+
+	/**
+	 * @param attributeRule
+	 * @param pharmaceutical
+	 * @return generic group key, excluding trade name & drug ID.
+	 */
+	static Triple<MatchAttributeRule, List<Component>, DoseForm> getKey(final MatchAttributeRule attributeRule,
+			final Pharmaceutical pharmaceutical) {
+		return Triple.of(attributeRule,
+				pharmaceutical.components,
+				pharmaceutical.doseForm);
+	}
+
+	/**
+	 * @param term
+	 * @return memoized {@link #evaluateRuleEnglish(String)}, null outcomes included.
+	 */
+	MatchTermRule getRuleEnglish(final String term) {
+		if (this.english2Rule.containsKey(term)) {
+			return this.english2Rule.get(term);
+		} // else
+		MatchTermRule result = evaluateRuleEnglish(term);
+		this.english2Rule.put(term, result);
+		return result;
+	}
+
+	/**
+	 * @param term
+	 * @return {@link MatchTermHelper#getMatchPharmaceuticalRuleEnglish(MatchAttributeRule, String, Pharmaceutical)},
+	 * falling back to {@link MatchTermHelper#getMatchTermRuleEnglish(MatchAttributeRule, String, Pharmaceutical)}
+	 */
+	MatchTermRule evaluateRuleEnglish(final String term) {
+		MatchTermRule result = MatchTermHelper.getMatchPharmaceuticalRuleEnglish(this.attributeRule,
+				term,
+				this.pharmaceutical);
+		if (result == null) {
+			result = MatchTermHelper.getMatchTermRuleEnglish(this.attributeRule,
+					term,
+					this.pharmaceutical);
+		}
+		return result;
+	}
+
+	/**
+	 * @param term
+	 * @return memoized {@link #evaluateRuleNational(String)}, null outcomes included.
+	 */
+	MatchTermRule getRuleNational(final String term) {
+		if (this.national2Rule.containsKey(term)) {
+			return this.national2Rule.get(term);
+		} // else
+		MatchTermRule result = evaluateRuleNational(term);
+		this.national2Rule.put(term, result);
+		return result;
+	}
+
+	/**
+	 * @param term
+	 * @return {@link MatchTermHelper#getMatchTermRuleNational(MatchAttributeRule, String, Pharmaceutical)}
+	 */
+	MatchTermRule evaluateRuleNational(final String term) {
+		return MatchTermHelper.getMatchTermRuleNational(this.attributeRule,
+				term,
+				this.pharmaceutical);
+	}
+}
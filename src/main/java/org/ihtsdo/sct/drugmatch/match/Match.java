@@ -9,15 +9,21 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.codec.CharEncoding;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.ihtsdo.sct.drugmatch.check.Check;
 import org.ihtsdo.sct.drugmatch.comparator.DescriptionDescriptorTypeComparator;
 import org.ihtsdo.sct.drugmatch.constant.Constant;
@@ -27,10 +33,17 @@ import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
 import org.ihtsdo.sct.drugmatch.match.extension.MatchRuleUtil;
 import org.ihtsdo.sct.drugmatch.match.model.GenericMatch;
 import org.ihtsdo.sct.drugmatch.match.model.PharmaceuticalMatch;
+import org.ihtsdo.sct.drugmatch.metric.Metrics;
+import org.ihtsdo.sct.drugmatch.metric.OperationMetrics;
+import org.ihtsdo.sct.drugmatch.metric.StageProgress;
 import org.ihtsdo.sct.drugmatch.model.Component;
+import org.ihtsdo.sct.drugmatch.model.DoseForm;
 import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
 import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
 import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.cache.AttributeMatchCache;
+import org.ihtsdo.sct.drugmatch.verification.service.cache.ConceptCache;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.DescriptionDescriptor;
@@ -52,6 +65,16 @@ public class Match {
 	 */
 	private final Check check;
 
+	/**
+	 * Shared by all attribute "Match" lookups, as pharmaceuticals sharing a composition send identical queries.
+	 */
+	private final AttributeMatchCache attributeMatchCache;
+
+	/**
+	 * Shared by all term "Match" lookups, as pharmaceuticals sharing generics resolve to the same Concepts.
+	 */
+	private final ConceptCache conceptCache;
+
 	/**
 	 * {@link Map}(Component name, SNOMED CT Concept ID).
 	 */
@@ -85,16 +108,40 @@ public class Match {
 
 	private final VerificationService service;
 
+	private final DrugMatchSettings settings;
+
 	public Match(final List<Pharmaceutical> pharmaceuticals,
 			final String isoNow,
 			final VerificationService service) throws DrugMatchConfigurationException {
-		this.matchRuleHelper = (DrugMatchProperties.createGenericReport()) ? new MatchRuleHelperImpl() : MatchRuleUtil.getMatchRuleHelper(DrugMatchProperties.getNationalNamespaceId());
+		this(pharmaceuticals,
+				isoNow,
+				service,
+				DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * @param pharmaceuticals
+	 * @param isoNow YYYY-MM-DD HH.MM.SS.
+	 * @param service
+	 * @param settings
+	 * @throws DrugMatchConfigurationException
+	 */
+	public Match(final List<Pharmaceutical> pharmaceuticals,
+			final String isoNow,
+			final VerificationService service,
+			final DrugMatchSettings settings) throws DrugMatchConfigurationException {
+		this.settings = settings;
+		this.matchRuleHelper = (this.settings.createGenericReport()) ? new MatchRuleHelperImpl() : MatchRuleUtil.getMatchRuleHelper(this.settings.getNationalNamespaceId());
 		this.pharmaceuticals = pharmaceuticals;
 		this.isoNow = isoNow;
 		this.service = service;
+		this.attributeMatchCache = new AttributeMatchCache(this.service);
+		this.conceptCache = new ConceptCache(this.service,
+				this.settings.getMatchConceptCacheSize());
 		this.check = new Check(this.pharmaceuticals,
 				this.isoNow,
-				this.service);
+				this.service,
+				this.settings);
 	}
 
 	/**
@@ -163,6 +210,131 @@ public class Match {
 		return this.unit2Id;
 	}
 
+	/**
+	 * Substances only attribute query, sent ahead of the substances & dose form query result.
+	 * <p>
+	 * The query goes through the {@link AttributeMatchCache}, ie. "Match" awaits the query in progress if the result is needed.<br>
+	 * The round-trip is recorded as saved or wasted once both the query has completed & the outcome is known.
+	 */
+	private static final class SpeculativeQuery implements Callable<Void> {
+
+		private final AttributeMatchCache cache;
+
+		private final Set<Long> attributeIds,
+			valueIds;
+
+		private OperationMetrics metrics;
+
+		private long nanos;
+
+		private boolean success,
+			completed = false;
+
+		/**
+		 * @param cache
+		 * @param attributeIds
+		 * @param valueIds
+		 */
+		SpeculativeQuery(final AttributeMatchCache cache,
+				final Set<Long> attributeIds,
+				final Set<Long> valueIds) {
+			this.cache = cache;
+			this.attributeIds = attributeIds;
+			this.valueIds = valueIds;
+		}
+
+		public Void call() throws DrugMatchConfigurationException, IOException {
+			if (this.cache.contains(this.attributeIds, this.valueIds)) {
+				// already sent, ie. no round-trip to record
+				return null;
+			} // else
+			long start = System.nanoTime();
+			boolean result = false;
+			try {
+				this.cache.getAttributeExactMatch(this.attributeIds,
+						this.valueIds);
+				result = true;
+			} finally {
+				complete(System.nanoTime() - start,
+						result);
+			}
+			return null;
+		}
+
+		private synchronized void complete(final long duration,
+				final boolean result) {
+			this.nanos = duration;
+			this.success = result;
+			this.completed = true;
+			if (this.metrics != null) {
+				this.metrics.recordDuration(this.nanos,
+						this.success);
+			}
+		}
+
+		/**
+		 * @param outcome saved or wasted round-trip {@link OperationMetrics}
+		 */
+		synchronized void resolve(final OperationMetrics outcome) {
+			this.metrics = outcome;
+			if (this.completed) {
+				this.metrics.recordDuration(this.nanos,
+						this.success);
+			}
+		}
+	}
+
+	/**
+	 * Exact attributes "Match", falling back to exact substances only "Match" if there's none.
+	 * <p>
+	 * Unless either query is memoized, the substances only query is sent ahead of the exact attributes result by speculativeExecutor,
+	 * recorded as a saved round-trip if its result is used, otherwise as wasted (or cancelled, if not yet sent).
+	 * @param cache
+	 * @param speculativeExecutor or null
+	 * @param attributeIds has active ingredient & has dose form attribute IDs
+	 * @param valueIds substance & dose form IDs
+	 * @param substanceAttributeIds has active ingredient attribute ID
+	 * @param substanceIds
+	 * @param saved saved round-trip {@link OperationMetrics}, or null if speculativeExecutor is null
+	 * @param wasted wasted round-trip {@link OperationMetrics}, or null if speculativeExecutor is null
+	 * @return {@link Pair}(true if substances only, {@link List}({@link ConceptSearchResultDescriptor}))
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	static Pair<Boolean, List<ConceptSearchResultDescriptor>> getAttributeExactMatch(final AttributeMatchCache cache,
+			final ExecutorService speculativeExecutor,
+			final Set<Long> attributeIds,
+			final Set<Long> valueIds,
+			final Set<Long> substanceAttributeIds,
+			final Set<Long> substanceIds,
+			final OperationMetrics saved,
+			final OperationMetrics wasted) throws DrugMatchConfigurationException, IOException {
+		SpeculativeQuery speculativeQuery = null;
+		Future<Void> speculativeFuture = null;
+		if (speculativeExecutor != null
+				&& !cache.contains(attributeIds, valueIds)
+				&& !cache.contains(substanceAttributeIds, substanceIds)) {
+			speculativeQuery = new SpeculativeQuery(cache,
+					substanceAttributeIds,
+					substanceIds);
+			speculativeFuture = speculativeExecutor.submit(speculativeQuery);
+		}
+		// exact attributes
+		List<ConceptSearchResultDescriptor> matches = cache.getAttributeExactMatch(attributeIds,
+				valueIds);
+		if (speculativeQuery != null) {
+			// cancel if not yet sent, ie. no round-trip to save or waste
+			speculativeFuture.cancel(false);
+			speculativeQuery.resolve(matches.isEmpty() ? saved : wasted);
+		}
+		if (!matches.isEmpty()) {
+			return Pair.of(Boolean.FALSE, matches);
+		} // else
+		// exact substances only, awaits the speculative query in progress
+		return Pair.of(Boolean.TRUE, cache.getAttributeExactMatch(substanceAttributeIds,
+				substanceIds));
+	}
+
 	/**
 	 * Retrieve best attribute relationship "Match".
 	 * @return {@link Map}({@link Pharmaceutical}, {@link Pair}({@link MatchAttributeRule}, {@link List}({@link ConceptSearchResultDescriptor})))
@@ -170,25 +342,60 @@ public class Match {
 	 * @throws IOException
 	 */
 	private Map<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> matchAttributes() throws DrugMatchConfigurationException, IOException {
+		if (!this.settings.isMatchSpeculativeAttributeQuery()) {
+			return matchAttributes(null);
+		} // else
+		ExecutorService speculativeExecutor = Executors.newSingleThreadExecutor();
+		try {
+			return matchAttributes(speculativeExecutor);
+		} finally {
+			speculativeExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Retrieve best attribute relationship "Match".
+	 * @param speculativeExecutor sending the substances only query concurrently with the substances & dose form query, or null
+	 * @return {@link Map}({@link Pharmaceutical}, {@link Pair}({@link MatchAttributeRule}, {@link List}({@link ConceptSearchResultDescriptor})))
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private Map<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> matchAttributes(final ExecutorService speculativeExecutor) throws DrugMatchConfigurationException, IOException {
 		log.info("Starting attribute \"Match\" ({} pharmaceuticals)", String.valueOf(this.pharmaceuticals.size()));
-		Long attributeIdHasActiveIngredient = DrugMatchProperties.getAttributeIdHasActiveIngredient();
+		Long attributeIdHasActiveIngredient = this.settings.getAttributeIdHasActiveIngredient();
 		if (attributeIdHasActiveIngredient == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT + "' isn't set!");
 		} // else
-		Long attributeIdHasDoseForm = DrugMatchProperties.getAttributeIdHasDoseForm();
+		Long attributeIdHasDoseForm = this.settings.getAttributeIdHasDoseForm();
 		if (attributeIdHasDoseForm == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.ATTRIBUTE_ID_HAS_DOSE_FORM + "' isn't set!");
 		} // else
 		Set<Long> allAttributeIds = new HashSet<>(),
 			attributeIdsHasActiveIngredient = Collections.singleton(attributeIdHasActiveIngredient),
-			valueIds;
+			valueIds,
+			substanceIds;
 		allAttributeIds.add(attributeIdHasActiveIngredient);
 		allAttributeIds.add(attributeIdHasDoseForm);
 		Map<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> result = new LinkedHashMap<>(this.pharmaceuticals.size());
 		Long doseFormId,
 			substanceId;
 		MatchAttributeRule rule;
+		Pair<Boolean, List<ConceptSearchResultDescriptor>> attributeMatch;
 		List<ConceptSearchResultDescriptor> matches;
+		// only registered if speculative queries are enabled
+		OperationMetrics saved = null,
+			wasted = null;
+		long savedBefore = 0L,
+			wastedBefore = 0L;
+		if (speculativeExecutor != null) {
+			saved = Metrics.get(Metrics.MATCH_SPECULATIVE_ATTRIBUTE_SEARCH_SAVED);
+			wasted = Metrics.get(Metrics.MATCH_SPECULATIVE_ATTRIBUTE_SEARCH_WASTED);
+			savedBefore = saved.getCalls();
+			wastedBefore = wasted.getCalls();
+		}
+		StageProgress progress = StageProgress.start("Attribute \"Match\"",
+				this.pharmaceuticals.size(),
+				this.settings);
 		for (Pharmaceutical pharmaceutical : this.pharmaceuticals) {
 			valueIds = new HashSet<>();
 			rule = null;
@@ -215,14 +422,18 @@ public class Match {
 				}
 			}
 			if (rule == null) {
-				// exact attributes
-				matches = this.service.getAttributeExactMatch(allAttributeIds,
-						valueIds);
-				if (matches.isEmpty()) {
-					// exact substances only
-					valueIds.remove(doseFormId);
-					matches = this.service.getAttributeExactMatch(attributeIdsHasActiveIngredient,
-							valueIds);
+				substanceIds = new HashSet<>(valueIds);
+				substanceIds.remove(doseFormId);
+				attributeMatch = getAttributeExactMatch(this.attributeMatchCache,
+						speculativeExecutor,
+						allAttributeIds,
+						valueIds,
+						attributeIdsHasActiveIngredient,
+						substanceIds,
+						saved,
+						wasted);
+				matches = attributeMatch.getValue();
+				if (attributeMatch.getKey().booleanValue()) {
 					if (matches.isEmpty()) {
 						rule = MatchAttributeRule.ZERO_MATCH;
 					} else if (matches.size() == 1) {
@@ -240,13 +451,68 @@ public class Match {
 			}
 			result.put(pharmaceutical,
 					Pair.of(rule, matches));
+			progress.increment();
+		}
+		progress.complete();
+		log.info("Attribute match cache: {} hit(s), {} miss(es)", String.valueOf(this.attributeMatchCache.getHitCount()), String.valueOf(this.attributeMatchCache.getMissCount()));
+		if (speculativeExecutor != null) {
+			log.info("Speculative attribute queries: {} saved, {} wasted round-trip(s)", String.valueOf(saved.getCalls() - savedBefore), String.valueOf(wasted.getCalls() - wastedBefore));
 		}
 		log.info("Completed attribute \"Match\"");
 		return result;
 	}
 
+	/**
+	 * Look up the Concepts of every attribute "Match" in the window, each Concept ID is looked up once.
+	 * @param window
+	 * @return {@link Map}(Concept ID, {@link ConceptDescriptor})
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private Map<Long, ConceptDescriptor> getConcepts(final List<Map.Entry<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>>> window) throws DrugMatchConfigurationException, IOException {
+		Set<Long> conceptIds = new LinkedHashSet<>();
+		List<ConceptSearchResultDescriptor> attributeMatches;
+		for (Map.Entry<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> entry : window) {
+			attributeMatches = entry.getValue().getValue();
+			if (attributeMatches != null) {
+				for (ConceptSearchResultDescriptor attributeMatch : attributeMatches) {
+					conceptIds.add(attributeMatch.healthtermConceptId);
+				}
+			}
+		}
+		Map<Long, ConceptDescriptor> result = new HashMap<>(conceptIds.size());
+		if (!conceptIds.isEmpty()) {
+			for (ConceptDescriptor conceptDescriptor : this.conceptCache.getConceptsByIds(conceptIds)) {
+				result.put(conceptDescriptor.id, conceptDescriptor);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param conceptIds
+	 * @param id2Concept Concepts of the window
+	 * @return {@link List}({@link ConceptDescriptor}) matching the given SCT IDs, in {@link Set} iteration order.
+	 */
+	private static List<ConceptDescriptor> getConcepts(final Set<Long> conceptIds,
+			final Map<Long, ConceptDescriptor> id2Concept) {
+		List<ConceptDescriptor> result = new ArrayList<>(conceptIds.size());
+		ConceptDescriptor conceptDescriptor;
+		for (Long conceptId : conceptIds) {
+			conceptDescriptor = id2Concept.get(conceptId);
+			// unknown Concept IDs aren't returned by the service either
+			if (conceptDescriptor != null) {
+				result.add(conceptDescriptor);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Retrieve best term "Match".
+	 * <p>
+	 * The Concepts are looked up per window of pharmaceuticals, see {@link DrugMatchSettings#getMatchConceptBatchSize()}.<br>
+	 * Trade name independent rules are evaluated once per generic group & term, see {@link GenericTermRules}.
 	 * @param pharmaceutical2Match
 	 * @return
 	 * @throws DrugMatchConfigurationException
@@ -262,10 +528,24 @@ public class Match {
 		List<DescriptionDescriptor> termMatches;
 		Map<MatchTermRule, List<DescriptionDescriptor>> termRule2Matches;
 		String matchTerm,
-			nationalNamespaceId = DrugMatchProperties.getNationalNamespaceId();
+			nationalNamespaceId = this.settings.getNationalNamespaceId();
 		MatchAttributeRule attributeRule;
 		MatchTermRule termRule = null;
-		for (Map.Entry<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> entry : pharmaceutical2Match.entrySet()) {
+		List<Map.Entry<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>>> entries = new ArrayList<>(pharmaceutical2Match.entrySet());
+		Map.Entry<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> entry;
+		Map<Long, ConceptDescriptor> id2Concept = Collections.emptyMap();
+		int batchSize = this.settings.getMatchConceptBatchSize();
+		Map<Triple<MatchAttributeRule, List<Component>, DoseForm>, GenericTermRules> key2GenericTermRules = new HashMap<>();
+		Triple<MatchAttributeRule, List<Component>, DoseForm> genericKey;
+		GenericTermRules genericTermRules;
+		StageProgress progress = StageProgress.start("Term \"Match\"",
+				pharmaceutical2Match.size(),
+				this.settings);
+		for (int i = 0; i < entries.size(); i++) {
+			if (i % batchSize == 0) {
+				id2Concept = getConcepts(entries.subList(i, Math.min(i + batchSize, entries.size())));
+			}
+			entry = entries.get(i);
 			pharmaceutical = entry.getKey();
 			attributeRule = entry.getValue().getKey();
 			attributeMatches = entry.getValue().getValue();
@@ -283,8 +563,16 @@ public class Match {
 				for (ConceptSearchResultDescriptor attributeMatch : attributeMatches) {
 					conceptIds.add(attributeMatch.healthtermConceptId);
 				}
+				genericKey = GenericTermRules.getKey(attributeRule,
+						pharmaceutical);
+				genericTermRules = key2GenericTermRules.get(genericKey);
+				if (genericTermRules == null) {
+					genericTermRules = new GenericTermRules(attributeRule,
+							pharmaceutical);
+					key2GenericTermRules.put(genericKey, genericTermRules);
+				}
 				termRule2Matches = new HashMap<>();
-				for (ConceptDescriptor conceptDescriptor : this.service.getConceptsByIds(conceptIds)) {
+				for (ConceptDescriptor conceptDescriptor : getConcepts(conceptIds, id2Concept)) {
 					for (DescriptionDescriptor descriptionDescriptor : conceptDescriptor.descriptionDescriptor) {
 						termRule = null;
 						matchTerm = descriptionDescriptor.descriptionTerm;
@@ -299,22 +587,13 @@ public class Match {
 									matchTerm,
 									pharmaceutical);
 							if (termRule == null) {
-								termRule = MatchTermHelper.getMatchTermRuleNational(attributeRule,
-										matchTerm,
-										pharmaceutical);
+								termRule = genericTermRules.getRuleNational(matchTerm);
 							}
 						}
 						// generic English
 						if (termRule == null
 								&& descriptionDescriptor.descriptionLocale.startsWith("en")) {
-							termRule = MatchTermHelper.getMatchPharmaceuticalRuleEnglish(attributeRule,
-									matchTerm,
-									pharmaceutical);
-							if (termRule == null) {
-								termRule = MatchTermHelper.getMatchTermRuleEnglish(attributeRule,
-										matchTerm,
-										pharmaceutical);
-							}
+							termRule = genericTermRules.getRuleEnglish(matchTerm);
 						}
 						// fall back
 						if (termRule == null) {
@@ -331,7 +610,11 @@ public class Match {
 				result.put(pharmaceutical,
 						getMatch(termRule2Matches));
 			}
+			progress.increment();
 		}
+		progress.complete();
+		log.info("Concept cache: {} hit(s), {} miss(es)", String.valueOf(this.conceptCache.getHitCount()), String.valueOf(this.conceptCache.getMissCount()));
+		log.info("Generic term rules: {} group(s)", String.valueOf(key2GenericTermRules.size()));
 		log.info("Completed term \"Match\"");
 		return result;
 	}
@@ -409,12 +692,12 @@ public class Match {
 	 */
 	private void reportAttributeMatches(final Map<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> pharmaceutical2Match) throws DrugMatchConfigurationException, IOException {
 		log.info("Starting attribute \"Match\" report");
-		String fullFileName = DrugMatchProperties.getReportDirectory().getPath() + File.separator + "match_attribute_" + this.isoNow + ".csv";
-		String quoteCharacter = DrugMatchProperties.getFileContentQuoteCharacter();
+		String fullFileName = this.settings.getReportDirectory().getPath() + File.separator + "match_attribute_" + this.isoNow + ".csv";
+		String quoteCharacter = this.settings.getFileContentQuoteCharacter();
 		char quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
 		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(fullFileName),
 						CharEncoding.UTF_8),
-				Check.getOutputFileContentSeparator(),
+				Check.getOutputFileContentSeparator(this.settings),
 				quoteChar,
 				System.lineSeparator())) {
 			// header
@@ -460,12 +743,12 @@ public class Match {
 	 */
 	private void reportTermMatches(final Map<Pharmaceutical, Pair<MatchAttributeRule, List<ConceptSearchResultDescriptor>>> pharmaceutical2AttributeMatch) throws DrugMatchConfigurationException, IOException {
 		log.info("Starting term \"Match\" report");
-		String fullFileName = DrugMatchProperties.getReportDirectory().getPath() + File.separator + "match_term_" + this.isoNow + ".csv";
-		String quoteCharacter = DrugMatchProperties.getFileContentQuoteCharacter();
+		String fullFileName = this.settings.getReportDirectory().getPath() + File.separator + "match_term_" + this.isoNow + ".csv";
+		String quoteCharacter = this.settings.getFileContentQuoteCharacter();
 		char quoteChar = (quoteCharacter == null) ? CSVWriter.NO_QUOTE_CHARACTER : quoteCharacter.charAt(0);
 		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(fullFileName),
 						CharEncoding.UTF_8),
-				Check.getOutputFileContentSeparator(),
+				Check.getOutputFileContentSeparator(this.settings),
 				quoteChar,
 				System.lineSeparator())) {
 			// header
@@ -8,9 +8,12 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ihtsdo.sct.drugmatch.model.Component;
+import org.ihtsdo.sct.drugmatch.model.ComponentTermProfile;
 import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+import org.ihtsdo.sct.drugmatch.model.PharmaceuticalTermProfile;
 
 /**
+ * Term "Match" rules, comparing a SNOMED CT term against the {@link PharmaceuticalTermProfile} of the reference {@link Pharmaceutical}.
  * @author dev-team@carecom.dk
  */
 public final class MatchTermHelper {
@@ -95,24 +98,25 @@ public final class MatchTermHelper {
 	public static MatchTermRule getMatchPharmaceuticalRuleEnglish(final MatchAttributeRule matchAttributeRule,
 			final String term,
 			final Pharmaceutical pharmaceutical) {
-		Pharmaceutical termPharmaceutical = MatchTermHelper.getTermPharmaceutical(term,
+		PharmaceuticalTermProfile profile = pharmaceutical.getTermProfile();
+		Pharmaceutical termPharmaceutical = getTermPharmaceutical(term,
 				true, // isEnglish
-				pharmaceutical);
-		if (pharmaceutical.components.size() == termPharmaceutical.components.size()) {
-			Component component,
-				termComponent;
+				profile);
+		if (profile.components.size() == termPharmaceutical.components.size()) {
+			ComponentTermProfile component;
+			Component termComponent;
 			boolean unexpectedComponentOrder = false,
 				componentPresent;
-			for (int i = 0; i < pharmaceutical.components.size(); i++) {
-				component = pharmaceutical.components.get(i);
+			for (int i = 0; i < profile.components.size(); i++) {
+				component = profile.components.get(i);
 				termComponent = termPharmaceutical.components.get(i);
-				if (!component.substance.getNormalizedNameEnglish().equalsIgnoreCase(termComponent.substance.nameEnglish)
-						|| !Component.getStrengthEnglish(component.strength).equalsIgnoreCase(termComponent.strength)
+				if (!component.substanceNameEnglish.equalsIgnoreCase(termComponent.substance.nameEnglish)
+						|| !component.strengthEnglish.equalsIgnoreCase(termComponent.strength)
 						|| !component.unit.equalsIgnoreCase(termComponent.unit)) {
 					componentPresent = false;
 					for (Component tc : termPharmaceutical.components) {
-						if (component.substance.getNormalizedNameEnglish().equalsIgnoreCase(tc.substance.nameEnglish)
-								&& Component.getStrengthEnglish(component.strength).equalsIgnoreCase(tc.strength)
+						if (component.substanceNameEnglish.equalsIgnoreCase(tc.substance.nameEnglish)
+								&& component.strengthEnglish.equalsIgnoreCase(tc.strength)
 								&& component.unit.equalsIgnoreCase(tc.unit)) {
 							componentPresent = true;
 							break;
@@ -129,7 +133,7 @@ public final class MatchTermHelper {
 				if (termPharmaceutical.doseForm.nameEnglish == null) {
 					return MatchTermRule.GENERIC_MISSING_ENGLISH_DOSE_FORM;
 				} // else
-				if (!pharmaceutical.doseForm.getNormalizedNameEnglish().equalsIgnoreCase(termPharmaceutical.doseForm.nameEnglish)) {
+				if (!profile.doseFormEnglish.equalsIgnoreCase(termPharmaceutical.doseForm.nameEnglish)) {
 					return MatchTermRule.GENERIC_PARTIAL_ENGLISH_DOSE_FORM;
 				} // else
 			}
@@ -163,28 +167,29 @@ public final class MatchTermHelper {
 	public static MatchTermRule getMatchPharmaceuticalRuleNational(final MatchAttributeRule matchAttributeRule,
 			final String term,
 			final Pharmaceutical pharmaceutical) {
-		if (pharmaceutical.getNationalPharmaceuticalTerm().equals(term)) {
+		PharmaceuticalTermProfile profile = pharmaceutical.getTermProfile();
+		if (term.equals(profile.nationalPharmaceuticalTerm)) {
 			return MatchTermRule.PHARMACEUTICAL_EXACT_NATIONAL_MATCH;
 		} // else
-		Pharmaceutical termPharmaceutical = MatchTermHelper.getTermPharmaceutical(term,
+		Pharmaceutical termPharmaceutical = getTermPharmaceutical(term,
 				false, // isEnglish
-				pharmaceutical);
-		if (pharmaceutical.components.size() == termPharmaceutical.components.size()) {
-			Component component,
-				termComponent;
+				profile);
+		if (profile.components.size() == termPharmaceutical.components.size()) {
+			ComponentTermProfile component;
+			Component termComponent;
 			boolean unexpectedComponentOrder = false,
 				componentPresent;
-			for (int i = 0; i < pharmaceutical.components.size(); i++) {
-				component = pharmaceutical.components.get(i);
+			for (int i = 0; i < profile.components.size(); i++) {
+				component = profile.components.get(i);
 				termComponent = termPharmaceutical.components.get(i);
 				// substance
-				if (!component.substance.getNormalizedNameNational().equalsIgnoreCase(termComponent.substance.nameNational)
-						|| !component.strength.equalsIgnoreCase(termComponent.strength)
+				if (!component.substanceNameNational.equalsIgnoreCase(termComponent.substance.nameNational)
+						|| !component.strengthNational.equalsIgnoreCase(termComponent.strength)
 						|| !component.unit.equalsIgnoreCase(termComponent.unit)) {
 					componentPresent = false;
 					for (Component tc : termPharmaceutical.components) {
-						if (component.substance.getNormalizedNameNational().equalsIgnoreCase(tc.substance.nameNational)
-								&& component.strength.equalsIgnoreCase(tc.strength)
+						if (component.substanceNameNational.equalsIgnoreCase(tc.substance.nameNational)
+								&& component.strengthNational.equalsIgnoreCase(tc.strength)
 								&& component.unit.equalsIgnoreCase(tc.unit)) {
 							componentPresent = true;
 							break;
@@ -201,7 +206,7 @@ public final class MatchTermHelper {
 				if (termPharmaceutical.doseForm.nameNational == null) {
 					return MatchTermRule.GENERIC_MISSING_NATIONAL_DOSE_FORM;
 				} // else
-				if (!pharmaceutical.doseForm.getNormalizedNameNational().equalsIgnoreCase(termPharmaceutical.doseForm.nameNational)) {
+				if (!profile.doseFormNational.equalsIgnoreCase(termPharmaceutical.doseForm.nameNational)) {
 					return MatchTermRule.GENERIC_PARTIAL_NATIONAL_DOSE_FORM;
 				} // else
 			}
@@ -214,7 +219,7 @@ public final class MatchTermHelper {
 			if (termPharmaceutical.tradeName == null) {
 				return MatchTermRule.GENERIC_CASE_INSENSITIVE_NATIONAL_MATCH;
 			} // else
-			if (pharmaceutical.getNormalizedTradeName().equalsIgnoreCase(termPharmaceutical.tradeName)) {
+			if (profile.normalizedTradeName.equalsIgnoreCase(termPharmaceutical.tradeName)) {
 				return MatchTermRule.PHARMACEUTICAL_CASE_INSENSITIVE_NATIONAL_MATCH;
 			} // else
 			return MatchTermRule.PHARMACEUTICAL_PARTIAL_TRADE_NAME_NATIONAL;
@@ -243,31 +248,34 @@ public final class MatchTermHelper {
 	public static MatchTermRule getMatchTermRuleEnglish(final MatchAttributeRule matchAttributeRule,
 			final String term,
 			final Pharmaceutical pharmaceutical) {
-		String englishTerm = pharmaceutical.getEnglishTerm();
-		if (term.equals(englishTerm)) {
+		PharmaceuticalTermProfile profile = pharmaceutical.getTermProfile();
+		if (term.equals(profile.englishTerm)) {
 			return MatchTermRule.GENERIC_EXACT_ENGLISH_MATCH;
 		} // else
-		if (term.equalsIgnoreCase(englishTerm)) {
+		if (term.equalsIgnoreCase(profile.englishTerm)) {
 			return MatchTermRule.GENERIC_CASE_INSENSITIVE_ENGLISH_MATCH;
 		} // else
 		boolean strengthPresent,
 			unitPresent;
+		String termLowerCase = term.toLowerCase(Locale.ENGLISH),
+			termToken;
 		String[] termTokens = term.split(" ");
-		for (Component component : pharmaceutical.components) {
-			if (!term.contains(component.getEnglish())) {
+		for (ComponentTermProfile component : profile.components) {
+			if (!term.contains(component.english)) {
 				// substance
-				if (!term.toLowerCase(Locale.ENGLISH).contains(component.substance.getNormalizedNameEnglish().toLowerCase(Locale.ENGLISH))) {
+				if (!termLowerCase.contains(component.substanceNameEnglishLowerCase)) {
 					return MatchTermRule.GENERIC_MISSING_ENGLISH_SUBSTANCE;
 				} // else
 				// strength & unit
 				strengthPresent = false;
 				unitPresent = false;
-				for (String termToken : termTokens) {
-					if (Component.getStrengthEnglish(component.strength).equalsIgnoreCase(termToken.trim())) {
+				for (String token : termTokens) {
+					termToken = token.trim();
+					if (component.strengthEnglish.equalsIgnoreCase(termToken)) {
 						strengthPresent = true;
-					} else if (component.unit.equalsIgnoreCase(termToken.trim())) {
+					} else if (component.unit.equalsIgnoreCase(termToken)) {
 						unitPresent = true;
-					} else if (termToken.toLowerCase(Locale.ENGLISH).contains(Component.getStrengthEnglish(component.strength).toLowerCase(Locale.ENGLISH) + component.unit.toLowerCase(Locale.ENGLISH))) {
+					} else if (token.toLowerCase(Locale.ENGLISH).contains(component.strengthUnitEnglishLowerCase)) {
 						strengthPresent = true;
 						unitPresent = true;
 					}
@@ -288,12 +296,15 @@ public final class MatchTermHelper {
 		if (MatchAttributeRule.AMBIGUOUS_MATCH_EXCLUDING_DOSE_FORM.equals(matchAttributeRule)
 				|| MatchAttributeRule.EXACT_MATCH_EXCLUDING_DOSE_FORM.equals(matchAttributeRule)) {
 			String doseForm = getTermDoseForm(term,
-					pharmaceutical.components,
-					pharmaceutical.doseForm.getNormalizedNameEnglish());
+					termLowerCase,
+					profile.components,
+					profile.doseFormEnglish,
+					profile.doseFormEnglishLowerCase,
+					profile.doseFormEnglishTokens);
 			if (doseForm == null) {
 				return MatchTermRule.GENERIC_MISSING_ENGLISH_DOSE_FORM;
 			} // else
-			if (!pharmaceutical.doseForm.getNormalizedNameEnglish().equalsIgnoreCase(doseForm)) {
+			if (!profile.doseFormEnglish.equalsIgnoreCase(doseForm)) {
 				return MatchTermRule.GENERIC_PARTIAL_ENGLISH_DOSE_FORM;
 			} // else
 		}
@@ -320,31 +331,34 @@ public final class MatchTermHelper {
 	public static MatchTermRule getMatchTermRuleNational(final MatchAttributeRule matchAttributeRule,
 			final String term,
 			final Pharmaceutical pharmaceutical) {
-		String nationalTerm = pharmaceutical.getNationalTerm();
-		if (term.equals(nationalTerm)) {
+		PharmaceuticalTermProfile profile = pharmaceutical.getTermProfile();
+		if (term.equals(profile.nationalTerm)) {
 			return MatchTermRule.GENERIC_EXACT_NATIONAL_MATCH;
 		} // else
-		if (term.equalsIgnoreCase(nationalTerm)) {
+		if (term.equalsIgnoreCase(profile.nationalTerm)) {
 			return MatchTermRule.GENERIC_CASE_INSENSITIVE_NATIONAL_MATCH;
 		} // else
 		boolean strengthPresent,
 			unitPresent;
+		String termLowerCase = term.toLowerCase(Locale.ENGLISH),
+			termToken;
 		String[] termTokens = term.split(" ");
-		for (Component component : pharmaceutical.components) {
-			if (!term.contains(component.getNational())) {
+		for (ComponentTermProfile component : profile.components) {
+			if (!term.contains(component.national)) {
 				// substance
-				if (!term.toLowerCase(Locale.ENGLISH).contains(component.substance.getNormalizedNameNational().toLowerCase(Locale.ENGLISH))) {
+				if (!termLowerCase.contains(component.substanceNameNationalLowerCase)) {
 					return MatchTermRule.GENERIC_MISSING_NATIONAL_SUBSTANCE;
 				} // else
 				// strength & unit
 				strengthPresent = false;
 				unitPresent = false;
-				for (String termToken : termTokens) {
-					if (component.strength.equalsIgnoreCase(termToken.trim())) {
+				for (String token : termTokens) {
+					termToken = token.trim();
+					if (component.strengthNational.equalsIgnoreCase(termToken)) {
 						strengthPresent = true;
-					} else if (component.unit.equalsIgnoreCase(termToken.trim())) {
+					} else if (component.unit.equalsIgnoreCase(termToken)) {
 						unitPresent = true;
-					} else if (termToken.toLowerCase(Locale.ENGLISH).contains(component.strength.toLowerCase(Locale.ENGLISH) + component.unit.toLowerCase(Locale.ENGLISH))) {
+					} else if (token.toLowerCase(Locale.ENGLISH).contains(component.strengthUnitNationalLowerCase)) {
 						strengthPresent = true;
 						unitPresent = true;
 					}
@@ -365,12 +379,15 @@ public final class MatchTermHelper {
 		if (MatchAttributeRule.AMBIGUOUS_MATCH_EXCLUDING_DOSE_FORM.equals(matchAttributeRule)
 				|| MatchAttributeRule.EXACT_MATCH_EXCLUDING_DOSE_FORM.equals(matchAttributeRule)) {
 			String doseForm = getTermDoseForm(term,
-					pharmaceutical.components,
-					pharmaceutical.doseForm.getNormalizedNameNational());
+					termLowerCase,
+					profile.components,
+					profile.doseFormNational,
+					profile.doseFormNationalLowerCase,
+					profile.doseFormNationalTokens);
 			if (doseForm == null) {
 				return MatchTermRule.GENERIC_MISSING_NATIONAL_DOSE_FORM;
 			} // else
-			if (!pharmaceutical.doseForm.getNormalizedNameNational().equalsIgnoreCase(doseForm)) {
+			if (!profile.doseFormNational.equalsIgnoreCase(doseForm)) {
 				return MatchTermRule.GENERIC_PARTIAL_NATIONAL_DOSE_FORM;
 			} // else
 		}
@@ -392,20 +409,43 @@ public final class MatchTermHelper {
 	public static String getTermDoseForm(final String term,
 			final List<Component> expectedComponents,
 			final String expectedDoseForm) {
+		return getTermDoseForm(term,
+				term.toLowerCase(Locale.ENGLISH),
+				PharmaceuticalTermProfile.getComponents(expectedComponents),
+				expectedDoseForm,
+				expectedDoseForm.toLowerCase(Locale.ENGLISH),
+				PharmaceuticalTermProfile.getTokens(expectedDoseForm));
+	}
+
+	/**
+	 * @param term assumed to contain a desired dose form (normalized whitespace formatting is assumed)
+	 * @param termLowerCase
+	 * @param expectedComponents
+	 * @param expectedDoseForm (normalized whitespace formatting is assumed)
+	 * @param expectedDoseFormLowerCase
+	 * @param expectedDoseFormTokens
+	 * @return dose form candidate, or null
+	 * @see #getTermDoseForm(String, List, String)
+	 */
+	private static String getTermDoseForm(final String term,
+			final String termLowerCase,
+			final List<ComponentTermProfile> expectedComponents,
+			final String expectedDoseForm,
+			final String expectedDoseFormLowerCase,
+			final List<String> expectedDoseFormTokens) {
 		// attempt to match dose form
 		String doseForm = null;
-		if (term.toLowerCase(Locale.ENGLISH).endsWith(expectedDoseForm.toLowerCase(Locale.ENGLISH))) {
-			doseForm = term.substring(term.toLowerCase(Locale.ENGLISH).lastIndexOf(expectedDoseForm.toLowerCase(Locale.ENGLISH)));
+		if (termLowerCase.endsWith(expectedDoseFormLowerCase)) {
+			doseForm = term.substring(termLowerCase.lastIndexOf(expectedDoseFormLowerCase));
 		} else {
 			// match backwards one dose form token at a time
-			String[] expectedDoseFormTokens = expectedDoseForm.split(" ");
-			if (expectedDoseFormTokens.length > 1) {
+			if (expectedDoseFormTokens.size() > 1) {
 				String[] termTokens = term.split(" ");
-				if (termTokens.length >= expectedDoseFormTokens.length) {
+				if (termTokens.length >= expectedDoseFormTokens.size()) {
 					StringBuilder dfBuilder = new StringBuilder();
 					int t = termTokens.length - 1;
-					for (int d = expectedDoseFormTokens.length - 1; d >= 0; d--) {
-						if (expectedDoseFormTokens[d].equalsIgnoreCase(termTokens[t])) {
+					for (int d = expectedDoseFormTokens.size() - 1; d >= 0; d--) {
+						if (expectedDoseFormTokens.get(d).equalsIgnoreCase(termTokens[t])) {
 							dfBuilder.insert(0,
 									" " + termTokens[t]);
 						} else {
@@ -423,10 +463,10 @@ public final class MatchTermHelper {
 			// attempt to deduct dose form, based on last unit
 			int lastIndexOfUnit = -1,
 				lastIndexOf;
-			for (Component component : expectedComponents) {
+			for (ComponentTermProfile component : expectedComponents) {
 				lastIndexOf = term.lastIndexOf(component.unit);
 				if (lastIndexOf == -1) {
-					lastIndexOf = term.toLowerCase(Locale.ENGLISH).lastIndexOf(component.unit.toLowerCase(Locale.ENGLISH));
+					lastIndexOf = termLowerCase.lastIndexOf(component.unitLowerCase);
 				}
 				if (lastIndexOf > -1
 						&& lastIndexOf > lastIndexOfUnit) {
@@ -461,24 +501,38 @@ public final class MatchTermHelper {
 	public static Pharmaceutical getTermPharmaceutical(final String normalizedTerm,
 			final boolean isEnglish,
 			final Pharmaceutical expectedPharmaceutical) {
+		return getTermPharmaceutical(normalizedTerm,
+				isEnglish,
+				expectedPharmaceutical.getTermProfile());
+	}
+
+	/**
+	 * @param normalizedTerm (normalized whitespace formatting is assumed)
+	 * @param isEnglish
+	 * @param expected {@link PharmaceuticalTermProfile} of the expected {@link Pharmaceutical}
+	 * @return {@link Pharmaceutical} based on the given term, excluding drugId
+	 * @see #getTermPharmaceutical(String, boolean, Pharmaceutical)
+	 */
+	private static Pharmaceutical getTermPharmaceutical(final String normalizedTerm,
+			final boolean isEnglish,
+			final PharmaceuticalTermProfile expected) {
 		String term = normalizedTerm;
 		int indexOf;
 		// extract & remove leading national trade name (case-insensitive)
 		String tradeName = null;
 		if (!isEnglish) {
-			String normalizedExpectedTradeName = expectedPharmaceutical.getNormalizedTradeName();
-			indexOf = term.toLowerCase(Locale.ENGLISH).indexOf(normalizedExpectedTradeName.toLowerCase(Locale.ENGLISH));
+			indexOf = term.toLowerCase(Locale.ENGLISH).indexOf(expected.normalizedTradeNameLowerCase);
 			if (indexOf > -1) {
-				tradeName = term.substring(indexOf, normalizedExpectedTradeName.length());
+				tradeName = term.substring(indexOf, expected.normalizedTradeName.length());
 			} else {
 				// match one trade name token at a time
-				String[] expectedTradeNameTokens = normalizedExpectedTradeName.split(" ");
-				if (expectedTradeNameTokens.length > 1) {
+				List<String> expectedTradeNameTokens = expected.normalizedTradeNameTokens;
+				if (expectedTradeNameTokens.size() > 1) {
 					String[] termTokens = term.split(" ");
-					if (termTokens.length >= expectedTradeNameTokens.length) {
+					if (termTokens.length >= expectedTradeNameTokens.size()) {
 						StringBuilder tnBuilder = new StringBuilder();
-						for (int i = 0; i < expectedTradeNameTokens.length; i++) {
-							if (expectedTradeNameTokens[i].equalsIgnoreCase(termTokens[i])) {
+						for (int i = 0; i < expectedTradeNameTokens.size(); i++) {
+							if (expectedTradeNameTokens.get(i).equalsIgnoreCase(termTokens[i])) {
 								tnBuilder.append(termTokens[i])
 									.append(" ");
 							} else {
@@ -497,41 +551,52 @@ public final class MatchTermHelper {
 		}
 		// extract & remove dose form (case-insensitive)
 		String doseForm = getTermDoseForm(term,
-				expectedPharmaceutical.components,
-				(isEnglish) ? expectedPharmaceutical.doseForm.getNormalizedNameEnglish() : expectedPharmaceutical.doseForm.getNormalizedNameNational());
+				term.toLowerCase(Locale.ENGLISH),
+				expected.components,
+				(isEnglish) ? expected.doseFormEnglish : expected.doseFormNational,
+				(isEnglish) ? expected.doseFormEnglishLowerCase : expected.doseFormNationalLowerCase,
+				(isEnglish) ? expected.doseFormEnglishTokens : expected.doseFormNationalTokens);
 		if (doseForm != null) {
 			term = term.substring(0,
 					term.lastIndexOf(doseForm)).trim();
 		}
 		// extract components
 		String componentTermToken,
+			componentTermTokenLowerCase,
 			expectedStrength,
+			expectedStrengthUnit,
 			expectedSubstanceName,
 			substanceName,
 			strength,
+			tokenLowerCase,
 			unit;
-		List<Component> components = new ArrayList<>(expectedPharmaceutical.components.size());
+		String[] tokens;
+		List<Component> components = new ArrayList<>(expected.components.size());
 		String[] componentTermTokens = getComponentTermTokens(term);
 		for (int i = 0; i < componentTermTokens.length; i++) {
 			componentTermToken = componentTermTokens[i];
 			if (componentTermToken != null) {
-				for (Component component : expectedPharmaceutical.components) {
-					expectedStrength = (isEnglish) ? Component.getStrengthEnglish(component.strength) : component.strength;
-					expectedSubstanceName = ((isEnglish) ? component.substance.getNormalizedNameEnglish() : component.substance.getNormalizedNameNational()).toLowerCase(Locale.ENGLISH);
-					indexOf = componentTermToken.toLowerCase(Locale.ENGLISH).indexOf(expectedSubstanceName);
+				componentTermTokenLowerCase = componentTermToken.toLowerCase(Locale.ENGLISH);
+				tokens = componentTermToken.split(" ");
+				for (ComponentTermProfile component : expected.components) {
+					expectedStrength = (isEnglish) ? component.strengthEnglish : component.strengthNational;
+					expectedStrengthUnit = (isEnglish) ? component.strengthUnitEnglish : component.strengthUnitNational;
+					expectedSubstanceName = (isEnglish) ? component.substanceNameEnglishLowerCase : component.substanceNameNationalLowerCase;
+					indexOf = componentTermTokenLowerCase.indexOf(expectedSubstanceName);
 					substanceName = (indexOf > -1) ? componentTermToken.substring(indexOf, (indexOf + expectedSubstanceName.length())) : null;
 					strength = null;
 					unit = null;
-					for (String token : componentTermToken.split(" ")) {
+					for (String token : tokens) {
 						if (expectedStrength.equalsIgnoreCase(token)) {
 							strength = token;
 						} else if (component.unit.equalsIgnoreCase(token)) {
 							unit = token;
 						} else {
-							if (token.equalsIgnoreCase(expectedStrength + component.unit)) {
-								indexOf = token.toLowerCase(Locale.ENGLISH).indexOf(expectedStrength.toLowerCase(Locale.ENGLISH));
+							if (token.equalsIgnoreCase(expectedStrengthUnit)) {
+								tokenLowerCase = token.toLowerCase(Locale.ENGLISH);
+								indexOf = tokenLowerCase.indexOf((isEnglish) ? component.strengthEnglishLowerCase : component.strengthNationalLowerCase);
 								strength = (indexOf > -1) ? token.substring(indexOf, (indexOf + expectedStrength.length())) : null;
-								indexOf = token.toLowerCase(Locale.ENGLISH).indexOf(component.unit.toLowerCase(Locale.ENGLISH));
+								indexOf = tokenLowerCase.indexOf(component.unitLowerCase);
 								unit = (indexOf > -1) ? token.substring(indexOf, (indexOf + component.unit.length())) : null;
 								break;
 							}
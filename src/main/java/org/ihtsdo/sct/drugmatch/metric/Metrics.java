@@ -0,0 +1,135 @@
+package org.ihtsdo.sct.drugmatch.metric;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.commons.codec.CharEncoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+/**
+ * Registry of the {@link OperationMetrics} of the remote operations, ie. the HealthTerm verification service & the SCT ID service.<br>
+ * Speculative attribute "Match" queries are recorded as saved (result used) or wasted (result discarded) round-trips.
+ * <p>
+ * Every operation is exposed over JMX, as <code>org.ihtsdo.sct.drugmatch:type=Metrics,name=&lt;operation&gt;</code>, while the run is in progress.
+ * @author dev-team@carecom.dk
+ */
+public final class Metrics {
+
+	private static final Logger log = LoggerFactory.getLogger(Metrics.class);
+
+	public static final String
+			HEALTHTERM_ATTRIBUTE_SEARCH = "healthterm.attribute_search",
+			HEALTHTERM_CONCEPT_LOOKUP = "healthterm.concept_lookup",
+			HEALTHTERM_EXACT_SEARCH = "healthterm.exact_search",
+
+			MATCH_SPECULATIVE_ATTRIBUTE_SEARCH_SAVED = "match.speculative_attribute_search.saved",
+			MATCH_SPECULATIVE_ATTRIBUTE_SEARCH_WASTED = "match.speculative_attribute_search.wasted",
+
+			SCT_ID_CREATE_CONCEPT_IDS = "sct_id.create_concept_ids",
+			SCT_ID_CREATE_SCT_ID = "sct_id.create_sct_id",
+			SCT_ID_CREATE_SCT_ID_LIST = "sct_id.create_sct_id_list";
+
+	private static final String[] REPORT_HEADER = new String[] {
+			"Operation",
+			"Calls",
+			"Errors",
+			"Calls per second",
+			"Latency p50 (ms)",
+			"Latency p95 (ms)",
+			"Latency p99 (ms)",
+			"Latency max (ms)"
+	};
+
+	private static final ConcurrentMap<String, OperationMetrics> operation2Metrics = new ConcurrentHashMap<>();
+
+	/**
+	 * DON'T INSTANTIATE A STATIC HELPER!
+	 */
+	private Metrics() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param operation
+	 * @return {@link OperationMetrics} of the operation, created & exposed over JMX on first use.
+	 */
+	public static OperationMetrics get(final String operation) {
+		OperationMetrics result = operation2Metrics.get(operation);
+		if (result == null) {
+			OperationMetrics metrics = new OperationMetrics(operation);
+			result = operation2Metrics.putIfAbsent(operation, metrics);
+			if (result == null) {
+				result = metrics;
+				register(metrics);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param metrics
+	 */
+	private static void register(final OperationMetrics metrics) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+					new ObjectName("org.ihtsdo.sct.drugmatch:type=Metrics,name=" + ObjectName.quote(metrics.getOperation())));
+		} catch (JMException e) {
+			log.debug("Unable to expose metrics of: {} over JMX", metrics.getOperation(), e);
+		}
+	}
+
+	private static String format(final double value) {
+		return String.format(Locale.ENGLISH, "%.3f", value);
+	}
+
+	/**
+	 * Write the metrics of every operation called, sorted by operation.
+	 * @param fullFileName
+	 * @param separator
+	 * @param quoteChar
+	 * @throws IOException
+	 */
+	public static void write(final String fullFileName,
+			final char separator,
+			final char quoteChar) throws IOException {
+		Map<String, OperationMetrics> sorted = new TreeMap<>(operation2Metrics);
+		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(fullFileName),
+						CharEncoding.UTF_8),
+				separator,
+				quoteChar,
+				System.lineSeparator())) {
+			writer.writeNext(REPORT_HEADER);
+			for (OperationMetrics metrics : sorted.values()) {
+				writer.writeNext(new String[] {
+						metrics.getOperation(),
+						String.valueOf(metrics.getCalls()),
+						String.valueOf(metrics.getErrors()),
+						format(metrics.getThroughput()),
+						format(metrics.getLatencyP50()),
+						format(metrics.getLatencyP95()),
+						format(metrics.getLatencyP99()),
+						format(metrics.getLatencyMax())
+				});
+				log.info("{}: {} call(s), {} error(s), p95 {} ms",
+						metrics.getOperation(),
+						String.valueOf(metrics.getCalls()),
+						String.valueOf(metrics.getErrors()),
+						format(metrics.getLatencyP95()));
+			}
+		}
+		log.info("Metrics written to: {}", fullFileName);
+	}
+}
@@ -0,0 +1,175 @@
+package org.ihtsdo.sct.drugmatch.metric;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Call & error counters and latency histogram, of a single remote operation.
+ * <p>
+ * Latencies are recorded in microseconds, in log-linear buckets (8 per power of 2), ie. a percentile is reported with at most 12.5% error.<br>
+ * Lock free, safe to record from any number of threads.
+ * @author dev-team@carecom.dk
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+	/**
+	 * Buckets per power of 2, values below are recorded exactly.
+	 */
+	private static final int SUB_BUCKETS = 8;
+
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	/**
+	 * {@link #firstCall} until the first call is recorded.
+	 */
+	private static final long NO_CALLS = Long.MIN_VALUE;
+
+	private final String operation;
+
+	/**
+	 * {@link System#nanoTime()} when the first recorded call started.
+	 */
+	private final AtomicLong firstCall = new AtomicLong(NO_CALLS);
+
+	private final AtomicLong calls = new AtomicLong(),
+		errors = new AtomicLong(),
+		max = new AtomicLong();
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * @param operation
+	 */
+	public OperationMetrics(final String operation) {
+		this.operation = operation;
+	}
+
+	/**
+	 * @param micros
+	 * @return histogram bucket of the latency.
+	 */
+	static int getBucket(final long micros) {
+		if (micros < SUB_BUCKETS) {
+			return (int) Math.max(0, micros);
+		} // else
+		int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(micros);
+		int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @param bucket
+	 * @return highest latency, in microseconds, of the bucket.
+	 */
+	static long getUpperBound(final int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		} // else
+		int shift = (bucket / SUB_BUCKETS) - 1;
+		long lowerBound = ((long) (SUB_BUCKETS + (bucket % SUB_BUCKETS))) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	/**
+	 * Record a completed call.
+	 * @param startNanos {@link System#nanoTime()} when the call started.
+	 * @param success false if the call failed.
+	 */
+	public final void record(final long startNanos,
+			final boolean success) {
+		recordDuration(System.nanoTime() - startNanos,
+				success);
+	}
+
+	/**
+	 * Record a completed call.
+	 * @param nanos duration of the call.
+	 * @param success false if the call failed.
+	 */
+	public final void recordDuration(final long nanos,
+			final boolean success) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		if (this.firstCall.get() == NO_CALLS) {
+			this.firstCall.compareAndSet(NO_CALLS, System.nanoTime() - nanos);
+		}
+		this.calls.incrementAndGet();
+		if (!success) {
+			this.errors.incrementAndGet();
+		}
+		this.buckets.incrementAndGet(getBucket(micros));
+		long current;
+		while (micros > (current = this.max.get())
+				&& !this.max.compareAndSet(current, micros)) {
+			// retry
+		}
+	}
+
+	/**
+	 * @param percentile 0 - 100
+	 * @return latency, in microseconds, below which the given percentage of the calls completed, 0 if no calls.
+	 */
+	public final long getPercentile(final double percentile) {
+		long total = 0;
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = this.buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		} // else
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += counts[i];
+			if (count >= rank) {
+				return Math.min(getUpperBound(i), this.max.get());
+			}
+		}
+		return this.max.get();
+	}
+
+	private static double toMillis(final long micros) {
+		return micros / 1000d;
+	}
+
+	public final String getOperation() {
+		return this.operation;
+	}
+
+	public final long getCalls() {
+		return this.calls.get();
+	}
+
+	public final long getErrors() {
+		return this.errors.get();
+	}
+
+	public final double getThroughput() {
+		long first = this.firstCall.get();
+		if (first == NO_CALLS) {
+			return 0;
+		} // else
+		long nanos = System.nanoTime() - first;
+		return (nanos <= 0) ? 0 : getCalls() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+	}
+
+	public final double getLatencyP50() {
+		return toMillis(getPercentile(50));
+	}
+
+	public final double getLatencyP95() {
+		return toMillis(getPercentile(95));
+	}
+
+	public final double getLatencyP99() {
+		return toMillis(getPercentile(99));
+	}
+
+	public final double getLatencyMax() {
+		return toMillis(this.max.get());
+	}
+}
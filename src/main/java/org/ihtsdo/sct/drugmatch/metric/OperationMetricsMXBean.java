@@ -0,0 +1,36 @@
+package org.ihtsdo.sct.drugmatch.metric;
+
+/**
+ * JMX view of the {@link OperationMetrics} of a remote operation, latencies in milliseconds.
+ * @author dev-team@carecom.dk
+ */
+public interface OperationMetricsMXBean {
+
+	/**
+	 * @return operation name.
+	 */
+	String getOperation();
+
+	/**
+	 * @return number of completed calls, failed calls included.
+	 */
+	long getCalls();
+
+	/**
+	 * @return number of failed calls.
+	 */
+	long getErrors();
+
+	/**
+	 * @return completed calls per second, since the first recorded call started, 0 if no calls.
+	 */
+	double getThroughput();
+
+	double getLatencyP50();
+
+	double getLatencyP95();
+
+	double getLatencyP99();
+
+	double getLatencyMax();
+}
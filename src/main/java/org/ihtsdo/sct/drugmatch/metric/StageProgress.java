@@ -0,0 +1,204 @@
+package org.ihtsdo.sct.drugmatch.metric;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.codec.CharEncoding;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+/**
+ * Progress of a single stage, ex. attribute "Match".
+ * <p>
+ * Items done/total, items per second & ETA are logged at most once per {@link DrugMatchSettings#getProgressInterval()}, by the thread completing an item.<br>
+ * The timing of every completed stage is kept for the stage timing report, see {@link #write(String, char, char)}.
+ * @author dev-team@carecom.dk
+ */
+public class StageProgress {
+
+	private static final Logger log = LoggerFactory.getLogger(StageProgress.class);
+
+	/**
+	 * Total of a stage where the number of items isn't known up front, ex. input parsing.
+	 */
+	public static final long UNKNOWN_TOTAL = -1;
+
+	private static final String[] REPORT_HEADER = new String[] {
+			"Stage",
+			"Items",
+			"Duration (s)",
+			"Items per second"
+	};
+
+	/**
+	 * Completed stages, in completion order.
+	 */
+	private static final Queue<StageProgress> completed = new ConcurrentLinkedQueue<>();
+
+	private final String stage;
+
+	private final long total;
+
+	private final long intervalNanos;
+
+	private final long started = System.nanoTime();
+
+	private final AtomicLong done = new AtomicLong(),
+		nextReport;
+
+	private final AtomicBoolean complete = new AtomicBoolean();
+
+	private volatile long duration;
+
+	/**
+	 * @param stage
+	 * @param total number of items, or {@link #UNKNOWN_TOTAL}
+	 * @param intervalNanos between progress reports
+	 */
+	StageProgress(final String stage,
+			final long total,
+			final long intervalNanos) {
+		this.stage = stage;
+		this.total = total;
+		this.intervalNanos = intervalNanos;
+		this.nextReport = new AtomicLong(this.started + intervalNanos);
+	}
+
+	/**
+	 * @param stage
+	 * @param total number of items, or {@link #UNKNOWN_TOTAL}
+	 * @param settings
+	 * @return {@link StageProgress} of the started stage, reporting every {@link DrugMatchSettings#getProgressInterval()} seconds.
+	 */
+	public static StageProgress start(final String stage,
+			final long total,
+			final DrugMatchSettings settings) {
+		return new StageProgress(stage,
+				total,
+				TimeUnit.SECONDS.toNanos(settings.getProgressInterval()));
+	}
+
+	/**
+	 * An item is done.
+	 */
+	public final void increment() {
+		add(1);
+	}
+
+	/**
+	 * @param items done
+	 */
+	public final void add(final long items) {
+		long current = this.done.addAndGet(items);
+		long now = System.nanoTime(),
+			next = this.nextReport.get();
+		if (now - next >= 0
+				&& this.nextReport.compareAndSet(next, now + this.intervalNanos)) {
+			report(current,
+					now - this.started);
+		}
+	}
+
+	/**
+	 * @param items done
+	 * @param elapsed nanoseconds
+	 */
+	private void report(final long items,
+			final long elapsed) {
+		double rate = getRate(items, elapsed);
+		if (this.total == UNKNOWN_TOTAL) {
+			log.info("{}: {} done, {} per second",
+					this.stage,
+					String.valueOf(items),
+					format(rate));
+		} else {
+			log.info("{}: {}/{} ({}%) done, {} per second, ETA {}",
+					this.stage,
+					String.valueOf(items),
+					String.valueOf(this.total),
+					String.valueOf((this.total == 0) ? 100 : (items * 100 / this.total)),
+					format(rate),
+					(rate > 0) ? DurationFormatUtils.formatDuration((long) ((this.total - items) / rate * 1000), "HH:mm:ss") : "unknown");
+		}
+	}
+
+	/**
+	 * Complete the stage, keeping its timing for the stage timing report.
+	 */
+	public final void complete() {
+		if (!this.complete.compareAndSet(false, true)) {
+			return;
+		} // else
+		this.duration = System.nanoTime() - this.started;
+		completed.add(this);
+		log.info("{}: {} done in {}, {} per second",
+				this.stage,
+				String.valueOf(this.done.get()),
+				DurationFormatUtils.formatDuration(TimeUnit.NANOSECONDS.toMillis(this.duration), "HH:mm:ss.SSS"),
+				format(getRate(this.done.get(), this.duration)));
+	}
+
+	public final String getStage() {
+		return this.stage;
+	}
+
+	/**
+	 * @return items done.
+	 */
+	public final long getDone() {
+		return this.done.get();
+	}
+
+	/**
+	 * @param items
+	 * @param elapsed nanoseconds
+	 * @return items per second.
+	 */
+	private static double getRate(final long items,
+			final long elapsed) {
+		return (elapsed <= 0) ? 0 : items * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+	}
+
+	private static String format(final double value) {
+		return String.format(Locale.ENGLISH, "%.1f", value);
+	}
+
+	/**
+	 * Write the timing of every completed stage, in completion order.
+	 * @param fullFileName
+	 * @param separator
+	 * @param quoteChar
+	 * @throws IOException
+	 */
+	public static void write(final String fullFileName,
+			final char separator,
+			final char quoteChar) throws IOException {
+		try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(fullFileName),
+						CharEncoding.UTF_8),
+				separator,
+				quoteChar,
+				System.lineSeparator())) {
+			writer.writeNext(REPORT_HEADER);
+			for (StageProgress progress : completed) {
+				writer.writeNext(new String[] {
+						progress.stage,
+						String.valueOf(progress.done.get()),
+						String.format(Locale.ENGLISH, "%.3f", progress.duration / (double) TimeUnit.SECONDS.toNanos(1)),
+						format(getRate(progress.done.get(), progress.duration))
+				});
+			}
+		}
+		log.info("Stage timing written to: {}", fullFileName);
+	}
+}
@@ -34,8 +34,21 @@ public class Component implements Serializable {
 			final String substanceNameNational,
 			final String strength,
 			final String unit) {
-		this.substance = new Substance(substanceNameEnglish,
-				substanceNameNational);
+		this(new Substance(substanceNameEnglish,
+				substanceNameNational),
+				strength,
+				unit);
+	}
+
+	/**
+	 * @param substance possibly shared
+	 * @param strength national notation
+	 * @param unit SI
+	 */
+	public Component(final Substance substance,
+			final String strength,
+			final String unit) {
+		this.substance = substance;
 		this.strength = strength;
 		this.unit = unit;
 	}
@@ -0,0 +1,80 @@
+package org.ihtsdo.sct.drugmatch.model;
+
+import java.util.Locale;
+
+/**
+ * Immutable, normalized & case folded forms of a {@link Component}, as compared by term "Match".<br>
+ * Forms derived from a missing name or strength are null.
+ * @author dev-team@carecom.dk
+ * @see PharmaceuticalTermProfile
+ */
+public final class ComponentTermProfile {
+
+	/**
+	 * @see Component#getEnglish()
+	 * @see Component#getNational()
+	 */
+	public final String english,
+		national;
+
+	/**
+	 * Whitespace normalized {@link Substance} names.
+	 */
+	public final String substanceNameEnglish,
+		substanceNameEnglishLowerCase,
+		substanceNameNational,
+		substanceNameNationalLowerCase;
+
+	/**
+	 * @see Component#getStrengthEnglish(String)
+	 * @see Component#strength
+	 */
+	public final String strengthEnglish,
+		strengthEnglishLowerCase,
+		strengthNational,
+		strengthNationalLowerCase;
+
+	/**
+	 * @see Component#unit
+	 */
+	public final String unit,
+		unitLowerCase;
+
+	/**
+	 * Strength immediately followed by unit, ex. "10mg".
+	 */
+	public final String strengthUnitEnglish,
+		strengthUnitEnglishLowerCase,
+		strengthUnitNational,
+		strengthUnitNationalLowerCase;
+
+	/**
+	 * @param component
+	 */
+	ComponentTermProfile(final Component component) {
+		this.substanceNameEnglish = component.substance.getNormalizedNameEnglish();
+		this.substanceNameEnglishLowerCase = toLowerCase(this.substanceNameEnglish);
+		this.substanceNameNational = component.substance.getNormalizedNameNational();
+		this.substanceNameNationalLowerCase = toLowerCase(this.substanceNameNational);
+		this.english = (this.substanceNameEnglish == null || component.strength == null) ? null : component.getEnglish();
+		this.national = (this.substanceNameNational == null) ? null : component.getNational();
+		this.strengthEnglish = (component.strength == null) ? null : Component.getStrengthEnglish(component.strength);
+		this.strengthEnglishLowerCase = toLowerCase(this.strengthEnglish);
+		this.strengthNational = component.strength;
+		this.strengthNationalLowerCase = toLowerCase(this.strengthNational);
+		this.unit = component.unit;
+		this.unitLowerCase = toLowerCase(this.unit);
+		this.strengthUnitEnglish = this.strengthEnglish + this.unit;
+		this.strengthUnitEnglishLowerCase = toLowerCase(this.strengthUnitEnglish);
+		this.strengthUnitNational = this.strengthNational + this.unit;
+		this.strengthUnitNationalLowerCase = toLowerCase(this.strengthUnitNational);
+	}
+
+	/**
+	 * @param value
+	 * @return value in lower case, or null
+	 */
+	static String toLowerCase(final String value) {
+		return (value == null) ? null : value.toLowerCase(Locale.ENGLISH);
+	}
+}
@@ -38,6 +38,11 @@ public class Pharmaceutical implements Serializable {
 	 */
 	public final String tradeName;
 
+	/**
+	 * Lazily built, as only pharmaceuticals with an attribute "Match" are term "Match"-ed.
+	 */
+	private transient volatile PharmaceuticalTermProfile termProfile = null;
+
 	/**
 	 * @param components
 	 * @param doseFormEnglish
@@ -50,9 +55,25 @@ public class Pharmaceutical implements Serializable {
 			final String doseFormNational,
 			final String drugId,
 			final String tradeName) {
+		this(components,
+				new DoseForm(doseFormEnglish,
+						doseFormNational),
+				drugId,
+				tradeName);
+	}
+
+	/**
+	 * @param components
+	 * @param doseForm possibly shared
+	 * @param drugId
+	 * @param tradeName
+	 */
+	public Pharmaceutical(final List<Component> components,
+			final DoseForm doseForm,
+			final String drugId,
+			final String tradeName) {
 		this.components = components;
-		this.doseForm = new DoseForm(doseFormEnglish,
-				doseFormNational);
+		this.doseForm = doseForm;
 		this.drugId = drugId;
 		this.tradeName = tradeName;
 	}
@@ -198,6 +219,20 @@ public class Pharmaceutical implements Serializable {
 		return nameUUIDFromList(tokens);
 	}
 
+	/**
+	 * Note, the profile reflects the {@link Pharmaceutical#components} at the time of the first call.
+	 * @return {@link PharmaceuticalTermProfile}, built on first use.
+	 */
+	public final PharmaceuticalTermProfile getTermProfile() {
+		PharmaceuticalTermProfile result = this.termProfile;
+		if (result == null) {
+			// immutable, ie. a concurrent duplicate is harmless
+			result = new PharmaceuticalTermProfile(this);
+			this.termProfile = result;
+		}
+		return result;
+	}
+
 	@Override
 	public final int hashCode() {
 		final int prime = 31;
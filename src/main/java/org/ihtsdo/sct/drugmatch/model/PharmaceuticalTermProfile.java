@@ -0,0 +1,102 @@
+package org.ihtsdo.sct.drugmatch.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, normalized, case folded & tokenized forms of a {@link Pharmaceutical}, as compared by term "Match".
+ * <p>
+ * Derived once per {@link Pharmaceutical}, instead of once per SNOMED CT description evaluated, see {@link Pharmaceutical#getTermProfile()}.
+ * @author dev-team@carecom.dk
+ */
+public final class PharmaceuticalTermProfile {
+
+	/**
+	 * In {@link Pharmaceutical#components} order.
+	 */
+	public final List<ComponentTermProfile> components;
+
+	/**
+	 * @see Pharmaceutical#getEnglishTerm()
+	 * @see Pharmaceutical#getNationalTerm()
+	 * @see Pharmaceutical#getNationalPharmaceuticalTerm()
+	 */
+	public final String englishTerm,
+		nationalTerm,
+		nationalPharmaceuticalTerm;
+
+	/**
+	 * Whitespace normalized {@link DoseForm} names.
+	 */
+	public final String doseFormEnglish,
+		doseFormEnglishLowerCase,
+		doseFormNational,
+		doseFormNationalLowerCase;
+
+	/**
+	 * Whitespace normalized {@link DoseForm} name tokens.
+	 */
+	public final List<String> doseFormEnglishTokens,
+		doseFormNationalTokens;
+
+	/**
+	 * @see Pharmaceutical#getNormalizedTradeName()
+	 */
+	public final String normalizedTradeName,
+		normalizedTradeNameLowerCase;
+
+	/**
+	 * Whitespace normalized trade name tokens.
+	 */
+	public final List<String> normalizedTradeNameTokens;
+
+	/**
+	 * @param pharmaceutical
+	 */
+	PharmaceuticalTermProfile(final Pharmaceutical pharmaceutical) {
+		this.components = getComponents(pharmaceutical.components);
+		boolean english = true,
+			national = true;
+		for (ComponentTermProfile component : this.components) {
+			english &= component.english != null;
+			national &= component.national != null;
+		}
+		this.englishTerm = (english) ? pharmaceutical.getEnglishTerm() : null;
+		this.nationalTerm = (national) ? pharmaceutical.getNationalTerm() : null;
+		this.normalizedTradeName = pharmaceutical.getNormalizedTradeName();
+		this.normalizedTradeNameLowerCase = ComponentTermProfile.toLowerCase(this.normalizedTradeName);
+		this.normalizedTradeNameTokens = getTokens(this.normalizedTradeName);
+		this.nationalPharmaceuticalTerm = (national && this.normalizedTradeName != null) ? pharmaceutical.getNationalPharmaceuticalTerm() : null;
+		this.doseFormEnglish = pharmaceutical.doseForm.getNormalizedNameEnglish();
+		this.doseFormEnglishLowerCase = ComponentTermProfile.toLowerCase(this.doseFormEnglish);
+		this.doseFormEnglishTokens = getTokens(this.doseFormEnglish);
+		this.doseFormNational = pharmaceutical.doseForm.getNormalizedNameNational();
+		this.doseFormNationalLowerCase = ComponentTermProfile.toLowerCase(this.doseFormNational);
+		this.doseFormNationalTokens = getTokens(this.doseFormNational);
+	}
+
+	/**
+	 * @param components
+	 * @return unmodifiable {@link List}({@link ComponentTermProfile}), in {@link Component} order.
+	 */
+	public static List<ComponentTermProfile> getComponents(final List<Component> components) {
+		List<ComponentTermProfile> result = new ArrayList<>(components.size());
+		for (Component component : components) {
+			result.add(new ComponentTermProfile(component));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * @param normalized whitespace normalized value
+	 * @return unmodifiable {@link List}(token), empty if value is null.
+	 */
+	public static List<String> getTokens(final String normalized) {
+		if (normalized == null) {
+			return Collections.emptyList();
+		} // else
+		return Collections.unmodifiableList(Arrays.asList(normalized.split(" ")));
+	}
+}
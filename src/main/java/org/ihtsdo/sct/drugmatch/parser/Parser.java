@@ -19,4 +19,15 @@ public interface Parser {
 	 * @throws IOException
 	 */
 	List<Pharmaceutical> parse() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException;
+
+	/**
+	 * Stream the input, holding at most one batch of {@link Pharmaceutical}s in memory.
+	 * @param batchSize maximum number of {@link Pharmaceutical}s per batch
+	 * @param handler receives each batch, in input order
+	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException once the input is exhausted, ie. after the last batch
+	 * @throws IOException
+	 */
+	void parse(int batchSize,
+			PharmaceuticalHandler handler) throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException;
 }
@@ -0,0 +1,21 @@
+package org.ihtsdo.sct.drugmatch.parser;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+
+/**
+ * Consumer of streamed {@link Pharmaceutical}s.
+ * @author dev-team@carecom.dk
+ */
+public interface PharmaceuticalHandler {
+
+	/**
+	 * @param pharmaceuticals next batch, in input order
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	void handle(List<Pharmaceutical> pharmaceuticals) throws DrugMatchConfigurationException, IOException;
+}
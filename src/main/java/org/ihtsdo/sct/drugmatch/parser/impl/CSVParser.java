@@ -1,19 +1,40 @@
 package org.ihtsdo.sct.drugmatch.parser.impl;
 
+import java.io.CharArrayReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.codec.CharEncoding;
+import org.apache.commons.lang3.tuple.Pair;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
+import org.ihtsdo.sct.drugmatch.metric.StageProgress;
 import org.ihtsdo.sct.drugmatch.model.Component;
+import org.ihtsdo.sct.drugmatch.model.DoseForm;
 import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+import org.ihtsdo.sct.drugmatch.model.Substance;
 import org.ihtsdo.sct.drugmatch.parser.Parser;
+import org.ihtsdo.sct.drugmatch.parser.PharmaceuticalHandler;
 import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,11 +48,93 @@ public class CSVParser implements Parser {
 	private static final Logger log = LoggerFactory.getLogger(CSVParser.class);
 
 	/**
+	 * Default input chunk size in bytes, when parsed concurrently.
+	 */
+	private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * Bytes memory mapped at a time, while splitting the input into chunks.
+	 */
+	private static final int SCAN_WINDOW_SIZE = 64 * 1024 * 1024;
+
+	/**
+	 * Escape character of {@link CSVReader}.
+	 */
+	private static final byte ESCAPE = '\\';
+
+	/**
+	 * Input chunk size in bytes, when parsed concurrently.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * null if {@link DrugMatchProperties#getSettings()} should be used.
+	 */
+	private final DrugMatchSettings settings;
+
+	/**
+	 * Canonical instances, ie. equal values parsed share a single instance.
+	 */
+	private final Pool<DoseForm> doseForms = new Pool<>();
+
+	private final Pool<Substance> substances = new Pool<>();
+
+	/**
+	 * Units & strengths.
+	 */
+	private final Pool<String> values = new Pool<>();
+
+	/**
+	 * true once the input has been parsed, ie. skipped lines are only reported (as warnings) once.
+	 */
+	private boolean parsed = false;
+
+	public CSVParser() {
+		this(null,
+				DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param settings
+	 */
+	public CSVParser(final DrugMatchSettings settings) {
+		this(settings,
+				DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param chunkSize input chunk size in bytes, when parsed concurrently
+	 */
+	CSVParser(final int chunkSize) {
+		this(null,
+				chunkSize);
+	}
+
+	/**
+	 * @param settings or null
+	 * @param chunkSize input chunk size in bytes, when parsed concurrently
+	 */
+	CSVParser(final DrugMatchSettings settings,
+			final int chunkSize) {
+		this.settings = settings;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * @return injected {@link DrugMatchSettings}, otherwise {@link DrugMatchProperties#getSettings()}.
+	 * @throws DrugMatchConfigurationException
+	 */
+	private DrugMatchSettings getSettings() throws DrugMatchConfigurationException {
+		return (this.settings == null) ? DrugMatchProperties.getSettings() : this.settings;
+	}
+
+	/**
+	 * @param settings
 	 * @return input file.
 	 * @throws DrugMatchConfigurationException
 	 */
-	private static File getInputFile() throws DrugMatchConfigurationException {
-		String inputFilePath = DrugMatchProperties.getInputFilePath();
+	private static File getInputFile(final DrugMatchSettings settings) throws DrugMatchConfigurationException {
+		String inputFilePath = settings.getInputFilePath();
 		if (inputFilePath == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.INPUT_FILE + "' isn't set!");
 		}
@@ -48,11 +151,11 @@ public class CSVParser implements Parser {
 	}
 
 	/**
+	 * @param settings
 	 * @return Input file content separator.
-	 * @throws DrugMatchConfigurationException
 	 */
-	private static char getInputFileContentSeparator() throws DrugMatchConfigurationException {
-		String separatorSetting = DrugMatchProperties.getFileContentSeparatorCharacter();
+	private static char getInputFileContentSeparator(final DrugMatchSettings settings) {
+		String separatorSetting = settings.getFileContentSeparatorCharacter();
 		if (separatorSetting == null) {
 			separatorSetting = ";";
 		}
@@ -77,148 +180,509 @@ public class CSVParser implements Parser {
 		return value;
 	}
 
+	/**
+	 * Report skipped line, as warning on first parse.<br>
+	 * Called concurrently, when the input is parsed in chunks.
+	 * @param format
+	 * @param arguments line number (of the CSV record) first
+	 */
+	void skipping(final String format,
+			final Object... arguments) {
+		if (this.parsed) {
+			log.debug(format, arguments);
+		} else {
+			log.warn(format, arguments);
+		}
+	}
+
+	/**
+	 * Called concurrently, when the input is parsed in chunks.
+	 * @param doseForm
+	 * @return shared instance, equal to doseForm.
+	 */
+	DoseForm getDoseForm(final DoseForm doseForm) {
+		return this.doseForms.get(doseForm);
+	}
+
+	/**
+	 * Called concurrently, when the input is parsed in chunks.
+	 * @param substance
+	 * @return shared instance, equal to substance.
+	 */
+	Substance getSubstance(final Substance substance) {
+		return this.substances.get(substance);
+	}
+
+	/**
+	 * Called concurrently, when the input is parsed in chunks.
+	 * @param value unit or strength
+	 * @return shared instance, equal to value.
+	 */
+	String getValue(final String value) {
+		return this.values.get(value);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	public final List<Pharmaceutical> parse() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		final List<Pharmaceutical> pharmaceuticals = new ArrayList<>();
+		parse(getSettings().getInputBatchSize(),
+				new PharmaceuticalHandler() {
+
+					public void handle(final List<Pharmaceutical> batch) {
+						pharmaceuticals.addAll(batch);
+					}
+				});
+		return pharmaceuticals;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final void parse(final int batchSize,
+			final PharmaceuticalHandler handler) throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
 		log.info("Starting input parsing");
-		CSVReader reader = null;
-		try (
-				InputStreamReader inputReader = new InputStreamReader(new FileInputStream(getInputFile()),
-				CharEncoding.UTF_8);
-		) {
-			// initialize reader
-			String quoteCharacter = DrugMatchProperties.getFileContentQuoteCharacter();
-			if (quoteCharacter == null) {
-				reader = new CSVReader(inputReader,
-						getInputFileContentSeparator());
-				log.info("Assuming unquoted input content");
-			} else {
-				reader = new CSVReader(inputReader,
-						getInputFileContentSeparator(),
-						quoteCharacter.charAt(0));
-				log.debug("Using '{}' = '{}'", DrugMatchProperties.FILE_QUOTE_CHARACTER, quoteCharacter);
+		DrugMatchSettings settings = getSettings();
+		File input = getInputFile(settings);
+		char separator = getInputFileContentSeparator(settings);
+		// CSVReader default quote character, if unset
+		char quoteChar = '"';
+		String quoteCharacter = settings.getFileContentQuoteCharacter();
+		if (quoteCharacter == null) {
+			log.info("Assuming unquoted input content");
+		} else {
+			quoteChar = quoteCharacter.charAt(0);
+			log.debug("Using '{}' = '{}'", DrugMatchProperties.FILE_QUOTE_CHARACTER, quoteCharacter);
+		}
+		boolean includeFirstLine = Boolean.parseBoolean(settings.getInputFileIncludeFirstLine());
+		int parallelism = settings.getInputParallelism();
+		// count valid pharmaceuticals
+		final int[] validCount = new int[1];
+		final StageProgress progress = StageProgress.start("Input parsing",
+				StageProgress.UNKNOWN_TOTAL,
+				settings);
+		PharmaceuticalHandler counter = new PharmaceuticalHandler() {
+
+			public void handle(final List<Pharmaceutical> batch) throws DrugMatchConfigurationException, IOException {
+				validCount[0] += batch.size();
+				handler.handle(batch);
+				progress.add(batch.size());
 			}
-			// 1st line
-			int componentGroup = 0,
-				componentIndex,
-				lineNumber = 0;
-			if (!Boolean.parseBoolean(DrugMatchProperties.getInputFileIncludeFirstLine())) {
-				reader.readNext();
-				lineNumber++;
+		};
+		int lineCount;
+		if (parallelism < 2
+				|| quoteChar > Byte.MAX_VALUE
+				|| separator > Byte.MAX_VALUE) {
+			try (CSVReader reader = new CSVReader(new InputStreamReader(new FileInputStream(input), CharEncoding.UTF_8),
+					separator,
+					quoteChar)) {
+				lineCount = parse(reader,
+						0,
+						!includeFirstLine,
+						batchSize,
+						counter);
 			}
-			// content
-			List<Pharmaceutical> pharmaceuticals = new ArrayList<>();
-			String[] columns;
-			String drugId,
-				tradeName,
-				doseFormEnglish,
-				doseFormNational,
-				substanceNameEnglish,
-				substanceNameNational,
-				strength,
-				unit;
-			Pharmaceutical pharmaceutical;
-			List<Component> malformedComponents;
-			while ((columns = reader.readNext()) != null) {
-				lineNumber++;
-				if (columns.length >= 7) { // ie. minimum 1 pharmaceutical with 1 component
-					// pharmaceutical
-					drugId = extractValue(columns, 0);
-					if (drugId == null) {
-						log.warn("SKIPPING LINE: {} CAUSE: empty drugId!", String.valueOf(lineNumber));
-						continue;
-					} // else
-					tradeName = extractValue(columns, 1);
-					if (tradeName == null) {
-						log.warn("SKIPPING LINE: {}, drug ID: {} CAUSE: empty tradeName!",
-								String.valueOf(lineNumber),
-								drugId);
-						continue;
-					} // else
-					doseFormEnglish = extractValue(columns, 2);
-					if (doseFormEnglish == null) {
-						log.warn("SKIPPING LINE: {}, drug ID: {} CAUSE: empty doseFormEnglish!",
-								String.valueOf(lineNumber),
-								drugId);
-						continue;
-					} // else
-					doseFormNational = extractValue(columns, 3);
-					if (doseFormNational == null) {
-						log.warn("SKIPPING LINE: {}, drug ID: {} CAUSE: empty doseFormNational!",
-								String.valueOf(lineNumber),
-								drugId);
-						continue;
-					} // else
-					pharmaceutical = new Pharmaceutical(new ArrayList<Component>(),
-							doseFormEnglish,
-							doseFormNational,
-							drugId,
-							tradeName);
-					// components
-					componentIndex = 4;
-					malformedComponents = new ArrayList<>();
-					while ((componentIndex + 4) <= columns.length) {
-						componentGroup++;
-						substanceNameEnglish = extractValue(columns, (componentIndex));
-						substanceNameNational = extractValue(columns, (componentIndex + 1));
-						strength = extractValue(columns, (componentIndex + 2));
-						unit = extractValue(columns, (componentIndex + 3));
-						if (substanceNameEnglish == null
-								&& substanceNameNational == null
-								&& strength == null
-								&& unit == null) {
-							log.debug("Skipping component group: {} in line: {}, drug ID: {} cause: all columns in component group are empty.",
-									String.valueOf(componentGroup),
-									String.valueOf(lineNumber),
-									drugId);
-						} else {
-							if (substanceNameEnglish == null
-									|| substanceNameNational == null
-									|| strength == null
-									|| unit == null) {
-								// using raw values on purpose, to support debugging!
-								malformedComponents.add(new Component(columns[componentIndex],
-										columns[componentIndex + 1],
-										columns[componentIndex + 2],
-										columns[componentIndex + 3]));
-							} else {
-								pharmaceutical.components.add(new Component(substanceNameEnglish,
-										substanceNameNational,
-										strength,
-										unit));
+		} else {
+			lineCount = parse(input,
+					separator,
+					quoteChar,
+					!includeFirstLine,
+					parallelism,
+					batchSize,
+					counter);
+		}
+		this.parsed = true;
+		progress.complete();
+		log.debug("Sharing {} dose form(s), {} substance(s) & {} unit/strength value(s)",
+				String.valueOf(this.doseForms.size()),
+				String.valueOf(this.substances.size()),
+				String.valueOf(this.values.size()));
+		log.info("Completed input parsing");
+		// strict mode check
+		if (settings.isStrictMode()) {
+			int parseCount = (includeFirstLine) ? lineCount : (lineCount - 1);
+			if (parseCount != validCount[0]) {
+				throw new DrugMatchStrictModeViolationException("FLOW ABORTED, CAUSE: STRICT MODE, VIOLATION(S) DETECTED DURING PARSING: " +
+					parseCount +" PARSED " +
+					validCount[0] + " VALID!");
+			}
+		} // else
+	}
+
+	/**
+	 * Parse memory mapped chunks of the input concurrently, the chunks are handled in input order.
+	 * @param input
+	 * @param separator
+	 * @param quoteChar
+	 * @param skipFirstLine
+	 * @param parallelism
+	 * @param batchSize
+	 * @param handler
+	 * @return number of lines read
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private int parse(final File input,
+			final char separator,
+			final char quoteChar,
+			final boolean skipFirstLine,
+			final int parallelism,
+			final int batchSize,
+			final PharmaceuticalHandler handler) throws DrugMatchConfigurationException, IOException {
+		try (final FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ)) {
+			List<Chunk> chunks = split(channel,
+					(byte) quoteChar,
+					this.chunkSize);
+			log.debug("Parsing {} chunk(s) of {}, using {} thread(s)",
+					String.valueOf(chunks.size()),
+					input,
+					String.valueOf(parallelism));
+			ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, chunks.size())));
+			try {
+				// bound the chunks awaiting their turn
+				int maxQueued = parallelism * 2,
+					lineCount = 0;
+				Deque<Future<Pair<Integer, List<Pharmaceutical>>>> queue = new ArrayDeque<>(maxQueued);
+				List<Pharmaceutical> batch = new ArrayList<>(Math.min(batchSize, 1024));
+				Pair<Integer, List<Pharmaceutical>> parsedChunk;
+				int next = 0;
+				while (next < chunks.size()
+						|| !queue.isEmpty()) {
+					while (next < chunks.size()
+							&& queue.size() < maxQueued) {
+						final Chunk chunk = chunks.get(next++);
+						queue.addLast(executor.submit(new Callable<Pair<Integer, List<Pharmaceutical>>>() {
+
+							public Pair<Integer, List<Pharmaceutical>> call() throws DrugMatchConfigurationException, IOException {
+								return parse(channel,
+										chunk,
+										separator,
+										quoteChar,
+										skipFirstLine && chunk.lineOffset == 0);
 							}
+						}));
+					}
+					parsedChunk = getResult(queue.removeFirst());
+					lineCount += parsedChunk.getKey().intValue();
+					// re-batch in input order
+					for (Pharmaceutical pharmaceutical : parsedChunk.getValue()) {
+						batch.add(pharmaceutical);
+						if (batch.size() == batchSize) {
+							handler.handle(batch);
+							batch = new ArrayList<>(Math.min(batchSize, 1024));
 						}
-						componentIndex += 4;
 					}
-					if (malformedComponents.isEmpty()) {
-						pharmaceuticals.add(pharmaceutical);
-					} else {
-						log.warn("SKIPPING LINE: {}, drug ID: {} CAUSE: {} component(s) is malformed! {}",
-								String.valueOf(lineNumber),
-								drugId,
-								String.valueOf(malformedComponents.size()),
-								malformedComponents);
+				}
+				if (!batch.isEmpty()) {
+					handler.handle(batch);
+				}
+				return lineCount;
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * @param channel
+	 * @param chunk
+	 * @param separator
+	 * @param quoteChar
+	 * @param skipFirstLine
+	 * @return number of lines read & the valid {@link Pharmaceutical}s of the chunk
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private Pair<Integer, List<Pharmaceutical>> parse(final FileChannel channel,
+			final Chunk chunk,
+			final char separator,
+			final char quoteChar,
+			final boolean skipFirstLine) throws DrugMatchConfigurationException, IOException {
+		CharBuffer content = Charset.forName(CharEncoding.UTF_8).decode(channel.map(FileChannel.MapMode.READ_ONLY, chunk.position, chunk.size));
+		final List<Pharmaceutical> result = new ArrayList<>();
+		try (CSVReader reader = new CSVReader(new CharArrayReader(content.array(), content.arrayOffset() + content.position(), content.remaining()),
+				separator,
+				quoteChar)) {
+			int lineCount = parse(reader,
+					chunk.lineOffset,
+					skipFirstLine,
+					Integer.MAX_VALUE,
+					new PharmaceuticalHandler() {
+
+						public void handle(final List<Pharmaceutical> pharmaceuticals) {
+							result.addAll(pharmaceuticals);
+						}
+					});
+			return Pair.of(Integer.valueOf(lineCount), result);
+		}
+	}
+
+	/**
+	 * Split input into chunks of at least chunkSize bytes (except the last), at line boundaries outside quotes.
+	 * @param channel
+	 * @param quote
+	 * @param chunkSize
+	 * @return chunks, in input order
+	 * @throws IOException
+	 */
+	static List<Chunk> split(final FileChannel channel,
+			final byte quote,
+			final int chunkSize) throws IOException {
+		List<Chunk> result = new ArrayList<>();
+		long size = channel.size(),
+			position = 0,
+			start = 0;
+		int lineCount = 0,
+			lineOffset = 0;
+		boolean escaped = false,
+			quoted = false;
+		MappedByteBuffer window;
+		byte b;
+		while (position < size) {
+			window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SCAN_WINDOW_SIZE, size - position));
+			while (window.hasRemaining()) {
+				b = window.get();
+				position++;
+				if (escaped) {
+					escaped = false;
+				} else if (b == quote) {
+					quoted = !quoted;
+				} else if (quoted) {
+					escaped = (b == ESCAPE);
+				} else if (b == '\n') {
+					lineCount++;
+					if (position - start >= chunkSize) {
+						result.add(new Chunk(start,
+								position - start,
+								lineOffset));
+						start = position;
+						lineOffset = lineCount;
 					}
-				} else {
-					log.warn("SKIPPING LINE: {} CAUSE: insufficient data (less than 6 columns)!", String.valueOf(lineNumber));
 				}
 			}
-			log.info("Completed input parsing");
-			// strict mode check
-			if (DrugMatchProperties.isStrictMode()) {
-				int parseCount = (Boolean.parseBoolean(DrugMatchProperties.getInputFileIncludeFirstLine())) ? lineNumber : (lineNumber - 1);
-				if (parseCount != pharmaceuticals.size()) {
-					throw new DrugMatchStrictModeViolationException("FLOW ABORTED, CAUSE: STRICT MODE, VIOLATION(S) DETECTED DURING PARSING: " +
-						parseCount +" PARSED " +
-						pharmaceuticals.size() + " VALID!");
+		}
+		if (start < size) {
+			result.add(new Chunk(start,
+					size - start,
+					lineOffset));
+		}
+		return result;
+	}
+
+	/**
+	 * @param reader
+	 * @param lineOffset number of lines preceding the reader content
+	 * @param skipFirstLine
+	 * @param batchSize
+	 * @param handler
+	 * @return number of lines read
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private int parse(final CSVReader reader,
+			final int lineOffset,
+			final boolean skipFirstLine,
+			final int batchSize,
+			final PharmaceuticalHandler handler) throws DrugMatchConfigurationException, IOException {
+		int lineNumber = lineOffset;
+		// 1st line
+		if (skipFirstLine) {
+			reader.readNext();
+			lineNumber++;
+		}
+		// content
+		List<Pharmaceutical> batch = new ArrayList<>(Math.min(batchSize, 1024));
+		String[] columns;
+		Pharmaceutical pharmaceutical;
+		while ((columns = reader.readNext()) != null) {
+			lineNumber++;
+			pharmaceutical = parse(columns,
+					lineNumber);
+			if (pharmaceutical != null) {
+				batch.add(pharmaceutical);
+				if (batch.size() == batchSize) {
+					handler.handle(batch);
+					batch = new ArrayList<>(Math.min(batchSize, 1024));
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			handler.handle(batch);
+		}
+		return lineNumber - lineOffset;
+	}
+
+	/**
+	 * @param columns
+	 * @param lineNumber
+	 * @return {@link Pharmaceutical}, or null if the line is skipped
+	 */
+	private Pharmaceutical parse(final String[] columns,
+			final int lineNumber) {
+		if (columns.length < 7) { // ie. minimum 1 pharmaceutical with 1 component
+			skipping("SKIPPING LINE: {} CAUSE: insufficient data (less than 6 columns)!", String.valueOf(lineNumber));
+			return null;
+		} // else
+		// pharmaceutical
+		String drugId = extractValue(columns, 0);
+		if (drugId == null) {
+			skipping("SKIPPING LINE: {} CAUSE: empty drugId!", String.valueOf(lineNumber));
+			return null;
+		} // else
+		String tradeName = extractValue(columns, 1);
+		if (tradeName == null) {
+			skipping("SKIPPING LINE: {}, drug ID: {} CAUSE: empty tradeName!",
+					String.valueOf(lineNumber),
+					drugId);
+			return null;
+		} // else
+		String doseFormEnglish = extractValue(columns, 2);
+		if (doseFormEnglish == null) {
+			skipping("SKIPPING LINE: {}, drug ID: {} CAUSE: empty doseFormEnglish!",
+					String.valueOf(lineNumber),
+					drugId);
+			return null;
+		} // else
+		String doseFormNational = extractValue(columns, 3);
+		if (doseFormNational == null) {
+			skipping("SKIPPING LINE: {}, drug ID: {} CAUSE: empty doseFormNational!",
+					String.valueOf(lineNumber),
+					drugId);
+			return null;
+		} // else
+		Pharmaceutical pharmaceutical = new Pharmaceutical(new ArrayList<Component>(),
+				getDoseForm(new DoseForm(doseFormEnglish,
+						doseFormNational)),
+				drugId,
+				tradeName);
+		// components
+		int componentGroup = 0,
+			componentIndex = 4;
+		String substanceNameEnglish,
+			substanceNameNational,
+			strength,
+			unit;
+		List<Component> malformedComponents = new ArrayList<>();
+		while ((componentIndex + 4) <= columns.length) {
+			componentGroup++;
+			substanceNameEnglish = extractValue(columns, (componentIndex));
+			substanceNameNational = extractValue(columns, (componentIndex + 1));
+			strength = extractValue(columns, (componentIndex + 2));
+			unit = extractValue(columns, (componentIndex + 3));
+			if (substanceNameEnglish == null
+					&& substanceNameNational == null
+					&& strength == null
+					&& unit == null) {
+				log.debug("Skipping component group: {} in line: {}, drug ID: {} cause: all columns in component group are empty.",
+						String.valueOf(componentGroup),
+						String.valueOf(lineNumber),
+						drugId);
+			} else {
+				if (substanceNameEnglish == null
+						|| substanceNameNational == null
+						|| strength == null
+						|| unit == null) {
+					// using raw values on purpose, to support debugging!
+					malformedComponents.add(new Component(columns[componentIndex],
+							columns[componentIndex + 1],
+							columns[componentIndex + 2],
+							columns[componentIndex + 3]));
+				} else {
+					pharmaceutical.components.add(new Component(getSubstance(new Substance(substanceNameEnglish,
+									substanceNameNational)),
+							getValue(strength),
+							getValue(unit)));
 				}
+			}
+			componentIndex += 4;
+		}
+		if (malformedComponents.isEmpty()) {
+			return pharmaceutical;
+		} // else
+		skipping("SKIPPING LINE: {}, drug ID: {} CAUSE: {} component(s) is malformed! {}",
+				String.valueOf(lineNumber),
+				drugId,
+				String.valueOf(malformedComponents.size()),
+				malformedComponents);
+		return null;
+	}
+
+	/**
+	 * @param future
+	 * @return result, unwrapping the original exception on failure.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private static <V> V getResult(final Future<V> future) throws DrugMatchConfigurationException, IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while awaiting input parsing", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof DrugMatchConfigurationException) {
+				throw (DrugMatchConfigurationException) cause;
+			} // else
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
 			} // else
-			return pharmaceuticals;
-		} finally {
-			if (reader != null) {
-				reader.close();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} // else
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Canonicalizing pool, safe for concurrent use.
+	 * @param <T> value type
+	 */
+	private static final class Pool<T> {
+
+		private final ConcurrentMap<T, T> canonical = new ConcurrentHashMap<>();
+
+		/**
+		 * @param value
+		 * @return canonical instance, equal to value.
+		 */
+		private T get(final T value) {
+			T result = this.canonical.get(value);
+			if (result == null) {
+				result = this.canonical.putIfAbsent(value, value);
+				if (result == null) {
+					result = value;
+				}
 			}
+			return result;
+		}
+
+		private int size() {
+			return this.canonical.size();
+		}
+	}
+
+	/**
+	 * Input range, starting at a line boundary.
+	 */
+	static final class Chunk {
+
+		final long position;
+
+		final long size;
+
+		/**
+		 * Number of lines preceding the chunk.
+		 */
+		final int lineOffset;
+
+		private Chunk(final long position,
+				final long size,
+				final int lineOffset) {
+			this.position = position;
+			this.size = size;
+			this.lineOffset = lineOffset;
 		}
 	}
 }
@@ -1,38 +1,43 @@
 package org.ihtsdo.sct.drugmatch.properties;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.Properties;
 
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 
 /**
+ * Setting names, defaults & the {@link DrugMatchSettings} of this run.
+ * <p>
+ * The static getters are a bridge for code not yet handed a {@link DrugMatchSettings}, new code should have the settings injected.
  * @author dev-team@carecom.dk
  */
 public final class DrugMatchProperties {
 
-	private static final Logger log = LoggerFactory.getLogger(DrugMatchProperties.class);
-
 	public static final String
 			ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT = "sct.attribute_id.has_active_ingredient",
 			ATTRIBUTE_ID_HAS_DOSE_FORM = "sct.attribute_id.has_dose_form",
 
+			CHECK_PARALLELISM = "check.parallelism",
+
 			CONSTRAINT_ID_DOSE_FORM = "sct.constraint_id.dose_form",
 			CONSTRAINT_ID_SUBSTANCE = "sct.constraint_id.substance",
 			CONSTRAINT_ID_UNIT = "sct.constraint_id.unit",
 
+			CREATE_ID_BATCH_SIZE = "create.id_batch_size",
+			CREATE_PARALLELISM = "create.parallelism",
+
 			GENERIC_REPORT = "generic_report",
 
 			FILE_CONTENT_SEPARATOR_CHARACTER = "file.content.separator_character",
 			FILE_QUOTE_CHARACTER = "file.content.quote_character",
 
+			INPUT_BATCH_SIZE = "input.batch_size",
 			INPUT_FILE = "input.file",
 			INPUT_FILE_INCLUDE_FIRST_LINE = "input.file.include_first_line",
+			INPUT_PARALLELISM = "input.parallelism",
+
+			MATCH_CONCEPT_BATCH_SIZE = "match.concept_batch_size",
+			MATCH_CONCEPT_CACHE_SIZE = "match.concept_cache_size",
+			MATCH_SPECULATIVE_ATTRIBUTE_QUERY = "match.speculative_attribute_query",
 
 			MODULE_ID = "sct.module_id",
 
@@ -43,6 +48,9 @@ public final class DrugMatchProperties {
 
 			OUTPUT_DIR = "output.dir",
 
+			PROGRESS_INTERVAL = "progress.interval",
+
+			SCT_ID_CACHE_DIR = "sct.id.cache.dir",
 			SCT_ID_SERVICE = "sct.id.service",
 			SCT_RELEASE_ID = "sct.release_id",
 
@@ -50,11 +58,81 @@ public final class DrugMatchProperties {
 
 			STRICT_MODE = "strict_mode",
 
+			VERIFICATION_CACHE_DIR = "verification.cache.dir",
+			VERIFICATION_CACHE_MAX_SIZE = "verification.cache.max_size",
+			VERIFICATION_CACHE_TTL = "verification.cache.ttl",
+			VERIFICATION_IDLE_CONNECTION_TIMEOUT = "verification.idle_connection_timeout",
 			VERIFICATION_LOGIN = "verification.login",
+			VERIFICATION_MAX_CONNECTIONS_PER_ROUTE = "verification.max_connections_per_route",
 			VERIFICATION_PASSWORD = "verification.password",
-			VERIFICATION_SERVICE = "verification.service";
+			VERIFICATION_SERVICE = "verification.service",
+			VERIFICATION_SNAPSHOT_DIR = "verification.snapshot.dir",
+			VERIFICATION_SNAPSHOT_INDEX = "verification.snapshot.index";
+
+	/**
+	 * Default number of concurrent "Check" lookups, ie. sequential.
+	 */
+	public static final int DEFAULT_CHECK_PARALLELISM = 1;
+
+	/**
+	 * Default number of pharmaceuticals per "Create" ID allocation request.
+	 */
+	public static final int DEFAULT_CREATE_ID_BATCH_SIZE = 100;
+
+	/**
+	 * Default number of pharmaceuticals created concurrently, ie. sequential.
+	 */
+	public static final int DEFAULT_CREATE_PARALLELISM = 1;
+
+	/**
+	 * Default number of pharmaceuticals per streamed input batch.
+	 */
+	public static final int DEFAULT_INPUT_BATCH_SIZE = 1000;
+
+	/**
+	 * Default number of input chunks parsed concurrently, ie. sequential.
+	 */
+	public static final int DEFAULT_INPUT_PARALLELISM = 1;
+
+	/**
+	 * Default number of pooled verification service connections.
+	 */
+	public static final int DEFAULT_VERIFICATION_MAX_CONNECTIONS_PER_ROUTE = 2;
+
+	/**
+	 * Default number of seconds a pooled verification service connection may stay idle.
+	 */
+	public static final int DEFAULT_VERIFICATION_IDLE_CONNECTION_TIMEOUT = 30;
 
-	private static Properties properties;
+	/**
+	 * Default number of pharmaceuticals per term "Match" Concept lookup window.
+	 */
+	public static final int DEFAULT_MATCH_CONCEPT_BATCH_SIZE = 100;
+
+	/**
+	 * Default number of Concepts kept in memory during "Match".
+	 */
+	public static final int DEFAULT_MATCH_CONCEPT_CACHE_SIZE = 10000;
+
+	/**
+	 * Default number of seconds between progress reports.
+	 */
+	public static final int DEFAULT_PROGRESS_INTERVAL = 60;
+
+	/**
+	 * Default verification cache size, in megabytes.
+	 */
+	public static final int DEFAULT_VERIFICATION_CACHE_MAX_SIZE = 256;
+
+	/**
+	 * Default number of days a verification cache entry is valid.
+	 */
+	public static final int DEFAULT_VERIFICATION_CACHE_TTL = 30;
+
+	/**
+	 * Settings of this run, loaded once.
+	 */
+	private static volatile DrugMatchSettings settings;
 
 	/**
 	 * DON'T INSTANTIATE A STATIC HELPER!
@@ -63,359 +141,467 @@ public final class DrugMatchProperties {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * @return {@link DrugMatchSettings} of the {@link #SETTING_FILE}, loaded on first use.
+	 * @throws DrugMatchConfigurationException
+	 */
+	public static DrugMatchSettings getSettings() throws DrugMatchConfigurationException {
+		DrugMatchSettings result = settings;
+		if (result == null) {
+			result = loadSettings();
+		}
+		return result;
+	}
+
 	/**
 	 * Attempt to load the configuration file.
+	 * @return {@link DrugMatchSettings}
 	 * @throws DrugMatchConfigurationException
 	 */
-	private static synchronized void loadProperties() throws DrugMatchConfigurationException {
-		if (properties == null) { // check condition again, to avoid unneeded execution
+	private static synchronized DrugMatchSettings loadSettings() throws DrugMatchConfigurationException {
+		if (settings == null) { // check condition again, to avoid unneeded execution
 			String settingFilePath = System.getProperty(SETTING_FILE);
 			if (settingFilePath == null) {
 				throw new DrugMatchConfigurationException("Settings not set: " + SETTING_FILE);
 			} // else
 			File propertyFile = new File(settingFilePath);
-			if (propertyFile.exists()) {
-				try (FileInputStream fis = new FileInputStream(propertyFile)) {
-					properties = new Properties();
-					properties.load(fis);
-				} catch (FileNotFoundException e) {
-					throw new DrugMatchConfigurationException("Unable to locate file: " + propertyFile);
-				} catch (IOException e) {
-					throw new DrugMatchConfigurationException("Unable to read file: " + propertyFile);
-				}
-			} else {
+			if (!propertyFile.exists()) {
 				throw new DrugMatchConfigurationException("Settings not found: " + SETTING_FILE + "=" + propertyFile);
-			}
+			} // else
+			settings = DrugMatchSettings.load(propertyFile);
 		}
+		return settings;
 	}
 
 	/**
-	 * @param propertyName
-	 * @return trimmed value, or null if missing or empty.
+	 * Load the settings up front, ie. fail before any work is done.
+	 * @return {@link DrugMatchSettings}, to be validated per flow, see {@link DrugMatchSettings#validateCheck()}.
 	 * @throws DrugMatchConfigurationException
 	 */
-	private static String getStringProperty(final String propertyName) throws DrugMatchConfigurationException {
-		if (properties == null) {
-			loadProperties();
-		}
-		String propertyValue = properties.getProperty(propertyName);
-		if (propertyValue == null) {
-			log.debug("Property: {} not set!", propertyName);
-			return null;
-		} // else
-		propertyValue = propertyValue.trim();
-		if (propertyValue.length() == 0) {
-			log.debug("Property: {} empty value!", propertyName);
-			return null;
-		} // else
-		return propertyValue;
+	public static DrugMatchSettings load() throws DrugMatchConfigurationException {
+		return getSettings();
 	}
 
 	/**
-	 * @return use generic messages in reports, otherwise false.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#createGenericReport()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static boolean createGenericReport() throws DrugMatchConfigurationException {
-		return Boolean.parseBoolean(getStringProperty(GENERIC_REPORT));
+		return getSettings().createGenericReport();
 	}
 
 	/**
-	 * @return "Has active ingredient" concept ID.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getAttributeIdHasActiveIngredient()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static Long getAttributeIdHasActiveIngredient() throws DrugMatchConfigurationException {
-		String id = getStringProperty(ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT);
-		try {
-			if (id != null) {
-				return Long.valueOf(id);
-			}
-		} catch (NumberFormatException e) {
-			log.debug("Unable to parse value: {} for: {}", id, ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT);
-		}
-		return null;
+		return getSettings().getAttributeIdHasActiveIngredient();
 	}
 
 	/**
-	 * @return "Has dose form" concept ID.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getAttributeIdHasDoseForm()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static Long getAttributeIdHasDoseForm() throws DrugMatchConfigurationException {
-		String id = getStringProperty(ATTRIBUTE_ID_HAS_DOSE_FORM);
-		try {
-			if (id != null) {
-				return Long.valueOf(id);
-			}
-		} catch (NumberFormatException e) {
-			log.debug("Unable to parse value: {} for: {}", id, ATTRIBUTE_ID_HAS_DOSE_FORM);
-		}
-		return null;
+		return getSettings().getAttributeIdHasDoseForm();
 	}
 
 	/**
-	 * @return ex. "Type of drug preparation" concept ID.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getCheckParallelism()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
+	public static int getCheckParallelism() throws DrugMatchConfigurationException {
+		return getSettings().getCheckParallelism();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getConstraintIdDoseForm()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static Long getConstraintIdDoseForm() throws DrugMatchConfigurationException {
-		String id = getStringProperty(CONSTRAINT_ID_DOSE_FORM);
-		try {
-			if (id != null) {
-				return Long.valueOf(id);
-			}
-		} catch (NumberFormatException e) {
-			log.debug("Unable to parse value: {} for: {}", id, CONSTRAINT_ID_DOSE_FORM);
-		}
-		return null;
+		return getSettings().getConstraintIdDoseForm();
 	}
 
 	/**
-	 * @return ex. "Substance" concept ID.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getConstraintIdSubstance()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static Long getConstraintIdSubstance() throws DrugMatchConfigurationException {
-		String id = getStringProperty(CONSTRAINT_ID_SUBSTANCE);
-		try {
-			if (id != null) {
-				return Long.valueOf(id);
-			}
-		} catch (NumberFormatException e) {
-			log.debug("Unable to parse value: {} for: {}", id, CONSTRAINT_ID_SUBSTANCE);
-		}
-		return null;
+		return getSettings().getConstraintIdSubstance();
 	}
 
 	/**
-	 * @return ex. "Unit" concept ID.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getConstraintIdUnit()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static Long getConstraintIdUnit() throws DrugMatchConfigurationException {
-		String id = getStringProperty(CONSTRAINT_ID_UNIT);
-		try {
-			if (id != null) {
-				return Long.valueOf(id);
-			}
-		} catch (NumberFormatException e) {
-			log.debug("Unable to parse value: {} for: {}", id, CONSTRAINT_ID_UNIT);
-		}
-		return null;
+		return getSettings().getConstraintIdUnit();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getCreateIdBatchSize()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getCreateIdBatchSize() throws DrugMatchConfigurationException {
+		return getSettings().getCreateIdBatchSize();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getCreateParallelism()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getCreateParallelism() throws DrugMatchConfigurationException {
+		return getSettings().getCreateParallelism();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getFileContentQuoteCharacter()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getFileContentQuoteCharacter() throws DrugMatchConfigurationException {
-		return getStringProperty(FILE_QUOTE_CHARACTER);
+		return getSettings().getFileContentQuoteCharacter();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getFileContentSeparatorCharacter()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getFileContentSeparatorCharacter() throws DrugMatchConfigurationException {
-		return getStringProperty(FILE_CONTENT_SEPARATOR_CHARACTER);
+		return getSettings().getFileContentSeparatorCharacter();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getInputBatchSize()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getInputBatchSize() throws DrugMatchConfigurationException {
+		return getSettings().getInputBatchSize();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getInputFileIncludeFirstLine()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getInputFileIncludeFirstLine() throws DrugMatchConfigurationException {
-		return getStringProperty(INPUT_FILE_INCLUDE_FIRST_LINE);
+		return getSettings().getInputFileIncludeFirstLine();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getInputFilePath()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getInputFilePath() throws DrugMatchConfigurationException {
-		return getStringProperty(INPUT_FILE);
+		return getSettings().getInputFilePath();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getInputParallelism()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getInputParallelism() throws DrugMatchConfigurationException {
+		return getSettings().getInputParallelism();
 	}
 
 	/**
-	 * @return national Language Reference Set ID.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getLanguageReferenceSetId()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static String getLanguageReferenceSetId() throws DrugMatchConfigurationException {
-		return getStringProperty(EXTENSION_LANGUAGE_REFERENCE_SET_ID);
+		return getSettings().getLanguageReferenceSetId();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getJournalDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static File getJournalDirectory() throws DrugMatchConfigurationException {
+		return getSettings().getJournalDirectory();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getMappingDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static File getMappingDirectory() throws DrugMatchConfigurationException {
-		File mappingDir = new File(getOutputDirectory().getPath() + File.separator + "mapping");
-		if (!mappingDir.exists()) {
-			if (!mappingDir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + mappingDir + "' isn't writeable");
-			}
-			log.debug("Mapping directory: {} created", mappingDir);
-		}
-		if (!mappingDir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + mappingDir + "' isn't writeable");
-		}
-		return mappingDir;
+		return getSettings().getMappingDirectory();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getMatchConceptBatchSize()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getMatchConceptBatchSize() throws DrugMatchConfigurationException {
+		return getSettings().getMatchConceptBatchSize();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getMatchConceptCacheSize()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getMatchConceptCacheSize() throws DrugMatchConfigurationException {
+		return getSettings().getMatchConceptCacheSize();
 	}
 
 	/**
-	 * @return national module ID.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getModuleId()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static String getModuleId() throws DrugMatchConfigurationException {
-		return getStringProperty(MODULE_ID);
+		return getSettings().getModuleId();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getNationalLanguageCode()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getNationalLanguageCode() throws DrugMatchConfigurationException {
-		return getStringProperty(EXTENSION_LANGUAGE_CODE);
+		return getSettings().getNationalLanguageCode();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getNationalNamespaceId()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getNationalNamespaceId() throws DrugMatchConfigurationException {
-		return getStringProperty(EXTENSION_NAMESPACE_ID);
+		return getSettings().getNationalNamespaceId();
 	}
 
 	/**
-	 * Note, trims trailing file separator from path
-	 * @return {@link File}
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getOutputDirectory()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static File getOutputDirectory() throws DrugMatchConfigurationException {
-		String path = getStringProperty(OUTPUT_DIR);
-		if (path == null) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.OUTPUT_DIR + "' isn't set!");
-		} // else
-		// trim trailing file separator
-		if (path.endsWith(File.separator)) {
-			path = path.substring(0, (path.length() - 1));
-		}
-		File outputDir = new File(path);
-		if (!outputDir.exists()) {
-			if (!outputDir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.OUTPUT_DIR + "'='" + outputDir + "' isn't writeable");
-			}
-			log.debug("Output directory: {} created", outputDir);
-		}
-		if (!outputDir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.OUTPUT_DIR + "'='" + outputDir + "' isn't writeable");
-		}
-		return outputDir;
+		return getSettings().getOutputDirectory();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getProgressInterval()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getProgressInterval() throws DrugMatchConfigurationException {
+		return getSettings().getProgressInterval();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getQuantityReferenceSetId()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getQuantityReferenceSetId() throws DrugMatchConfigurationException {
-		return getStringProperty(EXTENSION_QUANTITY_REFERENCE_SET_ID);
+		return getSettings().getQuantityReferenceSetId();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getReferenceSetContentDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static File getReferenceSetContentDirectory() throws DrugMatchConfigurationException {
-		File refSetContentDir = new File(getReferenceSetDirectory().getPath() + File.separator + "Content");
-		if (!refSetContentDir.exists()) {
-			if (!refSetContentDir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + refSetContentDir + "' isn't writeable");
-			}
-			log.debug("Reference Set Content directory: {} created", refSetContentDir);
-		}
-		if (!refSetContentDir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + refSetContentDir + "' isn't writeable");
-		}
-		return refSetContentDir;
+		return getSettings().getReferenceSetContentDirectory();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getReferenceSetDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static File getReferenceSetDirectory() throws DrugMatchConfigurationException {
-		File refSetDir = new File(getReleaseFormat2Directory().getPath() + File.separator + "Refset");
-		if (!refSetDir.exists()) {
-			if (!refSetDir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + refSetDir + "' isn't writeable");
-			}
-			log.debug("Reference Set directory: {} created", refSetDir);
-		}
-		if (!refSetDir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + refSetDir + "' isn't writeable");
-		}
-		return refSetDir;
+		return getSettings().getReferenceSetDirectory();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getReferenceSetLanguageDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static File getReferenceSetLanguageDirectory() throws DrugMatchConfigurationException {
-		File refSetLanguageDir = new File(getReferenceSetDirectory().getPath() + File.separator + "Language");
-		if (!refSetLanguageDir.exists()) {
-			if (!refSetLanguageDir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + refSetLanguageDir + "' isn't writeable");
-			}
-			log.debug("Reference Set Language directory: {} created", refSetLanguageDir);
-		}
-		if (!refSetLanguageDir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + refSetLanguageDir + "' isn't writeable");
-		}
-		return refSetLanguageDir;
+		return getSettings().getReferenceSetLanguageDirectory();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getReleaseFormat2Directory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static File getReleaseFormat2Directory() throws DrugMatchConfigurationException {
-		File rf2Dir = new File(getOutputDirectory().getPath() + File.separator + "RF2");
-		if (!rf2Dir.exists()) {
-			if (!rf2Dir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + rf2Dir + "' isn't writeable");
-			}
-			log.debug("Release Format 2 directory: {} created", rf2Dir);
-		}
-		if (!rf2Dir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + rf2Dir + "' isn't writeable");
-		}
-		return rf2Dir;
+		return getSettings().getReleaseFormat2Directory();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getReportDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static File getReportDirectory() throws DrugMatchConfigurationException {
-		File reportDir = new File(getOutputDirectory().getPath() + File.separator + "report");
-		if (!reportDir.exists()) {
-			if (!reportDir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + reportDir + "' isn't writeable");
-			}
-			log.debug("Report directory: {} created", reportDir);
-		}
-		if (!reportDir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + reportDir + "' isn't writeable");
-		}
-		return reportDir;
+		return getSettings().getReportDirectory();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getSctIdCacheDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static File getSctIdCacheDirectory() throws DrugMatchConfigurationException {
+		return getSettings().getSctIdCacheDirectory();
 	}
 
 	/**
-	 * @return SNOMED CT ID service host URL, without trailing /.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getSctIdService()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static String getSctIdService() throws DrugMatchConfigurationException {
-		String s = getStringProperty(SCT_ID_SERVICE);
-		if (s != null
-				&& s.endsWith("/")) {
-			return s.substring(0, (s.length() - 1));
-		}
-		return s;
+		return getSettings().getSctIdService();
 	}
 
 	/**
-	 * @return SNOMED CT release ID
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getSctReleaseId()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static String getSctReleaseId() throws DrugMatchConfigurationException {
-		return getStringProperty(SCT_RELEASE_ID);
+		return getSettings().getSctReleaseId();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getTerminologyDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static File getTerminologyDirectory() throws DrugMatchConfigurationException {
-		File terminologyDir = new File(getReleaseFormat2Directory().getPath() + File.separator + "Terminology");
-		if (!terminologyDir.exists()) {
-			if (!terminologyDir.mkdirs()) {
-				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + terminologyDir + "' isn't writeable");
-			}
-			log.debug("Terminology directory: {} created", terminologyDir);
-		}
-		if (!terminologyDir.canWrite()) {
-			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + terminologyDir + "' isn't writeable");
-		}
-		return terminologyDir;
+		return getSettings().getTerminologyDirectory();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationCacheDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static File getVerificationCacheDirectory() throws DrugMatchConfigurationException {
+		return getSettings().getVerificationCacheDirectory();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationCacheMaxSize()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getVerificationCacheMaxSize() throws DrugMatchConfigurationException {
+		return getSettings().getVerificationCacheMaxSize();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationCacheTtl()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getVerificationCacheTtl() throws DrugMatchConfigurationException {
+		return getSettings().getVerificationCacheTtl();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationIdleConnectionTimeout()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getVerificationIdleConnectionTimeout() throws DrugMatchConfigurationException {
+		return getSettings().getVerificationIdleConnectionTimeout();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationLogin()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getVerificationLogin() throws DrugMatchConfigurationException {
-		return getStringProperty(VERIFICATION_LOGIN);
+		return getSettings().getVerificationLogin();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationMaxConnectionsPerRoute()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static int getVerificationMaxConnectionsPerRoute() throws DrugMatchConfigurationException {
+		return getSettings().getVerificationMaxConnectionsPerRoute();
 	}
 
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationPassword()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
 	public static String getVerificationPassword() throws DrugMatchConfigurationException {
-		return getStringProperty(VERIFICATION_PASSWORD);
+		return getSettings().getVerificationPassword();
 	}
 
 	/**
-	 * @return verification service host URL, without trailing /.
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationService()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static String getVerificationService() throws DrugMatchConfigurationException {
-		String s = getStringProperty(VERIFICATION_SERVICE);
-		if (s != null
-				&& s.endsWith("/")) {
-			return s.substring(0, (s.length() - 1));
-		}
-		return s;
+		return getSettings().getVerificationService();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationSnapshotDirectory()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static File getVerificationSnapshotDirectory() throws DrugMatchConfigurationException {
+		return getSettings().getVerificationSnapshotDirectory();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#getVerificationSnapshotIndexFile()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static File getVerificationSnapshotIndexFile() throws DrugMatchConfigurationException {
+		return getSettings().getVerificationSnapshotIndexFile();
+	}
+
+	/**
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#isMatchSpeculativeAttributeQuery()}
+	 * @throws DrugMatchConfigurationException
+	 */
+	@Deprecated
+	public static boolean isMatchSpeculativeAttributeQuery() throws DrugMatchConfigurationException {
+		return getSettings().isMatchSpeculativeAttributeQuery();
 	}
 
 	/**
-	 * Treat warnings as errors.
-	 * @return true or false
+	 * @deprecated inject {@link DrugMatchSettings}, see {@link DrugMatchSettings#isStrictMode()}
 	 * @throws DrugMatchConfigurationException
 	 */
+	@Deprecated
 	public static boolean isStrictMode() throws DrugMatchConfigurationException {
-		return Boolean.parseBoolean(getStringProperty(STRICT_MODE));
+		return getSettings().isStrictMode();
 	}
 }
@@ -0,0 +1,653 @@
+package org.ihtsdo.sct.drugmatch.properties;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable, typed snapshot of the DrugMatch settings.
+ * <p>
+ * Every value is trimmed, parsed & validated once, when the settings are loaded, an invalid value is logged & replaced by its default.<br>
+ * Required values are validated per flow, see {@link #validateCheck()}, {@link #validateMatch()} & {@link #validateCreate()}.<br>
+ * Safe to share between threads, handed to "Check", "Match", "Create" & the services, see {@link DrugMatchProperties#getSettings()}.
+ * @author dev-team@carecom.dk
+ */
+public final class DrugMatchSettings {
+
+	private static final Logger log = LoggerFactory.getLogger(DrugMatchSettings.class);
+
+	final Long attributeIdHasActiveIngredient,
+		attributeIdHasDoseForm,
+		constraintIdDoseForm,
+		constraintIdSubstance,
+		constraintIdUnit;
+
+	final int checkParallelism,
+		createIdBatchSize,
+		createParallelism,
+		inputBatchSize,
+		inputParallelism,
+		matchConceptBatchSize,
+		matchConceptCacheSize,
+		progressInterval,
+		verificationCacheMaxSize,
+		verificationCacheTtl,
+		verificationIdleConnectionTimeout,
+		verificationMaxConnectionsPerRoute;
+
+	final boolean genericReport,
+		matchSpeculativeAttributeQuery,
+		strictMode;
+
+	final String fileContentQuoteCharacter,
+		fileContentSeparatorCharacter,
+		inputFileIncludeFirstLine,
+		inputFilePath,
+		languageReferenceSetId,
+		moduleId,
+		nationalLanguageCode,
+		nationalNamespaceId,
+		quantityReferenceSetId,
+		sctIdService,
+		sctReleaseId,
+		verificationLogin,
+		verificationPassword,
+		verificationService;
+
+	final File outputDirectory,
+		sctIdCacheDirectory,
+		verificationCacheDirectory,
+		verificationSnapshotDirectory,
+		verificationSnapshotIndexFile;
+
+	/**
+	 * @param properties
+	 */
+	public DrugMatchSettings(final Properties properties) {
+		this.attributeIdHasActiveIngredient = getLong(properties, DrugMatchProperties.ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT);
+		this.attributeIdHasDoseForm = getLong(properties, DrugMatchProperties.ATTRIBUTE_ID_HAS_DOSE_FORM);
+		this.constraintIdDoseForm = getLong(properties, DrugMatchProperties.CONSTRAINT_ID_DOSE_FORM);
+		this.constraintIdSubstance = getLong(properties, DrugMatchProperties.CONSTRAINT_ID_SUBSTANCE);
+		this.constraintIdUnit = getLong(properties, DrugMatchProperties.CONSTRAINT_ID_UNIT);
+
+		this.checkParallelism = getPositiveInt(properties,
+				DrugMatchProperties.CHECK_PARALLELISM,
+				DrugMatchProperties.DEFAULT_CHECK_PARALLELISM);
+		this.createIdBatchSize = getPositiveInt(properties,
+				DrugMatchProperties.CREATE_ID_BATCH_SIZE,
+				DrugMatchProperties.DEFAULT_CREATE_ID_BATCH_SIZE);
+		this.createParallelism = getPositiveInt(properties,
+				DrugMatchProperties.CREATE_PARALLELISM,
+				DrugMatchProperties.DEFAULT_CREATE_PARALLELISM);
+		this.inputBatchSize = getPositiveInt(properties,
+				DrugMatchProperties.INPUT_BATCH_SIZE,
+				DrugMatchProperties.DEFAULT_INPUT_BATCH_SIZE);
+		this.inputParallelism = getPositiveInt(properties,
+				DrugMatchProperties.INPUT_PARALLELISM,
+				DrugMatchProperties.DEFAULT_INPUT_PARALLELISM);
+		this.matchConceptBatchSize = getPositiveInt(properties,
+				DrugMatchProperties.MATCH_CONCEPT_BATCH_SIZE,
+				DrugMatchProperties.DEFAULT_MATCH_CONCEPT_BATCH_SIZE);
+		this.matchConceptCacheSize = getPositiveInt(properties,
+				DrugMatchProperties.MATCH_CONCEPT_CACHE_SIZE,
+				DrugMatchProperties.DEFAULT_MATCH_CONCEPT_CACHE_SIZE);
+		this.progressInterval = getPositiveInt(properties,
+				DrugMatchProperties.PROGRESS_INTERVAL,
+				DrugMatchProperties.DEFAULT_PROGRESS_INTERVAL);
+		this.verificationCacheMaxSize = getPositiveInt(properties,
+				DrugMatchProperties.VERIFICATION_CACHE_MAX_SIZE,
+				DrugMatchProperties.DEFAULT_VERIFICATION_CACHE_MAX_SIZE);
+		this.verificationCacheTtl = getPositiveInt(properties,
+				DrugMatchProperties.VERIFICATION_CACHE_TTL,
+				DrugMatchProperties.DEFAULT_VERIFICATION_CACHE_TTL);
+		this.verificationIdleConnectionTimeout = getPositiveInt(properties,
+				DrugMatchProperties.VERIFICATION_IDLE_CONNECTION_TIMEOUT,
+				DrugMatchProperties.DEFAULT_VERIFICATION_IDLE_CONNECTION_TIMEOUT);
+		this.verificationMaxConnectionsPerRoute = getPositiveInt(properties,
+				DrugMatchProperties.VERIFICATION_MAX_CONNECTIONS_PER_ROUTE,
+				DrugMatchProperties.DEFAULT_VERIFICATION_MAX_CONNECTIONS_PER_ROUTE);
+
+		this.genericReport = Boolean.parseBoolean(getString(properties, DrugMatchProperties.GENERIC_REPORT));
+		this.matchSpeculativeAttributeQuery = Boolean.parseBoolean(getString(properties, DrugMatchProperties.MATCH_SPECULATIVE_ATTRIBUTE_QUERY));
+		this.strictMode = Boolean.parseBoolean(getString(properties, DrugMatchProperties.STRICT_MODE));
+
+		this.fileContentQuoteCharacter = getString(properties, DrugMatchProperties.FILE_QUOTE_CHARACTER);
+		this.fileContentSeparatorCharacter = getString(properties, DrugMatchProperties.FILE_CONTENT_SEPARATOR_CHARACTER);
+		this.inputFileIncludeFirstLine = getString(properties, DrugMatchProperties.INPUT_FILE_INCLUDE_FIRST_LINE);
+		this.inputFilePath = getString(properties, DrugMatchProperties.INPUT_FILE);
+		this.languageReferenceSetId = getString(properties, DrugMatchProperties.EXTENSION_LANGUAGE_REFERENCE_SET_ID);
+		this.moduleId = getString(properties, DrugMatchProperties.MODULE_ID);
+		this.nationalLanguageCode = getString(properties, DrugMatchProperties.EXTENSION_LANGUAGE_CODE);
+		this.nationalNamespaceId = getString(properties, DrugMatchProperties.EXTENSION_NAMESPACE_ID);
+		this.quantityReferenceSetId = getString(properties, DrugMatchProperties.EXTENSION_QUANTITY_REFERENCE_SET_ID);
+		this.sctIdService = getUrl(properties, DrugMatchProperties.SCT_ID_SERVICE);
+		this.sctReleaseId = getString(properties, DrugMatchProperties.SCT_RELEASE_ID);
+		this.verificationLogin = getString(properties, DrugMatchProperties.VERIFICATION_LOGIN);
+		this.verificationPassword = getString(properties, DrugMatchProperties.VERIFICATION_PASSWORD);
+		this.verificationService = getUrl(properties, DrugMatchProperties.VERIFICATION_SERVICE);
+
+		this.outputDirectory = getDirectory(properties, DrugMatchProperties.OUTPUT_DIR);
+		this.sctIdCacheDirectory = getDirectory(properties, DrugMatchProperties.SCT_ID_CACHE_DIR);
+		this.verificationCacheDirectory = getDirectory(properties, DrugMatchProperties.VERIFICATION_CACHE_DIR);
+		this.verificationSnapshotDirectory = getDirectory(properties, DrugMatchProperties.VERIFICATION_SNAPSHOT_DIR);
+		String path = getString(properties, DrugMatchProperties.VERIFICATION_SNAPSHOT_INDEX);
+		this.verificationSnapshotIndexFile = (path == null) ? null : new File(path);
+	}
+
+	/**
+	 * @param propertyFile
+	 * @return {@link DrugMatchSettings}
+	 * @throws DrugMatchConfigurationException
+	 */
+	public static DrugMatchSettings load(final File propertyFile) throws DrugMatchConfigurationException {
+		try (FileInputStream fis = new FileInputStream(propertyFile)) {
+			Properties properties = new Properties();
+			properties.load(fis);
+			return new DrugMatchSettings(properties);
+		} catch (FileNotFoundException e) {
+			throw new DrugMatchConfigurationException("Unable to locate file: " + propertyFile);
+		} catch (IOException e) {
+			throw new DrugMatchConfigurationException("Unable to read file: " + propertyFile);
+		}
+	}
+
+	/**
+	 * @param value
+	 * @param propertyName
+	 * @throws DrugMatchConfigurationException if value is null
+	 */
+	private static void require(final Object value,
+			final String propertyName) throws DrugMatchConfigurationException {
+		if (value == null) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + propertyName + "' isn't set!");
+		}
+	}
+
+	/**
+	 * Validate the settings required by "Check", ie. input, output & verification.
+	 * @throws DrugMatchConfigurationException
+	 */
+	public void validateCheck() throws DrugMatchConfigurationException {
+		require(this.inputFilePath, DrugMatchProperties.INPUT_FILE);
+		require(this.outputDirectory, DrugMatchProperties.OUTPUT_DIR);
+		require(this.nationalNamespaceId, DrugMatchProperties.EXTENSION_NAMESPACE_ID);
+		require(this.constraintIdDoseForm, DrugMatchProperties.CONSTRAINT_ID_DOSE_FORM);
+		require(this.constraintIdSubstance, DrugMatchProperties.CONSTRAINT_ID_SUBSTANCE);
+		require(this.constraintIdUnit, DrugMatchProperties.CONSTRAINT_ID_UNIT);
+		if (this.verificationSnapshotDirectory == null) {
+			require(this.verificationService, DrugMatchProperties.VERIFICATION_SERVICE);
+			require(this.verificationLogin, DrugMatchProperties.VERIFICATION_LOGIN);
+			require(this.verificationPassword, DrugMatchProperties.VERIFICATION_PASSWORD);
+		}
+	}
+
+	/**
+	 * Validate the settings required by "Match", ie. "Check" & attribute IDs.
+	 * @throws DrugMatchConfigurationException
+	 */
+	public void validateMatch() throws DrugMatchConfigurationException {
+		validateCheck();
+		require(this.attributeIdHasActiveIngredient, DrugMatchProperties.ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT);
+		require(this.attributeIdHasDoseForm, DrugMatchProperties.ATTRIBUTE_ID_HAS_DOSE_FORM);
+	}
+
+	/**
+	 * Validate the settings required by "Create", ie. "Match", module, national language & SCT ID service.
+	 * @throws DrugMatchConfigurationException
+	 */
+	public void validateCreate() throws DrugMatchConfigurationException {
+		validateMatch();
+		require(this.moduleId, DrugMatchProperties.MODULE_ID);
+		require(this.nationalLanguageCode, DrugMatchProperties.EXTENSION_LANGUAGE_CODE);
+		require(this.languageReferenceSetId, DrugMatchProperties.EXTENSION_LANGUAGE_REFERENCE_SET_ID);
+		require(this.quantityReferenceSetId, DrugMatchProperties.EXTENSION_QUANTITY_REFERENCE_SET_ID);
+		require(this.sctIdService, DrugMatchProperties.SCT_ID_SERVICE);
+		require(this.sctReleaseId, DrugMatchProperties.SCT_RELEASE_ID);
+	}
+
+	/**
+	 * @param parent
+	 * @param name
+	 * @param description
+	 * @return writeable sub directory, created if missing.
+	 * @throws DrugMatchConfigurationException
+	 */
+	private static File getSubDirectory(final File parent,
+			final String name,
+			final String description) throws DrugMatchConfigurationException {
+		File dir = new File(parent.getPath() + File.separator + name);
+		if (!dir.exists()) {
+			// may be created concurrently by another thread
+			if (!dir.mkdirs()
+					&& !dir.isDirectory()) {
+				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + dir + "' isn't writeable");
+			}
+			log.debug("{} directory: {} created", description, dir);
+		}
+		if (!dir.canWrite()) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + dir + "' isn't writeable");
+		}
+		return dir;
+	}
+
+	/**
+	 * @return use generic messages in reports, otherwise false.
+	 */
+	public boolean createGenericReport() {
+		return this.genericReport;
+	}
+
+	/**
+	 * @return "Has active ingredient" concept ID.
+	 */
+	public Long getAttributeIdHasActiveIngredient() {
+		return this.attributeIdHasActiveIngredient;
+	}
+
+	/**
+	 * @return "Has dose form" concept ID.
+	 */
+	public Long getAttributeIdHasDoseForm() {
+		return this.attributeIdHasDoseForm;
+	}
+
+	/**
+	 * @return maximum number of concurrent "Check" lookups.
+	 */
+	public int getCheckParallelism() {
+		return this.checkParallelism;
+	}
+
+	/**
+	 * @return ex. "Type of drug preparation" concept ID.
+	 */
+	public Long getConstraintIdDoseForm() {
+		return this.constraintIdDoseForm;
+	}
+
+	/**
+	 * @return ex. "Substance" concept ID.
+	 */
+	public Long getConstraintIdSubstance() {
+		return this.constraintIdSubstance;
+	}
+
+	/**
+	 * @return ex. "Unit" concept ID.
+	 */
+	public Long getConstraintIdUnit() {
+		return this.constraintIdUnit;
+	}
+
+	/**
+	 * @return number of pharmaceuticals per "Create" ID allocation window, ie. per description & relationship ID list request.
+	 */
+	public int getCreateIdBatchSize() {
+		return this.createIdBatchSize;
+	}
+
+	/**
+	 * @return maximum number of pharmaceuticals created concurrently.
+	 */
+	public int getCreateParallelism() {
+		return this.createParallelism;
+	}
+
+	public String getFileContentQuoteCharacter() {
+		return this.fileContentQuoteCharacter;
+	}
+
+	public String getFileContentSeparatorCharacter() {
+		return this.fileContentSeparatorCharacter;
+	}
+
+	/**
+	 * @return number of pharmaceuticals per streamed input batch.
+	 */
+	public int getInputBatchSize() {
+		return this.inputBatchSize;
+	}
+
+	public String getInputFileIncludeFirstLine() {
+		return this.inputFileIncludeFirstLine;
+	}
+
+	public String getInputFilePath() {
+		return this.inputFilePath;
+	}
+
+	/**
+	 * @return maximum number of input chunks parsed concurrently.
+	 */
+	public int getInputParallelism() {
+		return this.inputParallelism;
+	}
+
+	/**
+	 * @return national Language Reference Set ID.
+	 */
+	public String getLanguageReferenceSetId() {
+		return this.languageReferenceSetId;
+	}
+
+	/**
+	 * @return "Create" journal directory, ie. state of the latest "Create" run.
+	 * @throws DrugMatchConfigurationException
+	 */
+	public File getJournalDirectory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getOutputDirectory(),
+				"journal",
+				"Journal");
+	}
+
+	public File getMappingDirectory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getOutputDirectory(),
+				"mapping",
+				"Mapping");
+	}
+
+	/**
+	 * @return number of pharmaceuticals per term "Match" Concept lookup window.
+	 */
+	public int getMatchConceptBatchSize() {
+		return this.matchConceptBatchSize;
+	}
+
+	/**
+	 * @return maximum number of Concepts kept in memory during "Match".
+	 */
+	public int getMatchConceptCacheSize() {
+		return this.matchConceptCacheSize;
+	}
+
+	/**
+	 * @return national module ID.
+	 */
+	public String getModuleId() {
+		return this.moduleId;
+	}
+
+	public String getNationalLanguageCode() {
+		return this.nationalLanguageCode;
+	}
+
+	public String getNationalNamespaceId() {
+		return this.nationalNamespaceId;
+	}
+
+	/**
+	 * Note, trims trailing file separator from path
+	 * @return {@link File}
+	 * @throws DrugMatchConfigurationException
+	 */
+	public File getOutputDirectory() throws DrugMatchConfigurationException {
+		File outputDir = this.outputDirectory;
+		if (outputDir == null) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.OUTPUT_DIR + "' isn't set!");
+		} // else
+		if (!outputDir.exists()) {
+			if (!outputDir.mkdirs()
+					&& !outputDir.isDirectory()) {
+				throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.OUTPUT_DIR + "'='" + outputDir + "' isn't writeable");
+			}
+			log.debug("Output directory: {} created", outputDir);
+		}
+		if (!outputDir.canWrite()) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.OUTPUT_DIR + "'='" + outputDir + "' isn't writeable");
+		}
+		return outputDir;
+	}
+
+	/**
+	 * @return seconds between progress reports of a stage.
+	 */
+	public int getProgressInterval() {
+		return this.progressInterval;
+	}
+
+	public String getQuantityReferenceSetId() {
+		return this.quantityReferenceSetId;
+	}
+
+	public File getReferenceSetContentDirectory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getReferenceSetDirectory(),
+				"Content",
+				"Reference Set Content");
+	}
+
+	public File getReferenceSetDirectory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getReleaseFormat2Directory(),
+				"Refset",
+				"Reference Set");
+	}
+
+	public File getReferenceSetLanguageDirectory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getReferenceSetDirectory(),
+				"Language",
+				"Reference Set Language");
+	}
+
+	public File getReleaseFormat2Directory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getOutputDirectory(),
+				"RF2",
+				"Release Format 2");
+	}
+
+	public File getReportDirectory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getOutputDirectory(),
+				"report",
+				"Report");
+	}
+
+	/**
+	 * Note, trims trailing file separator from path
+	 * @return SCT ID store {@link File}, or null if every identifier should be requested from the SCT ID service.
+	 */
+	public File getSctIdCacheDirectory() {
+		return this.sctIdCacheDirectory;
+	}
+
+	/**
+	 * @return SNOMED CT ID service host URL, without trailing /.
+	 */
+	public String getSctIdService() {
+		return this.sctIdService;
+	}
+
+	/**
+	 * @return SNOMED CT release ID
+	 */
+	public String getSctReleaseId() {
+		return this.sctReleaseId;
+	}
+
+	public File getTerminologyDirectory() throws DrugMatchConfigurationException {
+		return getSubDirectory(getReleaseFormat2Directory(),
+				"Terminology",
+				"Terminology");
+	}
+
+	/**
+	 * Note, trims trailing file separator from path
+	 * @return verification cache {@link File}, or null if caching is disabled.
+	 */
+	public File getVerificationCacheDirectory() {
+		return this.verificationCacheDirectory;
+	}
+
+	/**
+	 * @return maximum verification cache size, in megabytes.
+	 */
+	public int getVerificationCacheMaxSize() {
+		return this.verificationCacheMaxSize;
+	}
+
+	/**
+	 * @return number of days a verification cache entry is valid.
+	 */
+	public int getVerificationCacheTtl() {
+		return this.verificationCacheTtl;
+	}
+
+	/**
+	 * @return seconds a pooled verification service connection may stay idle before being evicted.
+	 */
+	public int getVerificationIdleConnectionTimeout() {
+		return this.verificationIdleConnectionTimeout;
+	}
+
+	public String getVerificationLogin() {
+		return this.verificationLogin;
+	}
+
+	/**
+	 * @return maximum number of pooled verification service connections.
+	 */
+	public int getVerificationMaxConnectionsPerRoute() {
+		return this.verificationMaxConnectionsPerRoute;
+	}
+
+	public String getVerificationPassword() {
+		return this.verificationPassword;
+	}
+
+	/**
+	 * @return verification service host URL, without trailing /.
+	 */
+	public String getVerificationService() {
+		return this.verificationService;
+	}
+
+	/**
+	 * Note, trims trailing file separator from path
+	 * @return local RF2 snapshot {@link File}, or null if the verification service should be used.
+	 */
+	public File getVerificationSnapshotDirectory() {
+		return this.verificationSnapshotDirectory;
+	}
+
+	/**
+	 * @return prebuilt (memory mapped) description index {@link File}, or null if the descriptions should be loaded onto the heap.
+	 */
+	public File getVerificationSnapshotIndexFile() {
+		return this.verificationSnapshotIndexFile;
+	}
+
+	/**
+	 * Send the attribute "Match" substances only query concurrently with the substances & dose form query.
+	 * @return true or false
+	 */
+	public boolean isMatchSpeculativeAttributeQuery() {
+		return this.matchSpeculativeAttributeQuery;
+	}
+
+	/**
+	 * Treat warnings as errors.
+	 * @return true or false
+	 */
+	public boolean isStrictMode() {
+		return this.strictMode;
+	}
+
+	/**
+	 * @param properties
+	 * @param propertyName
+	 * @return trimmed value, or null if missing or empty.
+	 */
+	private static String getString(final Properties properties,
+			final String propertyName) {
+		String propertyValue = properties.getProperty(propertyName);
+		if (propertyValue == null) {
+			log.debug("Property: {} not set!", propertyName);
+			return null;
+		} // else
+		propertyValue = propertyValue.trim();
+		if (propertyValue.length() == 0) {
+			log.debug("Property: {} empty value!", propertyName);
+			return null;
+		} // else
+		return propertyValue;
+	}
+
+	/**
+	 * @param properties
+	 * @param propertyName
+	 * @return value, or null if missing or unparsable.
+	 */
+	private static Long getLong(final Properties properties,
+			final String propertyName) {
+		String value = getString(properties, propertyName);
+		try {
+			if (value != null) {
+				return Long.valueOf(value);
+			}
+		} catch (NumberFormatException e) {
+			log.warn("Unable to parse value: {} for: {}", value, propertyName);
+		}
+		return null;
+	}
+
+	/**
+	 * @param properties
+	 * @param propertyName
+	 * @param defaultValue
+	 * @return positive value, or defaultValue if missing, unparsable or not positive.
+	 */
+	private static int getPositiveInt(final Properties properties,
+			final String propertyName,
+			final int defaultValue) {
+		String value = getString(properties, propertyName);
+		if (value != null) {
+			try {
+				int result = Integer.parseInt(value);
+				if (result > 0) {
+					return result;
+				} // else
+				log.warn("Ignoring non positive value: {} for: {}", value, propertyName);
+			} catch (NumberFormatException e) {
+				log.warn("Unable to parse value: {} for: {}", value, propertyName);
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * @param properties
+	 * @param propertyName
+	 * @return host URL, without trailing /, or null if missing or empty.
+	 */
+	private static String getUrl(final Properties properties,
+			final String propertyName) {
+		String s = getString(properties, propertyName);
+		if (s != null
+				&& s.endsWith("/")) {
+			return s.substring(0, (s.length() - 1));
+		}
+		return s;
+	}
+
+	/**
+	 * Note, trims trailing file separator from path
+	 * @param properties
+	 * @param propertyName
+	 * @return {@link File}, or null if missing or empty.
+	 */
+	private static File getDirectory(final Properties properties,
+			final String propertyName) {
+		String path = getString(properties, propertyName);
+		if (path == null) {
+			return null;
+		} // else
+		// trim trailing file separator
+		if (path.endsWith(File.separator)) {
+			path = path.substring(0, (path.length() - 1));
+		}
+		return new File(path);
+	}
+}
@@ -0,0 +1,166 @@
+package org.ihtsdo.sct.drugmatch.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.codec.CharEncoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+/**
+ * Long-lived, buffered {@link CSVWriter}s, one per output file, kept open for the whole run, ex. "Create" or the "Check" reports.
+ * <p>
+ * The header is written when a file is created, rows are buffered until the next {@link #checkpoint()}, which flushes & syncs every open file.<br>
+ * Files of a resumed run are truncated to their checkpointed length and appended to.
+ * @author dev-team@carecom.dk
+ */
+public class OutputFileWriters implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(OutputFileWriters.class);
+
+	/**
+	 * Characters buffered per file, between checkpoints.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * {@link Map}(file name, {@link OutputFile}), in creation order.
+	 */
+	private final Map<String, OutputFile> fileName2OutputFile = new LinkedHashMap<>();
+
+	/**
+	 * Files of a resumed run, not yet reopened.
+	 */
+	private final Set<String> resumedFileNames = new HashSet<>();
+
+	public OutputFileWriters() {
+		// empty on purpose
+	}
+
+	/**
+	 * Resume writing the files of an interrupted run, truncating any tail written after the last checkpoint.
+	 * @param fileName2Length {@link Map}(file name, checkpointed length)
+	 * @throws IOException
+	 */
+	public OutputFileWriters(final Map<String, Long> fileName2Length) throws IOException {
+		File file;
+		for (Map.Entry<String, Long> entry : fileName2Length.entrySet()) {
+			file = new File(entry.getKey());
+			if (file.length() < entry.getValue()) {
+				throw new IOException("Unable to proceed, cause: '" + file + "' is shorter than its checkpointed length: " + entry.getValue());
+			} // else
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				if (raf.length() > entry.getValue()) {
+					log.info("Truncating {} to {} bytes", file, entry.getValue());
+					raf.setLength(entry.getValue());
+				}
+			}
+			this.resumedFileNames.add(entry.getKey());
+		}
+	}
+
+	/**
+	 * @param fileName
+	 * @param header written when the file is created
+	 * @param separator
+	 * @param quoteChar
+	 * @param lineEnd
+	 * @return {@link CSVWriter} of the file, created on first use.
+	 * @throws IOException
+	 */
+	public final CSVWriter getWriter(final String fileName,
+			final String[] header,
+			final char separator,
+			final char quoteChar,
+			final String lineEnd) throws IOException {
+		OutputFile outputFile = this.fileName2OutputFile.get(fileName);
+		if (outputFile == null) {
+			boolean resumed = this.resumedFileNames.remove(fileName);
+			FileOutputStream fos = new FileOutputStream(fileName, resumed);
+			outputFile = new OutputFile(fos,
+					new CSVWriter(new BufferedWriter(new OutputStreamWriter(fos, CharEncoding.UTF_8), BUFFER_SIZE),
+							separator,
+							quoteChar,
+							lineEnd));
+			this.fileName2OutputFile.put(fileName, outputFile);
+			if (resumed) {
+				log.info("Resumed {}", fileName);
+			} else {
+				outputFile.writer.writeNext(header);
+				log.info("Created {}", fileName);
+			}
+		}
+		return outputFile.writer;
+	}
+
+	/**
+	 * Flush & sync every open file.
+	 * @return {@link Map}(file name, length) of the checkpointed files, resumed files not yet reopened included.
+	 * @throws IOException
+	 */
+	public final Map<String, Long> checkpoint() throws IOException {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (Map.Entry<String, OutputFile> entry : this.fileName2OutputFile.entrySet()) {
+			entry.getValue().writer.flush();
+			entry.getValue().fos.getFD().sync();
+			result.put(entry.getKey(), entry.getValue().fos.getChannel().size());
+		}
+		for (String fileName : this.resumedFileNames) {
+			result.put(fileName, new File(fileName).length());
+		}
+		log.debug("Synced {} output file(s)", String.valueOf(this.fileName2OutputFile.size()));
+		return result;
+	}
+
+	/**
+	 * {@link #checkpoint()}, then close every open file.
+	 */
+	public final void close() throws IOException {
+		IOException failure = null;
+		try {
+			checkpoint();
+		} catch (IOException e) {
+			failure = e;
+		}
+		for (OutputFile outputFile : this.fileName2OutputFile.values()) {
+			try {
+				outputFile.writer.close();
+			} catch (IOException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+		this.fileName2OutputFile.clear();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Open output file.
+	 */
+	private static final class OutputFile {
+
+		private final FileOutputStream fos;
+
+		private final CSVWriter writer;
+
+		private OutputFile(final FileOutputStream fos,
+				final CSVWriter writer) {
+			this.fos = fos;
+			this.writer = writer;
+		}
+	}
+}
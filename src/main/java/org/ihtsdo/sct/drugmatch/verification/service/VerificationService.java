@@ -1,5 +1,6 @@
 package org.ihtsdo.sct.drugmatch.verification.service;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
@@ -11,9 +12,11 @@ import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSea
 
 /**
  * Support "Check" & "Match" logic.
+ * <p>
+ * {@link #close()} releases underlying resources, when the DrugMatch flow has completed.
  * @author dev-team@carecom.dk
  */
-public interface VerificationService {
+public interface VerificationService extends Closeable {
 
 	/**
 	 * @param attributeIds
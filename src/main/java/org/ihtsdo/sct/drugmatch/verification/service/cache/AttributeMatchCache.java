@@ -0,0 +1,136 @@
+package org.ihtsdo.sct.drugmatch.verification.service.cache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+
+/**
+ * Thread safe, in-memory memo of {@link VerificationService#getAttributeExactMatch(Set, Set)} results, for the duration of a run.
+ * <p>
+ * Results are keyed by the sorted attribute & value IDs, ie. pharmaceuticals sharing a composition cost one remote query in total,
+ * concurrent requests for the same key await the single query in progress.<br>
+ * Unbounded, as the number of distinct compositions is far below the number of pharmaceuticals.
+ * @author dev-team@carecom.dk
+ */
+public class AttributeMatchCache {
+
+	private final VerificationService service;
+
+	/**
+	 * {@link ConcurrentMap}(sorted attribute & value IDs, unmodifiable matches).
+	 */
+	private final ConcurrentMap<String, Future<List<ConceptSearchResultDescriptor>>> key2Matches = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong(),
+			misses = new AtomicLong();
+
+	/**
+	 * @param service
+	 */
+	public AttributeMatchCache(final VerificationService service) {
+		this.service = service;
+	}
+
+	/**
+	 * @param attributeIds
+	 * @param valueIds
+	 * @return canonical key, independent of {@link Set} iteration order.
+	 */
+	static String getKey(final Set<Long> attributeIds,
+			final Set<Long> valueIds) {
+		return StringUtils.join(new TreeSet<>(attributeIds), ',') + '|' + StringUtils.join(new TreeSet<>(valueIds), ',');
+	}
+
+	/**
+	 * @param attributeIds
+	 * @param valueIds
+	 * @return unmodifiable {@link List}({@link ConceptSearchResultDescriptor}), exact active published attribute relationship matches.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	public final List<ConceptSearchResultDescriptor> getAttributeExactMatch(final Set<Long> attributeIds,
+			final Set<Long> valueIds) throws DrugMatchConfigurationException, IOException {
+		String key = getKey(attributeIds, valueIds);
+		Future<List<ConceptSearchResultDescriptor>> future = this.key2Matches.get(key);
+		if (future == null) {
+			// copy, as the caller may modify the sets afterwards
+			final Set<Long> attributeIdsCopy = new TreeSet<>(attributeIds),
+				valueIdsCopy = new TreeSet<>(valueIds);
+			FutureTask<List<ConceptSearchResultDescriptor>> task = new FutureTask<>(new Callable<List<ConceptSearchResultDescriptor>>() {
+
+				public List<ConceptSearchResultDescriptor> call() throws DrugMatchConfigurationException, IOException {
+					return Collections.unmodifiableList(AttributeMatchCache.this.service.getAttributeExactMatch(attributeIdsCopy,
+							valueIdsCopy));
+				}
+			});
+			future = this.key2Matches.putIfAbsent(key, task);
+			if (future == null) {
+				this.misses.incrementAndGet();
+				future = task;
+				task.run();
+			} else {
+				this.hits.incrementAndGet();
+			}
+		} else {
+			this.hits.incrementAndGet();
+		}
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while awaiting attribute \"Match\"", e);
+		} catch (ExecutionException e) {
+			// allow a later retry
+			this.key2Matches.remove(key, future);
+			Throwable cause = e.getCause();
+			if (cause instanceof DrugMatchConfigurationException) {
+				throw (DrugMatchConfigurationException) cause;
+			} // else
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} // else
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} // else
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * @param attributeIds
+	 * @param valueIds
+	 * @return true if the query is memoized or in progress, ie. costs no additional round-trip.
+	 */
+	public final boolean contains(final Set<Long> attributeIds,
+			final Set<Long> valueIds) {
+		return this.key2Matches.containsKey(getKey(attributeIds, valueIds));
+	}
+
+	/**
+	 * @return number of attribute queries served from the memo.
+	 */
+	public final long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * @return number of attribute queries sent to the {@link VerificationService}.
+	 */
+	public final long getMissCount() {
+		return this.misses.get();
+	}
+}
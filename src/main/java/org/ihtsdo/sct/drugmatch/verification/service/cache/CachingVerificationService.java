@@ -0,0 +1,206 @@
+package org.ihtsdo.sct.drugmatch.verification.service.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * {@link VerificationService} decorator, serving repeated queries from a {@link ResponseCache}.
+ * <p>
+ * Entries are keyed by request scope, endpoint & normalized query, ie. ID sets are sorted, terms are kept as is (exact match).
+ * Empty results are cached as well, as they're just as expensive to retrieve.
+ * @author dev-team@carecom.dk
+ */
+public class CachingVerificationService implements VerificationService {
+
+	private static final Logger log = LoggerFactory.getLogger(CachingVerificationService.class);
+
+	private static final TypeReference<List<ConceptDescriptor>> CONCEPT_DESCRIPTORS = new TypeReference<List<ConceptDescriptor>>() {
+		// type capture
+	};
+
+	private static final TypeReference<List<ConceptSearchResultDescriptor>> CONCEPT_SEARCH_RESULT_DESCRIPTORS = new TypeReference<List<ConceptSearchResultDescriptor>>() {
+		// type capture
+	};
+
+	private final VerificationService delegate;
+
+	private final ResponseCache cache;
+
+	/**
+	 * Key prefix, separating responses of differently configured delegates.
+	 */
+	private final String scope;
+
+	private final AtomicLong hits = new AtomicLong(),
+			misses = new AtomicLong();
+
+	/**
+	 * @param delegate
+	 * @param cache
+	 * @param scope delegate settings affecting responses, ex. service URL & namespace ID, see {@link org.ihtsdo.sct.drugmatch.verification.service.healthterm.impl.VerificationServiceImpl#getRequestScope()}
+	 */
+	public CachingVerificationService(final VerificationService delegate,
+			final ResponseCache cache,
+			final String scope) {
+		this.delegate = delegate;
+		this.cache = cache;
+		this.scope = scope + "#";
+	}
+
+	/**
+	 * Reports cache usage & closes the delegate.
+	 */
+	@Override
+	public final void close() throws IOException {
+		log.info("Verification cache: {} hit(s), {} miss(es)", String.valueOf(this.hits.get()), String.valueOf(this.misses.get()));
+		this.delegate.close();
+	}
+
+	public final List<ConceptSearchResultDescriptor> getAttributeExactMatch(final Set<Long> attributeIds,
+			final Set<Long> valueIds) throws DrugMatchConfigurationException, IOException {
+		String key = "getAttributeExactMatch?attributeIds=" + getKey(attributeIds) + "&valueIds=" + getKey(valueIds);
+		List<ConceptSearchResultDescriptor> result = get(key, CONCEPT_SEARCH_RESULT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getAttributeExactMatch(attributeIds, valueIds);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	public final List<ConceptDescriptor> getConceptsByIds(final Set<Long> conceptIds) throws DrugMatchConfigurationException, IOException {
+		String key = "getConceptsByIds?ids=" + getKey(conceptIds);
+		List<ConceptDescriptor> result = get(key, CONCEPT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getConceptsByIds(conceptIds);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	public final String getConceptsByIdsUrl(final Set<Long> conceptIds) throws DrugMatchConfigurationException {
+		return this.delegate.getConceptsByIdsUrl(conceptIds);
+	}
+
+	public final List<ConceptSearchResultDescriptor> getDoseFormExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		String key = getKey("getDoseFormExactEnglishTermMatch", query);
+		List<ConceptSearchResultDescriptor> result = get(key, CONCEPT_SEARCH_RESULT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getDoseFormExactEnglishTermMatch(query);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	public final List<ConceptSearchResultDescriptor> getDoseFormExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		String key = getKey("getDoseFormExactNationalTermMatch", query);
+		List<ConceptSearchResultDescriptor> result = get(key, CONCEPT_SEARCH_RESULT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getDoseFormExactNationalTermMatch(query);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	public final List<ConceptSearchResultDescriptor> getSubstanceExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		String key = getKey("getSubstanceExactEnglishTermMatch", query);
+		List<ConceptSearchResultDescriptor> result = get(key, CONCEPT_SEARCH_RESULT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getSubstanceExactEnglishTermMatch(query);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	public final List<ConceptSearchResultDescriptor> getSubstanceExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		String key = getKey("getSubstanceExactNationalTermMatch", query);
+		List<ConceptSearchResultDescriptor> result = get(key, CONCEPT_SEARCH_RESULT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getSubstanceExactNationalTermMatch(query);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	public final List<ConceptSearchResultDescriptor> getUnitExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		String key = getKey("getUnitExactEnglishTermMatch", query);
+		List<ConceptSearchResultDescriptor> result = get(key, CONCEPT_SEARCH_RESULT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getUnitExactEnglishTermMatch(query);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	public final List<ConceptSearchResultDescriptor> getUnitExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		String key = getKey("getUnitExactNationalTermMatch", query);
+		List<ConceptSearchResultDescriptor> result = get(key, CONCEPT_SEARCH_RESULT_DESCRIPTORS);
+		if (result == null) {
+			result = this.delegate.getUnitExactNationalTermMatch(query);
+			put(key, result);
+		} else {
+			this.hits.incrementAndGet();
+		}
+		return result;
+	}
+
+	private <T> T get(final String key,
+			final TypeReference<T> type) {
+		return this.cache.get(this.scope + key, type);
+	}
+
+	private void put(final String key,
+			final Object value) {
+		this.misses.incrementAndGet();
+		if (value != null) {
+			this.cache.put(this.scope + key, value);
+		}
+	}
+
+	/**
+	 * @param ids
+	 * @return sorted, comma separated IDs, ie. independent of {@link Set} iteration order.
+	 */
+	static String getKey(final Set<Long> ids) {
+		if (ids == null) {
+			return "";
+		} // else
+		return StringUtils.join(new TreeSet<>(ids), ',');
+	}
+
+	/**
+	 * @param endpoint
+	 * @param query
+	 * @return endpoint & query.
+	 */
+	static String getKey(final String endpoint,
+			final String query) {
+		return endpoint + "?query=" + StringUtils.defaultString(query);
+	}
+}
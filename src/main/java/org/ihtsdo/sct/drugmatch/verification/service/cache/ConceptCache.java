@@ -0,0 +1,102 @@
+package org.ihtsdo.sct.drugmatch.verification.service.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+
+/**
+ * Bounded (least recently used), thread safe, in-memory {@link ConceptDescriptor} cache, for the duration of a run.
+ * <p>
+ * Only the Concept IDs missing from the cache are retrieved from the {@link VerificationService}.
+ * @author dev-team@carecom.dk
+ */
+public class ConceptCache {
+
+	private final VerificationService service;
+
+	/**
+	 * {@link Map}(Concept ID, {@link ConceptDescriptor}).
+	 */
+	private final Map<Long, ConceptDescriptor> id2Concept;
+
+	private final AtomicLong hits = new AtomicLong(),
+			misses = new AtomicLong();
+
+	/**
+	 * @param service
+	 * @param maxSize maximum number of cached {@link ConceptDescriptor}s
+	 */
+	public ConceptCache(final VerificationService service,
+			final int maxSize) {
+		this.service = service;
+		this.id2Concept = Collections.synchronizedMap(new LinkedHashMap<Long, ConceptDescriptor>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Long, ConceptDescriptor> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * @param conceptIds
+	 * @return {@link List}({@link ConceptDescriptor}) matching the given SCT IDs, in {@link Set} iteration order.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	public final List<ConceptDescriptor> getConceptsByIds(final Set<Long> conceptIds) throws DrugMatchConfigurationException, IOException {
+		Map<Long, ConceptDescriptor> result = new LinkedHashMap<>(conceptIds.size());
+		Set<Long> missingIds = new LinkedHashSet<>();
+		ConceptDescriptor conceptDescriptor;
+		for (Long conceptId : conceptIds) {
+			conceptDescriptor = this.id2Concept.get(conceptId);
+			if (conceptDescriptor == null) {
+				missingIds.add(conceptId);
+			}
+			// reserve position
+			result.put(conceptId, conceptDescriptor);
+		}
+		this.hits.addAndGet(conceptIds.size() - missingIds.size());
+		if (!missingIds.isEmpty()) {
+			this.misses.addAndGet(missingIds.size());
+			for (ConceptDescriptor missing : this.service.getConceptsByIds(missingIds)) {
+				result.put(missing.id, missing);
+				this.id2Concept.put(missing.id, missing);
+			}
+		}
+		List<ConceptDescriptor> concepts = new ArrayList<>(result.size());
+		for (ConceptDescriptor concept : result.values()) {
+			// unknown Concept IDs aren't returned by the service either
+			if (concept != null) {
+				concepts.add(concept);
+			}
+		}
+		return concepts;
+	}
+
+	/**
+	 * @return number of Concept IDs served from the cache.
+	 */
+	public final long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * @return number of Concept IDs retrieved from the {@link VerificationService}.
+	 */
+	public final long getMissCount() {
+		return this.misses.get();
+	}
+}
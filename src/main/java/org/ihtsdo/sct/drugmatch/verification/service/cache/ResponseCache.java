@@ -0,0 +1,245 @@
+package org.ihtsdo.sct.drugmatch.verification.service.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Persistent (file per entry) verification service response cache, for a single SNOMED CT release.
+ * <p>
+ * Entries expire after the given time to live, and the oldest entries are evicted when the cache exceeds the given size.
+ * @author dev-team@carecom.dk
+ */
+public class ResponseCache {
+
+	private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+	private static final String ENTRY_SUFFIX = ".json",
+			TEMPORARY_SUFFIX = ".tmp";
+
+	/**
+	 * Marks a release directory as created by {@link ResponseCache}, ie. safe to purge.
+	 */
+	static final String MARKER = ".response-cache";
+
+	private static final String FIELD_KEY = "key",
+			FIELD_VALUE = "value";
+
+	/**
+	 * Fraction of {@link #maxSize} to keep, when evicting.
+	 */
+	private static final double EVICTION_TARGET = 0.9;
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final File directory;
+
+	/**
+	 * Milliseconds.
+	 */
+	private final long timeToLive;
+
+	/**
+	 * Bytes.
+	 */
+	private final long maxSize;
+
+	private final AtomicLong size = new AtomicLong();
+
+	/**
+	 * @param baseDirectory
+	 * @param releaseId SNOMED CT release ID, entries from other releases are purged
+	 * @param timeToLive milliseconds
+	 * @param maxSize bytes
+	 * @throws DrugMatchConfigurationException
+	 */
+	public ResponseCache(final File baseDirectory,
+			final String releaseId,
+			final long timeToLive,
+			final long maxSize) throws DrugMatchConfigurationException {
+		this.directory = new File(baseDirectory, releaseId);
+		if (!this.directory.exists()
+				&& !this.directory.mkdirs()) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + this.directory + "' isn't writeable");
+		}
+		if (!this.directory.canWrite()) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + this.directory + "' isn't writeable");
+		}
+		File marker = new File(this.directory, MARKER);
+		try {
+			marker.createNewFile();
+		} catch (IOException e) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + marker + "' isn't writeable");
+		}
+		this.timeToLive = timeToLive;
+		this.maxSize = maxSize;
+		purgeOtherReleases(baseDirectory);
+		for (File entry : getEntries()) {
+			this.size.addAndGet(entry.length());
+		}
+		log.debug("Using verification cache: {} ({} bytes)", this.directory, String.valueOf(this.size.get()));
+	}
+
+	/**
+	 * @param key
+	 * @param type
+	 * @return cached value, or <code>null</code> if missing or expired.
+	 */
+	public final <T> T get(final String key,
+			final TypeReference<T> type) {
+		File entry = getEntry(key);
+		if (!entry.exists()) {
+			return null;
+		} // else
+		if ((System.currentTimeMillis() - entry.lastModified()) > this.timeToLive) {
+			log.debug("Expired cache entry: {}", key);
+			delete(entry);
+			return null;
+		} // else
+		try {
+			JsonNode node = MAPPER.readTree(entry);
+			if (node == null
+					|| !key.equals(node.path(FIELD_KEY).asText())) {
+				// hash collision or corrupt entry
+				return null;
+			} // else
+			return MAPPER.readValue(node.get(FIELD_VALUE).traverse(), type);
+		} catch (IOException e) {
+			log.debug("Unable to read cache entry: {}", entry, e);
+			delete(entry);
+			return null;
+		}
+	}
+
+	/**
+	 * @param key
+	 * @param value
+	 */
+	public final void put(final String key,
+			final Object value) {
+		File entry = getEntry(key);
+		File temporary = null;
+		try {
+			ObjectNode node = MAPPER.createObjectNode();
+			node.put(FIELD_KEY, key);
+			node.putPOJO(FIELD_VALUE, value);
+			temporary = File.createTempFile("entry", TEMPORARY_SUFFIX, this.directory);
+			MAPPER.writeValue(temporary, node);
+			long previousSize = entry.length(); // 0 if missing
+			// atomic replace, ie. concurrent readers never see a partial entry
+			Files.move(temporary.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			temporary = null;
+			if (this.size.addAndGet(entry.length() - previousSize) > this.maxSize) {
+				evict();
+			}
+		} catch (IOException e) {
+			log.debug("Unable to write cache entry: {}", entry, e);
+		} finally {
+			if (temporary != null) {
+				delete(temporary);
+			}
+		}
+	}
+
+	/**
+	 * Evict oldest entries, until the cache is below {@link #EVICTION_TARGET} of {@link #maxSize}.
+	 */
+	private synchronized void evict() {
+		if (this.size.get() <= this.maxSize) {
+			return;
+		} // else
+		File[] entries = getEntries();
+		Arrays.sort(entries, new Comparator<File>() {
+
+			public int compare(final File o1, final File o2) {
+				return Long.compare(o1.lastModified(), o2.lastModified());
+			}
+		});
+		long target = (long) (this.maxSize * EVICTION_TARGET);
+		int evicted = 0;
+		for (File entry : entries) {
+			if (this.size.get() <= target) {
+				break;
+			}
+			long length = entry.length();
+			if (entry.delete()) {
+				this.size.addAndGet(-length);
+				evicted++;
+			}
+		}
+		log.debug("Evicted {} cache entries", String.valueOf(evicted));
+	}
+
+	private File[] getEntries() {
+		File[] entries = this.directory.listFiles();
+		if (entries == null) {
+			return new File[0];
+		} // else
+		int count = 0;
+		for (File entry : entries) {
+			if (entry.getName().endsWith(ENTRY_SUFFIX)) {
+				entries[count++] = entry;
+			}
+		}
+		return Arrays.copyOf(entries, count);
+	}
+
+	private File getEntry(final String key) {
+		return new File(this.directory, DigestUtils.md5Hex(key) + ENTRY_SUFFIX);
+	}
+
+	private void delete(final File file) {
+		long length = file.length();
+		if (file.delete()
+				&& file.getName().endsWith(ENTRY_SUFFIX)) {
+			this.size.addAndGet(-length);
+		}
+	}
+
+	/**
+	 * Remove entries belonging to other SNOMED CT releases.
+	 * <p>
+	 * Only release directories created by a {@link ResponseCache}, ie. containing {@link #MARKER}, & cache files are touched, other content is left as is.
+	 * @param baseDirectory
+	 */
+	private void purgeOtherReleases(final File baseDirectory) {
+		File[] releaseDirectories = baseDirectory.listFiles();
+		if (releaseDirectories == null) {
+			return;
+		} // else
+		for (File releaseDirectory : releaseDirectories) {
+			if (releaseDirectory.isDirectory()
+					&& !releaseDirectory.equals(this.directory)
+					&& new File(releaseDirectory, MARKER).isFile()) {
+				File[] entries = releaseDirectory.listFiles();
+				if (entries != null) {
+					for (File entry : entries) {
+						if ((entry.getName().endsWith(ENTRY_SUFFIX)
+								|| entry.getName().endsWith(TEMPORARY_SUFFIX)
+								|| entry.getName().equals(MARKER))
+								&& !entry.delete()) {
+							log.debug("Unable to delete stale cache entry: {}", entry);
+						}
+					}
+				}
+				if (releaseDirectory.delete()) {
+					log.info("Purged verification cache for release: {}", releaseDirectory.getName());
+				}
+			}
+		}
+	}
+}
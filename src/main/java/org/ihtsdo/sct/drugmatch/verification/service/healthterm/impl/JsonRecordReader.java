@@ -0,0 +1,107 @@
+package org.ihtsdo.sct.drugmatch.verification.service.healthterm.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.LogEntry;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Streaming HealthTerm response decoding, ie. records are bound one by one from the token stream, without an intermediate tree.
+ * <p>
+ * {@link ObjectReader}s are immutable & thread safe, hence shared by all requests.
+ * @author dev-team@carecom.dk
+ */
+final class JsonRecordReader {
+
+	static final String FIELD_LOG_ENTRY = "logEntry",
+			FIELD_RECORD = "record";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	static final ObjectReader CONCEPT_DESCRIPTOR_READER = MAPPER.reader(ConceptDescriptor.class),
+			CONCEPT_SEARCH_RESULT_DESCRIPTOR_READER = MAPPER.reader(ConceptSearchResultDescriptor.class),
+			LOG_ENTRY_READER = MAPPER.reader(LogEntry.class);
+
+	/**
+	 * DON'T INSTANTIATE A STATIC HELPER!
+	 */
+	private JsonRecordReader() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param content JSON object, closed by the caller
+	 * @param fieldName top level array field, ex. {@link #FIELD_RECORD}
+	 * @param reader record {@link ObjectReader}
+	 * @return {@link List} of records, empty if the field is missing or null.
+	 * @throws IOException
+	 */
+	static <T> List<T> read(final InputStream content,
+			final String fieldName,
+			final ObjectReader reader) throws IOException {
+		try (JsonParser parser = MAPPER.getFactory().createParser(content)) {
+			return read(parser, fieldName, reader);
+		}
+	}
+
+	/**
+	 * @param content JSON object
+	 * @param fieldName top level array field, ex. {@link #FIELD_LOG_ENTRY}
+	 * @param reader record {@link ObjectReader}
+	 * @return {@link List} of records, empty if the field is missing or null.
+	 * @throws IOException
+	 */
+	static <T> List<T> read(final String content,
+			final String fieldName,
+			final ObjectReader reader) throws IOException {
+		try (JsonParser parser = MAPPER.getFactory().createParser(content)) {
+			return read(parser, fieldName, reader);
+		}
+	}
+
+	private static <T> List<T> read(final JsonParser parser,
+			final String fieldName,
+			final ObjectReader reader) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException("Expected JSON object", parser.getCurrentLocation());
+		} // else
+		List<T> result = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			JsonToken token = parser.nextToken();
+			if (result == null
+					&& fieldName.equals(parser.getCurrentName())) {
+				if (token == JsonToken.START_ARRAY) {
+					result = new ArrayList<>();
+					while ((token = parser.nextToken()) != JsonToken.END_ARRAY
+							&& token != null) {
+						if (token == JsonToken.START_OBJECT) {
+							result.add(reader.<T>readValue(parser));
+						} else {
+							parser.skipChildren();
+						}
+					}
+				} else if (token == JsonToken.START_OBJECT) {
+					// single record
+					result = new ArrayList<>(1);
+					result.add(reader.<T>readValue(parser));
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (result == null) {
+			return new ArrayList<>(0);
+		} // else
+		return result;
+	}
+}
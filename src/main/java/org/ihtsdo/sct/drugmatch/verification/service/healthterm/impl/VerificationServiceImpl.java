@@ -9,12 +9,15 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLHandshakeException;
@@ -23,19 +26,33 @@ import javax.net.ssl.X509TrustManager;
 
 import org.apache.commons.codec.CharEncoding;
 import org.apache.commons.validator.routines.UrlValidator;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpStatus;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.metric.Metrics;
+import org.ihtsdo.sct.drugmatch.metric.OperationMetrics;
 import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
 import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
@@ -44,41 +61,53 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * HealthTerm implementation of {@link VerificationService}.
+ * <p>
+ * All requests share one pooled, keep-alive {@link CloseableHttpClient} for the lifetime of the instance, ie. the DrugMatch flow, see {@link #close()}.
  * @author dev-team@carecom.dk
  */
 public class VerificationServiceImpl implements VerificationService {
 
 	private static final Logger log = LoggerFactory.getLogger(VerificationServiceImpl.class);
 
-	private static final TypeReference<List<ConceptDescriptor>> CONCEPT_DESCRIPTOR_TYPE_REFERENCE = new TypeReference<List<ConceptDescriptor>>() {
-		// empty on purpose.
-	};
+	/**
+	 * Empty, cause: unable to filter on namespace as the SNOMED CT international release now contains 1+ namespace.
+	 */
+	private static final Set<String> SNOMED_CT_NAMESPACE_IDS = Collections.<String>emptySet();
 
-	private static final TypeReference<List<ConceptSearchResultDescriptor>> CONCEPT_SEARCH_RESULT_DESCRIPTOR_TYPE_REFERENCE = new TypeReference<List<ConceptSearchResultDescriptor>>() {
-		// empty on purpose.
-	};
+	/**
+	 * Maximum length of a Concept ID lookup URL, longer lookups are split into several requests.<br>
+	 * Conservative, as servers & proxies commonly reject request lines above 2-8 KB.
+	 */
+	static final int MAX_URL_LENGTH = 2048;
 
-	private static final TypeReference<List<LogEntry>> LOG_ENTRY_TYPE_REFERENCE = new TypeReference<List<LogEntry>>() {
-		// empty on purpose.
-	};
+	private static final String CONCEPT_ID_PARAMETER = "&conceptId=";
 
 	/**
-	 * Empty, cause: unable to filter on namespace as the SNOMED CT international release now contains 1+ namespace.
+	 * Preemptive basic authentication, avoids an authentication challenge round-trip per request.
 	 */
-	private static final Set<String> SNOMED_CT_NAMESPACE_IDS = Collections.<String>emptySet();
+	private final AuthCache authCache;
 
 	private final CredentialsProvider credentialsProvider;
 
 	private SSLConnectionSocketFactory customSslSocketFactory = null;
 
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	private final CloseableHttpClient httpClient;
+
+	private final IdleConnectionEvictor idleConnectionEvictor;
+
+	private final OperationMetrics attributeSearchMetrics = Metrics.get(Metrics.HEALTHTERM_ATTRIBUTE_SEARCH),
+		conceptLookupMetrics = Metrics.get(Metrics.HEALTHTERM_CONCEPT_LOOKUP),
+		exactSearchMetrics = Metrics.get(Metrics.HEALTHTERM_EXACT_SEARCH);
+
 	private final Set<String> englishLocaleCodes = new TreeSet<>(Arrays.asList(new String[] {"en", "en-GB", "en-US"}));
 
+	private final DrugMatchSettings settings;
+
 	/**
 	 * @throws DrugMatchConfigurationException
 	 * @throws KeyManagementException
@@ -86,7 +115,19 @@ public class VerificationServiceImpl implements VerificationService {
 	 * @throws IOException
 	 */
 	public VerificationServiceImpl() throws DrugMatchConfigurationException, KeyManagementException, NoSuchAlgorithmException, IOException {
-		String serviceUrl = DrugMatchProperties.getVerificationService();
+		this(DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * @param settings
+	 * @throws DrugMatchConfigurationException
+	 * @throws KeyManagementException
+	 * @throws NoSuchAlgorithmException
+	 * @throws IOException
+	 */
+	public VerificationServiceImpl(final DrugMatchSettings settings) throws DrugMatchConfigurationException, KeyManagementException, NoSuchAlgorithmException, IOException {
+		this.settings = settings;
+		String serviceUrl = this.settings.getVerificationService();
 		if (serviceUrl == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.VERIFICATION_SERVICE + "' isn't set!");
 		}
@@ -94,11 +135,11 @@ public class VerificationServiceImpl implements VerificationService {
 		if (!urlValidator.isValid(serviceUrl.toLowerCase(Locale.ENGLISH))) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.VERIFICATION_SERVICE + "' isn't a valid HTTP/HTTPS URL!");
 		}
-		String login = DrugMatchProperties.getVerificationLogin();
+		String login = this.settings.getVerificationLogin();
 		if (login == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.VERIFICATION_LOGIN + "' isn't set!");
 		}
-		String password = DrugMatchProperties.getVerificationPassword();
+		String password = this.settings.getVerificationPassword();
 		if (password == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.VERIFICATION_PASSWORD + "' isn't set!");
 		}
@@ -129,6 +170,49 @@ public class VerificationServiceImpl implements VerificationService {
 				}
 			}
 		}
+		this.authCache = new BasicAuthCache();
+		this.authCache.put(new HttpHost(url.getHost(), port, url.getProtocol()), new BasicScheme());
+		// shared connection pool, reusing connections & TLS sessions between requests
+		Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", (this.customSslSocketFactory == null) ? SSLConnectionSocketFactory.getSocketFactory() : this.customSslSocketFactory)
+				.build();
+		int maxConnectionsPerRoute = this.settings.getVerificationMaxConnectionsPerRoute();
+		this.connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+		this.connectionManager.setMaxTotal(maxConnectionsPerRoute); // single host
+		this.connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+		log.debug("Using '{}' = '{}'", DrugMatchProperties.VERIFICATION_MAX_CONNECTIONS_PER_ROUTE, String.valueOf(maxConnectionsPerRoute));
+		this.httpClient = HttpClients.custom()
+				.setConnectionManager(this.connectionManager)
+				.setDefaultCredentialsProvider(this.credentialsProvider)
+				.build();
+		this.idleConnectionEvictor = new IdleConnectionEvictor(this.connectionManager,
+				this.settings.getVerificationIdleConnectionTimeout());
+		this.idleConnectionEvictor.start();
+	}
+
+	/**
+	 * @return settings added to every request, ie. service URL, national namespace ID, constraint IDs & English locale codes.
+	 * Responses are only interchangeable between equal scopes.
+	 * @throws DrugMatchConfigurationException
+	 */
+	public final String getRequestScope() throws DrugMatchConfigurationException {
+		return this.settings.getVerificationService()
+				+ "|" + this.settings.getNationalNamespaceId()
+				+ "|" + this.settings.getConstraintIdDoseForm()
+				+ "|" + this.settings.getConstraintIdSubstance()
+				+ "|" + this.settings.getConstraintIdUnit()
+				+ "|" + this.englishLocaleCodes;
+	}
+
+	/**
+	 * Release pooled connections.
+	 * @throws IOException
+	 */
+	public final void close() throws IOException {
+		this.idleConnectionEvictor.shutdown();
+		this.httpClient.close();
+		log.debug("Closed verification service connection pool");
 	}
 
 	/**
@@ -165,15 +249,18 @@ public class VerificationServiceImpl implements VerificationService {
 		return sc;
 	}
 
-	private CloseableHttpClient getHttpClient() {
-		if (this.customSslSocketFactory == null) {
-			return HttpClients.custom().setDefaultCredentialsProvider(this.credentialsProvider).build();
-		} // else
-		return HttpClients.custom().setDefaultCredentialsProvider(this.credentialsProvider).setSSLSocketFactory(this.customSslSocketFactory).build();
+	/**
+	 * @return request context, sharing credentials & preemptive authentication.
+	 */
+	private HttpClientContext getHttpClientContext() {
+		HttpClientContext context = HttpClientContext.create();
+		context.setCredentialsProvider(this.credentialsProvider);
+		context.setAuthCache(this.authCache);
+		return context;
 	}
 
-	private static HttpGet getHttpGetJSON(final String path) throws DrugMatchConfigurationException {
-		StringBuilder url = new StringBuilder(DrugMatchProperties.getVerificationService());
+	private HttpGet getHttpGetJSON(final String path) throws DrugMatchConfigurationException {
+		StringBuilder url = new StringBuilder(this.settings.getVerificationService());
 		if (!path.startsWith("/")) {
 			url.append('/');
 		}
@@ -206,49 +293,107 @@ public class VerificationServiceImpl implements VerificationService {
 			path.deleteCharAt(i + 1);
 		}
 		// search
-		return getConceptSearchResult(path.toString());
+		return getConceptSearchResult(path.toString(),
+				this.attributeSearchMetrics);
+	}
+
+	/**
+	 * Split the Concept IDs into lookups, each within {@link #MAX_URL_LENGTH}.
+	 * @param prefixLength length of the lookup URL without Concept IDs
+	 * @param conceptIds
+	 * @param maxUrlLength
+	 * @return {@link List}({@link Set}(Concept ID)), in {@link Set} iteration order.
+	 */
+	static List<Set<Long>> split(final int prefixLength,
+			final Set<Long> conceptIds,
+			final int maxUrlLength) {
+		List<Set<Long>> result = new ArrayList<>();
+		Set<Long> lookup = new LinkedHashSet<>();
+		int length = prefixLength,
+			parameterLength;
+		for (Long conceptId : conceptIds) {
+			parameterLength = CONCEPT_ID_PARAMETER.length() + String.valueOf(conceptId).length();
+			if (!lookup.isEmpty()
+					&& length + parameterLength > maxUrlLength) {
+				result.add(lookup);
+				lookup = new LinkedHashSet<>();
+				length = prefixLength;
+			}
+			lookup.add(conceptId);
+			length += parameterLength;
+		}
+		if (!lookup.isEmpty()) {
+			result.add(lookup);
+		}
+		return result;
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * Lookups exceeding {@link #MAX_URL_LENGTH} are split into several requests.
 	 */
 	public final List<ConceptDescriptor> getConceptsByIds(final Set<Long> conceptIds) throws DrugMatchConfigurationException, IOException {
-		try (CloseableHttpClient httpclient = getHttpClient();) {
-			HttpGet httpget = getHttpGetConceptsByIds(conceptIds);
-			try (CloseableHttpResponse response = httpclient.execute(httpget);) {
-				log.debug("Executed request: {} status: {}", httpget.getRequestLine(), response.getStatusLine());
-				if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-					ObjectMapper mapper = new ObjectMapper();
-					JsonNode results = mapper.readTree(response.getEntity().getContent()).get("record");
-					List<ConceptDescriptor> result = mapper.readValue(results.traverse(), CONCEPT_DESCRIPTOR_TYPE_REFERENCE);
-					EntityUtils.consume(response.getEntity());
-					if (result.size() != conceptIds.size()) {
-						log.debug("Request returned: {} expected: {} result(s)!",
-								result.size(),
-								conceptIds.size());
-					}
-					return result;
-				} // else
-				StringBuilder sb = new StringBuilder();
-				try (BufferedReader br = new BufferedReader(new InputStreamReader(response.getEntity().getContent(),
-						CharEncoding.UTF_8));) {
-					String line;
-					while ((line = br.readLine()) != null) {
-						sb.append(line);
-					}
-					ObjectMapper mapper = new ObjectMapper();
-					JsonNode logEntries = mapper.readTree(sb.toString()).get("logEntry");
-					List<LogEntry> result = mapper.readValue(logEntries.traverse(), LOG_ENTRY_TYPE_REFERENCE);
-					EntityUtils.consume(response.getEntity());
-					if (result.isEmpty()) {
-						throw new IOException("Unable to retrieve Concept by ID, cause: HTTP status code " + response.getStatusLine().getStatusCode());
-					} // else
-					throw new IOException(result.iterator().next().toString());
-				} catch (JsonParseException e) {
-					throw new IOException("Unable to retrieve Concept by ID, cause: HTTP status code " + response.getStatusLine().getStatusCode() +
-							" response content: " + sb.toString());
+		List<Set<Long>> lookups = split(getConceptsByIdsUrl(Collections.<Long>emptySet()).length(),
+				conceptIds,
+				MAX_URL_LENGTH);
+		if (lookups.size() < 2) {
+			return lookupConceptsByIds(conceptIds);
+		} // else
+		log.debug("Splitting lookup of: {} Concept IDs into: {} requests", String.valueOf(conceptIds.size()), String.valueOf(lookups.size()));
+		List<ConceptDescriptor> result = new ArrayList<>(conceptIds.size());
+		for (Set<Long> lookup : lookups) {
+			result.addAll(lookupConceptsByIds(lookup));
+		}
+		return result;
+	}
+
+	/**
+	 * @param conceptIds
+	 * @return {@link List}({@link ConceptDescriptor}), retrieved in one request.
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	private List<ConceptDescriptor> lookupConceptsByIds(final Set<Long> conceptIds) throws DrugMatchConfigurationException, IOException {
+		HttpGet httpget = getHttpGetConceptsByIds(conceptIds);
+		long start = System.nanoTime();
+		boolean success = false;
+		try (CloseableHttpResponse response = this.httpClient.execute(httpget, getHttpClientContext());) {
+			log.debug("Executed request: {} status: {}", httpget.getRequestLine(), response.getStatusLine());
+			if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+				List<ConceptDescriptor> result = JsonRecordReader.read(response.getEntity().getContent(),
+						JsonRecordReader.FIELD_RECORD,
+						JsonRecordReader.CONCEPT_DESCRIPTOR_READER);
+				EntityUtils.consume(response.getEntity());
+				if (result.size() != conceptIds.size()) {
+					log.debug("Request returned: {} expected: {} result(s)!",
+							result.size(),
+							conceptIds.size());
+				}
+				success = true;
+				return result;
+			} // else
+			StringBuilder sb = new StringBuilder();
+			try (BufferedReader br = new BufferedReader(new InputStreamReader(response.getEntity().getContent(),
+					CharEncoding.UTF_8));) {
+				String line;
+				while ((line = br.readLine()) != null) {
+					sb.append(line);
 				}
+				List<LogEntry> result = JsonRecordReader.read(sb.toString(),
+						JsonRecordReader.FIELD_LOG_ENTRY,
+						JsonRecordReader.LOG_ENTRY_READER);
+				EntityUtils.consume(response.getEntity());
+				if (result.isEmpty()) {
+					throw new IOException("Unable to retrieve Concept by ID, cause: HTTP status code " + response.getStatusLine().getStatusCode());
+				} // else
+				throw new IOException(result.iterator().next().toString());
+			} catch (JsonParseException e) {
+				throw new IOException("Unable to retrieve Concept by ID, cause: HTTP status code " + response.getStatusLine().getStatusCode() +
+						" response content: " + sb.toString());
 			}
+		} finally {
+			this.conceptLookupMetrics.record(start, success);
 		}
 	}
 
@@ -258,12 +403,12 @@ public class VerificationServiceImpl implements VerificationService {
 	 * @return {@link HttpGet}
 	 * @throws DrugMatchConfigurationException
 	 */
-	private static HttpGet getHttpGetConceptsByIds(Set<Long> conceptIds) throws DrugMatchConfigurationException {
+	private HttpGet getHttpGetConceptsByIds(Set<Long> conceptIds) throws DrugMatchConfigurationException {
 		// construct path
 		StringBuilder path = new StringBuilder("/webservice/restricted/v1.0/lookup/concept/byId?");
 		// attribute (Relationship type ID)
 		for (Long conceptId : conceptIds) {
-			path.append("&conceptId=")
+			path.append(CONCEPT_ID_PARAMETER)
 				.append(conceptId);
 		}
 		// remove unneeded '&' for first parameter
@@ -295,7 +440,7 @@ public class VerificationServiceImpl implements VerificationService {
 	 * {@inheritDoc}
 	 */
 	public final List<ConceptSearchResultDescriptor> getDoseFormExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
-		String nationalNamespaceId = DrugMatchProperties.getNationalNamespaceId();
+		String nationalNamespaceId = this.settings.getNationalNamespaceId();
 		if (nationalNamespaceId == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.EXTENSION_NAMESPACE_ID + "' isn't set!");
 		} // else
@@ -317,7 +462,7 @@ public class VerificationServiceImpl implements VerificationService {
 	private List<ConceptSearchResultDescriptor> getDoseFormExactTermMatch(final Set<String> namespaceIds,
 			final String query,
 			final Set<String> localeCodes) throws DrugMatchConfigurationException, IOException {
-		Long constraintId = DrugMatchProperties.getConstraintIdDoseForm();
+		Long constraintId = this.settings.getConstraintIdDoseForm();
 		if (constraintId == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.CONSTRAINT_ID_DOSE_FORM + "' isn't set!");
 		} // else
@@ -360,49 +505,55 @@ public class VerificationServiceImpl implements VerificationService {
 				.append(URLEncoder.encode(localeCode, CharEncoding.UTF_8));
 		}
 		// search
-		return getConceptSearchResult(path.toString());
+		return getConceptSearchResult(path.toString(),
+				this.exactSearchMetrics);
 	}
 
 	/**
 	 * @param path
+	 * @param metrics of the search operation
 	 * @return {@link List}({@link ConceptSearchResultDescriptor}), for the given path.
 	 * @throws DrugMatchConfigurationException
 	 * @throws IOException
 	 */
-	private List<ConceptSearchResultDescriptor> getConceptSearchResult(final String path) throws DrugMatchConfigurationException, IOException {
-		try (CloseableHttpClient httpclient = getHttpClient();) {
-			HttpGet httpget = getHttpGetJSON(path);
-			try (CloseableHttpResponse response = httpclient.execute(httpget);) {
-				log.debug("Executed request: {} status: {}", httpget.getRequestLine(), response.getStatusLine());
-				if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-					ObjectMapper mapper = new ObjectMapper();
-					JsonNode results = mapper.readTree(response.getEntity().getContent()).get("record");
-					List<ConceptSearchResultDescriptor> result = mapper.readValue(results.traverse(), CONCEPT_SEARCH_RESULT_DESCRIPTOR_TYPE_REFERENCE);
-					EntityUtils.consume(response.getEntity());
-					log.debug("Request returned: {} result(s).",
-							result.size());
-					return result;
-				} // else
-				StringBuilder sb = new StringBuilder();
-				try (BufferedReader br = new BufferedReader(new InputStreamReader(response.getEntity().getContent(),
-						CharEncoding.UTF_8));) {
-					String line;
-					while ((line = br.readLine()) != null) {
-						sb.append(line);
-					}
-					ObjectMapper mapper = new ObjectMapper();
-					JsonNode logEntries = mapper.readTree(sb.toString()).get("logEntry");
-					List<LogEntry> result = mapper.readValue(logEntries.traverse(), LOG_ENTRY_TYPE_REFERENCE);
-					EntityUtils.consume(response.getEntity());
-					if (result.isEmpty()) {
-						throw new IOException("Unable to search for exact match, cause: HTTP status code " + response.getStatusLine().getStatusCode());
-					} // else
-					throw new IOException(result.iterator().next().toString());
-				} catch (JsonParseException e) {
-					throw new IOException("Unable to search for exact match, cause: HTTP status code " + response.getStatusLine().getStatusCode() +
-							" response content: " + sb.toString());
+	private List<ConceptSearchResultDescriptor> getConceptSearchResult(final String path,
+			final OperationMetrics metrics) throws DrugMatchConfigurationException, IOException {
+		HttpGet httpget = getHttpGetJSON(path);
+		long start = System.nanoTime();
+		boolean success = false;
+		try (CloseableHttpResponse response = this.httpClient.execute(httpget, getHttpClientContext());) {
+			log.debug("Executed request: {} status: {}", httpget.getRequestLine(), response.getStatusLine());
+			if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+				List<ConceptSearchResultDescriptor> result = JsonRecordReader.read(response.getEntity().getContent(),
+						JsonRecordReader.FIELD_RECORD,
+						JsonRecordReader.CONCEPT_SEARCH_RESULT_DESCRIPTOR_READER);
+				EntityUtils.consume(response.getEntity());
+				log.debug("Request returned: {} result(s).",
+						result.size());
+				success = true;
+				return result;
+			} // else
+			StringBuilder sb = new StringBuilder();
+			try (BufferedReader br = new BufferedReader(new InputStreamReader(response.getEntity().getContent(),
+					CharEncoding.UTF_8));) {
+				String line;
+				while ((line = br.readLine()) != null) {
+					sb.append(line);
 				}
+				List<LogEntry> result = JsonRecordReader.read(sb.toString(),
+						JsonRecordReader.FIELD_LOG_ENTRY,
+						JsonRecordReader.LOG_ENTRY_READER);
+				EntityUtils.consume(response.getEntity());
+				if (result.isEmpty()) {
+					throw new IOException("Unable to search for exact match, cause: HTTP status code " + response.getStatusLine().getStatusCode());
+				} // else
+				throw new IOException(result.iterator().next().toString());
+			} catch (JsonParseException e) {
+				throw new IOException("Unable to search for exact match, cause: HTTP status code " + response.getStatusLine().getStatusCode() +
+						" response content: " + sb.toString());
 			}
+		} finally {
+			metrics.record(start, success);
 		}
 	}
 
@@ -420,7 +571,7 @@ public class VerificationServiceImpl implements VerificationService {
 	 * {@inheritDoc}
 	 */
 	public final List<ConceptSearchResultDescriptor> getSubstanceExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
-		String nationalNamespaceId = DrugMatchProperties.getNationalNamespaceId();
+		String nationalNamespaceId = this.settings.getNationalNamespaceId();
 		if (nationalNamespaceId == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.EXTENSION_NAMESPACE_ID + "' isn't set!");
 		} // else
@@ -442,7 +593,7 @@ public class VerificationServiceImpl implements VerificationService {
 	private List<ConceptSearchResultDescriptor> getSubstanceExactTermMatch(final Set<String> namespaceIds,
 			final String query,
 			final Set<String> localeCodes) throws DrugMatchConfigurationException, IOException {
-		Long constraintId = DrugMatchProperties.getConstraintIdSubstance();
+		Long constraintId = this.settings.getConstraintIdSubstance();
 		if (constraintId == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.CONSTRAINT_ID_SUBSTANCE + "' isn't set!");
 		} // else
@@ -467,7 +618,7 @@ public class VerificationServiceImpl implements VerificationService {
 	 * {@inheritDoc}
 	 */
 	public final List<ConceptSearchResultDescriptor> getUnitExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
-		String nationalNamespaceId = DrugMatchProperties.getNationalNamespaceId();
+		String nationalNamespaceId = this.settings.getNationalNamespaceId();
 		if (nationalNamespaceId == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.EXTENSION_NAMESPACE_ID + "' isn't set!");
 		} // else
@@ -489,7 +640,7 @@ public class VerificationServiceImpl implements VerificationService {
 	private List<ConceptSearchResultDescriptor> getUnitExactTermMatch(final Set<String> namespaceIds,
 			final String query,
 			final Set<String> localeCodes) throws DrugMatchConfigurationException, IOException {
-		Long constraintId = DrugMatchProperties.getConstraintIdUnit();
+		Long constraintId = this.settings.getConstraintIdUnit();
 		if (constraintId == null) {
 			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.CONSTRAINT_ID_UNIT + "' isn't set!");
 		} // else
@@ -499,4 +650,56 @@ public class VerificationServiceImpl implements VerificationService {
 				localeCodes,
 				query);
 	}
+
+	/**
+	 * Background eviction of expired and idle pooled connections, ie. connections silently dropped by the server.
+	 */
+	private static final class IdleConnectionEvictor extends Thread {
+
+		private final HttpClientConnectionManager connectionManager;
+
+		/**
+		 * Seconds.
+		 */
+		private final int idleTimeout;
+
+		private volatile boolean shutdown = false;
+
+		/**
+		 * @param connectionManager
+		 * @param idleTimeout seconds
+		 */
+		IdleConnectionEvictor(final HttpClientConnectionManager connectionManager,
+				final int idleTimeout) {
+			super(IdleConnectionEvictor.class.getSimpleName());
+			setDaemon(true);
+			this.connectionManager = connectionManager;
+			this.idleTimeout = idleTimeout;
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!this.shutdown) {
+					synchronized (this) {
+						wait(TimeUnit.SECONDS.toMillis(this.idleTimeout));
+					}
+					this.connectionManager.closeExpiredConnections();
+					this.connectionManager.closeIdleConnections(this.idleTimeout, TimeUnit.SECONDS);
+				}
+			} catch (InterruptedException e) {
+				log.debug("Idle connection eviction interrupted");
+			}
+		}
+
+		/**
+		 * Stop eviction.
+		 */
+		public void shutdown() {
+			this.shutdown = true;
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
 }
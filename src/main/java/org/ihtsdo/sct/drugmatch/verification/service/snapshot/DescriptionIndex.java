@@ -0,0 +1,41 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.util.List;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.model.Description;
+
+/**
+ * Index of active descriptions (of active concepts), by term & by concept ID.
+ * @author dev-team@carecom.dk
+ */
+public interface DescriptionIndex {
+
+	/**
+	 * Case insensitive term lookup.
+	 * @param term
+	 * @param namespaceId or null for any namespace
+	 * @param languageCodes or empty for any language
+	 * @return {@link List}({@link Description}), empty if none.
+	 */
+	List<Description> getDescriptions(String term,
+			String namespaceId,
+			Set<String> languageCodes);
+
+	/**
+	 * Case sensitive term lookup.
+	 * @param term
+	 * @param namespaceId or null for any namespace
+	 * @param languageCodes or empty for any language
+	 * @return {@link List}({@link Description}), empty if none.
+	 */
+	List<Description> getExactDescriptions(String term,
+			String namespaceId,
+			Set<String> languageCodes);
+
+	/**
+	 * @param conceptId
+	 * @return {@link List}({@link Description}), empty if unknown or inactive.
+	 */
+	List<Description> getDescriptions(long conceptId);
+}
@@ -0,0 +1,514 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.model.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write the active descriptions of an RF2 snapshot as a compact binary file, to be opened by {@link MappedDescriptionIndex}.
+ * <p>
+ * Layout, big-endian, offsets are absolute file positions unless noted:
+ * <pre>
+ * header       magic, version, description count, concept count, language count, partition count,
+ *              descriptions offset, concepts offset, string pool offset (9 x int)
+ * languages    language code (modified UTF-8, {@link DataOutputStream#writeUTF(String)}) per language index
+ * sources      source file count (int), then per RF2 snapshot file read: path relative to the snapshot directory (modified UTF-8),
+ *              length &amp; last modified time (2 x long), sorted by path
+ * partitions   namespace ID offset in the string pool (int) &amp; length (short), as namespace IDs may have leading zeros,
+ *              language index (short), exact keys offset, exact key count,
+ *              case-folded keys offset, case-folded key count (4 x int), per (namespace, language)
+ * descriptions ID (long), Concept ID (long), term offset &amp; length in the string pool (2 x int),
+ *              language index (short), type (short), sorted by Concept ID
+ * concepts     Concept ID (long), first description index, description count (2 x int), sorted by Concept ID
+ * keys         key offset &amp; length in the string pool, postings offset, posting count (4 x int),
+ *              sorted by the unsigned UTF-8 bytes of the key, per partition: exact keys, then case-folded keys
+ * postings     description index (int)
+ * string pool  UTF-8 terms, case-folded terms &amp; namespace IDs
+ * </pre>
+ * @author dev-team@carecom.dk
+ */
+public final class DescriptionIndexBuilder {
+
+	private static final Logger log = LoggerFactory.getLogger(DescriptionIndexBuilder.class);
+
+	static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	static final int MAGIC = 0x444D4449, // "DMDI"
+			VERSION = 3,
+			HEADER_SIZE = 9 * 4,
+			PARTITION_SIZE = 4 + 2 + 2 + 4 * 4,
+			DESCRIPTION_SIZE = 8 + 8 + 4 + 4 + 2 + 2,
+			CONCEPT_SIZE = 8 + 4 + 4,
+			KEY_SIZE = 4 * 4;
+
+	/**
+	 * RF2 snapshot files read by {@link HeapDescriptionIndex#loadDescriptions(File)}.
+	 */
+	private static final List<String> SOURCE_PREFIXES = Arrays.asList(Rf2Files.CONCEPT_SNAPSHOT_PREFIX,
+			Rf2Files.DESCRIPTION_SNAPSHOT_PREFIX,
+			Rf2Files.LANGUAGE_REFERENCE_SET_SNAPSHOT_PREFIX);
+
+	/**
+	 * Unsigned lexicographic order, as used by the binary search of {@link MappedDescriptionIndex}.
+	 */
+	static final Comparator<byte[]> KEY_COMPARATOR = new Comparator<byte[]>() {
+
+		public int compare(final byte[] o1,
+				final byte[] o2) {
+			int length = Math.min(o1.length, o2.length);
+			int diff;
+			for (int i = 0; i < length; i++) {
+				diff = (o1[i] & 0xFF) - (o2[i] & 0xFF);
+				if (diff != 0) {
+					return diff;
+				}
+			}
+			return o1.length - o2.length;
+		}
+	};
+
+	/**
+	 * DON'T INSTANTIATE A STATIC HELPER!
+	 */
+	private DescriptionIndexBuilder() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param directory RF2 snapshot
+	 * @return {@link SourceFile} per concept, description &amp; language reference set snapshot file, sorted by path.
+	 */
+	static List<SourceFile> getSourceFiles(final File directory) {
+		List<SourceFile> result = new ArrayList<>();
+		File root = directory.getAbsoluteFile();
+		for (String prefix : SOURCE_PREFIXES) {
+			for (File file : Rf2Files.find(directory, prefix)) {
+				result.add(new SourceFile(root.toPath().relativize(file.getAbsoluteFile().toPath()).toString(),
+						file.length(),
+						file.lastModified()));
+			}
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	/**
+	 * @param directory RF2 snapshot
+	 * @param indexFile
+	 * @return true if the index file exists, is of the current {@link #VERSION} &amp; was built from the concept, description &amp; language reference set snapshot files as they are now,
+	 * ie. same file names, sizes &amp; last modified times.
+	 */
+	public static boolean isUpToDate(final File directory,
+			final File indexFile) {
+		if (!indexFile.isFile()) {
+			return false;
+		} // else
+		List<SourceFile> indexed = new ArrayList<>();
+		try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+			if (dis.readInt() != MAGIC
+					|| dis.readInt() != VERSION) {
+				return false;
+			} // else
+			// description & concept count
+			dis.readInt();
+			dis.readInt();
+			int languageCount = dis.readInt();
+			// partition count & offsets
+			for (int i = 0; i < 4; i++) {
+				dis.readInt();
+			}
+			for (int i = 0; i < languageCount; i++) {
+				dis.readUTF();
+			}
+			int sourceCount = dis.readInt();
+			for (int i = 0; i < sourceCount; i++) {
+				indexed.add(new SourceFile(dis.readUTF(),
+						dis.readLong(),
+						dis.readLong()));
+			}
+		} catch (IOException e) {
+			log.debug("Unable to read description index: {}", indexFile, e);
+			return false;
+		}
+		if (!indexed.equals(getSourceFiles(directory))) {
+			log.info("Description index: {} is out of date, cause: RF2 snapshot files changed", indexFile);
+			return false;
+		} // else
+		return true;
+	}
+
+	/**
+	 * Build the index file from the RF2 snapshot(s) below the given directory.
+	 * @param directory RF2 snapshot
+	 * @param indexFile replaced atomically
+	 * @throws IOException
+	 */
+	public static void build(final File directory,
+			final File indexFile) throws IOException {
+		long start = System.currentTimeMillis();
+		// before reading, ie. a file changed while reading is out of date on the next run
+		List<SourceFile> sourceFiles = getSourceFiles(directory);
+		List<Description> descriptions = HeapDescriptionIndex.loadDescriptions(directory);
+		File parent = indexFile.getAbsoluteFile().getParentFile();
+		if (!parent.isDirectory()
+				&& !parent.mkdirs()) {
+			throw new IOException("Unable to create directory: " + parent);
+		} // else
+		File temporaryFile = File.createTempFile(indexFile.getName(), ".tmp", parent);
+		try {
+			write(descriptions, sourceFiles, temporaryFile);
+			Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+		log.info("Built description index: {} ({} bytes) in {} ms",
+				indexFile,
+				String.valueOf(indexFile.length()),
+				String.valueOf(System.currentTimeMillis() - start));
+	}
+
+	/**
+	 * @param descriptions
+	 * @param file
+	 * @throws IOException
+	 */
+	static void write(final List<Description> descriptions,
+			final File file) throws IOException {
+		write(descriptions,
+				Collections.<SourceFile>emptyList(),
+				file);
+	}
+
+	/**
+	 * @param descriptions
+	 * @param sourceFiles RF2 snapshot files the descriptions are read from
+	 * @param file
+	 * @throws IOException
+	 */
+	static void write(final List<Description> descriptions,
+			final List<SourceFile> sourceFiles,
+			final File file) throws IOException {
+		// descriptions, grouped by concept (stable, ie. file order within a concept)
+		List<Description> sorted = new ArrayList<>(descriptions);
+		Collections.sort(sorted, new Comparator<Description>() {
+
+			public int compare(final Description o1,
+					final Description o2) {
+				return Long.compare(o1.conceptId, o2.conceptId);
+			}
+		});
+		// languages
+		List<String> languageCodes = new ArrayList<>(new TreeSet<String>(getLanguageCodes(sorted)));
+		Map<String, Integer> languageCode2Index = new HashMap<>();
+		for (String languageCode : languageCodes) {
+			languageCode2Index.put(languageCode, Integer.valueOf(languageCode2Index.size()));
+		}
+		// string pool, partitions & concepts
+		StringPool stringPool = new StringPool();
+		int[] termOffsets = new int[sorted.size()],
+				termLengths = new int[sorted.size()];
+		Map<String, Partition> partitions = new TreeMap<>();
+		List<long[]> concepts = new ArrayList<>(); // Concept ID, first description index, description count
+		Description description;
+		long[] concept = null;
+		String namespaceId,
+			partitionKey;
+		int languageIndex;
+		Partition partition;
+		for (int i = 0; i < sorted.size(); i++) {
+			description = sorted.get(i);
+			byte[] term = description.term.getBytes(UTF_8);
+			termOffsets[i] = stringPool.add(term);
+			termLengths[i] = term.length;
+			namespaceId = description.getNamespaceId();
+			languageIndex = languageCode2Index.get(description.languageCode).intValue();
+			partitionKey = namespaceId + '|' + languageIndex;
+			partition = partitions.get(partitionKey);
+			if (partition == null) {
+				partition = new Partition(namespaceId, languageIndex);
+				partitions.put(partitionKey, partition);
+			}
+			partition.add(partition.exactKeys, term, i);
+			partition.add(partition.foldedKeys, Description.getFoldedTerm(description.term).getBytes(UTF_8), i);
+			if (concept == null
+					|| concept[0] != description.conceptId) {
+				concept = new long[] {description.conceptId, i, 0};
+				concepts.add(concept);
+			}
+			concept[2]++;
+		}
+		for (Partition p : partitions.values()) {
+			for (byte[] key : p.exactKeys.keySet()) {
+				stringPool.add(key);
+			}
+			for (byte[] key : p.foldedKeys.keySet()) {
+				stringPool.add(key);
+			}
+			stringPool.add(p.namespaceId.getBytes(UTF_8));
+		}
+		// layout
+		ByteArrayOutputStream languageTable = new ByteArrayOutputStream();
+		try (DataOutputStream dos = new DataOutputStream(languageTable)) {
+			for (String languageCode : languageCodes) {
+				dos.writeUTF(languageCode);
+			}
+		}
+		ByteArrayOutputStream sourceTable = new ByteArrayOutputStream();
+		try (DataOutputStream dos = new DataOutputStream(sourceTable)) {
+			dos.writeInt(sourceFiles.size());
+			for (SourceFile sourceFile : sourceFiles) {
+				dos.writeUTF(sourceFile.path);
+				dos.writeLong(sourceFile.length);
+				dos.writeLong(sourceFile.lastModified);
+			}
+		}
+		long keyCount = 0,
+				postingCount = 0;
+		for (Partition p : partitions.values()) {
+			keyCount += p.exactKeys.size() + p.foldedKeys.size();
+			postingCount += p.postingCount;
+		}
+		long descriptionsOffset = HEADER_SIZE + languageTable.size() + sourceTable.size() + (long) PARTITION_SIZE * partitions.size(),
+				conceptsOffset = descriptionsOffset + (long) DESCRIPTION_SIZE * sorted.size(),
+				keysOffset = conceptsOffset + (long) CONCEPT_SIZE * concepts.size(),
+				postingsOffset = keysOffset + KEY_SIZE * keyCount,
+				stringPoolOffset = postingsOffset + 4 * postingCount;
+		if (stringPoolOffset + stringPool.size() > Integer.MAX_VALUE) {
+			throw new IOException("Unable to proceed, cause: description index exceeds " + Integer.MAX_VALUE + " bytes");
+		} // else
+		try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+			// header
+			dos.writeInt(MAGIC);
+			dos.writeInt(VERSION);
+			dos.writeInt(sorted.size());
+			dos.writeInt(concepts.size());
+			dos.writeInt(languageCodes.size());
+			dos.writeInt(partitions.size());
+			dos.writeInt((int) descriptionsOffset);
+			dos.writeInt((int) conceptsOffset);
+			dos.writeInt((int) stringPoolOffset);
+			// languages
+			languageTable.writeTo(dos);
+			// sources
+			sourceTable.writeTo(dos);
+			// partitions
+			long keyOffset = keysOffset;
+			byte[] namespaceIdBytes;
+			for (Partition p : partitions.values()) {
+				namespaceIdBytes = p.namespaceId.getBytes(UTF_8);
+				dos.writeInt(stringPool.add(namespaceIdBytes));
+				dos.writeShort(namespaceIdBytes.length);
+				dos.writeShort(p.languageIndex);
+				dos.writeInt((int) keyOffset);
+				dos.writeInt(p.exactKeys.size());
+				keyOffset += (long) KEY_SIZE * p.exactKeys.size();
+				dos.writeInt((int) keyOffset);
+				dos.writeInt(p.foldedKeys.size());
+				keyOffset += (long) KEY_SIZE * p.foldedKeys.size();
+			}
+			// descriptions
+			for (int i = 0; i < sorted.size(); i++) {
+				description = sorted.get(i);
+				dos.writeLong(description.id);
+				dos.writeLong(description.conceptId);
+				dos.writeInt(termOffsets[i]);
+				dos.writeInt(termLengths[i]);
+				dos.writeShort(languageCode2Index.get(description.languageCode).intValue());
+				dos.writeShort(description.type);
+			}
+			// concepts
+			for (long[] c : concepts) {
+				dos.writeLong(c[0]);
+				dos.writeInt((int) c[1]);
+				dos.writeInt((int) c[2]);
+			}
+			// keys
+			long postingOffset = postingsOffset;
+			for (Partition p : partitions.values()) {
+				postingOffset = writeKeys(dos, p.exactKeys, stringPool, postingOffset);
+				postingOffset = writeKeys(dos, p.foldedKeys, stringPool, postingOffset);
+			}
+			// postings
+			for (Partition p : partitions.values()) {
+				writePostings(dos, p.exactKeys);
+				writePostings(dos, p.foldedKeys);
+			}
+			// string pool
+			stringPool.writeTo(dos);
+		}
+		log.debug("Wrote {} descriptions, {} concepts, {} partitions, {} keys",
+				String.valueOf(sorted.size()),
+				String.valueOf(concepts.size()),
+				String.valueOf(partitions.size()),
+				String.valueOf(keyCount));
+	}
+
+	private static List<String> getLanguageCodes(final List<Description> descriptions) {
+		List<String> result = new ArrayList<>();
+		for (Description description : descriptions) {
+			result.add(description.languageCode);
+		}
+		return result;
+	}
+
+	private static long writeKeys(final DataOutputStream dos,
+			final TreeMap<byte[], List<Integer>> keys,
+			final StringPool stringPool,
+			final long postingOffset) throws IOException {
+		long result = postingOffset;
+		for (Map.Entry<byte[], List<Integer>> entry : keys.entrySet()) {
+			dos.writeInt(stringPool.add(entry.getKey()));
+			dos.writeInt(entry.getKey().length);
+			dos.writeInt((int) result);
+			dos.writeInt(entry.getValue().size());
+			result += 4L * entry.getValue().size();
+		}
+		return result;
+	}
+
+	private static void writePostings(final DataOutputStream dos,
+			final TreeMap<byte[], List<Integer>> keys) throws IOException {
+		for (List<Integer> postings : keys.values()) {
+			for (Integer posting : postings) {
+				dos.writeInt(posting.intValue());
+			}
+		}
+	}
+
+	/**
+	 * RF2 snapshot file an index is built from.
+	 */
+	static final class SourceFile implements Comparable<SourceFile> {
+
+		/**
+		 * Relative to the snapshot directory.
+		 */
+		private final String path;
+
+		private final long length,
+			lastModified;
+
+		private SourceFile(final String path,
+				final long length,
+				final long lastModified) {
+			this.path = path;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		public int compareTo(final SourceFile other) {
+			return this.path.compareTo(other.path);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			SourceFile other = (SourceFile) obj;
+			return this.path.equals(other.path)
+					&& this.length == other.length
+					&& this.lastModified == other.lastModified;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + this.path.hashCode();
+			result = prime * result + (int) (this.length ^ (this.length >>> 32));
+			result = prime * result + (int) (this.lastModified ^ (this.lastModified >>> 32));
+			return result;
+		}
+	}
+
+	/**
+	 * Keys & postings of one (namespace, language) partition.
+	 */
+	private static final class Partition {
+
+		private final String namespaceId;
+
+		private final int languageIndex;
+
+		private final TreeMap<byte[], List<Integer>> exactKeys = new TreeMap<>(KEY_COMPARATOR),
+			foldedKeys = new TreeMap<>(KEY_COMPARATOR);
+
+		private long postingCount;
+
+		private Partition(final String namespaceId,
+				final int languageIndex) {
+			this.namespaceId = namespaceId;
+			this.languageIndex = languageIndex;
+		}
+
+		private void add(final TreeMap<byte[], List<Integer>> keys,
+				final byte[] key,
+				final int descriptionIndex) {
+			List<Integer> postings = keys.get(key);
+			if (postings == null) {
+				postings = new ArrayList<>(1);
+				keys.put(key, postings);
+			}
+			postings.add(Integer.valueOf(descriptionIndex));
+			this.postingCount++;
+		}
+	}
+
+	/**
+	 * De-duplicated UTF-8 byte sequences, offsets relative to the start of the pool.
+	 */
+	private static final class StringPool {
+
+		private final Map<String, Integer> offsets = new HashMap<>();
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+
+		private int add(final byte[] value) {
+			String key = new String(value, UTF_8);
+			Integer result = this.offsets.get(key);
+			if (result == null) {
+				result = Integer.valueOf(this.bytes.size());
+				this.bytes.write(value, 0, value.length);
+				this.offsets.put(key, result);
+			}
+			return result.intValue();
+		}
+
+		private int size() {
+			return this.bytes.size();
+		}
+
+		private void writeTo(final DataOutputStream dos) throws IOException {
+			this.bytes.writeTo(dos);
+		}
+	}
+}
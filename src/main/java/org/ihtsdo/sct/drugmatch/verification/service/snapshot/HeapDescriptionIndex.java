@@ -0,0 +1,178 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.constant.rf1.DescriptionType;
+import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.model.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory (heap) {@link DescriptionIndex}, of active descriptions (of active concepts), by case-folded term & by concept ID.
+ * @author dev-team@carecom.dk
+ */
+public class HeapDescriptionIndex implements DescriptionIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(HeapDescriptionIndex.class);
+
+	/**
+	 * {@link Map}(case-folded term, {@link List}({@link Description})).
+	 */
+	private final Map<String, List<Description>> term2Descriptions;
+
+	/**
+	 * {@link Map}(Concept ID, {@link List}({@link Description})).
+	 */
+	private final Map<Long, List<Description>> conceptId2Descriptions;
+
+	/**
+	 * @param descriptions
+	 */
+	public HeapDescriptionIndex(final List<Description> descriptions) {
+		this.term2Descriptions = new HashMap<>(descriptions.size());
+		this.conceptId2Descriptions = new HashMap<>(descriptions.size() / 2);
+		List<Description> list;
+		for (Description description : descriptions) {
+			String key = Description.getFoldedTerm(description.term);
+			list = this.term2Descriptions.get(key);
+			if (list == null) {
+				list = new ArrayList<>(1);
+				this.term2Descriptions.put(key, list);
+			}
+			list.add(description);
+			list = this.conceptId2Descriptions.get(description.conceptId);
+			if (list == null) {
+				list = new ArrayList<>(4);
+				this.conceptId2Descriptions.put(description.conceptId, list);
+			}
+			list.add(description);
+		}
+	}
+
+	/**
+	 * Load active descriptions, of active concepts, from the RF2 snapshot(s) below the given directory.
+	 * @param directory
+	 * @return {@link HeapDescriptionIndex}
+	 * @throws IOException
+	 */
+	public static HeapDescriptionIndex load(final File directory) throws IOException {
+		return new HeapDescriptionIndex(loadDescriptions(directory));
+	}
+
+	/**
+	 * @param directory
+	 * @return active descriptions, of active concepts, in file order.
+	 * @throws IOException
+	 */
+	public static List<Description> loadDescriptions(final File directory) throws IOException {
+		// active concepts
+		final Set<Long> activeConceptIds = new HashSet<>();
+		Rf2Files.read(directory, Rf2Files.CONCEPT_SNAPSHOT_PREFIX, new Rf2Files.RowHandler() {
+
+			public void handle(final String[] columns) {
+				if (Rf2Files.isActive(columns)) {
+					activeConceptIds.add(Long.valueOf(columns[0]));
+				}
+			}
+		});
+		log.debug("Loaded {} active concepts", String.valueOf(activeConceptIds.size()));
+		// preferred (in any language reference set) descriptions
+		final Set<Long> preferredDescriptionIds = new HashSet<>();
+		Rf2Files.read(directory, Rf2Files.LANGUAGE_REFERENCE_SET_SNAPSHOT_PREFIX, new Rf2Files.RowHandler() {
+
+			public void handle(final String[] columns) {
+				if (Rf2Files.isActive(columns)
+						&& ReleaseFormat2.META_DATA_ACCEPTABILITY_PREFERRED_ID.equals(columns[6])) {
+					preferredDescriptionIds.add(Long.valueOf(columns[5]));
+				}
+			}
+		});
+		// descriptions
+		final List<Description> descriptions = new ArrayList<>();
+		Rf2Files.read(directory, Rf2Files.DESCRIPTION_SNAPSHOT_PREFIX, new Rf2Files.RowHandler() {
+
+			public void handle(final String[] columns) {
+				if (Rf2Files.isActive(columns)) {
+					Long conceptId = Long.valueOf(columns[4]);
+					if (activeConceptIds.contains(conceptId)) {
+						long id = Long.parseLong(columns[0]);
+						int type;
+						if (ReleaseFormat2.DESCRIPTION_TYPE_FULLY_SPECIFIED_NAME_ID.equals(columns[6])) {
+							type = DescriptionType.FULLY_SPECIFIED_NAME.getId();
+						} else if (preferredDescriptionIds.contains(id)) {
+							type = DescriptionType.PREFERRED_TERM.getId();
+						} else {
+							type = DescriptionType.SYNONYM.getId();
+						}
+						descriptions.add(new Description(id,
+								conceptId.longValue(),
+								columns[5],
+								type,
+								columns[7]));
+					}
+				}
+			}
+		});
+		log.debug("Loaded {} active descriptions", String.valueOf(descriptions.size()));
+		return descriptions;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<Description> getDescriptions(final String term,
+			final String namespaceId,
+			final Set<String> languageCodes) {
+		return filter(this.term2Descriptions.get(Description.getFoldedTerm(term)),
+				null,
+				namespaceId,
+				languageCodes);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<Description> getExactDescriptions(final String term,
+			final String namespaceId,
+			final Set<String> languageCodes) {
+		return filter(this.term2Descriptions.get(Description.getFoldedTerm(term)),
+				term,
+				namespaceId,
+				languageCodes);
+	}
+
+	private static List<Description> filter(final List<Description> descriptions,
+			final String exactTerm,
+			final String namespaceId,
+			final Set<String> languageCodes) {
+		if (descriptions == null) {
+			return Collections.emptyList();
+		} // else
+		List<Description> result = new ArrayList<>(descriptions.size());
+		for (Description description : descriptions) {
+			if ((exactTerm == null || exactTerm.equals(description.term))
+					&& (namespaceId == null || namespaceId.equals(description.getNamespaceId()))
+					&& (languageCodes.isEmpty() || languageCodes.contains(description.languageCode))) {
+				result.add(description);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<Description> getDescriptions(final long conceptId) {
+		List<Description> result = this.conceptId2Descriptions.get(conceptId);
+		return (result == null) ? Collections.<Description>emptyList() : Collections.unmodifiableList(result);
+	}
+}
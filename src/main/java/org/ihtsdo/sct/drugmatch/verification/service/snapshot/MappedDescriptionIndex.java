@@ -0,0 +1,284 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.model.Description;
+
+/**
+ * Memory mapped, read only, {@link DescriptionIndex} over a file written by {@link DescriptionIndexBuilder}.
+ * <p>
+ * Only the language & partition tables are read onto the heap, lookups binary search the mapped keys & concepts,
+ * ie. opening is near instant & the operating system pages in what is used.
+ * @author dev-team@carecom.dk
+ */
+public class MappedDescriptionIndex implements DescriptionIndex {
+
+	/**
+	 * Read only, accessed by absolute position only, ie. safe for concurrent readers.
+	 */
+	private final ByteBuffer buffer;
+
+	private final int descriptionCount,
+		conceptCount,
+		descriptionsOffset,
+		conceptsOffset,
+		stringPoolOffset;
+
+	private final String[] languageCodes;
+
+	private final Partition[] partitions;
+
+	/**
+	 * @param buffer
+	 * @throws IOException
+	 */
+	MappedDescriptionIndex(final ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.limit() < DescriptionIndexBuilder.HEADER_SIZE
+				|| buffer.getInt(0) != DescriptionIndexBuilder.MAGIC) {
+			throw new IOException("Not a description index");
+		} // else
+		int version = buffer.getInt(4);
+		if (version != DescriptionIndexBuilder.VERSION) {
+			throw new IOException("Unsupported description index version: " + version);
+		} // else
+		this.descriptionCount = buffer.getInt(8);
+		this.conceptCount = buffer.getInt(12);
+		int languageCount = buffer.getInt(16),
+				partitionCount = buffer.getInt(20);
+		this.descriptionsOffset = buffer.getInt(24);
+		this.conceptsOffset = buffer.getInt(28);
+		this.stringPoolOffset = buffer.getInt(32);
+		// languages
+		byte[] bytes = new byte[this.descriptionsOffset - DescriptionIndexBuilder.HEADER_SIZE];
+		ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position(DescriptionIndexBuilder.HEADER_SIZE);
+		duplicate.get(bytes);
+		this.languageCodes = new String[languageCount];
+		try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			for (int i = 0; i < languageCount; i++) {
+				this.languageCodes[i] = dis.readUTF();
+			}
+		}
+		// partitions
+		this.partitions = new Partition[partitionCount];
+		int position = this.descriptionsOffset - partitionCount * DescriptionIndexBuilder.PARTITION_SIZE;
+		for (int i = 0; i < partitionCount; i++) {
+			this.partitions[i] = new Partition(getString(this.stringPoolOffset + buffer.getInt(position),
+							buffer.getShort(position + 4)),
+					this.languageCodes[buffer.getShort(position + 6)],
+					buffer.getInt(position + 8),
+					buffer.getInt(position + 12),
+					buffer.getInt(position + 16),
+					buffer.getInt(position + 20));
+			position += DescriptionIndexBuilder.PARTITION_SIZE;
+		}
+	}
+
+	/**
+	 * @param file written by {@link DescriptionIndexBuilder}
+	 * @return {@link MappedDescriptionIndex}
+	 * @throws IOException
+	 */
+	public static MappedDescriptionIndex open(final File file) throws IOException {
+		// the mapping stays valid after the channel is closed
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return new MappedDescriptionIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * @return number of descriptions
+	 */
+	public final int size() {
+		return this.descriptionCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<Description> getDescriptions(final String term,
+			final String namespaceId,
+			final Set<String> languageCodes) {
+		return getDescriptions(Description.getFoldedTerm(term), false, namespaceId, languageCodes);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<Description> getExactDescriptions(final String term,
+			final String namespaceId,
+			final Set<String> languageCodes) {
+		return getDescriptions(term, true, namespaceId, languageCodes);
+	}
+
+	private List<Description> getDescriptions(final String key,
+			final boolean exact,
+			final String namespaceId,
+			final Set<String> languageCodes) {
+		byte[] bytes = key.getBytes(DescriptionIndexBuilder.UTF_8);
+		List<Description> result = null;
+		int keyPosition,
+			postingsOffset,
+			postingCount;
+		for (Partition partition : this.partitions) {
+			if ((namespaceId == null || namespaceId.equals(partition.namespaceId))
+					&& (languageCodes.isEmpty() || languageCodes.contains(partition.languageCode))) {
+				keyPosition = exact ? findKey(partition.exactKeysOffset, partition.exactKeyCount, bytes)
+						: findKey(partition.foldedKeysOffset, partition.foldedKeyCount, bytes);
+				if (keyPosition >= 0) {
+					postingsOffset = this.buffer.getInt(keyPosition + 8);
+					postingCount = this.buffer.getInt(keyPosition + 12);
+					if (result == null) {
+						result = new ArrayList<>(postingCount);
+					}
+					for (int i = 0; i < postingCount; i++) {
+						result.add(getDescription(this.buffer.getInt(postingsOffset + 4 * i)));
+					}
+				}
+			}
+		}
+		return (result == null) ? Collections.<Description>emptyList() : result;
+	}
+
+	/**
+	 * Binary search.
+	 * @param keysOffset
+	 * @param keyCount
+	 * @param key
+	 * @return position of the key entry, or -1 if not found.
+	 */
+	private int findKey(final int keysOffset,
+			final int keyCount,
+			final byte[] key) {
+		int low = 0,
+			high = keyCount - 1,
+			middle,
+			position,
+			diff;
+		while (low <= high) {
+			middle = (low + high) >>> 1;
+			position = keysOffset + middle * DescriptionIndexBuilder.KEY_SIZE;
+			diff = compare(this.stringPoolOffset + this.buffer.getInt(position),
+					this.buffer.getInt(position + 4),
+					key);
+			if (diff < 0) {
+				low = middle + 1;
+			} else if (diff > 0) {
+				high = middle - 1;
+			} else {
+				return position;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @see DescriptionIndexBuilder#KEY_COMPARATOR
+	 */
+	private int compare(final int offset,
+			final int length,
+			final byte[] key) {
+		int min = Math.min(length, key.length);
+		int diff;
+		for (int i = 0; i < min; i++) {
+			diff = (this.buffer.get(offset + i) & 0xFF) - (key[i] & 0xFF);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return length - key.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<Description> getDescriptions(final long conceptId) {
+		int low = 0,
+			high = this.conceptCount - 1,
+			middle,
+			position;
+		long id;
+		while (low <= high) {
+			middle = (low + high) >>> 1;
+			position = this.conceptsOffset + middle * DescriptionIndexBuilder.CONCEPT_SIZE;
+			id = this.buffer.getLong(position);
+			if (id < conceptId) {
+				low = middle + 1;
+			} else if (id > conceptId) {
+				high = middle - 1;
+			} else {
+				int first = this.buffer.getInt(position + 8),
+						count = this.buffer.getInt(position + 12);
+				List<Description> result = new ArrayList<>(count);
+				for (int i = first; i < first + count; i++) {
+					result.add(getDescription(i));
+				}
+				return result;
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * @param offset absolute
+	 * @param length
+	 * @return UTF-8 decoded {@link String}
+	 */
+	private String getString(final int offset,
+			final int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer duplicate = this.buffer.duplicate();
+		duplicate.position(offset);
+		duplicate.get(bytes);
+		return new String(bytes, DescriptionIndexBuilder.UTF_8);
+	}
+
+	private Description getDescription(final int index) {
+		int position = this.descriptionsOffset + index * DescriptionIndexBuilder.DESCRIPTION_SIZE;
+		return new Description(this.buffer.getLong(position),
+				this.buffer.getLong(position + 8),
+				this.languageCodes[this.buffer.getShort(position + 24)],
+				this.buffer.getShort(position + 26),
+				getString(this.stringPoolOffset + this.buffer.getInt(position + 16),
+						this.buffer.getInt(position + 20)));
+	}
+
+	/**
+	 * Key tables of one (namespace, language) partition.
+	 */
+	private static final class Partition {
+
+		private final String namespaceId,
+			languageCode;
+
+		private final int exactKeysOffset,
+			exactKeyCount,
+			foldedKeysOffset,
+			foldedKeyCount;
+
+		private Partition(final String namespaceId,
+				final String languageCode,
+				final int exactKeysOffset,
+				final int exactKeyCount,
+				final int foldedKeysOffset,
+				final int foldedKeyCount) {
+			this.namespaceId = namespaceId;
+			this.languageCode = languageCode;
+			this.exactKeysOffset = exactKeysOffset;
+			this.exactKeyCount = exactKeyCount;
+			this.foldedKeysOffset = foldedKeysOffset;
+			this.foldedKeyCount = foldedKeyCount;
+		}
+	}
+}
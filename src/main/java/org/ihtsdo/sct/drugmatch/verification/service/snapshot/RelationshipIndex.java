@@ -0,0 +1,407 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable in-memory index of active (inferred) relationships, ie. "Is a" hierarchy & attribute relationships.
+ * <p>
+ * Attribute relationships are inverted, (type ID, destination Concept ID) to sorted source Concept IDs in primitive arrays,
+ * so {@link #getExactAttributeMatches(Set, Set)} is a posting list intersection plus an arity check.
+ * @author dev-team@carecom.dk
+ */
+public class RelationshipIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(RelationshipIndex.class);
+
+	private static final long IS_A_ID = Long.parseLong(ReleaseFormat2.RELATIONSHIP_TYPE_IS_A_ID);
+
+	private static final long[] EMPTY = new long[0];
+
+	private static final Comparator<long[]> LENGTH_COMPARATOR = new Comparator<long[]>() {
+
+		public int compare(final long[] o1,
+				final long[] o2) {
+			return Integer.compare(o1.length, o2.length);
+		}
+	};
+
+	/**
+	 * {@link Map}(parent Concept ID, child Concept IDs).
+	 */
+	private final Map<Long, long[]> parentId2ChildIds;
+
+	/**
+	 * {@link Map}(source Concept ID, sorted (type ID, destination Concept ID) pairs, ie. [type, destination, type, destination, ...]).
+	 */
+	private final Map<Long, long[]> sourceId2Attributes;
+
+	/**
+	 * {@link Map}(type ID, {@link Map}(destination Concept ID, sorted source Concept IDs)).
+	 */
+	private final Map<Long, Map<Long, long[]>> typeId2DestinationId2SourceIds;
+
+	/**
+	 * {@link Map}(top point Concept ID, {@link Set}(descendant or self Concept ID)), computed on demand.
+	 */
+	private final ConcurrentMap<Long, Set<Long>> descendantOrSelfIds = new ConcurrentHashMap<>();
+
+	/**
+	 * Use {@link #load(File)} or {@link Builder}.
+	 * @param builder
+	 */
+	private RelationshipIndex(final Builder builder) {
+		this.parentId2ChildIds = toArrays(builder.parentId2ChildIds);
+		this.sourceId2Attributes = new HashMap<>(builder.sourceId2Attributes.size());
+		long[] attributes;
+		for (Map.Entry<Long, LongList> entry : builder.sourceId2Attributes.entrySet()) {
+			attributes = entry.getValue().toArray();
+			this.sourceId2Attributes.put(entry.getKey(), sortPairs(attributes));
+		}
+		this.typeId2DestinationId2SourceIds = new HashMap<>(builder.typeId2DestinationId2SourceIds.size());
+		for (Map.Entry<Long, Map<Long, LongList>> entry : builder.typeId2DestinationId2SourceIds.entrySet()) {
+			this.typeId2DestinationId2SourceIds.put(entry.getKey(), toArrays(entry.getValue()));
+		}
+	}
+
+	/**
+	 * Load active relationships from the RF2 (inferred) snapshot(s) below the given directory.
+	 * @param directory
+	 * @return {@link RelationshipIndex}
+	 * @throws IOException
+	 */
+	public static RelationshipIndex load(final File directory) throws IOException {
+		final Builder builder = new Builder();
+		long rows = Rf2Files.read(directory, Rf2Files.RELATIONSHIP_SNAPSHOT_PREFIX, new Rf2Files.RowHandler() {
+
+			public void handle(final String[] columns) {
+				if (Rf2Files.isActive(columns)) {
+					builder.add(Long.parseLong(columns[4]),
+							Long.parseLong(columns[7]),
+							Long.parseLong(columns[5]));
+				}
+			}
+		});
+		log.debug("Read {} relationships", String.valueOf(rows));
+		return builder.build();
+	}
+
+	/**
+	 * @param map
+	 * @return sorted, de-duplicated arrays.
+	 */
+	private static Map<Long, long[]> toArrays(final Map<Long, LongList> map) {
+		Map<Long, long[]> result = new HashMap<>(map.size());
+		for (Map.Entry<Long, LongList> entry : map.entrySet()) {
+			result.put(entry.getKey(), unique(entry.getValue().toArray()));
+		}
+		return result;
+	}
+
+	/**
+	 * @param values
+	 * @return sorted, de-duplicated values.
+	 */
+	private static long[] unique(final long[] values) {
+		Arrays.sort(values);
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (size == 0
+					|| values[size - 1] != values[i]) {
+				values[size++] = values[i];
+			}
+		}
+		return (size == values.length) ? values : Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * @param pairs [type, destination, ...]
+	 * @return pairs sorted by type then destination, de-duplicated.
+	 */
+	private static long[] sortPairs(final long[] pairs) {
+		long[][] sorted = new long[pairs.length / 2][];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = new long[] {pairs[2 * i], pairs[2 * i + 1]};
+		}
+		Arrays.sort(sorted, new Comparator<long[]>() {
+
+			public int compare(final long[] o1,
+					final long[] o2) {
+				int result = Long.compare(o1[0], o2[0]);
+				return (result == 0) ? Long.compare(o1[1], o2[1]) : result;
+			}
+		});
+		long[] result = new long[pairs.length];
+		int size = 0;
+		for (long[] pair : sorted) {
+			if (size == 0
+					|| result[size - 2] != pair[0]
+					|| result[size - 1] != pair[1]) {
+				result[size++] = pair[0];
+				result[size++] = pair[1];
+			}
+		}
+		return (size == result.length) ? result : Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * @param conceptId top point
+	 * @return {@link Set}(Concept ID) of the given concept & all its "Is a" descendants.
+	 */
+	public final Set<Long> getDescendantOrSelfIds(final long conceptId) {
+		Set<Long> result = this.descendantOrSelfIds.get(conceptId);
+		if (result == null) {
+			result = new HashSet<>();
+			Deque<Long> queue = new ArrayDeque<>();
+			queue.add(conceptId);
+			Long id;
+			long[] childIds;
+			while ((id = queue.poll()) != null) {
+				if (result.add(id)) {
+					childIds = this.parentId2ChildIds.get(id);
+					if (childIds != null) {
+						for (long childId : childIds) {
+							queue.add(childId);
+						}
+					}
+				}
+			}
+			result = Collections.unmodifiableSet(result);
+			this.descendantOrSelfIds.putIfAbsent(conceptId, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @param typeIds attribute (relationship type) IDs
+	 * @param destinationIds value IDs
+	 * @return {@link SortedSet}(source Concept ID) having exactly the given values for the given attributes.
+	 */
+	public final SortedSet<Long> getExactAttributeMatches(final Set<Long> typeIds,
+			final Set<Long> destinationIds) {
+		SortedSet<Long> result = new TreeSet<>();
+		if (typeIds.isEmpty()
+				|| destinationIds.isEmpty()) {
+			return result;
+		} // else
+		long[] types = toSortedArray(typeIds),
+				destinations = toSortedArray(destinationIds);
+		// posting list per value, ie. sources having the value for any of the given attributes
+		long[][] postings = new long[destinations.length][];
+		for (int i = 0; i < destinations.length; i++) {
+			postings[i] = getSourceIds(types, destinations[i]);
+			if (postings[i].length == 0) {
+				return result;
+			}
+		}
+		// candidates, ie. sources having all values, intersecting the shortest lists first
+		Arrays.sort(postings, LENGTH_COMPARATOR);
+		long[] candidates = postings[0];
+		for (int i = 1; i < postings.length
+				&& candidates.length > 0; i++) {
+			candidates = intersect(candidates, postings[i]);
+		}
+		// arity, ie. no other values for the given attributes
+		for (long candidate : candidates) {
+			if (isExact(this.sourceId2Attributes.get(candidate), types, destinations)) {
+				result.add(candidate);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param types sorted
+	 * @param destinationId
+	 * @return sorted source Concept IDs having the destination for any of the given types.
+	 */
+	private long[] getSourceIds(final long[] types,
+			final long destinationId) {
+		long[] result = EMPTY,
+			sourceIds;
+		Map<Long, long[]> destinationId2SourceIds;
+		for (long typeId : types) {
+			destinationId2SourceIds = this.typeId2DestinationId2SourceIds.get(typeId);
+			if (destinationId2SourceIds != null) {
+				sourceIds = destinationId2SourceIds.get(destinationId);
+				if (sourceIds != null) {
+					result = (result.length == 0) ? sourceIds : union(result, sourceIds);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param attributes sorted (type, destination) pairs
+	 * @param types sorted
+	 * @param destinations sorted
+	 * @return true if every attribute of the given types has one of the given destinations.
+	 */
+	private static boolean isExact(final long[] attributes,
+			final long[] types,
+			final long[] destinations) {
+		for (int i = 0; i < attributes.length; i += 2) {
+			if (Arrays.binarySearch(types, attributes[i]) >= 0
+					&& Arrays.binarySearch(destinations, attributes[i + 1]) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long[] toSortedArray(final Set<Long> ids) {
+		long[] result = new long[ids.size()];
+		int i = 0;
+		for (Long id : ids) {
+			result[i++] = id.longValue();
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * @param a sorted
+	 * @param b sorted
+	 * @return sorted values present in both.
+	 */
+	static long[] intersect(final long[] a,
+			final long[] b) {
+		long[] result = new long[Math.min(a.length, b.length)];
+		int i = 0,
+			j = 0,
+			size = 0;
+		while (i < a.length
+				&& j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[size++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return (size == result.length) ? result : Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * @param a sorted
+	 * @param b sorted
+	 * @return sorted, de-duplicated values present in either.
+	 */
+	static long[] union(final long[] a,
+			final long[] b) {
+		long[] result = new long[a.length + b.length];
+		int i = 0,
+			j = 0,
+			size = 0;
+		while (i < a.length
+				|| j < b.length) {
+			if (j == b.length
+					|| (i < a.length && a[i] < b[j])) {
+				result[size++] = a[i++];
+			} else if (i == a.length
+					|| b[j] < a[i]) {
+				result[size++] = b[j++];
+			} else {
+				result[size++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return (size == result.length) ? result : Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Mutable collector of relationships, see {@link #build()}.
+	 */
+	static final class Builder {
+
+		private final Map<Long, LongList> parentId2ChildIds = new HashMap<>(),
+			sourceId2Attributes = new HashMap<>();
+
+		private final Map<Long, Map<Long, LongList>> typeId2DestinationId2SourceIds = new HashMap<>();
+
+		/**
+		 * @param sourceId
+		 * @param typeId
+		 * @param destinationId
+		 * @return this {@link Builder}
+		 */
+		Builder add(final long sourceId,
+				final long typeId,
+				final long destinationId) {
+			if (typeId == IS_A_ID) {
+				getList(this.parentId2ChildIds, destinationId).add(sourceId);
+				return this;
+			} // else
+			LongList attributes = getList(this.sourceId2Attributes, sourceId);
+			attributes.add(typeId);
+			attributes.add(destinationId);
+			Map<Long, LongList> destinationId2SourceIds = this.typeId2DestinationId2SourceIds.get(typeId);
+			if (destinationId2SourceIds == null) {
+				destinationId2SourceIds = new HashMap<>();
+				this.typeId2DestinationId2SourceIds.put(typeId, destinationId2SourceIds);
+			}
+			getList(destinationId2SourceIds, destinationId).add(sourceId);
+			return this;
+		}
+
+		private static LongList getList(final Map<Long, LongList> map,
+				final long key) {
+			LongList result = map.get(key);
+			if (result == null) {
+				result = new LongList();
+				map.put(key, result);
+			}
+			return result;
+		}
+
+		/**
+		 * @return {@link RelationshipIndex}
+		 */
+		RelationshipIndex build() {
+			return new RelationshipIndex(this);
+		}
+	}
+
+	/**
+	 * Growable primitive long array.
+	 */
+	private static final class LongList {
+
+		private long[] values = new long[2];
+
+		private int size;
+
+		private void add(final long value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+
+		private long[] toArray() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.codec.CharEncoding;
+import org.apache.commons.lang3.StringUtils;
+import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Locate & read RF2 snapshot files, ex. an International release and a national extension below one directory.
+ * @author dev-team@carecom.dk
+ */
+public final class Rf2Files {
+
+	private static final Logger log = LoggerFactory.getLogger(Rf2Files.class);
+
+	public static final String CONCEPT_SNAPSHOT_PREFIX = "sct2_Concept_Snapshot",
+			DESCRIPTION_SNAPSHOT_PREFIX = "sct2_Description_Snapshot",
+			LANGUAGE_REFERENCE_SET_SNAPSHOT_PREFIX = "der2_cRefset_LanguageSnapshot",
+			RELATIONSHIP_SNAPSHOT_PREFIX = "sct2_Relationship_Snapshot";
+
+	/**
+	 * DON'T INSTANTIATE A STATIC HELPER!
+	 */
+	private Rf2Files() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param directory searched recursively
+	 * @param prefix file name prefix, ex. {@link #CONCEPT_SNAPSHOT_PREFIX}
+	 * @return sorted {@link List}({@link File}), ie. stable load order.
+	 */
+	public static List<File> find(final File directory,
+			final String prefix) {
+		List<File> result = new ArrayList<>();
+		find(directory, prefix, result);
+		Collections.sort(result);
+		return result;
+	}
+
+	private static void find(final File directory,
+			final String prefix,
+			final List<File> result) {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		} // else
+		for (File file : files) {
+			if (file.isDirectory()) {
+				find(file, prefix, result);
+			} else if (file.getName().startsWith(prefix)
+					&& file.getName().endsWith(".txt")) {
+				result.add(file);
+			}
+		}
+	}
+
+	/**
+	 * Read all matching files, skipping the header line.
+	 * @param directory
+	 * @param prefix
+	 * @param handler
+	 * @return number of rows read.
+	 * @throws IOException
+	 */
+	public static long read(final File directory,
+			final String prefix,
+			final RowHandler handler) throws IOException {
+		long rows = 0;
+		for (File file : find(directory, prefix)) {
+			log.debug("Reading {}", file);
+			try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+					CharEncoding.UTF_8))) {
+				String line = br.readLine(); // header
+				while ((line = br.readLine()) != null) {
+					if (!line.isEmpty()) {
+						handler.handle(StringUtils.splitPreserveAllTokens(line, ReleaseFormat2.FILE_CONTENT_SEPARATOR_CHARACTER));
+						rows++;
+					}
+				}
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * @param columns
+	 * @return true if the "active" column (index 2, common to all RF2 files) is {@link ReleaseFormat2#STATUS_ACTIVE_ID}.
+	 */
+	public static boolean isActive(final String[] columns) {
+		return ReleaseFormat2.STATUS_ACTIVE_ID.equals(columns[2]);
+	}
+
+	/**
+	 * Callback per RF2 row.
+	 */
+	public interface RowHandler {
+
+		/**
+		 * @param columns tab separated values
+		 * @throws IOException
+		 */
+		void handle(String[] columns) throws IOException;
+	}
+}
@@ -0,0 +1,329 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ihtsdo.sct.drugmatch.constant.rf1.DescriptionType;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.DescriptionDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.DescriptionIndex;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.DescriptionIndexBuilder;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.HeapDescriptionIndex;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.MappedDescriptionIndex;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.RelationshipIndex;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.model.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Offline implementation of {@link VerificationService}, answering from a local SNOMED CT RF2 snapshot, ie. no HealthTerm round-trips.
+ * <p>
+ * Mirrors the HealthTerm semantics: term searches are case insensitive, national searches are restricted to the national namespace & English searches to English locale codes.
+ * @author dev-team@carecom.dk
+ */
+public class SnapshotVerificationServiceImpl implements VerificationService {
+
+	private static final Logger log = LoggerFactory.getLogger(SnapshotVerificationServiceImpl.class);
+
+	private static final Set<String> ENGLISH_LOCALE_CODES = new TreeSet<>(Arrays.asList(new String[] {"en", "en-GB", "en-US"}));
+
+	private final DescriptionIndex descriptionIndex;
+
+	private final RelationshipIndex relationshipIndex;
+
+	private final DrugMatchSettings settings;
+
+	/**
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 * @see #SnapshotVerificationServiceImpl(DrugMatchSettings)
+	 */
+	public SnapshotVerificationServiceImpl() throws DrugMatchConfigurationException, IOException {
+		this(DrugMatchProperties.getSettings());
+	}
+
+	/**
+	 * Load the snapshot from {@link DrugMatchSettings#getVerificationSnapshotDirectory()},
+	 * memory mapping the descriptions from {@link DrugMatchSettings#getVerificationSnapshotIndexFile()} if set.
+	 * @param settings
+	 * @throws DrugMatchConfigurationException
+	 * @throws IOException
+	 */
+	public SnapshotVerificationServiceImpl(final DrugMatchSettings settings) throws DrugMatchConfigurationException, IOException {
+		this.settings = settings;
+		File directory = this.settings.getVerificationSnapshotDirectory();
+		if (directory == null) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.VERIFICATION_SNAPSHOT_DIR + "' isn't set!");
+		} // else
+		if (!directory.isDirectory()) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.VERIFICATION_SNAPSHOT_DIR + "'='" + directory + "' isn't a directory");
+		} // else
+		long start = System.currentTimeMillis();
+		log.info("Loading RF2 snapshot: {}", directory);
+		this.descriptionIndex = getDescriptionIndex(directory, this.settings.getVerificationSnapshotIndexFile());
+		this.relationshipIndex = RelationshipIndex.load(directory);
+		log.info("Loaded RF2 snapshot in {} ms", String.valueOf(System.currentTimeMillis() - start));
+	}
+
+	/**
+	 * @param directory RF2 snapshot
+	 * @param indexFile or null
+	 * @return {@link MappedDescriptionIndex} if an index file is given, (re)built if needed, otherwise {@link HeapDescriptionIndex}.
+	 * @throws IOException
+	 */
+	private static DescriptionIndex getDescriptionIndex(final File directory,
+			final File indexFile) throws IOException {
+		if (indexFile == null) {
+			return HeapDescriptionIndex.load(directory);
+		} // else
+		if (!DescriptionIndexBuilder.isUpToDate(directory, indexFile)) {
+			log.info("Building description index: {}", indexFile);
+			DescriptionIndexBuilder.build(directory, indexFile);
+		}
+		log.info("Mapping description index: {}", indexFile);
+		return MappedDescriptionIndex.open(indexFile);
+	}
+
+	/**
+	 * @param descriptionIndex
+	 * @param relationshipIndex
+	 * @param settings
+	 */
+	public SnapshotVerificationServiceImpl(final DescriptionIndex descriptionIndex,
+			final RelationshipIndex relationshipIndex,
+			final DrugMatchSettings settings) {
+		this.descriptionIndex = descriptionIndex;
+		this.relationshipIndex = relationshipIndex;
+		this.settings = settings;
+	}
+
+	/**
+	 * Nothing to release, the indexes (& any mapping) are garbage collected with the instance.
+	 */
+	public void close() {
+		// empty on purpose
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptSearchResultDescriptor> getAttributeExactMatch(final Set<Long> attributeIds,
+			final Set<Long> valueIds) {
+		List<ConceptSearchResultDescriptor> result = new ArrayList<>();
+		Description description;
+		for (Long conceptId : this.relationshipIndex.getExactAttributeMatches(attributeIds, valueIds)) {
+			description = getPreferredDescription(conceptId);
+			if (description != null) {
+				result.add(getConceptSearchResultDescriptor(description));
+			}
+		}
+		log.debug("Attribute match returned: {} result(s).", result.size());
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptDescriptor> getConceptsByIds(final Set<Long> conceptIds) {
+		List<ConceptDescriptor> result = new ArrayList<>(conceptIds.size());
+		List<Description> descriptions;
+		ConceptDescriptor conceptDescriptor;
+		for (Long conceptId : conceptIds) {
+			descriptions = this.descriptionIndex.getDescriptions(conceptId.longValue());
+			if (descriptions.isEmpty()) {
+				log.debug("Unknown or inactive concept: {}", conceptId);
+			} else {
+				conceptDescriptor = new ConceptDescriptor();
+				conceptDescriptor.id = conceptId;
+				conceptDescriptor.descriptionDescriptor = new ArrayList<>(descriptions.size());
+				for (Description description : descriptions) {
+					if (DescriptionType.FULLY_SPECIFIED_NAME.getId() == description.type) {
+						conceptDescriptor.hierarchy = getSemanticTag(description.term);
+					}
+					conceptDescriptor.descriptionDescriptor.add(getDescriptionDescriptor(description));
+				}
+				result.add(conceptDescriptor);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * No Concept presentation is available offline.
+	 * @return sorted, space separated Concept IDs.
+	 */
+	public final String getConceptsByIdsUrl(final Set<Long> conceptIds) {
+		return StringUtils.join(new TreeSet<>(conceptIds), ' ');
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptSearchResultDescriptor> getDoseFormExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException {
+		return getExactTermMatch(getConstraintId(this.settings.getConstraintIdDoseForm(), DrugMatchProperties.CONSTRAINT_ID_DOSE_FORM),
+				null,
+				ENGLISH_LOCALE_CODES,
+				query);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptSearchResultDescriptor> getDoseFormExactNationalTermMatch(final String query) throws DrugMatchConfigurationException {
+		return getExactTermMatch(getConstraintId(this.settings.getConstraintIdDoseForm(), DrugMatchProperties.CONSTRAINT_ID_DOSE_FORM),
+				getNationalNamespaceId(),
+				Collections.<String>emptySet(),
+				query);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptSearchResultDescriptor> getSubstanceExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException {
+		return getExactTermMatch(getConstraintId(this.settings.getConstraintIdSubstance(), DrugMatchProperties.CONSTRAINT_ID_SUBSTANCE),
+				null,
+				ENGLISH_LOCALE_CODES,
+				query);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptSearchResultDescriptor> getSubstanceExactNationalTermMatch(final String query) throws DrugMatchConfigurationException {
+		return getExactTermMatch(getConstraintId(this.settings.getConstraintIdSubstance(), DrugMatchProperties.CONSTRAINT_ID_SUBSTANCE),
+				getNationalNamespaceId(),
+				Collections.<String>emptySet(),
+				query);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptSearchResultDescriptor> getUnitExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException {
+		return getExactTermMatch(getConstraintId(this.settings.getConstraintIdUnit(), DrugMatchProperties.CONSTRAINT_ID_UNIT),
+				null,
+				ENGLISH_LOCALE_CODES,
+				query);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final List<ConceptSearchResultDescriptor> getUnitExactNationalTermMatch(final String query) throws DrugMatchConfigurationException {
+		return getExactTermMatch(getConstraintId(this.settings.getConstraintIdUnit(), DrugMatchProperties.CONSTRAINT_ID_UNIT),
+				getNationalNamespaceId(),
+				Collections.<String>emptySet(),
+				query);
+	}
+
+	/**
+	 * Common logic for exact term match.
+	 * @param constraintId top point
+	 * @param namespaceId or null for any namespace
+	 * @param localeCodes or empty for any locale
+	 * @param query
+	 * @return {@link List}({@link ConceptSearchResultDescriptor})
+	 */
+	private List<ConceptSearchResultDescriptor> getExactTermMatch(final long constraintId,
+			final String namespaceId,
+			final Set<String> localeCodes,
+			final String query) {
+		List<ConceptSearchResultDescriptor> result = new ArrayList<>();
+		if (query == null) {
+			return result;
+		} // else
+		Set<Long> constraintIds = this.relationshipIndex.getDescendantOrSelfIds(constraintId);
+		for (Description description : this.descriptionIndex.getDescriptions(query, namespaceId, localeCodes)) {
+			if (constraintIds.contains(description.conceptId)) {
+				result.add(getConceptSearchResultDescriptor(description));
+			}
+		}
+		log.debug("Exact term match: '{}' returned: {} result(s).", query, result.size());
+		return result;
+	}
+
+	/**
+	 * @param conceptId
+	 * @return English preferred term, otherwise fully specified name, otherwise any description, or null if unknown.
+	 */
+	private Description getPreferredDescription(final long conceptId) {
+		Description fullySpecifiedName = null,
+			any = null;
+		for (Description description : this.descriptionIndex.getDescriptions(conceptId)) {
+			if (ENGLISH_LOCALE_CODES.contains(description.languageCode)) {
+				if (DescriptionType.PREFERRED_TERM.getId() == description.type) {
+					return description;
+				} // else
+				if (DescriptionType.FULLY_SPECIFIED_NAME.getId() == description.type) {
+					fullySpecifiedName = description;
+				}
+			}
+			if (any == null) {
+				any = description;
+			}
+		}
+		return (fullySpecifiedName == null) ? any : fullySpecifiedName;
+	}
+
+	private static long getConstraintId(final Long constraintId,
+			final String propertyName) throws DrugMatchConfigurationException {
+		if (constraintId == null) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + propertyName + "' isn't set!");
+		} // else
+		return constraintId.longValue();
+	}
+
+	private String getNationalNamespaceId() throws DrugMatchConfigurationException {
+		String nationalNamespaceId = this.settings.getNationalNamespaceId();
+		if (nationalNamespaceId == null) {
+			throw new DrugMatchConfigurationException("Unable to proceed, cause: '" + DrugMatchProperties.EXTENSION_NAMESPACE_ID + "' isn't set!");
+		} // else
+		return nationalNamespaceId;
+	}
+
+	private static ConceptSearchResultDescriptor getConceptSearchResultDescriptor(final Description description) {
+		ConceptSearchResultDescriptor result = new ConceptSearchResultDescriptor();
+		result.conceptCode = String.valueOf(description.conceptId);
+		result.descriptionTerm = description.term;
+		result.descriptionType = Long.valueOf(description.type);
+		result.healthtermConceptId = Long.valueOf(description.conceptId);
+		result.healthtermDescriptionId = Long.valueOf(description.id);
+		return result;
+	}
+
+	private static DescriptionDescriptor getDescriptionDescriptor(final Description description) {
+		DescriptionDescriptor result = new DescriptionDescriptor();
+		result.conceptId = Long.valueOf(description.conceptId);
+		result.descriptionId = Long.valueOf(description.id);
+		result.descriptionLocale = description.languageCode;
+		result.descriptionTerm = description.term;
+		result.descriptionType = Long.valueOf(description.type);
+		return result;
+	}
+
+	/**
+	 * @param fullySpecifiedName
+	 * @return semantic tag, ex. "product", or null if missing.
+	 */
+	static String getSemanticTag(final String fullySpecifiedName) {
+		int start = fullySpecifiedName.lastIndexOf('(');
+		int end = fullySpecifiedName.lastIndexOf(')');
+		if (start < 0
+				|| end < start) {
+			return null;
+		} // else
+		return fullySpecifiedName.substring(start + 1, end);
+	}
+}
@@ -0,0 +1,95 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot.model;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+import org.ihtsdo.sct.drugmatch.constant.rf1.DescriptionType;
+import org.ihtsdo.sct.drugmatch.util.ComponentIdHelper;
+
+/**
+ * Active RF2 description, of an active concept.
+ * @author dev-team@carecom.dk
+ */
+public class Description implements Serializable {
+
+	public final long id,
+		conceptId;
+
+	/**
+	 * ISO 639-1, ex. "en".
+	 */
+	public final String languageCode;
+
+	/**
+	 * {@link DescriptionType#getId()}, ie. the preferred synonym is {@link DescriptionType#PREFERRED_TERM}.
+	 */
+	public final int type;
+
+	public final String term;
+
+	/**
+	 * @param id
+	 * @param conceptId
+	 * @param languageCode
+	 * @param type
+	 * @param term
+	 */
+	public Description(final long id,
+			final long conceptId,
+			final String languageCode,
+			final int type,
+			final String term) {
+		this.id = id;
+		this.conceptId = conceptId;
+		this.languageCode = languageCode;
+		this.type = type;
+		this.term = term;
+	}
+
+	/**
+	 * @param term
+	 * @return case-folded term, ie. the case insensitive lookup key.
+	 */
+	public static String getFoldedTerm(final String term) {
+		return term.toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * @return namespace ID
+	 * @see {@link ComponentIdHelper#getNamespaceId(String)}
+	 */
+	public final String getNamespaceId() {
+		return ComponentIdHelper.getNamespaceId(String.valueOf(this.id));
+	}
+
+	@Override
+	public final boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		return this.id == ((Description) obj).id;
+	}
+
+	@Override
+	public final int hashCode() {
+		return (int) (this.id ^ (this.id >>> 32));
+	}
+
+	@Override
+	public final String toString() {
+		return new StringBuilder(Description.class.getSimpleName())
+			.append(" [id=").append(this.id)
+			.append(", conceptId=").append(this.conceptId)
+			.append(", languageCode=").append(this.languageCode)
+			.append(", type=").append(this.type)
+			.append(", term=").append(this.term)
+			.append(']')
+			.toString();
+	}
+}
@@ -1,12 +1,24 @@
 package org.ihtsdo.sct.drugmatch.check;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import org.ihtsdo.sct.drugmatch.SystemEnvironmentTestSetup;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
+import org.ihtsdo.sct.drugmatch.model.Component;
+import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+import org.ihtsdo.sct.drugmatch.parser.Parser;
+import org.ihtsdo.sct.drugmatch.parser.PharmaceuticalHandler;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
 import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.impl.SnapshotVerificationServiceImpl;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -15,6 +27,80 @@ import org.junit.Test;
  */
 public class CheckTest extends SystemEnvironmentTestSetup {
 
+	/**
+	 * Streams azathioprine pharmaceuticals, ie. every term is known by the RF2 test snapshot (strict mode), & counts the streamed parses.
+	 */
+	private static final class CountingParser implements Parser {
+
+		private final List<Pharmaceutical> pharmaceuticals = new ArrayList<>();
+
+		private int streamed = 0;
+
+		private CountingParser() {
+			int drugId = 0;
+			for (String strength : new String[] {"10", "25", "50"}) {
+				for (String tradeName : new String[] {"Imuran", "Azamun"}) {
+					this.pharmaceuticals.add(new Pharmaceutical(Collections.singletonList(new Component("Azathioprine",
+									"azathioprin",
+									strength,
+									"mg")),
+							"Oral tablet",
+							"oral tablet",
+							String.valueOf(++drugId),
+							tradeName));
+				}
+			}
+		}
+
+		public List<Pharmaceutical> parse() {
+			throw new UnsupportedOperationException();
+		}
+
+		public void parse(final int batchSize,
+				final PharmaceuticalHandler handler) throws DrugMatchConfigurationException, IOException {
+			this.streamed++;
+			for (int i = 0; i < this.pharmaceuticals.size(); i += batchSize) {
+				handler.handle(new ArrayList<>(this.pharmaceuticals.subList(i, Math.min(i + batchSize, this.pharmaceuticals.size()))));
+			}
+		}
+	}
+
+	/**
+	 * @return {@link DrugMatchSettings} of the test setting file.
+	 * @throws DrugMatchConfigurationException
+	 */
+	private static DrugMatchSettings getSettings() throws DrugMatchConfigurationException {
+		return DrugMatchSettings.load(new File(System.getProperty(DrugMatchProperties.SETTING_FILE)));
+	}
+
+	@Test
+	public final void executeStreamed() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		String isoNow = "2014-01-31 12.00.00";
+		DrugMatchSettings settings = getSettings();
+		CountingParser parser = new CountingParser();
+		try (SnapshotVerificationServiceImpl service = new SnapshotVerificationServiceImpl(settings)) {
+			new Check(parser,
+					isoNow,
+					service,
+					settings).execute();
+		}
+		// once up front & once for all reports
+		Assert.assertEquals(2,
+				parser.streamed);
+		int reports = 0;
+		for (String fileName : settings.getReportDirectory().list()) {
+			if (fileName.startsWith("check_")
+					&& fileName.contains(isoNow)) {
+				reports++;
+			}
+		}
+		Assert.assertEquals(5,
+				reports);
+		// header & a line per pharmaceutical
+		Assert.assertEquals(1 + parser.pharmaceuticals.size(),
+				Files.readAllLines(new File(settings.getReportDirectory(), "check_dose_form_english_" + isoNow + ".csv").toPath(), StandardCharsets.UTF_8).size());
+	}
+
 	@Test
 	public final void getMatchDescriptors() {
 		// null
@@ -41,7 +127,7 @@ public class CheckTest extends SystemEnvironmentTestSetup {
 	@Test
 	public final void getOutputFileContentSeparator() throws DrugMatchConfigurationException {
 		Assert.assertEquals(';',
-				Check.getOutputFileContentSeparator());
+				Check.getOutputFileContentSeparator(getSettings()));
 	}
 
 	@Test
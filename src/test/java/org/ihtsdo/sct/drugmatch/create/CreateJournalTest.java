@@ -0,0 +1,107 @@
+package org.ihtsdo.sct.drugmatch.create;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.codec.CharEncoding;
+import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class CreateJournalTest {
+
+	private static final String ISO_NOW = "2014-06-16 12.00.00",
+		NAMESPACE_ID = "1000005";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public final void resume() throws DrugMatchConfigurationException, IOException {
+		CreateJournal journal = CreateJournal.start(this.folder.getRoot(),
+				ISO_NOW,
+				NAMESPACE_ID);
+		journal.getIdentifierStore().putAll(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID,
+				Collections.singletonMap("d1", "1001"));
+		journal.addPlaceHolderConcept("100");
+		journal.addGenericConcept("g1", "200");
+		journal.addPharmaceutical("1", "300", 10);
+		Map<String, Long> fileName2Length = new LinkedHashMap<>();
+		fileName2Length.put("sct2_Concept.txt", Long.valueOf(42L));
+		journal.commit(fileName2Length);
+		// uncommitted
+		journal.addPharmaceutical("2", "400", 10);
+
+		journal = CreateJournal.resume(this.folder.getRoot(),
+				NAMESPACE_ID);
+		Assert.assertEquals(ISO_NOW,
+				journal.getIsoNow());
+		Assert.assertEquals("100",
+				journal.getPlaceHolderConceptId());
+		Assert.assertEquals("200",
+				journal.getGenericConceptId("g1"));
+		Assert.assertEquals("300",
+				journal.getConceptId("1"));
+		Assert.assertNull(journal.getConceptId("2"));
+		Assert.assertEquals(fileName2Length,
+				journal.getFileLengths());
+		Assert.assertEquals("1001",
+				journal.getIdentifierStore().get(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, "d1"));
+
+		// new run
+		journal = CreateJournal.start(this.folder.getRoot(),
+				"2014-06-17 12.00.00",
+				NAMESPACE_ID);
+		Assert.assertNull(journal.getConceptId("1"));
+		Assert.assertNull(journal.getIdentifierStore().get(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, "d1"));
+	}
+
+	@Test
+	public final void resumeIncompleteRecord() throws DrugMatchConfigurationException, IOException {
+		CreateJournal journal = CreateJournal.start(this.folder.getRoot(),
+				ISO_NOW,
+				NAMESPACE_ID);
+		journal.addPharmaceutical("1", "300", 10);
+		journal.commit(Collections.singletonMap("sct2_Concept.txt", Long.valueOf(42L)));
+		File file = new File(this.folder.getRoot(), CreateJournal.FILE_NAME);
+		long committedLength = file.length();
+		try (FileOutputStream fos = new FileOutputStream(file, true)) {
+			fos.write("DRUG\t2\t400\t10\nFILE\tsct2_Concept.txt\t8".getBytes(CharEncoding.UTF_8)); // crash while committing
+		}
+		journal = CreateJournal.resume(this.folder.getRoot(),
+				NAMESPACE_ID);
+		Assert.assertEquals("300",
+				journal.getConceptId("1"));
+		Assert.assertNull(journal.getConceptId("2"));
+		Assert.assertEquals(Long.valueOf(42L),
+				journal.getFileLengths().get("sct2_Concept.txt"));
+		// incomplete record discarded
+		Assert.assertEquals(committedLength,
+				file.length());
+		// committed after the discarded record
+		journal.addPharmaceutical("2", "400", 10);
+		journal.commit(Collections.singletonMap("sct2_Concept.txt", Long.valueOf(84L)));
+		journal = CreateJournal.resume(this.folder.getRoot(),
+				NAMESPACE_ID);
+		Assert.assertEquals("400",
+				journal.getConceptId("2"));
+		Assert.assertEquals(Long.valueOf(84L),
+				journal.getFileLengths().get("sct2_Concept.txt"));
+	}
+
+	@Test(expected = DrugMatchConfigurationException.class)
+	public final void resumeWithoutJournal() throws DrugMatchConfigurationException, IOException {
+		CreateJournal.resume(this.folder.getRoot(),
+				NAMESPACE_ID);
+	}
+}
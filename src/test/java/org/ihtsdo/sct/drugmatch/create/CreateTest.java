@@ -0,0 +1,362 @@
+package org.ihtsdo.sct.drugmatch.create;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.ihtsdo.sct.drugmatch.SystemEnvironmentTestSetup;
+import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
+import org.ihtsdo.sct.drugmatch.id.service.IdService;
+import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+import org.ihtsdo.sct.drugmatch.parser.impl.CSVParser;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.impl.SnapshotVerificationServiceImpl;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class CreateTest extends SystemEnvironmentTestSetup {
+
+	private static final String ISO_NOW = "2014-01-31 12.00.00";
+
+	/**
+	 * Azathioprine oral tablets, 2 trade names share a generic missing from the RF2 test snapshot.
+	 */
+	private static final String SHARED_GENERIC_INPUT_FILE = "src/test/resource/drugmatch_input_shared_generic.csv";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Deterministic {@link IdService}, identifiers are derived from the component UUID, ie. independent of request order & thread.
+	 */
+	private static class UuidIdService implements IdService {
+
+		private static String getId(final String prefix,
+				final String uuid) {
+			return prefix + Long.toString(uuid.hashCode() & 0xFFFFFFFFL);
+		}
+
+		private static Map<String, String> getIds(final String prefix,
+				final Collection<String> uuids) {
+			Map<String, String> result = new HashMap<>();
+			for (String uuid : uuids) {
+				result.put(uuid, getId(prefix, uuid));
+			}
+			return result;
+		}
+
+		@Override
+		public String getExtensionConceptId(final String uuid,
+				final String parentId) {
+			return getId("1", uuid);
+		}
+
+		@Override
+		public String getExtensionDescriptionId(final String uuid) {
+			return getId("2", uuid);
+		}
+
+		@Override
+		public String getExtensionRelationshipId(final String uuid) {
+			return getId("3", uuid);
+		}
+
+		@Override
+		public Map<String, String> getExtensionDescriptionIds(final Collection<String> uuids) throws RemoteException {
+			return getIds("2", uuids);
+		}
+
+		@Override
+		public Map<String, String> getExtensionRelationshipIds(final Collection<String> uuids) {
+			return getIds("3", uuids);
+		}
+
+		@Override
+		public void close() {
+			// no resources
+		}
+	}
+
+	/**
+	 * {@link UuidIdService} failing the n-th description ID allocation window, ie. "Create" is interrupted after the preceding windows are committed.
+	 */
+	private static final class InterruptingIdService extends UuidIdService {
+
+		private final int failingWindow;
+
+		private int windows = 0;
+
+		private InterruptingIdService(final int failingWindow) {
+			this.failingWindow = failingWindow;
+		}
+
+		@Override
+		public Map<String, String> getExtensionDescriptionIds(final Collection<String> uuids) throws RemoteException {
+			if (++this.windows == this.failingWindow) {
+				throw new RemoteException("Service unavailable");
+			} // else
+			return super.getExtensionDescriptionIds(uuids);
+		}
+	}
+
+	/**
+	 * @param name of the output directory
+	 * @param parallelism
+	 * @return test {@link Properties}, using the RF2 test snapshot & a new output directory.
+	 * @throws IOException
+	 */
+	private Properties getProperties(final String name,
+			final int parallelism) throws IOException {
+		Properties properties = new Properties();
+		try (FileInputStream fis = new FileInputStream(System.getProperty(DrugMatchProperties.SETTING_FILE))) {
+			properties.load(fis);
+		}
+		properties.setProperty(DrugMatchProperties.CREATE_PARALLELISM, String.valueOf(parallelism));
+		properties.setProperty(DrugMatchProperties.OUTPUT_DIR, this.folder.newFolder(name).getPath());
+		properties.setProperty(DrugMatchProperties.STRICT_MODE, "false");
+		properties.remove(DrugMatchProperties.VERIFICATION_SNAPSHOT_INDEX);
+		return properties;
+	}
+
+	/**
+	 * @param settings
+	 * @param idService
+	 * @param journal or null
+	 * @return {@link SortedMap}(relative file path, content) of the "Create" output, journal excluded.
+	 * @throws Exception
+	 */
+	private static SortedMap<String, String> create(final DrugMatchSettings settings,
+			final IdService idService,
+			final CreateJournal journal) throws Exception {
+		settings.validateCreate();
+		List<Pharmaceutical> pharmaceuticals = new CSVParser(settings).parse();
+		try (SnapshotVerificationServiceImpl verificationService = new SnapshotVerificationServiceImpl(settings)) {
+			new Create(pharmaceuticals,
+					idService,
+					(journal == null) ? ISO_NOW : journal.getIsoNow(),
+					verificationService,
+					journal,
+					settings).execute(false);
+		}
+		return read(settings.getOutputDirectory(),
+				settings.getJournalDirectory());
+	}
+
+	/**
+	 * @param parallelism
+	 * @return {@link SortedMap}(relative file path, content) of the "Create" output, using the RF2 test snapshot.
+	 * @throws Exception
+	 */
+	private SortedMap<String, String> create(final int parallelism) throws Exception {
+		return create(new DrugMatchSettings(getProperties("parallelism" + parallelism, parallelism)),
+				new UuidIdService(),
+				null);
+	}
+
+	/**
+	 * @param directory
+	 * @param excluded directory
+	 * @return {@link SortedMap}(relative file path, content) of the files in directory.
+	 * @throws IOException
+	 */
+	private static SortedMap<String, String> read(final File directory,
+			final File excluded) throws IOException {
+		SortedMap<String, String> result = new TreeMap<>();
+		read(directory, directory, excluded, result);
+		return result;
+	}
+
+	/**
+	 * @param root
+	 * @param directory
+	 * @param excluded directory
+	 * @param path2Content
+	 * @throws IOException
+	 */
+	private static void read(final File root,
+			final File directory,
+			final File excluded,
+			final SortedMap<String, String> path2Content) throws IOException {
+		for (File file : directory.listFiles()) {
+			if (file.equals(excluded)) {
+				continue;
+			} // else
+			if (file.isDirectory()) {
+				read(root, file, excluded, path2Content);
+			} else {
+				String path = root.toPath().relativize(file.toPath()).toString(),
+					content = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+				if (path.contains("Refset")) {
+					// reference set member IDs are random (UUID v4)
+					content = content.replaceAll("(?m)^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\t", "\t");
+				}
+				path2Content.put(path,
+						content);
+			}
+		}
+	}
+
+	@Test
+	public final void executeParallel() throws Exception {
+		SortedMap<String, String> sequential = create(1);
+		// RF2 & mapping output is created
+		boolean concepts = false,
+			mapping = false;
+		for (Map.Entry<String, String> entry : sequential.entrySet()) {
+			if (entry.getKey().contains("sct2_Concept_DrugMatch_")) {
+				// header & at least one concept
+				concepts = entry.getValue().split("\n").length > 1;
+			} else if (entry.getKey().contains("mapping_")) {
+				mapping = entry.getValue().split("\n").length > 1;
+			}
+		}
+		Assert.assertTrue(sequential.keySet().toString(),
+				concepts);
+		Assert.assertTrue(sequential.keySet().toString(),
+				mapping);
+		// byte identical, regardless of parallelism, except random reference set member IDs
+		SortedMap<String, String> parallel = create(4);
+		Assert.assertEquals(sequential.keySet(),
+				parallel.keySet());
+		for (Map.Entry<String, String> entry : sequential.entrySet()) {
+			Assert.assertEquals(entry.getKey(),
+					entry.getValue(),
+					parallel.get(entry.getKey()));
+		}
+	}
+
+	@Test
+	public final void executeResume() throws Exception {
+		Properties properties = getProperties("uninterrupted", 1);
+		properties.setProperty(DrugMatchProperties.INPUT_FILE, SHARED_GENERIC_INPUT_FILE);
+		// a window per pharmaceutical
+		properties.setProperty(DrugMatchProperties.CREATE_ID_BATCH_SIZE, "1");
+		SortedMap<String, String> uninterrupted = create(new DrugMatchSettings(properties),
+				new UuidIdService(),
+				null);
+		properties = getProperties("resumed", 1);
+		properties.setProperty(DrugMatchProperties.INPUT_FILE, SHARED_GENERIC_INPUT_FILE);
+		properties.setProperty(DrugMatchProperties.CREATE_ID_BATCH_SIZE, "1");
+		DrugMatchSettings settings = new DrugMatchSettings(properties);
+		File outputDirectory = settings.getOutputDirectory(),
+			journalDirectory = settings.getJournalDirectory();
+		try {
+			create(settings,
+					new InterruptingIdService(3),
+					CreateJournal.start(journalDirectory,
+							ISO_NOW,
+							settings.getNationalNamespaceId()));
+			Assert.fail();
+		} catch (RemoteException e) {
+			Assert.assertEquals("Service unavailable",
+					e.getMessage());
+		}
+		Map<String, Long> fileName2Length = CreateJournal.resume(journalDirectory,
+				settings.getNationalNamespaceId()).getFileLengths();
+		Assert.assertFalse(fileName2Length.isEmpty());
+		boolean partial = false;
+		for (Map.Entry<String, Long> entry : fileName2Length.entrySet()) {
+			String path = outputDirectory.toPath().relativize(new File(entry.getKey()).toPath()).toString();
+			// interrupted after a committed window
+			partial |= entry.getValue().longValue() < uninterrupted.get(path).getBytes("UTF-8").length;
+			// crash while writing the next window
+			try (FileOutputStream fos = new FileOutputStream(entry.getKey(), true)) {
+				fos.write("partial\trow".getBytes("UTF-8"));
+			}
+		}
+		Assert.assertTrue(partial);
+		// partial tail truncated, completed pharmaceuticals skipped
+		SortedMap<String, String> resumed = create(settings,
+				new UuidIdService(),
+				CreateJournal.resume(journalDirectory,
+						settings.getNationalNamespaceId()));
+		Assert.assertEquals(uninterrupted.keySet(),
+				resumed.keySet());
+		for (Map.Entry<String, String> entry : uninterrupted.entrySet()) {
+			Assert.assertEquals(entry.getKey(),
+					entry.getValue(),
+					resumed.get(entry.getKey()));
+		}
+	}
+
+	/**
+	 * @param path2Content
+	 * @param fileNamePrefix
+	 * @param separator
+	 * @return rows of the file, split into columns, header excluded.
+	 */
+	private static List<String[]> getRows(final SortedMap<String, String> path2Content,
+			final String fileNamePrefix,
+			final String separator) {
+		List<String[]> result = new ArrayList<>();
+		for (Map.Entry<String, String> entry : path2Content.entrySet()) {
+			if (new File(entry.getKey()).getName().startsWith(fileNamePrefix)) {
+				String[] lines = entry.getValue().split("\r?\n");
+				for (int i = 1; i < lines.length; i++) {
+					result.add(lines[i].split(separator));
+				}
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public final void executeSharedGeneric() throws Exception {
+		Properties properties = getProperties("sharedGeneric", 4);
+		properties.setProperty(DrugMatchProperties.INPUT_FILE, SHARED_GENERIC_INPUT_FILE);
+		SortedMap<String, String> output = create(new DrugMatchSettings(properties),
+				new UuidIdService(),
+				null);
+		// a single generic concept & FSN
+		String genericConceptId = null;
+		for (String[] description : getRows(output, "sct2_Description_", "\t")) {
+			if (ReleaseFormat2.DESCRIPTION_TYPE_FULLY_SPECIFIED_NAME_ID.equals(description[6])
+					&& "Azathioprine 25mg oral tablet (product)".equals(description[7])) {
+				Assert.assertNull(genericConceptId);
+				genericConceptId = description[4];
+			}
+		}
+		Assert.assertNotNull(genericConceptId);
+		int genericConcepts = 0;
+		for (String[] concept : getRows(output, "sct2_Concept_", "\t")) {
+			if (genericConceptId.equals(concept[0])) {
+				genericConcepts++;
+			}
+		}
+		Assert.assertEquals(1,
+				genericConcepts);
+		// both national concepts are children of the generic concept
+		Map<String, String> drugId2ConceptId = new HashMap<>();
+		for (String[] mapping : getRows(output, "mapping_", ";")) {
+			drugId2ConceptId.put(mapping[0].replace("\"", ""), mapping[1].replace("\"", ""));
+		}
+		Map<String, String> sourceId2ParentId = new HashMap<>();
+		for (String[] relationship : getRows(output, "sct2_StatedRelationship_", "\t")) {
+			if (ReleaseFormat2.RELATIONSHIP_TYPE_IS_A_ID.equals(relationship[7])) {
+				sourceId2ParentId.put(relationship[4], relationship[5]);
+			}
+		}
+		for (String drugId : new String[] {"A001", "A002"}) {
+			Assert.assertEquals(drugId,
+					genericConceptId,
+					sourceId2ParentId.get(drugId2ConceptId.get(drugId)));
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package org.ihtsdo.sct.drugmatch.id.service.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.codec.CharEncoding;
+import org.ihtsdo.sct.drugmatch.constant.rf2.ReleaseFormat2;
+import org.ihtsdo.sct.drugmatch.id.service.IdService;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class CachingIdServiceTest {
+
+	private static final String NAMESPACE_ID = "1000005";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Allocates sequential IDs, counting requested identifiers.
+	 */
+	private static final class SequentialIdService implements IdService {
+
+		private final AtomicInteger requested = new AtomicInteger();
+
+		private String next() {
+			return String.valueOf(1000 + this.requested.incrementAndGet());
+		}
+
+		public String getExtensionConceptId(final String uuid,
+				final String parentId) {
+			return next();
+		}
+
+		public String getExtensionDescriptionId(final String uuid) {
+			return next();
+		}
+
+		public String getExtensionRelationshipId(final String uuid) {
+			return next();
+		}
+
+		public Map<String, String> getExtensionDescriptionIds(final Collection<String> uuids) {
+			Map<String, String> result = new HashMap<>();
+			for (String uuid : uuids) {
+				result.put(uuid, next());
+			}
+			return result;
+		}
+
+		public Map<String, String> getExtensionRelationshipIds(final Collection<String> uuids) {
+			return getExtensionDescriptionIds(uuids);
+		}
+
+		public void close() {
+			// no resources
+		}
+	}
+
+	@Test
+	public final void reuse() throws Exception {
+		SequentialIdService delegate = new SequentialIdService();
+		IdService service = new CachingIdService(delegate,
+				new IdentifierStore(this.folder.getRoot(), NAMESPACE_ID));
+		String conceptId = service.getExtensionConceptId("c1", "138875005");
+		Map<String, String> descriptionIds = service.getExtensionDescriptionIds(Arrays.asList("d1", "d2"));
+		Assert.assertEquals(3,
+				delegate.requested.get());
+		// same run
+		Assert.assertEquals(conceptId,
+				service.getExtensionConceptId("c1", "138875005"));
+		// rerun, ie. new store instance, only new identifiers are requested
+		service = new CachingIdService(delegate,
+				new IdentifierStore(this.folder.getRoot(), NAMESPACE_ID));
+		Assert.assertEquals(conceptId,
+				service.getExtensionConceptId("c1", "138875005"));
+		Map<String, String> rerun = service.getExtensionDescriptionIds(Arrays.asList("d1", "d2", "d3"));
+		Assert.assertEquals(4,
+				delegate.requested.get());
+		Assert.assertEquals(descriptionIds.get("d1"),
+				rerun.get("d1"));
+		Assert.assertEquals(descriptionIds.get("d2"),
+				rerun.get("d2"));
+		Assert.assertEquals(3,
+				rerun.size());
+		// scoped per partition
+		Assert.assertNotEquals(descriptionIds.get("d1"),
+				service.getExtensionRelationshipIds(Arrays.asList("d1")).get("d1"));
+		Assert.assertEquals(5,
+				delegate.requested.get());
+		// scoped per namespace
+		service = new CachingIdService(delegate,
+				new IdentifierStore(this.folder.getRoot(), "1000006"));
+		service.getExtensionConceptId("c1", "138875005");
+		Assert.assertEquals(6,
+				delegate.requested.get());
+	}
+
+	@Test
+	public final void loadIncompleteLine() throws IOException {
+		File directory = new File(this.folder.getRoot(), NAMESPACE_ID);
+		Assert.assertTrue(directory.mkdirs());
+		try (FileOutputStream fos = new FileOutputStream(new File(directory, ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID + ".txt"))) {
+			fos.write("d1\t1001\nd2\t10".getBytes(CharEncoding.UTF_8)); // crash while appending
+		}
+		IdentifierStore store = new IdentifierStore(this.folder.getRoot(), NAMESPACE_ID);
+		Assert.assertEquals("1001",
+				store.get(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, "d1"));
+		Assert.assertNull(store.get(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, "d2"));
+		// appended after the incomplete line
+		store.putAll(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, Collections.singletonMap("d2", "1002"));
+		store = new IdentifierStore(this.folder.getRoot(), NAMESPACE_ID);
+		Assert.assertEquals("1002",
+				store.get(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, "d2"));
+		Assert.assertEquals("1001",
+				store.get(ReleaseFormat2.PARTITION_EXTENSION_DESCRIPTION_ID, "d1"));
+	}
+}
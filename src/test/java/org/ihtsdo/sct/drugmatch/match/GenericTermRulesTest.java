@@ -0,0 +1,111 @@
+package org.ihtsdo.sct.drugmatch.match;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ihtsdo.sct.drugmatch.model.Component;
+import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class GenericTermRulesTest {
+
+	private static final List<Component> AZATHIOPRINE_COMPONENTS = Collections.singletonList(new Component("Azathioprine",
+			"Azathioprin",
+			"10",
+			"mg"));
+
+	@Test
+	public final void getKey() {
+		Pharmaceutical imuran = new Pharmaceutical(AZATHIOPRINE_COMPONENTS,
+				"tablet",
+				"tablet",
+				"1",
+				"Imuran"),
+			parallelImport = new Pharmaceutical(AZATHIOPRINE_COMPONENTS,
+				"tablet",
+				"tablet",
+				"2",
+				"Azathioprin \"Orifarm\"");
+		Assert.assertEquals(GenericTermRules.getKey(MatchAttributeRule.EXACT_MATCH, imuran),
+				GenericTermRules.getKey(MatchAttributeRule.EXACT_MATCH, parallelImport));
+		Assert.assertNotEquals(GenericTermRules.getKey(MatchAttributeRule.EXACT_MATCH, imuran),
+				GenericTermRules.getKey(MatchAttributeRule.EXACT_MATCH_EXCLUDING_DOSE_FORM, imuran));
+		Assert.assertNotEquals(GenericTermRules.getKey(MatchAttributeRule.EXACT_MATCH, imuran),
+				GenericTermRules.getKey(MatchAttributeRule.EXACT_MATCH, new Pharmaceutical(AZATHIOPRINE_COMPONENTS,
+						"film coated tablet",
+						"filmovertrukne tabletter",
+						"1",
+						"Imuran")));
+	}
+
+	@Test
+	public final void getRule() {
+		Pharmaceutical pharmaceutical = new Pharmaceutical(AZATHIOPRINE_COMPONENTS,
+				"tablet",
+				"tablet",
+				"1",
+				"Imuran");
+		GenericTermRules rules = new GenericTermRules(MatchAttributeRule.EXACT_MATCH_EXCLUDING_DOSE_FORM,
+				pharmaceutical);
+		for (String term : new String[] {"Azathioprine 10mg tablet", "azathioprine 10 mg oral tablet", "Azathioprine tablet"}) {
+			Assert.assertEquals(term,
+					MatchTermHelper.getMatchTermRuleNational(MatchAttributeRule.EXACT_MATCH_EXCLUDING_DOSE_FORM,
+							term,
+							pharmaceutical),
+					rules.getRuleNational(term));
+			MatchTermRule expected = MatchTermHelper.getMatchPharmaceuticalRuleEnglish(MatchAttributeRule.EXACT_MATCH_EXCLUDING_DOSE_FORM,
+					term,
+					pharmaceutical);
+			if (expected == null) {
+				expected = MatchTermHelper.getMatchTermRuleEnglish(MatchAttributeRule.EXACT_MATCH_EXCLUDING_DOSE_FORM,
+						term,
+						pharmaceutical);
+			}
+			Assert.assertEquals(term,
+					expected,
+					rules.getRuleEnglish(term));
+			// memoized
+			Assert.assertSame(rules.getRuleEnglish(term),
+					rules.getRuleEnglish(term));
+		}
+	}
+
+	@Test
+	public final void getRuleNullOutcome() {
+		final Map<String, Integer> term2Evaluations = new HashMap<>();
+		GenericTermRules rules = new GenericTermRules(MatchAttributeRule.EXACT_MATCH,
+				new Pharmaceutical(AZATHIOPRINE_COMPONENTS,
+						"tablet",
+						"tablet",
+						"1",
+						"Imuran")) {
+
+			@Override
+			MatchTermRule evaluateRuleEnglish(final String term) {
+				return evaluateRuleNational(term);
+			}
+
+			@Override
+			MatchTermRule evaluateRuleNational(final String term) {
+				Integer evaluations = term2Evaluations.get(term);
+				term2Evaluations.put(term, (evaluations == null) ? 1 : evaluations + 1);
+				return null;
+			}
+		};
+		for (int i = 0; i < 3; i++) {
+			Assert.assertNull(rules.getRuleEnglish("Paracetamol 500mg tablet"));
+			Assert.assertNull(rules.getRuleNational("Paracetamol 500 mg tablet"));
+		}
+		// evaluated once per term, despite the null outcome
+		Assert.assertEquals(Integer.valueOf(1),
+				term2Evaluations.get("Paracetamol 500mg tablet"));
+		Assert.assertEquals(Integer.valueOf(1),
+				term2Evaluations.get("Paracetamol 500 mg tablet"));
+	}
+}
@@ -0,0 +1,220 @@
+package org.ihtsdo.sct.drugmatch.match;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.metric.OperationMetrics;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationServiceStub;
+import org.ihtsdo.sct.drugmatch.verification.service.cache.AttributeMatchCache;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class MatchTest {
+
+	private static final Long HAS_ACTIVE_INGREDIENT_ID = Long.valueOf(127489000L),
+			HAS_DOSE_FORM_ID = Long.valueOf(411116001L),
+			AZATHIOPRINE_SUBSTANCE_ID = Long.valueOf(372574004L),
+			ORAL_TABLET_ID = Long.valueOf(421026006L);
+
+	private static final Set<Long> ATTRIBUTE_IDS = VerificationServiceStub.ids(HAS_ACTIVE_INGREDIENT_ID, HAS_DOSE_FORM_ID),
+			VALUE_IDS = VerificationServiceStub.ids(AZATHIOPRINE_SUBSTANCE_ID, ORAL_TABLET_ID),
+			SUBSTANCE_ATTRIBUTE_IDS = VerificationServiceStub.ids(HAS_ACTIVE_INGREDIENT_ID),
+			SUBSTANCE_IDS = VerificationServiceStub.ids(AZATHIOPRINE_SUBSTANCE_ID);
+
+	private final OperationMetrics saved = new OperationMetrics("saved"),
+			wasted = new OperationMetrics("wasted");
+
+	private final ThreadPoolExecutor speculativeExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+
+	/**
+	 * Records the attribute IDs of every query, the exact attributes query optionally awaits the substances only query.
+	 */
+	private static final class LatencyVerificationService extends VerificationServiceStub {
+
+		private final List<Set<Long>> queries = Collections.synchronizedList(new ArrayList<Set<Long>>());
+
+		private final CountDownLatch substancesQueried = new CountDownLatch(1);
+
+		/**
+		 * true if the exact attributes query has a match.
+		 */
+		private final boolean exactMatch;
+
+		/**
+		 * true if the exact attributes query awaits the substances only query, ie. the speculative query is sent.
+		 */
+		private final boolean awaitSubstances;
+
+		private LatencyVerificationService(final boolean exactMatch,
+				final boolean awaitSubstances) {
+			this.exactMatch = exactMatch;
+			this.awaitSubstances = awaitSubstances;
+		}
+
+		@Override
+		public List<ConceptSearchResultDescriptor> getAttributeExactMatch(final Set<Long> attributeIds,
+				final Set<Long> valueIds) throws IOException {
+			this.queries.add(new TreeSet<>(attributeIds));
+			if (attributeIds.size() == 1) {
+				this.substancesQueried.countDown();
+				return Collections.singletonList(new ConceptSearchResultDescriptor());
+			} // else
+			if (this.awaitSubstances) {
+				try {
+					if (!this.substancesQueried.await(5, TimeUnit.SECONDS)) {
+						throw new IOException("Substances only query wasn't sent");
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+			}
+			if (this.exactMatch) {
+				return Collections.singletonList(new ConceptSearchResultDescriptor());
+			} // else
+			return Collections.emptyList();
+		}
+	}
+
+	private Pair<Boolean, List<ConceptSearchResultDescriptor>> getAttributeExactMatch(final AttributeMatchCache cache) throws DrugMatchConfigurationException, IOException {
+		return Match.getAttributeExactMatch(cache,
+				this.speculativeExecutor,
+				ATTRIBUTE_IDS,
+				VALUE_IDS,
+				SUBSTANCE_ATTRIBUTE_IDS,
+				SUBSTANCE_IDS,
+				this.saved,
+				this.wasted);
+	}
+
+	/**
+	 * Await the speculative queries in progress, ie. their round-trips are recorded.
+	 * @throws InterruptedException
+	 */
+	private void awaitSpeculativeQueries() throws InterruptedException {
+		this.speculativeExecutor.shutdown();
+		Assert.assertTrue(this.speculativeExecutor.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+	@After
+	public final void shutdown() {
+		this.speculativeExecutor.shutdownNow();
+	}
+
+	@Test
+	public final void getAttributeExactMatchSaved() throws DrugMatchConfigurationException, IOException, InterruptedException {
+		LatencyVerificationService service = new LatencyVerificationService(false, true);
+		Pair<Boolean, List<ConceptSearchResultDescriptor>> result = getAttributeExactMatch(new AttributeMatchCache(service));
+		awaitSpeculativeQueries();
+		// substances only
+		Assert.assertTrue(result.getKey().booleanValue());
+		Assert.assertEquals(1,
+				result.getValue().size());
+		// sent once, ahead of the empty exact attributes result
+		Assert.assertEquals(2,
+				service.queries.size());
+		Assert.assertEquals(1L,
+				this.saved.getCalls());
+		Assert.assertEquals(0L,
+				this.wasted.getCalls());
+	}
+
+	@Test
+	public final void getAttributeExactMatchWasted() throws DrugMatchConfigurationException, IOException, InterruptedException {
+		LatencyVerificationService service = new LatencyVerificationService(true, true);
+		Pair<Boolean, List<ConceptSearchResultDescriptor>> result = getAttributeExactMatch(new AttributeMatchCache(service));
+		awaitSpeculativeQueries();
+		// exact attributes
+		Assert.assertFalse(result.getKey().booleanValue());
+		Assert.assertEquals(1,
+				result.getValue().size());
+		Assert.assertEquals(2,
+				service.queries.size());
+		Assert.assertEquals(0L,
+				this.saved.getCalls());
+		Assert.assertEquals(1L,
+				this.wasted.getCalls());
+	}
+
+	@Test
+	public final void getAttributeExactMatchCancelled() throws DrugMatchConfigurationException, IOException, InterruptedException {
+		final CountDownLatch busy = new CountDownLatch(1);
+		// occupy the speculative executor, ie. the speculative query isn't sent before the exact attributes result
+		this.speculativeExecutor.submit(new Callable<Void>() {
+
+			public Void call() throws InterruptedException {
+				busy.await();
+				return null;
+			}
+		});
+		LatencyVerificationService service = new LatencyVerificationService(true, false);
+		Pair<Boolean, List<ConceptSearchResultDescriptor>> result = getAttributeExactMatch(new AttributeMatchCache(service));
+		busy.countDown();
+		awaitSpeculativeQueries();
+		Assert.assertFalse(result.getKey().booleanValue());
+		// exact attributes only, no round-trip to save or waste
+		Assert.assertEquals(Collections.singletonList(ATTRIBUTE_IDS),
+				service.queries);
+		Assert.assertEquals(0L,
+				this.saved.getCalls());
+		Assert.assertEquals(0L,
+				this.wasted.getCalls());
+	}
+
+	@Test
+	public final void getAttributeExactMatchMemoized() throws DrugMatchConfigurationException, IOException, InterruptedException {
+		LatencyVerificationService service = new LatencyVerificationService(false, false);
+		AttributeMatchCache cache = new AttributeMatchCache(service);
+		// exact attributes memoized
+		cache.getAttributeExactMatch(ATTRIBUTE_IDS,
+				VALUE_IDS);
+		Assert.assertTrue(getAttributeExactMatch(cache).getKey().booleanValue());
+		// both memoized
+		Assert.assertTrue(getAttributeExactMatch(cache).getKey().booleanValue());
+		awaitSpeculativeQueries();
+		// no speculation, the substances only query is sent once, after the exact attributes result
+		Assert.assertEquals(0L,
+				this.speculativeExecutor.getTaskCount());
+		Assert.assertEquals(Arrays.asList(ATTRIBUTE_IDS, SUBSTANCE_ATTRIBUTE_IDS),
+				service.queries);
+		Assert.assertEquals(0L,
+				this.saved.getCalls());
+		Assert.assertEquals(0L,
+				this.wasted.getCalls());
+	}
+
+	@Test
+	public final void getAttributeExactMatchDisabled() throws DrugMatchConfigurationException, IOException {
+		LatencyVerificationService service = new LatencyVerificationService(false, false);
+		// no speculative executor, nor round-trip metrics
+		Pair<Boolean, List<ConceptSearchResultDescriptor>> result = Match.getAttributeExactMatch(new AttributeMatchCache(service),
+				null,
+				ATTRIBUTE_IDS,
+				VALUE_IDS,
+				SUBSTANCE_ATTRIBUTE_IDS,
+				SUBSTANCE_IDS,
+				null,
+				null);
+		Assert.assertTrue(result.getKey().booleanValue());
+		Assert.assertEquals(Arrays.asList(ATTRIBUTE_IDS, SUBSTANCE_ATTRIBUTE_IDS),
+				service.queries);
+	}
+}
@@ -0,0 +1,86 @@
+package org.ihtsdo.sct.drugmatch.metric;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class OperationMetricsTest {
+
+	@Test
+	public final void bucket() {
+		long micros;
+		int bucket;
+		for (int i = 0; i < 40; i++) {
+			micros = (1L << i) + i;
+			bucket = OperationMetrics.getBucket(micros);
+			Assert.assertTrue(micros <= OperationMetrics.getUpperBound(bucket));
+			Assert.assertTrue(bucket == 0
+					|| micros > OperationMetrics.getUpperBound(bucket - 1));
+			// at most 12.5% error
+			Assert.assertTrue(OperationMetrics.getUpperBound(bucket) - micros <= micros / 8);
+		}
+		Assert.assertTrue(OperationMetrics.getBucket(Long.MAX_VALUE) >= 0);
+	}
+
+	@Test
+	public final void percentile() {
+		OperationMetrics metrics = new OperationMetrics("percentile");
+		Assert.assertEquals(0,
+				metrics.getPercentile(99));
+		for (int i = 1; i <= 100; i++) {
+			metrics.recordDuration(TimeUnit.MILLISECONDS.toNanos(i),
+					i % 10 != 0);
+		}
+		Assert.assertEquals(100,
+				metrics.getCalls());
+		Assert.assertEquals(10,
+				metrics.getErrors());
+		Assert.assertEquals(50000,
+				metrics.getPercentile(50),
+				50000 / 8);
+		Assert.assertEquals(95000,
+				metrics.getPercentile(95),
+				95000 / 8);
+		Assert.assertEquals(100000,
+				metrics.getPercentile(100));
+		Assert.assertEquals(100,
+				metrics.getLatencyMax(),
+				0);
+	}
+
+	@Test
+	public final void throughput() throws Exception {
+		OperationMetrics metrics = new OperationMetrics("throughput");
+		// idle time before the first call doesn't count
+		Thread.sleep(100);
+		Assert.assertEquals(0,
+				metrics.getThroughput(),
+				0);
+		metrics.recordDuration(TimeUnit.SECONDS.toNanos(1),
+				true);
+		metrics.recordDuration(TimeUnit.SECONDS.toNanos(1),
+				true);
+		double throughput = metrics.getThroughput();
+		Assert.assertTrue(throughput > 1);
+		Assert.assertTrue(throughput <= 2);
+	}
+
+	@Test
+	public final void jmx() throws Exception {
+		OperationMetrics metrics = Metrics.get("test.jmx");
+		Assert.assertSame(metrics,
+				Metrics.get("test.jmx"));
+		metrics.record(System.nanoTime(),
+				false);
+		Assert.assertEquals(Long.valueOf(1),
+				ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName("org.ihtsdo.sct.drugmatch:type=Metrics,name=\"test.jmx\""),
+						"Errors"));
+	}
+}
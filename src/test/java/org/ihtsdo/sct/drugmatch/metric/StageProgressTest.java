@@ -0,0 +1,57 @@
+package org.ihtsdo.sct.drugmatch.metric;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class StageProgressTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public final void progress() throws IOException {
+		// report on every item
+		StageProgress progress = new StageProgress("test.progress",
+				3,
+				0);
+		progress.increment();
+		progress.add(2);
+		Assert.assertEquals(3,
+				progress.getDone());
+		progress.complete();
+		// completed once
+		progress.complete();
+		new StageProgress("test.incomplete",
+				StageProgress.UNKNOWN_TOTAL,
+				0).increment();
+		File file = new File(this.folder.getRoot(), "stage_timing.csv");
+		StageProgress.write(file.getPath(),
+				';',
+				CSVWriter.NO_QUOTE_CHARACTER);
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		Assert.assertEquals("Stage;Items;Duration (s);Items per second",
+				lines.get(0));
+		int count = 0;
+		for (String line : lines) {
+			if (line.startsWith("test.progress;3;")) {
+				count++;
+			}
+			Assert.assertFalse(line.startsWith("test.incomplete"));
+		}
+		Assert.assertEquals(1,
+				count);
+	}
+}
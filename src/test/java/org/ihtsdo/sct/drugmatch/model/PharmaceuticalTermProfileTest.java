@@ -0,0 +1,70 @@
+package org.ihtsdo.sct.drugmatch.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class PharmaceuticalTermProfileTest {
+
+	@Test
+	public final void getTermProfile() {
+		Pharmaceutical pharmaceutical = new Pharmaceutical(Arrays.asList(new Component("Codeine  phosphate",
+						"Codeinphosphat",
+						"0,5",
+						"MG")),
+				"Oral  tablet",
+				"Tablet",
+				"1",
+				"Panodil  Zapp");
+		PharmaceuticalTermProfile profile = pharmaceutical.getTermProfile();
+		// built once
+		Assert.assertSame(profile,
+				pharmaceutical.getTermProfile());
+		Assert.assertEquals(pharmaceutical.getEnglishTerm(),
+				profile.englishTerm);
+		Assert.assertEquals(pharmaceutical.getNationalTerm(),
+				profile.nationalTerm);
+		Assert.assertEquals(pharmaceutical.getNationalPharmaceuticalTerm(),
+				profile.nationalPharmaceuticalTerm);
+		Assert.assertEquals("oral tablet",
+				profile.doseFormEnglishLowerCase);
+		Assert.assertEquals(Arrays.asList("Oral", "tablet"),
+				profile.doseFormEnglishTokens);
+		Assert.assertEquals(Arrays.asList("Panodil", "Zapp"),
+				profile.normalizedTradeNameTokens);
+		ComponentTermProfile component = profile.components.get(0);
+		Assert.assertEquals("codeine phosphate",
+				component.substanceNameEnglishLowerCase);
+		Assert.assertEquals("0.5",
+				component.strengthEnglish);
+		Assert.assertEquals("0.5mg",
+				component.strengthUnitEnglishLowerCase);
+		Assert.assertEquals("0,5MG",
+				component.strengthUnitNational);
+	}
+
+	@Test
+	public final void getTermProfileMissingNames() {
+		Pharmaceutical pharmaceutical = new Pharmaceutical(Collections.singletonList(new Component("Azathioprine",
+						null,
+						"10",
+						"mg")),
+				"tablet",
+				null,
+				null,
+				null);
+		PharmaceuticalTermProfile profile = pharmaceutical.getTermProfile();
+		Assert.assertEquals("Azathioprine 10mg tablet",
+				profile.englishTerm);
+		Assert.assertNull(profile.nationalTerm);
+		Assert.assertNull(profile.nationalPharmaceuticalTerm);
+		Assert.assertNull(profile.doseFormNational);
+		Assert.assertTrue(profile.doseFormNationalTokens.isEmpty());
+		Assert.assertNull(profile.components.get(0).national);
+	}
+}
@@ -0,0 +1,163 @@
+package org.ihtsdo.sct.drugmatch.parser.impl;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import org.apache.commons.codec.CharEncoding;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
+import org.ihtsdo.sct.drugmatch.model.DoseForm;
+import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+import org.ihtsdo.sct.drugmatch.model.Substance;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
+
+/**
+ * Compare the heap retained by the {@link Pharmaceutical}s parsed by {@link CSVParser}, with & without sharing equal dose forms, substances & unit/strength values, on a synthetic input file.
+ * <p>
+ * Not a unit test, run manually (with a heap large enough to hold the unshared result) ex.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -Xmx3g -cp target/classes:target/test-classes:$(cat cp.txt) org.ihtsdo.sct.drugmatch.parser.impl.CSVParserHeapBenchmark [rows] [parallelism]
+ * </pre>
+ * @author dev-team@carecom.dk
+ */
+public final class CSVParserHeapBenchmark {
+
+	private static final int DEFAULT_ROWS = 1000000,
+			DEFAULT_PARALLELISM = 1;
+
+	private static final int DOSE_FORMS = 300,
+			SUBSTANCES = 3000,
+			UNITS = 40,
+			MAX_COMPONENTS = 3;
+
+	/**
+	 * DON'T INSTANTIATE A STATIC HELPER!
+	 */
+	private CSVParserHeapBenchmark() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param args [rows] [parallelism]
+	 * @throws DrugMatchConfigurationException
+	 * @throws DrugMatchStrictModeViolationException
+	 * @throws IOException
+	 */
+	public static void main(final String[] args) throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		int rows = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ROWS,
+			parallelism = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PARALLELISM;
+		File input = File.createTempFile("drugmatch_input_", ".csv");
+		input.deleteOnExit();
+		generate(input, rows);
+		DrugMatchSettings settings = getSettings(input, parallelism);
+		System.out.println("Rows: " + rows + ", " + (input.length() / (1024 * 1024)) + " MB, parallelism: " + parallelism);
+		report("unshared", new UnsharedCSVParser(settings));
+		report("shared  ", new CSVParser(settings));
+	}
+
+	/**
+	 * @param input
+	 * @param parallelism
+	 * @return {@link DrugMatchSettings} of the test setting file, parsing input using parallelism thread(s).
+	 * @throws IOException
+	 */
+	private static DrugMatchSettings getSettings(final File input,
+			final int parallelism) throws IOException {
+		Properties properties = new Properties();
+		try (FileInputStream fis = new FileInputStream("src/test/resource/setting.properties")) {
+			properties.load(fis);
+		}
+		properties.setProperty(DrugMatchProperties.INPUT_FILE, input.getPath());
+		properties.setProperty(DrugMatchProperties.INPUT_FILE_INCLUDE_FIRST_LINE, "false");
+		properties.setProperty(DrugMatchProperties.INPUT_PARALLELISM, String.valueOf(parallelism));
+		properties.setProperty(DrugMatchProperties.FILE_CONTENT_SEPARATOR_CHARACTER, ";");
+		properties.setProperty(DrugMatchProperties.FILE_QUOTE_CHARACTER, "\"");
+		properties.setProperty(DrugMatchProperties.STRICT_MODE, "false");
+		return new DrugMatchSettings(properties);
+	}
+
+	/**
+	 * Write a header & rows of 1 - {@link #MAX_COMPONENTS} components, drawing from a fixed number of dose forms, substances & units.
+	 * @param input
+	 * @param rows
+	 * @throws IOException
+	 */
+	private static void generate(final File input,
+			final int rows) throws IOException {
+		Random random = new Random(42);
+		try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(input),
+				CharEncoding.UTF_8))) {
+			writer.write("\"DrugID\";\"Trade name\";\"Dose form English\";\"Dose form national\";\"SubstanceNameEnglish_1\";\"SubstanceNameNational_1\";\"Strength_1\";\"Unit_1\"\n");
+			int doseForm,
+				substance;
+			for (int row = 0; row < rows; row++) {
+				doseForm = random.nextInt(DOSE_FORMS);
+				writer.write("\"D" + row + "\";\"Trade name " + (row % 100000) + "\";\"Dose form " + doseForm + "\";\"Dosisform " + doseForm + "\"");
+				for (int component = random.nextInt(MAX_COMPONENTS); component >= 0; component--) {
+					substance = random.nextInt(SUBSTANCES);
+					writer.write(";\"Substance " + substance + "\";\"Substans " + substance + "\";\"" + (1 + random.nextInt(1000)) + "\";\"unit " + random.nextInt(UNITS) + "\"");
+				}
+				writer.write('\n');
+			}
+		}
+	}
+
+	private static void report(final String name,
+			final CSVParser parser) throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		long baseline = getUsedHeap(),
+			start = System.nanoTime();
+		List<Pharmaceutical> pharmaceuticals = parser.parse();
+		long elapsed = System.nanoTime() - start,
+			retained = getUsedHeap() - baseline;
+		System.out.println(String.format("%s: %,6d MB retained, parse %,6.1f s (%d pharmaceuticals)",
+				name,
+				retained / (1024 * 1024),
+				elapsed / 1e9d,
+				pharmaceuticals.size()));
+	}
+
+	/**
+	 * @return used heap, after garbage collection.
+	 */
+	private static long getUsedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * {@link CSVParser} keeping every parsed value, ie. former behaviour.
+	 */
+	private static final class UnsharedCSVParser extends CSVParser {
+
+		private UnsharedCSVParser(final DrugMatchSettings settings) {
+			super(settings);
+		}
+
+		@Override
+		DoseForm getDoseForm(final DoseForm doseForm) {
+			return doseForm;
+		}
+
+		@Override
+		Substance getSubstance(final Substance substance) {
+			return substance;
+		}
+
+		@Override
+		String getValue(final String value) {
+			return value;
+		}
+	}
+}
@@ -1,20 +1,93 @@
 package org.ihtsdo.sct.drugmatch.parser.impl;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
+
+import org.apache.commons.codec.CharEncoding;
 
 import org.ihtsdo.sct.drugmatch.SystemEnvironmentTestSetup;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
 import org.ihtsdo.sct.drugmatch.exception.DrugMatchStrictModeViolationException;
 import org.ihtsdo.sct.drugmatch.model.Pharmaceutical;
+import org.ihtsdo.sct.drugmatch.parser.PharmaceuticalHandler;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * @author dev-team@carecom.dk
  */
 public class CSVParserTest extends SystemEnvironmentTestSetup {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Quoted line breaks, escaped quotes & malformed lines.
+	 */
+	private static final String MALFORMED_INPUT_FILE = "src/test/resource/drugmatch_input_malformed.csv";
+
+	/**
+	 * @param inputFile
+	 * @param parallelism
+	 * @return test {@link DrugMatchSettings}, parsing inputFile using parallelism thread(s).
+	 * @throws IOException
+	 */
+	private static DrugMatchSettings getSettings(final String inputFile,
+			final int parallelism) throws IOException {
+		Properties properties = new Properties();
+		try (FileInputStream fis = new FileInputStream(System.getProperty(DrugMatchProperties.SETTING_FILE))) {
+			properties.load(fis);
+		}
+		properties.setProperty(DrugMatchProperties.INPUT_FILE, inputFile);
+		properties.setProperty(DrugMatchProperties.INPUT_PARALLELISM, String.valueOf(parallelism));
+		properties.setProperty(DrugMatchProperties.STRICT_MODE, "false");
+		return new DrugMatchSettings(properties);
+	}
+
+	/**
+	 * {@link CSVParser} recording the line number of every skipped line.
+	 */
+	private static final class RecordingCSVParser extends CSVParser {
+
+		private final List<Integer> skipped = Collections.synchronizedList(new ArrayList<Integer>());
+
+		private RecordingCSVParser(final DrugMatchSettings settings,
+				final int chunkSize) {
+			super(settings,
+					chunkSize);
+		}
+
+		@Override
+		void skipping(final String format,
+				final Object... arguments) {
+			this.skipped.add(Integer.valueOf((String) arguments[0]));
+			super.skipping(format,
+					arguments);
+		}
+
+		/**
+		 * @return skipped line numbers, ascending.
+		 */
+		private List<Integer> getSkipped() {
+			List<Integer> result = new ArrayList<>(this.skipped);
+			Collections.sort(result);
+			return result;
+		}
+	}
+
 	@Test
 	public final void parse() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
 		List<Pharmaceutical> pharmaceuticals = new CSVParser().parse();
@@ -38,4 +111,119 @@ public class CSVParserTest extends SystemEnvironmentTestSetup {
 				+ "Component [substance=Substance [nameEnglish=Nevirapine, nameNational=Nevirapin], strength=200, unit=mg]]]",
 				pharmaceutical.toString());
 	}
+
+	@Test
+	public final void parseShared() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		Pharmaceutical i002 = null,
+			t004 = null;
+		// parsed in separate chunks
+		for (Pharmaceutical p : new CSVParser(getSettings("src/test/resource/drugmatch_input_example.csv", 4), 1).parse()) {
+			if ("I002".equals(p.drugId)) {
+				i002 = p;
+			} else if ("T004".equals(p.drugId)) {
+				t004 = p;
+			}
+		}
+		Assert.assertNotNull(i002);
+		Assert.assertNotNull(t004);
+		// "Oral tablet"
+		Assert.assertSame(i002.doseForm,
+				t004.doseForm);
+		// "mg"
+		Assert.assertSame(i002.components.get(0).unit,
+				t004.components.get(2).unit);
+	}
+
+	@Test
+	public final void parseBatches() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		final List<Pharmaceutical> pharmaceuticals = new ArrayList<>();
+		final List<Integer> batchSizes = new ArrayList<>();
+		new CSVParser().parse(3,
+				new PharmaceuticalHandler() {
+
+					public void handle(final List<Pharmaceutical> batch) {
+						batchSizes.add(Integer.valueOf(batch.size()));
+						pharmaceuticals.addAll(batch);
+					}
+				});
+		Assert.assertEquals("[3, 3, 1]",
+				batchSizes.toString());
+		// same order as parse()
+		Assert.assertEquals(new CSVParser().parse(),
+				pharmaceuticals);
+	}
+
+	@Test
+	public final void parseChunks() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		// sequential
+		Assert.assertEquals(1,
+				DrugMatchProperties.getSettings().getInputParallelism());
+		// a chunk per line
+		Assert.assertEquals(new CSVParser().parse(),
+				new CSVParser(getSettings("src/test/resource/drugmatch_input_example.csv", 4), 1).parse());
+	}
+
+	@Test
+	public final void parseChunksMalformed() throws DrugMatchConfigurationException, DrugMatchStrictModeViolationException, IOException {
+		RecordingCSVParser sequentialParser = new RecordingCSVParser(getSettings(MALFORMED_INPUT_FILE, 1), 1);
+		List<Pharmaceutical> sequential = sequentialParser.parse();
+		List<String> drugIds = new ArrayList<>();
+		for (Pharmaceutical pharmaceutical : sequential) {
+			drugIds.add(pharmaceutical.drugId);
+		}
+		Assert.assertEquals(Arrays.asList("A001", "A002", "A006", "A008"),
+				drugIds);
+		Assert.assertEquals("Imuran\nforte",
+				sequential.get(1).tradeName);
+		Assert.assertEquals("Imuran \"Orifarm\"\n25",
+				sequential.get(2).tradeName);
+		// line numbers of CSV records, ie. quoted line breaks don't count
+		Assert.assertEquals(Arrays.asList(Integer.valueOf(4), Integer.valueOf(5), Integer.valueOf(6), Integer.valueOf(8)),
+				sequentialParser.getSkipped());
+		// a chunk per line & a few lines per chunk
+		for (int chunkSize : new int[] {1, 128}) {
+			RecordingCSVParser chunkedParser = new RecordingCSVParser(getSettings(MALFORMED_INPUT_FILE, 4), chunkSize);
+			Assert.assertEquals(sequential,
+					chunkedParser.parse());
+			Assert.assertEquals(sequentialParser.getSkipped(),
+					chunkedParser.getSkipped());
+		}
+	}
+
+	@Test
+	public final void split() throws IOException {
+		File file = this.folder.newFile();
+		Files.write(file.toPath(),
+				"id;name\n1;\"a\nb\"\n2;\"c\\\"\nd\"\n3;e".getBytes(CharEncoding.UTF_8));
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			List<CSVParser.Chunk> chunks = CSVParser.split(channel,
+					(byte) '"',
+					1);
+			// quoted line breaks & escaped quotes don't split
+			Assert.assertEquals(4,
+					chunks.size());
+			Assert.assertEquals(0L,
+					chunks.get(0).position);
+			Assert.assertEquals(8L,
+					chunks.get(1).position);
+			Assert.assertEquals(16L,
+					chunks.get(2).position);
+			Assert.assertEquals(26L,
+					chunks.get(3).position);
+			Assert.assertEquals(3L,
+					chunks.get(3).size);
+			// line offsets
+			Assert.assertEquals(0,
+					chunks.get(0).lineOffset);
+			Assert.assertEquals(1,
+					chunks.get(1).lineOffset);
+			Assert.assertEquals(2,
+					chunks.get(2).lineOffset);
+			Assert.assertEquals(3,
+					chunks.get(3).lineOffset);
+			// single chunk
+			Assert.assertEquals(1,
+					CSVParser.split(channel, (byte) '"', 1024).size());
+		}
+	}
 }
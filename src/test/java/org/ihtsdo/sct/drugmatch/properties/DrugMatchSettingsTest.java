@@ -0,0 +1,399 @@
+package org.ihtsdo.sct.drugmatch.properties;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class DrugMatchSettingsTest {
+
+	/**
+	 * @return {@link DrugMatchSettings} of the test setting file.
+	 * @throws DrugMatchConfigurationException
+	 */
+	private static DrugMatchSettings getTestSettings() throws DrugMatchConfigurationException {
+		return DrugMatchSettings.load(new File("src/test/resource/setting.properties"));
+	}
+
+	@Test
+	public final void parse() {
+		Properties properties = new Properties();
+		properties.setProperty(DrugMatchProperties.ATTRIBUTE_ID_HAS_DOSE_FORM, " 411116001 ");
+		properties.setProperty(DrugMatchProperties.CREATE_PARALLELISM, "4");
+		properties.setProperty(DrugMatchProperties.MODULE_ID, " 554471000005108\t");
+		properties.setProperty(DrugMatchProperties.OUTPUT_DIR, "out" + File.separator);
+		properties.setProperty(DrugMatchProperties.STRICT_MODE, "true");
+		properties.setProperty(DrugMatchProperties.VERIFICATION_SERVICE, "http://localhost/");
+		DrugMatchSettings settings = new DrugMatchSettings(properties);
+		Assert.assertEquals(Long.valueOf(411116001L),
+				settings.attributeIdHasDoseForm);
+		Assert.assertEquals(4,
+				settings.createParallelism);
+		Assert.assertEquals("554471000005108",
+				settings.moduleId);
+		Assert.assertEquals(new File("out"),
+				settings.outputDirectory);
+		Assert.assertTrue(settings.strictMode);
+		Assert.assertEquals("http://localhost",
+				settings.verificationService);
+	}
+
+	@Test
+	public final void parseInvalid() {
+		Properties properties = new Properties();
+		properties.setProperty(DrugMatchProperties.ATTRIBUTE_ID_HAS_DOSE_FORM, "dose form");
+		properties.setProperty(DrugMatchProperties.CHECK_PARALLELISM, "0");
+		properties.setProperty(DrugMatchProperties.CREATE_PARALLELISM, "many");
+		properties.setProperty(DrugMatchProperties.MODULE_ID, " ");
+		DrugMatchSettings settings = new DrugMatchSettings(properties);
+		Assert.assertNull(settings.attributeIdHasDoseForm);
+		Assert.assertEquals(DrugMatchProperties.DEFAULT_CHECK_PARALLELISM,
+				settings.checkParallelism);
+		Assert.assertEquals(DrugMatchProperties.DEFAULT_CREATE_PARALLELISM,
+				settings.createParallelism);
+		Assert.assertNull(settings.moduleId);
+		Assert.assertNull(settings.outputDirectory);
+		Assert.assertFalse(settings.strictMode);
+	}
+
+	/**
+	 * @return {@link Properties} sufficient for "Check", using a local RF2 snapshot.
+	 */
+	private static Properties getCheckProperties() {
+		Properties properties = new Properties();
+		properties.setProperty(DrugMatchProperties.INPUT_FILE, "src/test/resource/drugmatch_input_example.csv");
+		properties.setProperty(DrugMatchProperties.OUTPUT_DIR, "./result/");
+		properties.setProperty(DrugMatchProperties.EXTENSION_NAMESPACE_ID, "1000005");
+		properties.setProperty(DrugMatchProperties.CONSTRAINT_ID_DOSE_FORM, "105904009");
+		properties.setProperty(DrugMatchProperties.CONSTRAINT_ID_SUBSTANCE, "105590001");
+		properties.setProperty(DrugMatchProperties.CONSTRAINT_ID_UNIT, "258666001");
+		properties.setProperty(DrugMatchProperties.VERIFICATION_SNAPSHOT_DIR, "src/test/resource/rf2/");
+		return properties;
+	}
+
+	@Test
+	public final void validateCheck() throws DrugMatchConfigurationException {
+		// snapshot replaces the verification service
+		new DrugMatchSettings(getCheckProperties()).validateCheck();
+	}
+
+	@Test
+	public final void validateCheckVerificationService() {
+		Properties properties = getCheckProperties();
+		properties.remove(DrugMatchProperties.VERIFICATION_SNAPSHOT_DIR);
+		try {
+			new DrugMatchSettings(properties).validateCheck();
+			Assert.fail();
+		} catch (DrugMatchConfigurationException e) {
+			Assert.assertTrue(e.getMessage(),
+					e.getMessage().contains(DrugMatchProperties.VERIFICATION_SERVICE));
+		}
+	}
+
+	@Test
+	public final void validateMatch() {
+		try {
+			new DrugMatchSettings(getCheckProperties()).validateMatch();
+			Assert.fail();
+		} catch (DrugMatchConfigurationException e) {
+			Assert.assertTrue(e.getMessage(),
+					e.getMessage().contains(DrugMatchProperties.ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT));
+		}
+	}
+
+	@Test
+	public final void validateCreate() throws DrugMatchConfigurationException {
+		DrugMatchSettings settings = getTestSettings();
+		settings.validateCheck();
+		settings.validateMatch();
+		settings.validateCreate();
+		Properties properties = getCheckProperties();
+		properties.setProperty(DrugMatchProperties.ATTRIBUTE_ID_HAS_ACTIVE_INGREDIENT, "127489000");
+		properties.setProperty(DrugMatchProperties.ATTRIBUTE_ID_HAS_DOSE_FORM, "411116001");
+		settings = new DrugMatchSettings(properties);
+		settings.validateMatch();
+		try {
+			settings.validateCreate();
+			Assert.fail();
+		} catch (DrugMatchConfigurationException e) {
+			Assert.assertTrue(e.getMessage(),
+					e.getMessage().contains(DrugMatchProperties.MODULE_ID));
+		}
+	}
+
+	@Test
+	public final void createGenericReport() throws DrugMatchConfigurationException {
+		Assert.assertTrue(getTestSettings().createGenericReport());
+	}
+
+	@Test
+	public final void getAttributeIdHasActiveIngredient() throws DrugMatchConfigurationException {
+		Assert.assertEquals(Long.valueOf(127489000L),
+				getTestSettings().getAttributeIdHasActiveIngredient());
+	}
+
+	@Test
+	public final void getAttributeIdHasDoseForm() throws DrugMatchConfigurationException {
+		Assert.assertEquals(Long.valueOf(411116001L),
+				getTestSettings().getAttributeIdHasDoseForm());
+	}
+
+	@Test
+	public final void getCheckParallelism() throws DrugMatchConfigurationException {
+		Assert.assertEquals(4,
+				getTestSettings().getCheckParallelism());
+	}
+
+	@Test
+	public final void getConstraintIdDoseForm() throws DrugMatchConfigurationException {
+		Assert.assertEquals(Long.valueOf(105904009L),
+				getTestSettings().getConstraintIdDoseForm());
+	}
+
+	@Test
+	public final void getConstraintIdSubstance() throws DrugMatchConfigurationException {
+		Assert.assertEquals(Long.valueOf(105590001L),
+				getTestSettings().getConstraintIdSubstance());
+	}
+
+	@Test
+	public final void getConstraintIdUnit() throws DrugMatchConfigurationException {
+		Assert.assertEquals(Long.valueOf(258666001L),
+				getTestSettings().getConstraintIdUnit());
+	}
+
+	@Test
+	public final void getCreateIdBatchSize() throws DrugMatchConfigurationException {
+		Assert.assertEquals(25,
+				getTestSettings().getCreateIdBatchSize());
+	}
+
+	@Test
+	public final void getCreateParallelism() throws DrugMatchConfigurationException {
+		Assert.assertEquals(4,
+				getTestSettings().getCreateParallelism());
+	}
+
+	@Test
+	public final void getFileContentQuoteCharacter() throws DrugMatchConfigurationException {
+		Assert.assertEquals("\"",
+				getTestSettings().getFileContentQuoteCharacter());
+	}
+
+	@Test
+	public final void getFileContentSeparatorCharacter() throws DrugMatchConfigurationException {
+		Assert.assertNull(getTestSettings().getFileContentSeparatorCharacter());
+	}
+
+	@Test
+	public final void getInputBatchSize() throws DrugMatchConfigurationException {
+		Assert.assertEquals(3,
+				getTestSettings().getInputBatchSize());
+	}
+
+	@Test
+	public final void getInputFileIncludeFirstLine() throws DrugMatchConfigurationException {
+		Assert.assertNull(getTestSettings().getInputFileIncludeFirstLine());
+	}
+
+	@Test
+	public final void getInputFilePath() throws DrugMatchConfigurationException {
+		Assert.assertEquals("src/test/resource/drugmatch_input_example.csv",
+				getTestSettings().getInputFilePath());
+	}
+
+	@Test
+	public final void getInputParallelism() throws DrugMatchConfigurationException {
+		Assert.assertEquals(1,
+				getTestSettings().getInputParallelism());
+	}
+
+	@Test
+	public final void getJournalDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result/journal",
+				getTestSettings().getJournalDirectory().toString());
+	}
+
+	@Test
+	public final void getLanguageReferenceSetId() throws DrugMatchConfigurationException {
+		Assert.assertEquals("554461000005103",
+				getTestSettings().getLanguageReferenceSetId());
+	}
+
+	@Test
+	public final void getMappingDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result/mapping",
+				getTestSettings().getMappingDirectory().toString());
+	}
+
+	@Test
+	public final void getMatchConceptBatchSize() throws DrugMatchConfigurationException {
+		Assert.assertEquals(10,
+				getTestSettings().getMatchConceptBatchSize());
+	}
+
+	@Test
+	public final void getMatchConceptCacheSize() throws DrugMatchConfigurationException {
+		Assert.assertEquals(500,
+				getTestSettings().getMatchConceptCacheSize());
+	}
+
+	@Test
+	public final void getModuleId() throws DrugMatchConfigurationException {
+		Assert.assertEquals("554471000005108",
+				getTestSettings().getModuleId());
+	}
+
+	@Test
+	public final void getNationalLanguageCode() throws DrugMatchConfigurationException {
+		Assert.assertEquals("da",
+				getTestSettings().getNationalLanguageCode());
+	}
+
+	@Test
+	public final void getNationalNamespaceId() throws DrugMatchConfigurationException {
+		Assert.assertEquals("1000005",
+				getTestSettings().getNationalNamespaceId());
+	}
+
+	@Test
+	public final void getOutputDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result",
+				getTestSettings().getOutputDirectory().toString());
+	}
+
+	@Test
+	public final void getProgressInterval() throws DrugMatchConfigurationException {
+		Assert.assertEquals(1,
+				getTestSettings().getProgressInterval());
+	}
+
+	@Test
+	public final void getQuantityReferenceSetId() throws DrugMatchConfigurationException {
+		Assert.assertEquals("554481000005106",
+				getTestSettings().getQuantityReferenceSetId());
+	}
+
+	@Test
+	public final void getReferenceSetContentDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result/RF2/Refset/Content",
+				getTestSettings().getReferenceSetContentDirectory().toString());
+	}
+
+	@Test
+	public final void getReferenceSetDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result/RF2/Refset",
+				getTestSettings().getReferenceSetDirectory().toString());
+	}
+
+	@Test
+	public final void getReleaseFormat2Directory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result/RF2",
+				getTestSettings().getReleaseFormat2Directory().toString());
+	}
+
+	@Test
+	public final void getReportDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result/report",
+				getTestSettings().getReportDirectory().toString());
+	}
+
+	@Test
+	public final void getSctIdCacheDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals(new File("./result/id"),
+				getTestSettings().getSctIdCacheDirectory());
+	}
+
+	@Test
+	public final void getSctIdService() throws DrugMatchConfigurationException {
+		Assert.assertEquals("https://www.ihtsdo.org/service/sct/id_generator",
+				getTestSettings().getSctIdService());
+	}
+
+	@Test
+	public final void getSctReleaseId() throws DrugMatchConfigurationException {
+		Assert.assertEquals("20140131",
+				getTestSettings().getSctReleaseId());
+	}
+
+	@Test
+	public final void getTerminologyDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals("./result/RF2/Terminology",
+				getTestSettings().getTerminologyDirectory().toString());
+	}
+
+	@Test
+	public final void getVerificationCacheDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals(new File("./result/cache"),
+				getTestSettings().getVerificationCacheDirectory());
+	}
+
+	@Test
+	public final void getVerificationCacheMaxSize() throws DrugMatchConfigurationException {
+		Assert.assertEquals(64,
+				getTestSettings().getVerificationCacheMaxSize());
+	}
+
+	@Test
+	public final void getVerificationCacheTtl() throws DrugMatchConfigurationException {
+		Assert.assertEquals(7,
+				getTestSettings().getVerificationCacheTtl());
+	}
+
+	@Test
+	public final void getVerificationIdleConnectionTimeout() throws DrugMatchConfigurationException {
+		Assert.assertEquals(60,
+				getTestSettings().getVerificationIdleConnectionTimeout());
+	}
+
+	@Test
+	public final void getVerificationLogin() throws DrugMatchConfigurationException {
+		Assert.assertEquals("login",
+				getTestSettings().getVerificationLogin());
+	}
+
+	@Test
+	public final void getVerificationMaxConnectionsPerRoute() throws DrugMatchConfigurationException {
+		Assert.assertEquals(4,
+				getTestSettings().getVerificationMaxConnectionsPerRoute());
+	}
+
+	@Test
+	public final void getVerificationPassword() throws DrugMatchConfigurationException {
+		Assert.assertEquals("password",
+				getTestSettings().getVerificationPassword());
+	}
+
+	@Test
+	public final void getVerificationService() throws DrugMatchConfigurationException {
+		Assert.assertEquals("https://my.healthterm.com",
+				getTestSettings().getVerificationService());
+	}
+
+	@Test
+	public final void getVerificationSnapshotDirectory() throws DrugMatchConfigurationException {
+		Assert.assertEquals(new File("src/test/resource/rf2"),
+				getTestSettings().getVerificationSnapshotDirectory());
+	}
+
+	@Test
+	public final void getVerificationSnapshotIndexFile() throws DrugMatchConfigurationException {
+		Assert.assertEquals(new File("./result/rf2/description.idx"),
+				getTestSettings().getVerificationSnapshotIndexFile());
+	}
+
+	@Test
+	public final void isMatchSpeculativeAttributeQuery() throws DrugMatchConfigurationException {
+		Assert.assertTrue(getTestSettings().isMatchSpeculativeAttributeQuery());
+	}
+
+	@Test
+	public final void isStrictMode() throws DrugMatchConfigurationException {
+		Assert.assertTrue(getTestSettings().isStrictMode());
+	}
+}
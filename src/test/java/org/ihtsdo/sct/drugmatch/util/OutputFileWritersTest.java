@@ -0,0 +1,116 @@
+package org.ihtsdo.sct.drugmatch.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.codec.CharEncoding;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class OutputFileWritersTest {
+
+	private static final String[] HEADER = new String[] {
+			"id",
+			"term"
+	};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static String read(final File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), CharEncoding.UTF_8);
+	}
+
+	private static CSVWriter getWriter(final OutputFileWriters writers,
+			final File file) throws IOException {
+		return writers.getWriter(file.getPath(),
+				HEADER,
+				'\t',
+				CSVWriter.NO_QUOTE_CHARACTER,
+				"\r\n");
+	}
+
+	@Test
+	public final void checkpoint() throws IOException {
+		File file = new File(this.folder.getRoot(), "sct2_Concept.txt");
+		try (OutputFileWriters writers = new OutputFileWriters()) {
+			getWriter(writers, file).writeNext(new String[] {
+					"1",
+					"a"
+			});
+			writers.checkpoint();
+			Assert.assertEquals("id\tterm\r\n1\ta\r\n",
+					read(file));
+			// header only once
+			Assert.assertSame(getWriter(writers, file),
+					getWriter(writers, file));
+			getWriter(writers, file).writeNext(new String[] {
+					"2",
+					"b"
+			});
+		}
+		Assert.assertEquals("id\tterm\r\n1\ta\r\n2\tb\r\n",
+				read(file));
+	}
+
+	@Test
+	public final void close() throws IOException {
+		File file1 = new File(this.folder.getRoot(), "1.txt"),
+			file2 = new File(this.folder.getRoot(), "2.txt");
+		OutputFileWriters writers = new OutputFileWriters();
+		getWriter(writers, file1);
+		getWriter(writers, file2).writeNext(new String[] {
+				"2",
+				"b"
+		});
+		writers.close();
+		Assert.assertEquals("id\tterm\r\n",
+				read(file1));
+		Assert.assertEquals("id\tterm\r\n2\tb\r\n",
+				read(file2));
+	}
+
+	@Test
+	public final void resume() throws IOException {
+		File file = new File(this.folder.getRoot(), "sct2_Concept.txt");
+		Map<String, Long> fileName2Length;
+		try (OutputFileWriters writers = new OutputFileWriters()) {
+			getWriter(writers, file).writeNext(new String[] {
+					"1",
+					"a"
+			});
+			fileName2Length = writers.checkpoint();
+			Assert.assertEquals(Collections.singletonMap(file.getPath(), Long.valueOf(file.length())),
+					fileName2Length);
+			// written after the checkpoint, ie. lost by the interrupted run
+			getWriter(writers, file).writeNext(new String[] {
+					"2",
+					"b"
+			});
+		}
+		try (OutputFileWriters writers = new OutputFileWriters(fileName2Length)) {
+			// untouched files are truncated up front
+			Assert.assertEquals("id\tterm\r\n1\ta\r\n",
+					read(file));
+			Assert.assertEquals(fileName2Length,
+					writers.checkpoint());
+			// no header on resume
+			getWriter(writers, file).writeNext(new String[] {
+					"2",
+					"c"
+			});
+		}
+		Assert.assertEquals("id\tterm\r\n1\ta\r\n2\tc\r\n",
+				read(file));
+	}
+}
@@ -0,0 +1,67 @@
+package org.ihtsdo.sct.drugmatch.verification.service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+
+/**
+ * {@link VerificationService} test stub, every query is unsupported unless overridden.
+ * @author dev-team@carecom.dk
+ */
+public class VerificationServiceStub implements VerificationService {
+
+	/**
+	 * @param ids
+	 * @return {@link Set} of ids, in the given order.
+	 */
+	public static Set<Long> ids(final Long... ids) {
+		return new LinkedHashSet<>(Arrays.asList(ids));
+	}
+
+	public List<ConceptSearchResultDescriptor> getAttributeExactMatch(final Set<Long> attributeIds,
+			final Set<Long> valueIds) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public List<ConceptDescriptor> getConceptsByIds(final Set<Long> conceptIds) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public String getConceptsByIdsUrl(final Set<Long> conceptIds) throws DrugMatchConfigurationException {
+		throw new UnsupportedOperationException();
+	}
+
+	public List<ConceptSearchResultDescriptor> getDoseFormExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public List<ConceptSearchResultDescriptor> getDoseFormExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public List<ConceptSearchResultDescriptor> getSubstanceExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public List<ConceptSearchResultDescriptor> getSubstanceExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public List<ConceptSearchResultDescriptor> getUnitExactEnglishTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public List<ConceptSearchResultDescriptor> getUnitExactNationalTermMatch(final String query) throws DrugMatchConfigurationException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public void close() throws IOException {
+		// empty on purpose
+	}
+}
@@ -0,0 +1,95 @@
+package org.ihtsdo.sct.drugmatch.verification.service.cache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationServiceStub;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class AttributeMatchCacheTest {
+
+	/**
+	 * Counts attribute queries, failing the first query of value ID 0.
+	 */
+	private static final class CountingVerificationService extends VerificationServiceStub {
+
+		private final AtomicInteger queries = new AtomicInteger();
+
+		private boolean failed = false;
+
+		@Override
+		public List<ConceptSearchResultDescriptor> getAttributeExactMatch(final Set<Long> attributeIds,
+				final Set<Long> valueIds) throws IOException {
+			this.queries.incrementAndGet();
+			if (valueIds.contains(Long.valueOf(0))
+					&& !this.failed) {
+				this.failed = true;
+				throw new IOException("Service unavailable");
+			}
+			return Collections.emptyList();
+		}
+	}
+
+	@Test
+	public final void getAttributeExactMatch() throws Exception {
+		CountingVerificationService service = new CountingVerificationService();
+		AttributeMatchCache cache = new AttributeMatchCache(service);
+		Set<Long> attributeIds = VerificationServiceStub.ids(127489000L, 411116001L);
+		cache.getAttributeExactMatch(attributeIds,
+				VerificationServiceStub.ids(3L, 1L, 2L));
+		// same composition, different order
+		cache.getAttributeExactMatch(VerificationServiceStub.ids(411116001L, 127489000L),
+				VerificationServiceStub.ids(2L, 3L, 1L));
+		Assert.assertEquals(1,
+				service.queries.get());
+		// different attributes
+		cache.getAttributeExactMatch(VerificationServiceStub.ids(127489000L),
+				VerificationServiceStub.ids(1L, 2L, 3L));
+		Assert.assertEquals(2,
+				service.queries.get());
+		Assert.assertEquals(1,
+				cache.getHitCount());
+		Assert.assertEquals(2,
+				cache.getMissCount());
+		// failures aren't cached
+		try {
+			cache.getAttributeExactMatch(attributeIds,
+					VerificationServiceStub.ids(0L));
+			Assert.fail();
+		} catch (IOException e) {
+			Assert.assertEquals("Service unavailable",
+					e.getMessage());
+		}
+		cache.getAttributeExactMatch(attributeIds,
+				VerificationServiceStub.ids(0L));
+		Assert.assertEquals(4,
+				service.queries.get());
+	}
+
+	@Test
+	public final void contains() throws Exception {
+		AttributeMatchCache cache = new AttributeMatchCache(new CountingVerificationService());
+		Assert.assertFalse(cache.contains(VerificationServiceStub.ids(127489000L),
+				VerificationServiceStub.ids(1L, 2L)));
+		cache.getAttributeExactMatch(VerificationServiceStub.ids(127489000L),
+				VerificationServiceStub.ids(2L, 1L));
+		Assert.assertTrue(cache.contains(VerificationServiceStub.ids(127489000L),
+				VerificationServiceStub.ids(1L, 2L)));
+	}
+
+	@Test
+	public final void getKey() {
+		Assert.assertEquals(AttributeMatchCache.getKey(VerificationServiceStub.ids(2L, 1L), VerificationServiceStub.ids(10L, 9L)),
+				AttributeMatchCache.getKey(VerificationServiceStub.ids(1L, 2L), VerificationServiceStub.ids(9L, 10L)));
+		Assert.assertNotEquals(AttributeMatchCache.getKey(VerificationServiceStub.ids(1L), VerificationServiceStub.ids(2L, 3L)),
+				AttributeMatchCache.getKey(VerificationServiceStub.ids(1L, 2L), VerificationServiceStub.ids(3L)));
+	}
+}
@@ -0,0 +1,121 @@
+package org.ihtsdo.sct.drugmatch.verification.service.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationServiceStub;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class ConceptCacheTest {
+
+	/**
+	 * Records the Concept IDs of every request, Concept ID 0 is unknown.
+	 */
+	private static final class CountingVerificationService extends VerificationServiceStub {
+
+		private final List<Set<Long>> requests = new ArrayList<>();
+
+		@Override
+		public List<ConceptDescriptor> getConceptsByIds(final Set<Long> conceptIds) {
+			this.requests.add(new LinkedHashSet<>(conceptIds));
+			List<ConceptDescriptor> result = new ArrayList<>();
+			for (Long conceptId : conceptIds) {
+				if (conceptId.longValue() != 0L) {
+					ConceptDescriptor concept = new ConceptDescriptor();
+					concept.id = conceptId;
+					result.add(concept);
+				}
+			}
+			return result;
+		}
+	}
+
+	private static List<Long> getIds(final List<ConceptDescriptor> concepts) {
+		List<Long> result = new ArrayList<>();
+		for (ConceptDescriptor concept : concepts) {
+			result.add(concept.id);
+		}
+		return result;
+	}
+
+	@Test
+	public final void getConceptsByIds() throws DrugMatchConfigurationException, IOException {
+		CountingVerificationService service = new CountingVerificationService();
+		ConceptCache cache = new ConceptCache(service, 10);
+		Assert.assertEquals(Arrays.asList(1L, 2L),
+				getIds(cache.getConceptsByIds(VerificationServiceStub.ids(1L, 2L))));
+		Assert.assertEquals(0L,
+				cache.getHitCount());
+		Assert.assertEquals(2L,
+				cache.getMissCount());
+		// only the missing Concept ID is requested, requested order is kept
+		Assert.assertEquals(Arrays.asList(2L, 3L, 1L),
+				getIds(cache.getConceptsByIds(VerificationServiceStub.ids(2L, 3L, 1L))));
+		Assert.assertEquals(Arrays.asList(VerificationServiceStub.ids(1L, 2L), VerificationServiceStub.ids(3L)),
+				service.requests);
+		Assert.assertEquals(2L,
+				cache.getHitCount());
+		Assert.assertEquals(3L,
+				cache.getMissCount());
+		// fully cached, no request
+		cache.getConceptsByIds(VerificationServiceStub.ids(3L, 1L));
+		Assert.assertEquals(2,
+				service.requests.size());
+		Assert.assertEquals(4L,
+				cache.getHitCount());
+		Assert.assertEquals(3L,
+				cache.getMissCount());
+	}
+
+	@Test
+	public final void getConceptsByIdsUnknown() throws DrugMatchConfigurationException, IOException {
+		CountingVerificationService service = new CountingVerificationService();
+		ConceptCache cache = new ConceptCache(service, 10);
+		// unknown Concept IDs aren't returned
+		Assert.assertEquals(Arrays.asList(1L),
+				getIds(cache.getConceptsByIds(VerificationServiceStub.ids(0L, 1L))));
+		Assert.assertEquals(Arrays.asList(1L),
+				getIds(cache.getConceptsByIds(VerificationServiceStub.ids(0L, 1L))));
+		// nor cached
+		Assert.assertEquals(Arrays.asList(VerificationServiceStub.ids(0L, 1L), VerificationServiceStub.ids(0L)),
+				service.requests);
+		Assert.assertEquals(1L,
+				cache.getHitCount());
+		Assert.assertEquals(3L,
+				cache.getMissCount());
+	}
+
+	@Test
+	public final void evict() throws DrugMatchConfigurationException, IOException {
+		CountingVerificationService service = new CountingVerificationService();
+		ConceptCache cache = new ConceptCache(service, 2);
+		cache.getConceptsByIds(VerificationServiceStub.ids(1L));
+		cache.getConceptsByIds(VerificationServiceStub.ids(2L));
+		// 1 is used, ie. 2 is least recently used
+		cache.getConceptsByIds(VerificationServiceStub.ids(1L));
+		// evicts 2
+		cache.getConceptsByIds(VerificationServiceStub.ids(3L));
+		Assert.assertEquals(3,
+				service.requests.size());
+		cache.getConceptsByIds(VerificationServiceStub.ids(1L, 3L));
+		Assert.assertEquals(3,
+				service.requests.size());
+		cache.getConceptsByIds(VerificationServiceStub.ids(2L));
+		Assert.assertEquals(Arrays.asList(VerificationServiceStub.ids(1L), VerificationServiceStub.ids(2L), VerificationServiceStub.ids(3L), VerificationServiceStub.ids(2L)),
+				service.requests);
+		Assert.assertEquals(3L,
+				cache.getHitCount());
+		Assert.assertEquals(4L,
+				cache.getMissCount());
+	}
+}
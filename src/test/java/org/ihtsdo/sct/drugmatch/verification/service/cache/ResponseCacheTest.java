@@ -0,0 +1,128 @@
+package org.ihtsdo.sct.drugmatch.verification.service.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class ResponseCacheTest {
+
+	private static final TypeReference<List<ConceptSearchResultDescriptor>> TYPE = new TypeReference<List<ConceptSearchResultDescriptor>>() {
+		// type capture
+	};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static List<ConceptSearchResultDescriptor> getResult(final long conceptId) {
+		ConceptSearchResultDescriptor descriptor = new ConceptSearchResultDescriptor();
+		descriptor.conceptCode = String.valueOf(conceptId);
+		descriptor.descriptionTerm = "term";
+		descriptor.healthtermConceptId = Long.valueOf(conceptId);
+		descriptor.healthtermDescriptionId = Long.valueOf(conceptId + 1);
+		return Collections.singletonList(descriptor);
+	}
+
+	@Test
+	public final void getAndPut() throws DrugMatchConfigurationException {
+		ResponseCache cache = new ResponseCache(this.folder.getRoot(), "20140131", Long.MAX_VALUE, Long.MAX_VALUE);
+		Assert.assertNull(cache.get("key", TYPE));
+		List<ConceptSearchResultDescriptor> expected = getResult(1L);
+		cache.put("key", expected);
+		List<ConceptSearchResultDescriptor> actual = cache.get("key", TYPE);
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals("term",
+				actual.get(0).descriptionTerm);
+		// empty result
+		cache.put("empty", Collections.emptyList());
+		Assert.assertEquals(Collections.emptyList(),
+				cache.get("empty", TYPE));
+	}
+
+	@Test
+	public final void getExpired() throws DrugMatchConfigurationException {
+		ResponseCache cache = new ResponseCache(this.folder.getRoot(), "20140131", -1L, Long.MAX_VALUE);
+		cache.put("key", getResult(1L));
+		Assert.assertNull(cache.get("key", TYPE));
+	}
+
+	@Test
+	public final void evict() throws DrugMatchConfigurationException {
+		ResponseCache cache = new ResponseCache(this.folder.getRoot(), "20140131", Long.MAX_VALUE, 1L);
+		cache.put("key", getResult(1L));
+		Assert.assertNull(cache.get("key", TYPE));
+	}
+
+	@Test
+	public final void purgeOtherReleases() throws DrugMatchConfigurationException, IOException {
+		ResponseCache cache = new ResponseCache(this.folder.getRoot(), "20130731", Long.MAX_VALUE, Long.MAX_VALUE);
+		cache.put("key", getResult(1L));
+		File unrelated = this.folder.newFolder("unrelated"),
+			// release ID named, but not created by the cache
+			foreign = this.folder.newFolder("20120731");
+		File foreignEntry = new File(foreign, "data.json");
+		Assert.assertTrue(foreignEntry.createNewFile());
+		cache = new ResponseCache(this.folder.getRoot(), "20140131", Long.MAX_VALUE, Long.MAX_VALUE);
+		Assert.assertNull(cache.get("key", TYPE));
+		Assert.assertFalse(new File(this.folder.getRoot(), "20130731").exists());
+		Assert.assertTrue(unrelated.exists());
+		Assert.assertTrue(foreignEntry.exists());
+	}
+
+	@Test
+	public final void scope() throws DrugMatchConfigurationException, IOException {
+		ResponseCache cache = new ResponseCache(this.folder.getRoot(), "20140131", Long.MAX_VALUE, Long.MAX_VALUE);
+		final AtomicInteger calls = new AtomicInteger();
+		VerificationService delegate = (VerificationService) Proxy.newProxyInstance(VerificationService.class.getClassLoader(),
+				new Class<?>[] {VerificationService.class},
+				new InvocationHandler() {
+
+					public Object invoke(final Object proxy,
+							final Method method,
+							final Object[] args) {
+						calls.incrementAndGet();
+						return getResult(1L);
+					}
+				});
+		CachingVerificationService national = new CachingVerificationService(delegate, cache, "http://localhost|1000005"),
+			otherNational = new CachingVerificationService(delegate, cache, "http://localhost|1000006");
+		national.getSubstanceExactNationalTermMatch("Azathioprin");
+		national.getSubstanceExactNationalTermMatch("Azathioprin");
+		Assert.assertEquals(1,
+				calls.get());
+		// other national namespace ID, same release
+		otherNational.getSubstanceExactNationalTermMatch("Azathioprin");
+		Assert.assertEquals(2,
+				calls.get());
+		new CachingVerificationService(delegate, cache, "http://localhost|1000005").getSubstanceExactNationalTermMatch("Azathioprin");
+		Assert.assertEquals(2,
+				calls.get());
+	}
+
+	@Test
+	public final void getKey() {
+		Assert.assertEquals(CachingVerificationService.getKey(new LinkedHashSet<>(Arrays.asList(3L, 1L, 2L))),
+				CachingVerificationService.getKey(new LinkedHashSet<>(Arrays.asList(2L, 3L, 1L))));
+		Assert.assertEquals("1,2,3",
+				CachingVerificationService.getKey(new LinkedHashSet<>(Arrays.asList(3L, 1L, 2L))));
+	}
+}
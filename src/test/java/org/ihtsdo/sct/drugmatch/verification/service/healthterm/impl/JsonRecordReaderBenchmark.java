@@ -0,0 +1,128 @@
+package org.ihtsdo.sct.drugmatch.verification.service.healthterm.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Compare former tree based decoding with {@link JsonRecordReader}, on the recorded HealthTerm payloads scaled to a large "record" array.
+ * <p>
+ * Not a unit test, run manually ex.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) org.ihtsdo.sct.drugmatch.verification.service.healthterm.impl.JsonRecordReaderBenchmark [records] [iterations]
+ * </pre>
+ * @author dev-team@carecom.dk
+ */
+public final class JsonRecordReaderBenchmark {
+
+	private static final int DEFAULT_RECORDS = 2000,
+			DEFAULT_ITERATIONS = 500;
+
+	/**
+	 * DON'T INSTANTIATE A STATIC HELPER!
+	 */
+	private JsonRecordReaderBenchmark() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param args [records] [iterations]
+	 * @throws IOException
+	 */
+	public static void main(final String[] args) throws IOException {
+		int records = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_RECORDS,
+			iterations = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+		byte[] conceptSearchResults = scale(JsonRecordReaderTest.CONCEPT_SEARCH_RESULT_FILE, records),
+			concepts = scale(JsonRecordReaderTest.CONCEPTS_FILE, records);
+		System.out.println("Records: " + records + ", iterations: " + iterations);
+		for (int round = 0; round < 2; round++) {
+			// first round is warm up
+			String prefix = (round == 0) ? "warm up " : "";
+			report(prefix + "search result, tree     ", conceptSearchResults, iterations, new Decoder() {
+
+				public int decode(final byte[] content) throws IOException {
+					return JsonRecordReaderTest.readTree(new ByteArrayInputStream(content), JsonRecordReader.FIELD_RECORD, JsonRecordReaderTest.CONCEPT_SEARCH_RESULT_DESCRIPTOR_TYPE_REFERENCE).size();
+				}
+			});
+			report(prefix + "search result, streaming", conceptSearchResults, iterations, new Decoder() {
+
+				public int decode(final byte[] content) throws IOException {
+					return JsonRecordReader.read(new ByteArrayInputStream(content), JsonRecordReader.FIELD_RECORD, JsonRecordReader.CONCEPT_SEARCH_RESULT_DESCRIPTOR_READER).size();
+				}
+			});
+			report(prefix + "concepts, tree          ", concepts, iterations, new Decoder() {
+
+				public int decode(final byte[] content) throws IOException {
+					return JsonRecordReaderTest.readTree(new ByteArrayInputStream(content), JsonRecordReader.FIELD_RECORD, JsonRecordReaderTest.CONCEPT_DESCRIPTOR_TYPE_REFERENCE).size();
+				}
+			});
+			report(prefix + "concepts, streaming     ", concepts, iterations, new Decoder() {
+
+				public int decode(final byte[] content) throws IOException {
+					return JsonRecordReader.read(new ByteArrayInputStream(content), JsonRecordReader.FIELD_RECORD, JsonRecordReader.CONCEPT_DESCRIPTOR_READER).size();
+				}
+			});
+		}
+	}
+
+	/**
+	 * @param fileName recorded payload
+	 * @param records
+	 * @return payload, with the recorded "record" array repeated until it holds the given number of records.
+	 * @throws IOException
+	 */
+	private static byte[] scale(final String fileName,
+			final int records) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		ObjectNode payload = (ObjectNode) mapper.readTree(Files.readAllBytes(Paths.get(fileName)));
+		List<JsonNode> recorded = mapper.readValue(payload.get(JsonRecordReader.FIELD_RECORD).traverse(), new TypeReference<List<JsonNode>>() {
+			// empty on purpose.
+		});
+		ArrayNode scaled = payload.putArray(JsonRecordReader.FIELD_RECORD);
+		for (int i = 0; i < records; i++) {
+			scaled.add(recorded.get(i % recorded.size()));
+		}
+		return mapper.writeValueAsBytes(payload);
+	}
+
+	private static void report(final String name,
+			final byte[] content,
+			final int iterations,
+			final Decoder decoder) throws IOException {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId(),
+			allocated = threadMXBean.getThreadAllocatedBytes(threadId),
+			start = System.nanoTime(),
+			records = 0;
+		for (int i = 0; i < iterations; i++) {
+			records += decoder.decode(content);
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocated;
+		System.out.println(String.format("%s: %,10.1f decodes/s, %,12d bytes allocated/decode (%d records)",
+				name,
+				(iterations * 1e9d) / elapsed,
+				allocated / iterations,
+				records / iterations));
+	}
+
+	private interface Decoder {
+
+		/**
+		 * @param content
+		 * @return number of decoded records
+		 * @throws IOException
+		 */
+		int decode(byte[] content) throws IOException;
+	}
+}
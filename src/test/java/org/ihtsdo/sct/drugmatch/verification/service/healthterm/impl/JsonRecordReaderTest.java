@@ -0,0 +1,98 @@
+package org.ihtsdo.sct.drugmatch.verification.service.healthterm.impl;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.LogEntry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streaming decoding must bind the same records as the former tree based decoding.
+ * @author dev-team@carecom.dk
+ */
+public class JsonRecordReaderTest {
+
+	static final String CONCEPT_SEARCH_RESULT_FILE = "src/test/resource/healthterm/concept_search_result.json",
+			CONCEPTS_FILE = "src/test/resource/healthterm/concepts.json",
+			LOG_ENTRY_FILE = "src/test/resource/healthterm/log_entry.json";
+
+	static final TypeReference<List<ConceptDescriptor>> CONCEPT_DESCRIPTOR_TYPE_REFERENCE = new TypeReference<List<ConceptDescriptor>>() {
+		// empty on purpose.
+	};
+
+	static final TypeReference<List<ConceptSearchResultDescriptor>> CONCEPT_SEARCH_RESULT_DESCRIPTOR_TYPE_REFERENCE = new TypeReference<List<ConceptSearchResultDescriptor>>() {
+		// empty on purpose.
+	};
+
+	/**
+	 * Former decoding, ie. new {@link ObjectMapper} & intermediate tree.
+	 * @param content
+	 * @param fieldName
+	 * @param typeReference
+	 * @return {@link List} of records
+	 * @throws IOException
+	 */
+	static <T> List<T> readTree(final InputStream content,
+			final String fieldName,
+			final TypeReference<List<T>> typeReference) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		return mapper.readValue(mapper.readTree(content).get(fieldName).traverse(), typeReference);
+	}
+
+	@Test
+	public final void readConceptSearchResults() throws IOException {
+		List<ConceptSearchResultDescriptor> expected,
+			actual;
+		try (InputStream is = new FileInputStream(CONCEPT_SEARCH_RESULT_FILE)) {
+			expected = readTree(is, JsonRecordReader.FIELD_RECORD, CONCEPT_SEARCH_RESULT_DESCRIPTOR_TYPE_REFERENCE);
+		}
+		try (InputStream is = new FileInputStream(CONCEPT_SEARCH_RESULT_FILE)) {
+			actual = JsonRecordReader.read(is, JsonRecordReader.FIELD_RECORD, JsonRecordReader.CONCEPT_SEARCH_RESULT_DESCRIPTOR_READER);
+		}
+		Assert.assertEquals(2,
+				actual.size());
+		Assert.assertEquals(expected.toString(),
+				actual.toString());
+	}
+
+	@Test
+	public final void readConcepts() throws IOException {
+		List<ConceptDescriptor> expected,
+			actual;
+		try (InputStream is = new FileInputStream(CONCEPTS_FILE)) {
+			expected = readTree(is, JsonRecordReader.FIELD_RECORD, CONCEPT_DESCRIPTOR_TYPE_REFERENCE);
+		}
+		try (InputStream is = new FileInputStream(CONCEPTS_FILE)) {
+			actual = JsonRecordReader.read(is, JsonRecordReader.FIELD_RECORD, JsonRecordReader.CONCEPT_DESCRIPTOR_READER);
+		}
+		Assert.assertEquals(1,
+				actual.size());
+		Assert.assertEquals(3,
+				actual.get(0).descriptionDescriptor.size());
+		Assert.assertEquals(expected.toString(),
+				actual.toString());
+	}
+
+	@Test
+	public final void readLogEntries() throws IOException {
+		try (InputStream is = new FileInputStream(LOG_ENTRY_FILE)) {
+			Assert.assertTrue(JsonRecordReader.read(is, JsonRecordReader.FIELD_RECORD, JsonRecordReader.CONCEPT_DESCRIPTOR_READER).isEmpty());
+		}
+		List<LogEntry> logEntries;
+		try (InputStream is = new FileInputStream(LOG_ENTRY_FILE)) {
+			logEntries = JsonRecordReader.read(is, JsonRecordReader.FIELD_LOG_ENTRY, JsonRecordReader.LOG_ENTRY_READER);
+		}
+		Assert.assertEquals(1,
+				logEntries.size());
+		Assert.assertEquals("Unauthorized",
+				logEntries.get(0).cause);
+	}
+}
@@ -0,0 +1,48 @@
+package org.ihtsdo.sct.drugmatch.verification.service.healthterm.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class VerificationServiceImplTest {
+
+	@Test
+	public final void split() {
+		Set<Long> conceptIds = new LinkedHashSet<>();
+		for (long i = 0; i < 1000; i++) {
+			conceptIds.add(Long.valueOf(100000000000000L + i));
+		}
+		int prefixLength = 100;
+		List<Set<Long>> lookups = VerificationServiceImpl.split(prefixLength,
+				conceptIds,
+				VerificationServiceImpl.MAX_URL_LENGTH);
+		Assert.assertTrue(lookups.size() > 1);
+		List<Long> joined = new ArrayList<>();
+		int length;
+		for (Set<Long> lookup : lookups) {
+			length = prefixLength;
+			for (Long conceptId : lookup) {
+				length += "&conceptId=".length() + String.valueOf(conceptId).length();
+			}
+			Assert.assertTrue(length <= VerificationServiceImpl.MAX_URL_LENGTH);
+			joined.addAll(lookup);
+		}
+		// same Concept IDs, same order
+		Assert.assertEquals(new ArrayList<>(conceptIds),
+				joined);
+		Assert.assertEquals(1,
+				VerificationServiceImpl.split(prefixLength,
+						conceptIds,
+						Integer.MAX_VALUE).size());
+		Assert.assertTrue(VerificationServiceImpl.split(prefixLength,
+				new LinkedHashSet<Long>(),
+				VerificationServiceImpl.MAX_URL_LENGTH).isEmpty());
+	}
+}
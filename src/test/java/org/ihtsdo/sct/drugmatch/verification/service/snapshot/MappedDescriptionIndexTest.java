@@ -0,0 +1,171 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.constant.rf1.DescriptionType;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.model.Description;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class MappedDescriptionIndexTest {
+
+	private static final File SNAPSHOT_DIRECTORY = new File("src/test/resource/rf2");
+
+	private static final Set<String> NO_LANGUAGE_CODES = Collections.emptySet();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private List<Description> descriptions;
+
+	private File indexFile;
+
+	@Before
+	public final void build() throws IOException {
+		this.descriptions = HeapDescriptionIndex.loadDescriptions(SNAPSHOT_DIRECTORY);
+		this.indexFile = new File(this.folder.getRoot(), "description.idx");
+		DescriptionIndexBuilder.build(SNAPSHOT_DIRECTORY, this.indexFile);
+	}
+
+	/**
+	 * @param descriptions
+	 * @return all fields, order independent.
+	 */
+	private static Set<String> toStrings(final Collection<Description> descriptions) {
+		Set<String> result = new HashSet<>();
+		for (Description description : descriptions) {
+			result.add(description.toString());
+		}
+		return result;
+	}
+
+	@Test
+	public final void equalsHeap() throws IOException {
+		DescriptionIndex heap = new HeapDescriptionIndex(this.descriptions);
+		MappedDescriptionIndex mapped = MappedDescriptionIndex.open(this.indexFile);
+		Assert.assertEquals(this.descriptions.size(),
+				mapped.size());
+		for (Description description : this.descriptions) {
+			Assert.assertEquals(toStrings(heap.getDescriptions(description.term, null, NO_LANGUAGE_CODES)),
+					toStrings(mapped.getDescriptions(description.term, null, NO_LANGUAGE_CODES)));
+			Assert.assertEquals(toStrings(heap.getExactDescriptions(description.term, null, NO_LANGUAGE_CODES)),
+					toStrings(mapped.getExactDescriptions(description.term, null, NO_LANGUAGE_CODES)));
+			Assert.assertEquals(toStrings(heap.getDescriptions(description.conceptId)),
+					toStrings(mapped.getDescriptions(description.conceptId)));
+		}
+		Assert.assertTrue(mapped.getDescriptions(91000000L).isEmpty());
+		Assert.assertTrue(mapped.getDescriptions("unknown", null, NO_LANGUAGE_CODES).isEmpty());
+	}
+
+	@Test
+	public final void getDescriptions() throws IOException {
+		MappedDescriptionIndex mapped = MappedDescriptionIndex.open(this.indexFile);
+		// case insensitive vs. case sensitive
+		Assert.assertFalse(mapped.getDescriptions("ORAL tablet", null, NO_LANGUAGE_CODES).isEmpty());
+		Assert.assertTrue(mapped.getExactDescriptions("ORAL tablet", null, NO_LANGUAGE_CODES).isEmpty());
+		Assert.assertFalse(mapped.getExactDescriptions("Oral tablet", null, NO_LANGUAGE_CODES).isEmpty());
+		// namespace partition
+		Assert.assertEquals(1,
+				mapped.getDescriptions("Azathioprin", "1000005", NO_LANGUAGE_CODES).size());
+		Assert.assertTrue(mapped.getDescriptions("Azathioprin", "0", NO_LANGUAGE_CODES).isEmpty());
+		// language partition
+		Assert.assertEquals(1,
+				mapped.getDescriptions("Azathioprin", null, Collections.singleton("da")).size());
+		Assert.assertTrue(mapped.getDescriptions("Azathioprin", null, Collections.singleton("en")).isEmpty());
+	}
+
+	@Test
+	public final void getDescriptionsLeadingZeroNamespace() throws IOException {
+		// extension description ID, namespace 0001234, partition 11
+		Description description = new Description(10001234110L,
+				20001234107L,
+				"da",
+				DescriptionType.PREFERRED_TERM.getId(),
+				"Azathioprin tablet");
+		Assert.assertEquals("0001234",
+				description.getNamespaceId());
+		List<Description> extension = Arrays.asList(description);
+		File file = this.folder.newFile("extension.idx");
+		DescriptionIndexBuilder.write(extension, file);
+		MappedDescriptionIndex mapped = MappedDescriptionIndex.open(file);
+		DescriptionIndex heap = new HeapDescriptionIndex(extension);
+		Assert.assertEquals(1,
+				heap.getDescriptions("Azathioprin tablet", "0001234", NO_LANGUAGE_CODES).size());
+		Assert.assertEquals(toStrings(heap.getDescriptions("Azathioprin tablet", "0001234", NO_LANGUAGE_CODES)),
+				toStrings(mapped.getDescriptions("Azathioprin tablet", "0001234", NO_LANGUAGE_CODES)));
+		Assert.assertEquals(toStrings(heap.getExactDescriptions("Azathioprin tablet", "0001234", Collections.singleton("da"))),
+				toStrings(mapped.getExactDescriptions("Azathioprin tablet", "0001234", Collections.singleton("da"))));
+		Assert.assertTrue(mapped.getDescriptions("Azathioprin tablet", "1234", NO_LANGUAGE_CODES).isEmpty());
+	}
+
+	@Test
+	public final void isUpToDate() throws IOException {
+		Assert.assertTrue(DescriptionIndexBuilder.isUpToDate(SNAPSHOT_DIRECTORY, this.indexFile));
+		// the index file time is irrelevant, ex. restored from a backup
+		Assert.assertTrue(this.indexFile.setLastModified(0L));
+		Assert.assertTrue(DescriptionIndexBuilder.isUpToDate(SNAPSHOT_DIRECTORY, this.indexFile));
+		Assert.assertFalse(DescriptionIndexBuilder.isUpToDate(SNAPSHOT_DIRECTORY, new File(this.folder.getRoot(), "missing.idx")));
+		// other format version
+		File other = this.folder.newFile("other.idx");
+		try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(other))) {
+			dos.writeInt(DescriptionIndexBuilder.MAGIC);
+			dos.writeInt(DescriptionIndexBuilder.VERSION - 1);
+		}
+		Assert.assertFalse(DescriptionIndexBuilder.isUpToDate(SNAPSHOT_DIRECTORY, other));
+	}
+
+	@Test
+	public final void isUpToDateSourceFiles() throws IOException {
+		File directory = this.folder.newFolder("rf2");
+		for (String name : new String[] {"Extension", "International"}) {
+			File target = new File(directory, name);
+			Assert.assertTrue(target.mkdir());
+			for (File file : new File(SNAPSHOT_DIRECTORY, name).listFiles()) {
+				Files.copy(file.toPath(), new File(target, file.getName()).toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+			}
+		}
+		File description = new File(directory, "Extension/sct2_Description_Snapshot-da_DK1000005_20140131.txt"),
+			index = new File(this.folder.getRoot(), "copy.idx");
+		DescriptionIndexBuilder.build(directory, index);
+		Assert.assertTrue(DescriptionIndexBuilder.isUpToDate(directory, index));
+		// replaced by an older file, ie. last modified before the index
+		Assert.assertTrue(description.setLastModified(description.lastModified() - 60000L));
+		Assert.assertFalse(DescriptionIndexBuilder.isUpToDate(directory, index));
+		DescriptionIndexBuilder.build(directory, index);
+		Assert.assertTrue(DescriptionIndexBuilder.isUpToDate(directory, index));
+		// renamed, ex. another release
+		Assert.assertTrue(description.renameTo(new File(directory, "Extension/sct2_Description_Snapshot-da_DK1000005_20140731.txt")));
+		Assert.assertFalse(DescriptionIndexBuilder.isUpToDate(directory, index));
+		DescriptionIndexBuilder.build(directory, index);
+		Assert.assertTrue(DescriptionIndexBuilder.isUpToDate(directory, index));
+		// removed
+		Assert.assertTrue(new File(directory, "Extension/der2_cRefset_LanguageSnapshot-da_DK1000005_20140131.txt").delete());
+		Assert.assertFalse(DescriptionIndexBuilder.isUpToDate(directory, index));
+		// files the index isn't built from are irrelevant
+		DescriptionIndexBuilder.build(directory, index);
+		Assert.assertTrue(new File(directory, "International/sct2_Relationship_Snapshot_INT_20140131.txt").delete());
+		Assert.assertTrue(DescriptionIndexBuilder.isUpToDate(directory, index));
+	}
+
+	@Test(expected = IOException.class)
+	public final void openInvalid() throws IOException {
+		MappedDescriptionIndex.open(new File(SNAPSHOT_DIRECTORY, "International/sct2_Concept_Snapshot_INT_20140131.txt"));
+	}
+}
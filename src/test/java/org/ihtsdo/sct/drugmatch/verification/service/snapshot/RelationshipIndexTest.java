@@ -0,0 +1,128 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class RelationshipIndexTest {
+
+	private static final long HAS_ACTIVE_INGREDIENT_ID = 127489000L,
+			HAS_DOSE_FORM_ID = 411116001L,
+			IS_A_ID = 116680003L;
+
+	private static Set<Long> asSet(final Long... ids) {
+		return new HashSet<>(Arrays.asList(ids));
+	}
+
+	@Test
+	public final void getDescendantOrSelfIds() {
+		RelationshipIndex index = new RelationshipIndex.Builder()
+			.add(2L, IS_A_ID, 1L)
+			.add(3L, IS_A_ID, 2L)
+			.add(3L, IS_A_ID, 1L)
+			.build();
+		Assert.assertEquals(asSet(1L, 2L, 3L),
+				index.getDescendantOrSelfIds(1L));
+		Assert.assertEquals(asSet(4L),
+				index.getDescendantOrSelfIds(4L));
+	}
+
+	@Test
+	public final void getExactAttributeMatches() {
+		RelationshipIndex index = new RelationshipIndex.Builder()
+			// 10: ingredient 100
+			.add(10L, HAS_ACTIVE_INGREDIENT_ID, 100L)
+			// 11: ingredient 100 (duplicated in another relationship group) & dose form 200
+			.add(11L, HAS_ACTIVE_INGREDIENT_ID, 100L)
+			.add(11L, HAS_ACTIVE_INGREDIENT_ID, 100L)
+			.add(11L, HAS_DOSE_FORM_ID, 200L)
+			// 12: ingredients 100 & 101
+			.add(12L, HAS_ACTIVE_INGREDIENT_ID, 100L)
+			.add(12L, HAS_ACTIVE_INGREDIENT_ID, 101L)
+			.build();
+		Set<Long> ingredient = Collections.singleton(HAS_ACTIVE_INGREDIENT_ID);
+		Assert.assertEquals(new TreeSet<>(asSet(10L, 11L)),
+				index.getExactAttributeMatches(ingredient, asSet(100L)));
+		Assert.assertEquals(new TreeSet<>(asSet(12L)),
+				index.getExactAttributeMatches(ingredient, asSet(100L, 101L)));
+		Assert.assertEquals(new TreeSet<>(asSet(11L)),
+				index.getExactAttributeMatches(asSet(HAS_ACTIVE_INGREDIENT_ID, HAS_DOSE_FORM_ID), asSet(100L, 200L)));
+		Assert.assertTrue(index.getExactAttributeMatches(ingredient, asSet(100L, 200L)).isEmpty());
+		Assert.assertTrue(index.getExactAttributeMatches(ingredient, asSet(999L)).isEmpty());
+		Assert.assertTrue(index.getExactAttributeMatches(Collections.<Long>emptySet(), asSet(100L)).isEmpty());
+	}
+
+	/**
+	 * Compare with a naive scan of all sources.
+	 */
+	@Test
+	public final void getExactAttributeMatchesRandom() {
+		Random random = new Random(42L);
+		RelationshipIndex.Builder builder = new RelationshipIndex.Builder();
+		Map<Long, Map<Long, Set<Long>>> sourceId2Attributes = new HashMap<>();
+		long sourceId,
+			typeId,
+			destinationId;
+		for (int i = 0; i < 5000; i++) {
+			sourceId = random.nextInt(1000);
+			typeId = random.nextInt(3);
+			destinationId = 1000 + random.nextInt(20);
+			builder.add(sourceId, typeId, destinationId);
+			Map<Long, Set<Long>> attributes = sourceId2Attributes.get(sourceId);
+			if (attributes == null) {
+				attributes = new HashMap<>();
+				sourceId2Attributes.put(sourceId, attributes);
+			}
+			if (!attributes.containsKey(typeId)) {
+				attributes.put(typeId, new HashSet<Long>());
+			}
+			attributes.get(typeId).add(destinationId);
+		}
+		RelationshipIndex index = builder.build();
+		for (int i = 0; i < 500; i++) {
+			Set<Long> typeIds = asSet((long) random.nextInt(3), (long) random.nextInt(3));
+			Set<Long> destinationIds = new HashSet<>();
+			for (int j = 0, n = 1 + random.nextInt(4); j < n; j++) {
+				destinationIds.add(1000L + random.nextInt(20));
+			}
+			SortedSet<Long> expected = new TreeSet<>();
+			for (Map.Entry<Long, Map<Long, Set<Long>>> entry : sourceId2Attributes.entrySet()) {
+				Set<Long> values = new HashSet<>();
+				for (Long id : typeIds) {
+					if (entry.getValue().containsKey(id)) {
+						values.addAll(entry.getValue().get(id));
+					}
+				}
+				if (values.equals(destinationIds)) {
+					expected.add(entry.getKey());
+				}
+			}
+			Assert.assertEquals(expected,
+					index.getExactAttributeMatches(typeIds, destinationIds));
+		}
+	}
+
+	@Test
+	public final void intersectAndUnion() {
+		long[] a = {1L, 3L, 5L, 7L},
+			b = {3L, 4L, 5L, 8L};
+		Assert.assertArrayEquals(new long[] {3L, 5L},
+				RelationshipIndex.intersect(a, b));
+		Assert.assertArrayEquals(new long[] {1L, 3L, 4L, 5L, 7L, 8L},
+				RelationshipIndex.union(a, b));
+		Assert.assertArrayEquals(new long[0],
+				RelationshipIndex.intersect(a, new long[0]));
+	}
+}
@@ -0,0 +1,146 @@
+package org.ihtsdo.sct.drugmatch.verification.service.snapshot.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ihtsdo.sct.drugmatch.SystemEnvironmentTestSetup;
+import org.ihtsdo.sct.drugmatch.constant.rf1.DescriptionType;
+import org.ihtsdo.sct.drugmatch.exception.DrugMatchConfigurationException;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchProperties;
+import org.ihtsdo.sct.drugmatch.properties.DrugMatchSettings;
+import org.ihtsdo.sct.drugmatch.verification.service.VerificationService;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.ConceptSearchResultDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.healthterm.model.DescriptionDescriptor;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.HeapDescriptionIndex;
+import org.ihtsdo.sct.drugmatch.verification.service.snapshot.RelationshipIndex;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author dev-team@carecom.dk
+ */
+public class SnapshotVerificationServiceImplTest extends SystemEnvironmentTestSetup {
+
+	static final File SNAPSHOT_DIRECTORY = new File("src/test/resource/rf2");
+
+	private static final Long AZATHIOPRINE_SUBSTANCE_ID = Long.valueOf(372574004L),
+			AZATHIOPRINE_PRODUCT_ID = Long.valueOf(373540008L),
+			AZATHIOPRINE_TABLET_ID = Long.valueOf(324509000L),
+			HAS_ACTIVE_INGREDIENT_ID = Long.valueOf(127489000L),
+			HAS_DOSE_FORM_ID = Long.valueOf(411116001L),
+			ORAL_TABLET_ID = Long.valueOf(421026006L);
+
+	private static VerificationService service;
+
+	@BeforeClass
+	public static void load() throws DrugMatchConfigurationException, IOException {
+		service = new SnapshotVerificationServiceImpl(HeapDescriptionIndex.load(SNAPSHOT_DIRECTORY),
+				RelationshipIndex.load(SNAPSHOT_DIRECTORY),
+				DrugMatchSettings.load(new File(System.getProperty(DrugMatchProperties.SETTING_FILE))));
+	}
+
+	private static Set<Long> getIds(final List<ConceptSearchResultDescriptor> descriptors) {
+		Set<Long> result = new HashSet<>();
+		for (ConceptSearchResultDescriptor descriptor : descriptors) {
+			result.add(descriptor.healthtermConceptId);
+		}
+		return result;
+	}
+
+	@Test
+	public final void getAttributeExactMatch() throws DrugMatchConfigurationException, IOException {
+		// exact attributes
+		List<ConceptSearchResultDescriptor> matches = service.getAttributeExactMatch(new HashSet<>(Arrays.asList(HAS_ACTIVE_INGREDIENT_ID, HAS_DOSE_FORM_ID)),
+				new HashSet<>(Arrays.asList(AZATHIOPRINE_SUBSTANCE_ID, ORAL_TABLET_ID)));
+		Assert.assertEquals(1,
+				matches.size());
+		Assert.assertEquals("324509000",
+				matches.get(0).conceptCode);
+		Assert.assertEquals("Azathioprine 10mg tablet",
+				matches.get(0).descriptionTerm);
+		// exact substances only, inactive dose form relationship is ignored
+		matches = service.getAttributeExactMatch(Collections.singleton(HAS_ACTIVE_INGREDIENT_ID),
+				Collections.singleton(AZATHIOPRINE_SUBSTANCE_ID));
+		Assert.assertEquals(new HashSet<>(Arrays.asList(AZATHIOPRINE_PRODUCT_ID, AZATHIOPRINE_TABLET_ID)),
+				getIds(matches));
+		// extra value
+		Assert.assertTrue(service.getAttributeExactMatch(Collections.singleton(HAS_ACTIVE_INGREDIENT_ID),
+				new HashSet<>(Arrays.asList(AZATHIOPRINE_SUBSTANCE_ID, ORAL_TABLET_ID))).isEmpty());
+	}
+
+	@Test
+	public final void getConceptsByIds() throws DrugMatchConfigurationException, IOException {
+		List<ConceptDescriptor> concepts = service.getConceptsByIds(new HashSet<>(Arrays.asList(AZATHIOPRINE_TABLET_ID, Long.valueOf(91000000L))));
+		// inactive concept is skipped
+		Assert.assertEquals(1,
+				concepts.size());
+		ConceptDescriptor concept = concepts.get(0);
+		Assert.assertEquals(AZATHIOPRINE_TABLET_ID,
+				concept.id);
+		Assert.assertEquals("product",
+				concept.hierarchy);
+		// International FSN & synonym + national synonym
+		Assert.assertEquals(3,
+				concept.descriptionDescriptor.size());
+		Set<String> namespaceIds = new HashSet<>();
+		Set<Long> descriptionTypes = new HashSet<>();
+		for (DescriptionDescriptor descriptionDescriptor : concept.descriptionDescriptor) {
+			namespaceIds.add(descriptionDescriptor.getNamespaceId());
+			descriptionTypes.add(descriptionDescriptor.descriptionType);
+		}
+		Assert.assertEquals(new HashSet<>(Arrays.asList("0", "1000005")),
+				namespaceIds);
+		Assert.assertTrue(descriptionTypes.contains(Long.valueOf(DescriptionType.FULLY_SPECIFIED_NAME.getId())));
+	}
+
+	@Test
+	public final void getExactEnglishTermMatch() throws DrugMatchConfigurationException, IOException {
+		// constrained to substances, ie. not the product with the same term
+		List<ConceptSearchResultDescriptor> matches = service.getSubstanceExactEnglishTermMatch("Azathioprine");
+		Assert.assertEquals(1,
+				matches.size());
+		Assert.assertEquals(AZATHIOPRINE_SUBSTANCE_ID,
+				matches.get(0).healthtermConceptId);
+		Assert.assertEquals(Long.valueOf(DescriptionType.PREFERRED_TERM.getId()),
+				matches.get(0).descriptionType);
+		// case insensitive
+		Assert.assertEquals("Oral tablet",
+				service.getDoseFormExactEnglishTermMatch("oral TABLET").get(0).descriptionTerm);
+		// descendant of top point
+		Assert.assertEquals(1,
+				service.getUnitExactEnglishTermMatch("milligram").size());
+		// inactive description
+		Assert.assertTrue(service.getSubstanceExactEnglishTermMatch("Azatioprine").isEmpty());
+		// national description isn't English
+		Assert.assertTrue(service.getSubstanceExactEnglishTermMatch("azathioprin").isEmpty());
+	}
+
+	@Test
+	public final void getExactNationalTermMatch() throws DrugMatchConfigurationException, IOException {
+		List<ConceptSearchResultDescriptor> matches = service.getSubstanceExactNationalTermMatch("Azathioprin");
+		Assert.assertEquals(1,
+				matches.size());
+		Assert.assertEquals("azathioprin",
+				matches.get(0).descriptionTerm);
+		Assert.assertEquals(1,
+				service.getDoseFormExactNationalTermMatch("oral tablet").size());
+		Assert.assertEquals(1,
+				service.getUnitExactNationalTermMatch("mg").size());
+		// International description isn't national
+		Assert.assertTrue(service.getSubstanceExactNationalTermMatch("Azathioprine").isEmpty());
+	}
+
+	@Test
+	public final void getSemanticTag() {
+		Assert.assertEquals("substance",
+				SnapshotVerificationServiceImpl.getSemanticTag("Azathioprine (substance)"));
+		Assert.assertNull(SnapshotVerificationServiceImpl.getSemanticTag("Azathioprine"));
+	}
+}